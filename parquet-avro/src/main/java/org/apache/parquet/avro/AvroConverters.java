@@ -49,6 +49,8 @@ public class AvroConverters {
   }
 
   abstract static class BinaryConverter<T> extends AvroPrimitiveConverter {
+    // values are converted the first time their dictionary id is used
+    private Dictionary dictionary = null;
     private T[] dict = null;
 
     public BinaryConverter(ParentValueContainer parent) {
@@ -70,15 +72,18 @@ public class AvroConverters {
     @Override
     @SuppressWarnings("unchecked")
     public void setDictionary(Dictionary dictionary) {
-      dict = (T[]) new Object[dictionary.getMaxId() + 1];
-      for (int i = 0; i <= dictionary.getMaxId(); i++) {
-        dict[i] = convert(dictionary.decodeToBinary(i));
-      }
+      this.dictionary = dictionary;
+      this.dict = (T[]) new Object[dictionary.getMaxId() + 1];
     }
 
     @Override
     public void addValueFromDictionary(int dictionaryId) {
-      parent.add(dict[dictionaryId]);
+      T value = dict[dictionaryId];
+      if (value == null) {
+        value = convert(dictionary.decodeToBinary(dictionaryId));
+        dict[dictionaryId] = value;
+      }
+      parent.add(value);
     }
   }
 
@@ -233,26 +233,26 @@ class AvroIndexedRecordConverter<T extends IndexedRecord> extends GroupConverter
     return currentRecord;
   }
 
-  static final class FieldEnumConverter extends PrimitiveConverter {
+  // enum symbols are immutable, so they are converted once per dictionary id
+  static final class FieldEnumConverter extends AvroConverters.BinaryConverter<Object> {
 
-    private final ParentValueContainer parent;
     private final Class<? extends Enum> enumClass;
 
     public FieldEnumConverter(ParentValueContainer parent, Schema enumSchema,
         GenericData model) {
-      this.parent = parent;
+      super(parent);
       this.enumClass = model instanceof SpecificData ?
           ((SpecificData) model).getClass(enumSchema) :
           SpecificData.get().getClass(enumSchema);
     }
 
     @Override
-    final public void addBinary(Binary value) {
+    public Object convert(Binary value) {
       Object enumValue = value.toStringUsingUTF8();
       if (enumClass != null) {
         enumValue = (Enum.valueOf(enumClass,(String)enumValue));
       }
-      parent.add(enumValue);
+      return enumValue;
     }
   }
 
@@ -28,6 +28,7 @@ import org.apache.parquet.column.ParquetProperties.WriterVersion;
 import org.apache.parquet.hadoop.ParquetWriter;
 import org.apache.parquet.hadoop.api.WriteSupport;
 import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.OutputFile;
 
 /**
  * Write Avro records to a Parquet file.
@@ -38,6 +39,10 @@ public class AvroParquetWriter<T> extends ParquetWriter<T> {
     return new Builder<T>(file);
   }
 
+  public static <T> Builder<T> builder(OutputFile file) {
+    return new Builder<T>(file);
+  }
+
   /** Create a new {@link AvroParquetWriter}.
    *
    * @param file
@@ -153,6 +158,10 @@ public class AvroParquetWriter<T> extends ParquetWriter<T> {
       super(file);
     }
 
+    private Builder(OutputFile file) {
+      super(file);
+    }
+
     public Builder<T> withSchema(Schema schema) {
       this.schema = schema;
       return this;
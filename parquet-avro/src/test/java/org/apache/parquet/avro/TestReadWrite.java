@@ -176,6 +176,49 @@ public class TestReadWrite {
     assertEquals(map, nextRecord.get("mymap"));
   }
 
+  @Test
+  public void testDictionaryEncodedValues() throws Exception {
+    Schema schema = new Schema.Parser().parse("{\"type\": \"record\", \"name\": \"Shape\", "
+        + "\"fields\": ["
+        + "{\"name\": \"color\", \"type\": {\"type\": \"enum\", \"name\": \"Color\", "
+        + "\"symbols\": [\"RED\", \"GREEN\", \"BLUE\"]}}, "
+        + "{\"name\": \"name\", \"type\": \"string\"}]}");
+    Schema colorSchema = schema.getField("color").schema();
+    String[] colors = { "RED", "GREEN", "BLUE" };
+
+    File tmp = File.createTempFile(getClass().getSimpleName(), ".tmp");
+    tmp.deleteOnExit();
+    tmp.delete();
+    Path file = new Path(tmp.getPath());
+
+    // few distinct values are dictionary encoded
+    ParquetWriter<GenericRecord> writer = AvroParquetWriter
+        .<GenericRecord>builder(file)
+        .withSchema(schema)
+        .withConf(testConf)
+        .withDictionaryEncoding(true)
+        .build();
+    for (int i = 0; i < 1000; i++) {
+      writer.write(new GenericRecordBuilder(schema)
+          .set("color", new GenericData.EnumSymbol(colorSchema, colors[i % 2]))
+          .set("name", "shape-" + (i % 10))
+          .build());
+    }
+    writer.close();
+
+    AvroParquetReader<GenericRecord> reader = new AvroParquetReader<GenericRecord>(testConf, file);
+    for (int i = 0; i < 1000; i++) {
+      GenericRecord record = reader.read();
+      assertNotNull(record);
+      Object expectedColor = compat ? colors[i % 2] :
+          new GenericData.EnumSymbol(colorSchema, colors[i % 2]);
+      assertEquals(expectedColor, record.get("color"));
+      assertEquals(str("shape-" + (i % 10)), record.get("name"));
+    }
+    Assert.assertNull(reader.read());
+    reader.close();
+  }
+
   @Test(expected=RuntimeException.class)
   public void testMapRequiredValueWithNull() throws Exception {
     Schema schema = Schema.createRecord("record1", null, null, false);
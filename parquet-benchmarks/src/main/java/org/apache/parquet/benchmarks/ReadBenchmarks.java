@@ -103,4 +103,18 @@ public class ReadBenchmarks {
   {
     read(file_1M_GZIP, ONE_MILLION, blackhole);
   }
+
+  @Benchmark
+  public void read1MRowsDefaultBlockAndPageSizeLZ4(Blackhole blackhole)
+          throws IOException
+  {
+    read(file_1M_LZ4, ONE_MILLION, blackhole);
+  }
+
+  @Benchmark
+  public void read1MRowsDefaultBlockAndPageSizeZSTD(Blackhole blackhole)
+          throws IOException
+  {
+    read(file_1M_ZSTD, ONE_MILLION, blackhole);
+  }
 }
@@ -31,8 +31,10 @@ import java.io.IOException;
 
 import static org.apache.parquet.column.ParquetProperties.WriterVersion.PARQUET_2_0;
 import static org.apache.parquet.hadoop.metadata.CompressionCodecName.GZIP;
+import static org.apache.parquet.hadoop.metadata.CompressionCodecName.LZ4;
 import static org.apache.parquet.hadoop.metadata.CompressionCodecName.SNAPPY;
 import static org.apache.parquet.hadoop.metadata.CompressionCodecName.UNCOMPRESSED;
+import static org.apache.parquet.hadoop.metadata.CompressionCodecName.ZSTD;
 
 @State(Thread)
 public class WriteBenchmarks {
@@ -156,4 +158,32 @@ public class WriteBenchmarks {
                                GZIP,
                                ONE_MILLION);
   }
+
+  @Benchmark
+  public void write1MRowsDefaultBlockAndPageSizeLZ4()
+          throws IOException
+  {
+    dataGenerator.generateData(file_1M_LZ4,
+                               configuration,
+                               PARQUET_2_0,
+                               BLOCK_SIZE_DEFAULT,
+                               PAGE_SIZE_DEFAULT,
+                               FIXED_LEN_BYTEARRAY_SIZE,
+                               LZ4,
+                               ONE_MILLION);
+  }
+
+  @Benchmark
+  public void write1MRowsDefaultBlockAndPageSizeZSTD()
+          throws IOException
+  {
+    dataGenerator.generateData(file_1M_ZSTD,
+                               configuration,
+                               PARQUET_2_0,
+                               BLOCK_SIZE_DEFAULT,
+                               PAGE_SIZE_DEFAULT,
+                               FIXED_LEN_BYTEARRAY_SIZE,
+                               ZSTD,
+                               ONE_MILLION);
+  }
 }
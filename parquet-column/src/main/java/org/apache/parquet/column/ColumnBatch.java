@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.column;
+
+import org.apache.parquet.Preconditions;
+import org.apache.parquet.io.api.Binary;
+
+/**
+ * A reusable batch of values of a column, filled from a {@link ColumnReader}
+ * with {@link #read(ColumnReader, int)}. Batches of repeated columns also hold
+ * the repetition levels of the values, and a record can span batches.
+ *
+ * Only the value array that matches the primitive type of the column is
+ * allocated; the other getters return null. The values of null entries are
+ * undefined.
+ */
+public class ColumnBatch {
+
+  private final ColumnDescriptor descriptor;
+  private final int capacity;
+  private final int maxDefinitionLevel;
+  private final int[] definitionLevels;
+  private final int[] repetitionLevels;
+  private int[] intValues;
+  private long[] longValues;
+  private float[] floatValues;
+  private double[] doubleValues;
+  private boolean[] booleanValues;
+  private Binary[] binaryValues;
+  private int size;
+
+  /**
+   * @param descriptor the column
+   * @param capacity the maximum number of values in the batch
+   */
+  public ColumnBatch(ColumnDescriptor descriptor, int capacity) {
+    Preconditions.checkArgument(capacity > 0, "Invalid batch capacity: %s", capacity);
+    this.descriptor = descriptor;
+    this.capacity = capacity;
+    this.maxDefinitionLevel = descriptor.getMaxDefinitionLevel();
+    this.definitionLevels = maxDefinitionLevel > 0 ? new int[capacity] : null;
+    this.repetitionLevels = descriptor.getMaxRepetitionLevel() > 0 ? new int[capacity] : null;
+    switch (descriptor.getType()) {
+    case INT32:
+      intValues = new int[capacity];
+      break;
+    case INT64:
+      longValues = new long[capacity];
+      break;
+    case FLOAT:
+      floatValues = new float[capacity];
+      break;
+    case DOUBLE:
+      doubleValues = new double[capacity];
+      break;
+    case BOOLEAN:
+      booleanValues = new boolean[capacity];
+      break;
+    case BINARY:
+    case FIXED_LEN_BYTE_ARRAY:
+    case INT96:
+      binaryValues = new Binary[capacity];
+      break;
+    default:
+      throw new IllegalArgumentException("Unknown type " + descriptor.getType());
+    }
+  }
+
+  /**
+   * Replaces the content of this batch with the next values of a reader.
+   *
+   * @param reader a reader of this batch's column
+   * @param n the number of values to read, at most the capacity
+   * @return the number of values read, less than n only at the end of the column
+   */
+  public int read(ColumnReader reader, int n) {
+    Preconditions.checkArgument(n <= capacity, "Cannot read %s values in a batch of %s", n, capacity);
+    switch (descriptor.getType()) {
+    case INT32:
+      size = reader.readBatch(n, intValues, definitionLevels, repetitionLevels);
+      break;
+    case INT64:
+      size = reader.readBatch(n, longValues, definitionLevels, repetitionLevels);
+      break;
+    case FLOAT:
+      size = reader.readBatch(n, floatValues, definitionLevels, repetitionLevels);
+      break;
+    case DOUBLE:
+      size = reader.readBatch(n, doubleValues, definitionLevels, repetitionLevels);
+      break;
+    case BOOLEAN:
+      size = reader.readBatch(n, booleanValues, definitionLevels, repetitionLevels);
+      break;
+    default:
+      size = reader.readBatch(n, binaryValues, definitionLevels, repetitionLevels);
+      break;
+    }
+    return size;
+  }
+
+  public ColumnDescriptor getDescriptor() {
+    return descriptor;
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * @return the number of values in this batch
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @param index the index of an entry of this batch
+   * @return whether the entry is null
+   */
+  public boolean isNull(int index) {
+    return definitionLevels != null && definitionLevels[index] < maxDefinitionLevel;
+  }
+
+  /**
+   * @return the definition levels of the entries or null if the column is required
+   */
+  public int[] getDefinitionLevels() {
+    return definitionLevels;
+  }
+
+  /**
+   * @return the repetition levels of the entries or null if the column is not repeated
+   */
+  public int[] getRepetitionLevels() {
+    return repetitionLevels;
+  }
+
+  public int[] getIntValues() {
+    return intValues;
+  }
+
+  public long[] getLongValues() {
+    return longValues;
+  }
+
+  public float[] getFloatValues() {
+    return floatValues;
+  }
+
+  public double[] getDoubleValues() {
+    return doubleValues;
+  }
+
+  public boolean[] getBooleanValues() {
+    return booleanValues;
+  }
+
+  public Binary[] getBinaryValues() {
+    return binaryValues;
+  }
+}
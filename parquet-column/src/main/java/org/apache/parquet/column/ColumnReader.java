@@ -71,12 +71,38 @@ public interface ColumnReader {
    */
   void skip();
 
+  /**
+   * Skips the values of the next records, starting with the record of the
+   * current value, and moves to the first value of the record that follows.
+   * The current value must be the first value of its record.
+   *
+   * Values are not decoded when the encoding can move past them directly.
+   *
+   * @param n the number of records to skip
+   * @return the number of records skipped, less than n only at the end of the column
+   */
+  long skipRecords(long n);
+
   /**
    * available when the underlying encoding is dictionary based
    * @return the dictionary id for the current value
    */
   int getCurrentValueDictionaryID();
 
+  /**
+   * Dictionary ids are read when the converter supports dictionaries; values
+   * of other converters are decoded by the page reader.
+   *
+   * @return whether the current value is read as a dictionary id, in which
+   *         case {@link #getCurrentValueDictionaryID()} is available
+   */
+  boolean isCurrentValueDictionaryEncoded();
+
+  /**
+   * @return the dictionary of the column chunk, or null if it has none
+   */
+  Dictionary getDictionary();
+
   /**
    * @return the current value
    */
@@ -112,4 +138,86 @@ public interface ColumnReader {
    */
   ColumnDescriptor getDescriptor();
 
+  /**
+   * Reads a batch of values of a column that is not repeated, starting with
+   * the current value, and moves to the value following the batch.
+   *
+   * Entry i of the batch is null if definitionLevels[i] is lower than the max
+   * definition level of the column, in which case values[i] is undefined.
+   *
+   * @param n the maximum number of values to read
+   * @param values the array to fill, of length at least n
+   * @param definitionLevels the array to fill with the definition levels, of
+   *                         length at least n; may be null if the column is required
+   * @return the number of values read, less than n only at the end of the column
+   * @throws IllegalArgumentException if the column is repeated
+   */
+  int readBatch(int n, int[] values, int[] definitionLevels);
+
+  /**
+   * Reads a batch of values of any column, starting with the current value,
+   * and moves to the value following the batch. A new record starts at each
+   * entry with a repetition level of 0, so n counts values, not records.
+   *
+   * @param n the maximum number of values to read
+   * @param values the array to fill, of length at least n
+   * @param definitionLevels the array to fill with the definition levels, of
+   *                         length at least n; may be null if the column is required
+   * @param repetitionLevels the array to fill with the repetition levels, of
+   *                         length at least n; may be null if the column is not repeated
+   * @return the number of values read, less than n only at the end of the column
+   * @see #readBatch(int, int[], int[])
+   */
+  int readBatch(int n, int[] values, int[] definitionLevels, int[] repetitionLevels);
+
+  /**
+   * @see #readBatch(int, int[], int[])
+   */
+  int readBatch(int n, long[] values, int[] definitionLevels);
+
+  /**
+   * @see #readBatch(int, int[], int[], int[])
+   */
+  int readBatch(int n, long[] values, int[] definitionLevels, int[] repetitionLevels);
+
+  /**
+   * @see #readBatch(int, int[], int[])
+   */
+  int readBatch(int n, float[] values, int[] definitionLevels);
+
+  /**
+   * @see #readBatch(int, int[], int[], int[])
+   */
+  int readBatch(int n, float[] values, int[] definitionLevels, int[] repetitionLevels);
+
+  /**
+   * @see #readBatch(int, int[], int[])
+   */
+  int readBatch(int n, double[] values, int[] definitionLevels);
+
+  /**
+   * @see #readBatch(int, int[], int[], int[])
+   */
+  int readBatch(int n, double[] values, int[] definitionLevels, int[] repetitionLevels);
+
+  /**
+   * @see #readBatch(int, int[], int[])
+   */
+  int readBatch(int n, boolean[] values, int[] definitionLevels);
+
+  /**
+   * @see #readBatch(int, int[], int[], int[])
+   */
+  int readBatch(int n, boolean[] values, int[] definitionLevels, int[] repetitionLevels);
+
+  /**
+   * @see #readBatch(int, int[], int[])
+   */
+  int readBatch(int n, Binary[] values, int[] definitionLevels);
+
+  /**
+   * @see #readBatch(int, int[], int[], int[])
+   */
+  int readBatch(int n, Binary[] values, int[] definitionLevels, int[] repetitionLevels);
+
 }
@@ -18,6 +18,12 @@
  */
 package org.apache.parquet.column;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.apache.parquet.Preconditions;
 import org.apache.parquet.bytes.ByteBufferAllocator;
 import org.apache.parquet.bytes.CapacityByteArrayOutputStream;
@@ -28,12 +34,15 @@ import org.apache.parquet.column.impl.ColumnWriteStoreV1;
 import org.apache.parquet.column.impl.ColumnWriteStoreV2;
 import org.apache.parquet.column.page.PageWriteStore;
 import org.apache.parquet.column.values.ValuesWriter;
+import org.apache.parquet.column.values.bloomfilter.BlockSplitBloomFilter;
 import org.apache.parquet.column.values.bitpacking.DevNullValuesWriter;
 import org.apache.parquet.column.values.factory.DefaultValuesWriterFactory;
 import org.apache.parquet.column.values.rle.RunLengthBitPackingHybridEncoder;
 import org.apache.parquet.column.values.rle.RunLengthBitPackingHybridValuesWriter;
 import org.apache.parquet.column.values.factory.ValuesWriterFactory;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
 import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
 
 /**
  * This class represents all the configurable Parquet properties.
@@ -51,6 +60,18 @@ public class ParquetProperties {
   public static final int DEFAULT_MINIMUM_RECORD_COUNT_FOR_CHECK = 100;
   public static final int DEFAULT_MAXIMUM_RECORD_COUNT_FOR_CHECK = 10000;
 
+  public static final int DEFAULT_MAX_BLOOM_FILTER_BYTES = BlockSplitBloomFilter.DEFAULT_MAXIMUM_BYTES;
+  public static final int DEFAULT_STATISTICS_TRUNCATE_LENGTH = 64;
+  public static final int DEFAULT_PAGE_ROW_COUNT_LIMIT = Integer.MAX_VALUE;
+  public static final int DEFAULT_PAGE_ROW_COUNT_MINIMUM = 1;
+  public static final boolean DEFAULT_IS_COMPRESSED_PAGE_SIZE = false;
+
+  /**
+   * @deprecated the default factory is initialized with the properties of
+   *             each writer, properties that are built without a factory
+   *             use a new {@link DefaultValuesWriterFactory} instead
+   */
+  @Deprecated
   public static final ValuesWriterFactory DEFAULT_VALUES_WRITER_FACTORY = new DefaultValuesWriterFactory();
 
   private static final int MIN_SLAB_SIZE = 64;
@@ -86,10 +107,27 @@ public class ParquetProperties {
   private final boolean estimateNextSizeCheck;
   private final ByteBufferAllocator allocator;
   private final ValuesWriterFactory valuesWriterFactory;
+  // column path => expected number of distinct values (0 if unknown)
+  private final Map<String, Long> bloomFilterColumns;
+  private final int maxBloomFilterBytes;
+  private final int statisticsTruncateLength;
+  private final List<String> sortingColumns;
+  private final Map<String, Integer> columnPageSizes;
+  private final int pageRowCountLimit;
+  private final int pageRowCountMinimum;
+  private final boolean compressedPageSize;
+  private final Map<String, Boolean> columnDictionaryEnabled;
+  private final Map<String, Integer> columnDictionaryPageSizes;
+  private final Map<String, WriterVersion> columnValuesWriterVersions;
 
   private ParquetProperties(WriterVersion writerVersion, int pageSize, int dictPageSize, boolean enableDict, int minRowCountForPageSizeCheck,
                             int maxRowCountForPageSizeCheck, boolean estimateNextSizeCheck, ByteBufferAllocator allocator,
-                            ValuesWriterFactory writerFactory) {
+                            ValuesWriterFactory writerFactory, Map<String, Long> bloomFilterColumns, int maxBloomFilterBytes,
+                            int statisticsTruncateLength, List<String> sortingColumns,
+                            Map<String, Integer> columnPageSizes, int pageRowCountLimit,
+                            int pageRowCountMinimum, boolean compressedPageSize,
+                            Map<String, Boolean> columnDictionaryEnabled, Map<String, Integer> columnDictionaryPageSizes,
+                            Map<String, WriterVersion> columnValuesWriterVersions) {
     this.pageSizeThreshold = pageSize;
     this.initialSlabSize = CapacityByteArrayOutputStream
       .initialSlabSizeHeuristic(MIN_SLAB_SIZE, pageSizeThreshold, 10);
@@ -102,6 +140,18 @@ public class ParquetProperties {
     this.allocator = allocator;
 
     this.valuesWriterFactory = writerFactory;
+    this.bloomFilterColumns = Collections.unmodifiableMap(new HashMap<String, Long>(bloomFilterColumns));
+    this.maxBloomFilterBytes = maxBloomFilterBytes;
+    this.statisticsTruncateLength = statisticsTruncateLength;
+    this.sortingColumns = Collections.unmodifiableList(new ArrayList<String>(sortingColumns));
+    this.columnPageSizes = Collections.unmodifiableMap(new HashMap<String, Integer>(columnPageSizes));
+    this.pageRowCountLimit = pageRowCountLimit;
+    this.pageRowCountMinimum = pageRowCountMinimum;
+    this.compressedPageSize = compressedPageSize;
+    this.columnDictionaryEnabled = Collections.unmodifiableMap(new HashMap<String, Boolean>(columnDictionaryEnabled));
+    this.columnDictionaryPageSizes = Collections.unmodifiableMap(new HashMap<String, Integer>(columnDictionaryPageSizes));
+    this.columnValuesWriterVersions = Collections.unmodifiableMap(
+        new HashMap<String, WriterVersion>(columnValuesWriterVersions));
   }
 
   public ValuesWriter newRepetitionLevelWriter(ColumnDescriptor path) {
@@ -138,10 +188,91 @@ public class ParquetProperties {
     return valuesWriterFactory.newValuesWriter(path);
   }
 
+  /**
+   * Creates the Bloom filter of a column chunk if it is enabled for the column.
+   *
+   * @param path the column
+   * @return an empty Bloom filter or null if the column has no Bloom filter
+   */
+  public BlockSplitBloomFilter newBloomFilter(ColumnDescriptor path) {
+    Long ndv = bloomFilterColumns.get(ColumnPath.get(path.getPath()).toDotString());
+    if (ndv == null || path.getType() == PrimitiveTypeName.BOOLEAN) {
+      return null;
+    }
+    int numBytes = maxBloomFilterBytes;
+    if (ndv > 0) {
+      numBytes = Math.min(numBytes,
+          BlockSplitBloomFilter.optimalNumOfBits(ndv, BlockSplitBloomFilter.DEFAULT_FPP) / 8);
+    }
+    return new BlockSplitBloomFilter(numBytes);
+  }
+
+  public Map<String, Long> getBloomFilterColumns() {
+    return bloomFilterColumns;
+  }
+
+  public int getMaxBloomFilterBytes() {
+    return maxBloomFilterBytes;
+  }
+
+  /**
+   * @return the length of the lower and upper bounds written instead of
+   *         binary min and max statistics that are too large, 0 if the
+   *         statistics are dropped instead
+   */
+  public int getStatisticsTruncateLength() {
+    return statisticsTruncateLength;
+  }
+
+  /**
+   * @return the dot-separated paths of the columns the records are sorted
+   *         by, in ascending order with nulls first, or an empty list
+   */
+  public List<String> getSortingColumns() {
+    return sortingColumns;
+  }
+
   public int getPageSizeThreshold() {
     return pageSizeThreshold;
   }
 
+  /**
+   * @param path a column
+   * @return the page size of the column, which is the default page size
+   *         unless it is set for the column
+   */
+  public int getPageSizeThreshold(ColumnDescriptor path) {
+    return getColumnProperty(columnPageSizes, path, pageSizeThreshold);
+  }
+
+  public Map<String, Integer> getColumnPageSizes() {
+    return columnPageSizes;
+  }
+
+  /**
+   * @return the maximum number of rows in a page
+   */
+  public int getPageRowCountLimit() {
+    return pageRowCountLimit;
+  }
+
+  /**
+   * @return the minimum number of rows in a page, pages that reach their size
+   *         with fewer rows are written once they hold this number of rows
+   */
+  public int getPageRowCountMinimum() {
+    return pageRowCountMinimum;
+  }
+
+  /**
+   * @return whether the page sizes are compressed sizes, which the column
+   *         writers convert to encoded sizes with the compression ratio of
+   *         the pages they already wrote
+   */
+  public boolean isCompressedPageSize() {
+    return compressedPageSize;
+  }
+
   public int getInitialSlabSize() {
     return initialSlabSize;
   }
@@ -150,14 +281,61 @@ public class ParquetProperties {
     return dictionaryPageSizeThreshold;
   }
 
+  /**
+   * @param path a column
+   * @return the dictionary size limit of the column, which is the default
+   *         dictionary page size unless it is set for the column
+   */
+  public int getDictionaryPageSizeThreshold(ColumnDescriptor path) {
+    return getColumnProperty(columnDictionaryPageSizes, path, dictionaryPageSizeThreshold);
+  }
+
+  public Map<String, Integer> getColumnDictionaryPageSizes() {
+    return columnDictionaryPageSizes;
+  }
+
   public WriterVersion getWriterVersion() {
     return writerVersion;
   }
 
+  /**
+   * @param path a column
+   * @return the version of the value encodings of the column, which is the
+   *         writer version unless it is set for the column
+   */
+  public WriterVersion getValuesWriterVersion(ColumnDescriptor path) {
+    return getColumnProperty(columnValuesWriterVersions, path, writerVersion);
+  }
+
+  public Map<String, WriterVersion> getColumnValuesWriterVersions() {
+    return columnValuesWriterVersions;
+  }
+
   public boolean isEnableDictionary() {
     return enableDictionary;
   }
 
+  /**
+   * @param path a column
+   * @return whether dictionary encoding is enabled for the column, which is
+   *         the default unless it is set for the column
+   */
+  public boolean isEnableDictionary(ColumnDescriptor path) {
+    return getColumnProperty(columnDictionaryEnabled, path, enableDictionary);
+  }
+
+  public Map<String, Boolean> getColumnDictionaryEnabled() {
+    return columnDictionaryEnabled;
+  }
+
+  private static <V> V getColumnProperty(Map<String, V> columnValues, ColumnDescriptor path, V defaultValue) {
+    if (columnValues.isEmpty()) {
+      return defaultValue;
+    }
+    V value = columnValues.get(ColumnPath.get(path.getPath()).toDotString());
+    return value == null ? defaultValue : value;
+  }
+
   public ByteBufferAllocator getAllocator() {
     return allocator;
   }
@@ -207,7 +385,19 @@ public class ParquetProperties {
     private int maxRowCountForPageSizeCheck = DEFAULT_MAXIMUM_RECORD_COUNT_FOR_CHECK;
     private boolean estimateNextSizeCheck = DEFAULT_ESTIMATE_ROW_COUNT_FOR_PAGE_SIZE_CHECK;
     private ByteBufferAllocator allocator = new HeapByteBufferAllocator();
-    private ValuesWriterFactory valuesWriterFactory = DEFAULT_VALUES_WRITER_FACTORY;
+    // a new default factory is created for each build unless one is set
+    private ValuesWriterFactory valuesWriterFactory = null;
+    private Map<String, Long> bloomFilterColumns = new HashMap<String, Long>();
+    private int maxBloomFilterBytes = DEFAULT_MAX_BLOOM_FILTER_BYTES;
+    private int statisticsTruncateLength = DEFAULT_STATISTICS_TRUNCATE_LENGTH;
+    private List<String> sortingColumns = new ArrayList<String>();
+    private Map<String, Integer> columnPageSizes = new HashMap<String, Integer>();
+    private int pageRowCountLimit = DEFAULT_PAGE_ROW_COUNT_LIMIT;
+    private int pageRowCountMinimum = DEFAULT_PAGE_ROW_COUNT_MINIMUM;
+    private boolean compressedPageSize = DEFAULT_IS_COMPRESSED_PAGE_SIZE;
+    private Map<String, Boolean> columnDictionaryEnabled = new HashMap<String, Boolean>();
+    private Map<String, Integer> columnDictionaryPageSizes = new HashMap<String, Integer>();
+    private Map<String, WriterVersion> columnValuesWriterVersions = new HashMap<String, WriterVersion>();
 
     private Builder() {
     }
@@ -220,6 +410,17 @@ public class ParquetProperties {
       this.maxRowCountForPageSizeCheck = toCopy.maxRowCountForPageSizeCheck;
       this.estimateNextSizeCheck = toCopy.estimateNextSizeCheck;
       this.allocator = toCopy.allocator;
+      this.bloomFilterColumns = new HashMap<String, Long>(toCopy.bloomFilterColumns);
+      this.maxBloomFilterBytes = toCopy.maxBloomFilterBytes;
+      this.statisticsTruncateLength = toCopy.statisticsTruncateLength;
+      this.sortingColumns = new ArrayList<String>(toCopy.sortingColumns);
+      this.columnPageSizes = new HashMap<String, Integer>(toCopy.columnPageSizes);
+      this.pageRowCountLimit = toCopy.pageRowCountLimit;
+      this.pageRowCountMinimum = toCopy.pageRowCountMinimum;
+      this.compressedPageSize = toCopy.compressedPageSize;
+      this.columnDictionaryEnabled = new HashMap<String, Boolean>(toCopy.columnDictionaryEnabled);
+      this.columnDictionaryPageSizes = new HashMap<String, Integer>(toCopy.columnDictionaryPageSizes);
+      this.columnValuesWriterVersions = new HashMap<String, WriterVersion>(toCopy.columnValuesWriterVersions);
     }
 
     /**
@@ -235,6 +436,65 @@ public class ParquetProperties {
       return this;
     }
 
+    /**
+     * Set the page size of a column, overriding the default page size. Wide
+     * columns can use smaller pages and narrow columns larger ones so that
+     * their pages hold a similar number of rows.
+     *
+     * @param columnPath the dot-separated path of the column
+     * @param pageSize an integer size in bytes
+     * @return this builder for method chaining.
+     */
+    public Builder withPageSize(String columnPath, int pageSize) {
+      Preconditions.checkArgument(pageSize > 0,
+          "Invalid page size for column %s (negative): %s", columnPath, pageSize);
+      columnPageSizes.put(columnPath, pageSize);
+      return this;
+    }
+
+    /**
+     * Set the maximum number of rows in a page. Pages of narrow columns are
+     * written once they reach this number of rows, even if they are smaller
+     * than the page size, which keeps them small enough to be skipped.
+     *
+     * @param rowCount the maximum number of rows in a page
+     * @return this builder for method chaining.
+     */
+    public Builder withPageRowCountLimit(int rowCount) {
+      Preconditions.checkArgument(rowCount > 0,
+          "Invalid row count limit for pages: %s", rowCount);
+      this.pageRowCountLimit = rowCount;
+      return this;
+    }
+
+    /**
+     * Set the minimum number of rows in a page. Pages of wide columns that
+     * reach their size with fewer rows are written once they hold this
+     * number of rows, so that a page is not written for every few values.
+     *
+     * @param rowCount the minimum number of rows in a page
+     * @return this builder for method chaining.
+     */
+    public Builder withPageRowCountMinimum(int rowCount) {
+      Preconditions.checkArgument(rowCount > 0,
+          "Invalid minimum row count for pages: %s", rowCount);
+      this.pageRowCountMinimum = rowCount;
+      return this;
+    }
+
+    /**
+     * Enable or disable compressed page sizes. When enabled, the page sizes
+     * are the sizes of the compressed pages: each column writer scales its
+     * page size by the compression ratio of the pages it already wrote.
+     *
+     * @param compressedPageSize whether the page sizes are compressed sizes
+     * @return this builder for method chaining.
+     */
+    public Builder withCompressedPageSize(boolean compressedPageSize) {
+      this.compressedPageSize = compressedPageSize;
+      return this;
+    }
+
     /**
      * Enable or disable dictionary encoding.
      *
@@ -246,6 +506,20 @@ public class ParquetProperties {
       return this;
     }
 
+    /**
+     * Enable or disable dictionary encoding of a column, overriding the
+     * default. Columns of unique values such as identifiers can skip the
+     * dictionary that they would fall back from anyway.
+     *
+     * @param columnPath the dot-separated path of the column
+     * @param enableDictionary whether dictionary encoding should be enabled
+     * @return this builder for method chaining.
+     */
+    public Builder withDictionaryEncoding(String columnPath, boolean enableDictionary) {
+      columnDictionaryEnabled.put(columnPath, enableDictionary);
+      return this;
+    }
+
     /**
      * Set the Parquet format dictionary page size.
      *
@@ -259,6 +533,22 @@ public class ParquetProperties {
       return this;
     }
 
+    /**
+     * Set the dictionary page size of a column, overriding the default. The
+     * column falls back from dictionary encoding once its dictionary is
+     * larger than this size.
+     *
+     * @param columnPath the dot-separated path of the column
+     * @param dictionaryPageSize an integer size in bytes
+     * @return this builder for method chaining.
+     */
+    public Builder withDictionaryPageSize(String columnPath, int dictionaryPageSize) {
+      Preconditions.checkArgument(dictionaryPageSize > 0,
+          "Invalid dictionary page size for column %s (negative): %s", columnPath, dictionaryPageSize);
+      columnDictionaryPageSizes.put(columnPath, dictionaryPageSize);
+      return this;
+    }
+
     /**
      * Set the {@link WriterVersion format version}.
      *
@@ -270,6 +560,23 @@ public class ParquetProperties {
       return this;
     }
 
+    /**
+     * Set the {@link WriterVersion format version} of the value encodings of
+     * a column, overriding the writer version. The default values writer
+     * factory uses the v2 encodings, such as delta encodings, for columns set
+     * to {@link WriterVersion#PARQUET_2_0}. The page format still follows the
+     * writer version.
+     *
+     * @param columnPath the dot-separated path of the column
+     * @param version a {@code WriterVersion}
+     * @return this builder for method chaining.
+     */
+    public Builder withValuesWriterVersion(String columnPath, WriterVersion version) {
+      Preconditions.checkNotNull(version, "version");
+      columnValuesWriterVersions.put(columnPath, version);
+      return this;
+    }
+
     public Builder withMinRowCountForPageSizeCheck(int min) {
       Preconditions.checkArgument(min > 0,
           "Invalid row count for page size check (negative): %s", min);
@@ -302,11 +609,102 @@ public class ParquetProperties {
       return this;
     }
 
+    /**
+     * Enable or disable the Bloom filter of a column.
+     *
+     * @param columnPath the dot-separated path of the column
+     * @param enabled whether a Bloom filter should be written for the column
+     * @return this builder for method chaining.
+     */
+    public Builder withBloomFilterEnabled(String columnPath, boolean enabled) {
+      if (!enabled) {
+        bloomFilterColumns.remove(columnPath);
+      } else if (!bloomFilterColumns.containsKey(columnPath)) {
+        bloomFilterColumns.put(columnPath, 0L);
+      }
+      return this;
+    }
+
+    /**
+     * Enable the Bloom filter of a column and size it for the expected number
+     * of distinct values in a row group.
+     *
+     * @param columnPath the dot-separated path of the column
+     * @param ndv the expected number of distinct values
+     * @return this builder for method chaining.
+     */
+    public Builder withBloomFilterNDV(String columnPath, long ndv) {
+      Preconditions.checkArgument(ndv > 0,
+          "Invalid number of distinct values for the Bloom filter: %s", ndv);
+      bloomFilterColumns.put(columnPath, ndv);
+      return this;
+    }
+
+    /**
+     * Set the maximum size of a Bloom filter. Bloom filters of columns
+     * without an expected number of distinct values use this size.
+     *
+     * @param maxBloomFilterBytes an integer size in bytes
+     * @return this builder for method chaining.
+     */
+    public Builder withMaxBloomFilterBytes(int maxBloomFilterBytes) {
+      Preconditions.checkArgument(maxBloomFilterBytes > 0,
+          "Invalid max Bloom filter size (negative): %s", maxBloomFilterBytes);
+      this.maxBloomFilterBytes = maxBloomFilterBytes;
+      return this;
+    }
+
+    /**
+     * Set the length of the lower and upper bounds that are written in the
+     * footer when the min and max statistics of a binary column are too
+     * large to be written. The statistics are dropped when it is 0.
+     *
+     * @param statisticsTruncateLength a length in bytes
+     * @return this builder for method chaining.
+     */
+    public Builder withStatisticsTruncateLength(int statisticsTruncateLength) {
+      Preconditions.checkArgument(statisticsTruncateLength >= 0,
+          "Invalid statistics truncate length (negative): %s", statisticsTruncateLength);
+      this.statisticsTruncateLength = statisticsTruncateLength;
+      return this;
+    }
+
+    /**
+     * Declare the columns the records are sorted by. The records must be
+     * written in ascending order of these columns, with nulls first, and
+     * the writer fails on a record that is out of order. The columns are
+     * recorded in the metadata of each row group.
+     *
+     * @param columnPaths the dot-separated paths of the sorting columns,
+     *                    starting with the leading sort key
+     * @return this builder for method chaining.
+     */
+    public Builder withSortingColumns(String... columnPaths) {
+      Preconditions.checkNotNull(columnPaths, "columnPaths");
+      List<String> columns = new ArrayList<String>();
+      for (String columnPath : columnPaths) {
+        Preconditions.checkArgument(columnPath != null && !columnPath.isEmpty(),
+            "Invalid sorting column: %s", columnPath);
+        columns.add(columnPath);
+      }
+      this.sortingColumns = columns;
+      return this;
+    }
+
     public ParquetProperties build() {
+      Preconditions.checkArgument(pageRowCountMinimum <= pageRowCountLimit,
+          "Invalid minimum row count for pages: %s is larger than the limit %s",
+          pageRowCountMinimum, pageRowCountLimit);
+      ValuesWriterFactory valuesWriterFactory = this.valuesWriterFactory != null
+          ? this.valuesWriterFactory
+          : new DefaultValuesWriterFactory();
       ParquetProperties properties =
         new ParquetProperties(writerVersion, pageSize, dictPageSize,
           enableDict, minRowCountForPageSizeCheck, maxRowCountForPageSizeCheck,
-          estimateNextSizeCheck, allocator, valuesWriterFactory);
+          estimateNextSizeCheck, allocator, valuesWriterFactory,
+          bloomFilterColumns, maxBloomFilterBytes, statisticsTruncateLength, sortingColumns,
+          columnPageSizes, pageRowCountLimit, pageRowCountMinimum, compressedPageSize, columnDictionaryEnabled, columnDictionaryPageSizes,
+          columnValuesWriterVersions);
       // we pass a constructed but uninitialized factory to ParquetProperties above as currently
       // creation of ValuesWriters is invoked from within ParquetProperties. In the future
       // we'd like to decouple that and won't need to pass an object to properties and then pass the
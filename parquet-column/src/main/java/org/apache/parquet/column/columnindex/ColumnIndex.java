@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.column.columnindex;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+
+/**
+ * The min/max values and null counts of every data page of a column chunk.
+ * Page {@code i} of the column index describes page {@code i} of the matching
+ * {@link OffsetIndex}.
+ *
+ * A column index is only written when statistics are available for every page
+ * of the column chunk, so it can be used to decide which pages may contain
+ * values matching a filter.
+ */
+public class ColumnIndex {
+
+  private final PrimitiveTypeName type;
+  private final boolean[] nullPages;
+  private final long[] nullCounts;
+  private final List<byte[]> minValues;
+  private final List<byte[]> maxValues;
+
+  /**
+   * @param type the physical type of the column
+   * @param nullPages whether each page contains only null values
+   * @param nullCounts the number of nulls in each page
+   * @param minValues the serialized min value of each page (empty for null pages)
+   * @param maxValues the serialized max value of each page (empty for null pages)
+   */
+  public ColumnIndex(PrimitiveTypeName type, boolean[] nullPages, long[] nullCounts,
+                     List<byte[]> minValues, List<byte[]> maxValues) {
+    if (nullPages.length != nullCounts.length
+        || nullPages.length != minValues.size()
+        || nullPages.length != maxValues.size()) {
+      throw new IllegalArgumentException("Inconsistent page counts in column index: "
+          + nullPages.length + " null pages, " + nullCounts.length + " null counts, "
+          + minValues.size() + " min values, " + maxValues.size() + " max values");
+    }
+    this.type = type;
+    this.nullPages = nullPages;
+    this.nullCounts = nullCounts;
+    this.minValues = minValues;
+    this.maxValues = maxValues;
+  }
+
+  public PrimitiveTypeName getType() {
+    return type;
+  }
+
+  public int getPageCount() {
+    return nullPages.length;
+  }
+
+  /**
+   * @param pageIndex the index of a page in the column chunk
+   * @return true if the page contains only null values
+   */
+  public boolean isNullPage(int pageIndex) {
+    return nullPages[pageIndex];
+  }
+
+  public long getNullCount(int pageIndex) {
+    return nullCounts[pageIndex];
+  }
+
+  public byte[] getMinBytes(int pageIndex) {
+    return minValues.get(pageIndex);
+  }
+
+  public byte[] getMaxBytes(int pageIndex) {
+    return maxValues.get(pageIndex);
+  }
+
+  /**
+   * @param pageIndex the index of a page in the column chunk
+   * @return the statistics of the page, with min/max set only for non-null pages
+   */
+  public Statistics<?> getPageStatistics(int pageIndex) {
+    Statistics<?> stats = Statistics.getStatsBasedOnType(type);
+    if (!nullPages[pageIndex]) {
+      stats.setMinMaxFromBytes(minValues.get(pageIndex), maxValues.get(pageIndex));
+    }
+    stats.setNumNulls(nullCounts[pageIndex]);
+    return stats;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("ColumnIndex{").append(type);
+    for (int i = 0; i < getPageCount(); i += 1) {
+      sb.append(", ").append(i).append(": ").append(getPageStatistics(i));
+    }
+    return sb.append('}').toString();
+  }
+
+  /**
+   * Builds a {@link ColumnIndex} from the statistics of the pages of a column
+   * chunk as they are written.
+   */
+  public static class Builder {
+    private final PrimitiveTypeName type;
+    private final long maxValueSize;
+    private final List<Boolean> nullPages = new ArrayList<Boolean>();
+    private final List<Long> nullCounts = new ArrayList<Long>();
+    private final List<byte[]> minValues = new ArrayList<byte[]>();
+    private final List<byte[]> maxValues = new ArrayList<byte[]>();
+    private boolean valid = true;
+
+    /**
+     * @param type the physical type of the column
+     * @param maxValueSize min and max values larger than this size invalidate the index
+     */
+    public Builder(PrimitiveTypeName type, long maxValueSize) {
+      this.type = type;
+      this.maxValueSize = maxValueSize;
+    }
+
+    /**
+     * Adds the statistics of the next page.
+     * @param stats the statistics of the page
+     */
+    public void add(Statistics<?> stats) {
+      if (!valid) {
+        return;
+      }
+      if (stats == null || (stats.hasNonNullValue() && !stats.isSmallerThan(maxValueSize))) {
+        // without min/max for every page, the index cannot be used for filtering
+        invalidate();
+        return;
+      }
+      if (stats.hasNonNullValue()) {
+        nullPages.add(false);
+        minValues.add(stats.getMinBytes());
+        maxValues.add(stats.getMaxBytes());
+      } else {
+        nullPages.add(true);
+        minValues.add(new byte[0]);
+        maxValues.add(new byte[0]);
+      }
+      nullCounts.add(stats.getNumNulls());
+    }
+
+    /**
+     * Marks this column index as not usable, for example because some pages
+     * were written without statistics.
+     */
+    public void invalidate() {
+      this.valid = false;
+      nullPages.clear();
+      nullCounts.clear();
+      minValues.clear();
+      maxValues.clear();
+    }
+
+    /**
+     * @return the column index or null if it could not be built
+     */
+    public ColumnIndex build() {
+      if (!valid || nullPages.isEmpty()) {
+        return null;
+      }
+      boolean[] nulls = new boolean[nullPages.size()];
+      long[] counts = new long[nullCounts.size()];
+      for (int i = 0; i < nulls.length; i += 1) {
+        nulls[i] = nullPages.get(i);
+        counts[i] = nullCounts.get(i);
+      }
+      return new ColumnIndex(type, nulls, counts,
+          new ArrayList<byte[]>(minValues), new ArrayList<byte[]>(maxValues));
+    }
+  }
+}
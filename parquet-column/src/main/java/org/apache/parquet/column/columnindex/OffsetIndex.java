@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.column.columnindex;
+
+import java.util.Arrays;
+
+/**
+ * The location and first row index of every data page of a column chunk.
+ *
+ * Offsets point to the start of the page header and compressed page sizes
+ * include the header, so a page can be read with a single seek.
+ */
+public class OffsetIndex {
+
+  private final long[] offsets;
+  private final int[] compressedPageSizes;
+  private final long[] firstRowIndexes;
+
+  /**
+   * @param offsets the file offset of each page header
+   * @param compressedPageSizes the size of each page including its header
+   * @param firstRowIndexes the index, within the row group, of the first row of each page
+   */
+  public OffsetIndex(long[] offsets, int[] compressedPageSizes, long[] firstRowIndexes) {
+    if (offsets.length != compressedPageSizes.length || offsets.length != firstRowIndexes.length) {
+      throw new IllegalArgumentException("Inconsistent page counts in offset index: "
+          + offsets.length + " offsets, " + compressedPageSizes.length + " sizes, "
+          + firstRowIndexes.length + " first row indexes");
+    }
+    this.offsets = offsets;
+    this.compressedPageSizes = compressedPageSizes;
+    this.firstRowIndexes = firstRowIndexes;
+  }
+
+  public int getPageCount() {
+    return offsets.length;
+  }
+
+  public long getOffset(int pageIndex) {
+    return offsets[pageIndex];
+  }
+
+  public int getCompressedPageSize(int pageIndex) {
+    return compressedPageSizes[pageIndex];
+  }
+
+  public long getFirstRowIndex(int pageIndex) {
+    return firstRowIndexes[pageIndex];
+  }
+
+  /**
+   * @param pageIndex the index of a page in the column chunk
+   * @param rowGroupRowCount the number of rows in the row group
+   * @return the index of the last row of the page (inclusive)
+   */
+  public long getLastRowIndex(int pageIndex, long rowGroupRowCount) {
+    int nextPageIndex = pageIndex + 1;
+    return (nextPageIndex >= offsets.length ? rowGroupRowCount : firstRowIndexes[nextPageIndex]) - 1;
+  }
+
+  @Override
+  public String toString() {
+    return "OffsetIndex{offsets=" + Arrays.toString(offsets)
+        + ", sizes=" + Arrays.toString(compressedPageSizes)
+        + ", firstRows=" + Arrays.toString(firstRowIndexes) + "}";
+  }
+
+  /**
+   * Builds an {@link OffsetIndex} as pages are written. Offsets are tracked
+   * relative to the first page and shifted once the position of the column
+   * chunk in the file is known.
+   */
+  public static class Builder {
+    private long[] offsets = new long[16];
+    private int[] compressedPageSizes = new int[16];
+    private long[] firstRowIndexes = new long[16];
+    private int pageCount = 0;
+    private long nextOffset = 0;
+    private long nextRowIndex = 0;
+    private boolean valid = true;
+
+    /**
+     * Adds the next page.
+     * @param compressedPageSize the size of the page including its header
+     * @param rowCount the number of rows in the page
+     */
+    public void add(int compressedPageSize, long rowCount) {
+      if (pageCount == offsets.length) {
+        offsets = Arrays.copyOf(offsets, pageCount * 2);
+        compressedPageSizes = Arrays.copyOf(compressedPageSizes, pageCount * 2);
+        firstRowIndexes = Arrays.copyOf(firstRowIndexes, pageCount * 2);
+      }
+      offsets[pageCount] = nextOffset;
+      compressedPageSizes[pageCount] = compressedPageSize;
+      firstRowIndexes[pageCount] = nextRowIndex;
+      pageCount += 1;
+      nextOffset += compressedPageSize;
+      nextRowIndex += rowCount;
+    }
+
+    /**
+     * Marks this offset index as not usable, for example because the row
+     * count of some pages is not known.
+     */
+    public void invalidate() {
+      this.valid = false;
+    }
+
+    /**
+     * @param firstPageOffset the file offset of the first data page
+     * @return the offset index or null if it could not be built
+     */
+    public OffsetIndex build(long firstPageOffset) {
+      if (!valid || pageCount == 0) {
+        return null;
+      }
+      long[] fileOffsets = new long[pageCount];
+      for (int i = 0; i < pageCount; i += 1) {
+        fileOffsets[i] = offsets[i] + firstPageOffset;
+      }
+      return new OffsetIndex(fileOffsets,
+          Arrays.copyOf(compressedPageSizes, pageCount),
+          Arrays.copyOf(firstRowIndexes, pageCount));
+    }
+  }
+}
@@ -0,0 +1,241 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.column.columnindex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A sorted set of disjoint row index ranges within a row group. Used to
+ * describe which rows may match a filter based on the page-level
+ * {@link ColumnIndex} and {@link OffsetIndex} of the filtered columns.
+ */
+public class RowRanges {
+
+  /**
+   * An inclusive range of row indexes [from, to].
+   */
+  public static class Range {
+    private final long from;
+    private final long to;
+
+    public Range(long from, long to) {
+      if (from > to) {
+        throw new IllegalArgumentException("Invalid range [" + from + ", " + to + "]");
+      }
+      this.from = from;
+      this.to = to;
+    }
+
+    public long getFrom() {
+      return from;
+    }
+
+    public long getTo() {
+      return to;
+    }
+
+    public long count() {
+      return to - from + 1;
+    }
+
+    boolean isOverlapping(long from, long to) {
+      return this.from <= to && from <= this.to;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof Range)) {
+        return false;
+      }
+      Range range = (Range) other;
+      return from == range.from && to == range.to;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * (int) (from ^ (from >>> 32)) + (int) (to ^ (to >>> 32));
+    }
+
+    @Override
+    public String toString() {
+      return "[" + from + ", " + to + "]";
+    }
+  }
+
+  private static final Comparator<Range> BY_START = new Comparator<Range>() {
+    @Override
+    public int compare(Range r1, Range r2) {
+      return r1.from < r2.from ? -1 : (r1.from == r2.from ? 0 : 1);
+    }
+  };
+
+  private static final RowRanges EMPTY = new RowRanges(Collections.<Range>emptyList());
+
+  /**
+   * @param rowCount the number of rows in the row group
+   * @return the ranges containing every row of the row group
+   */
+  public static RowRanges all(long rowCount) {
+    if (rowCount <= 0) {
+      return EMPTY;
+    }
+    return new RowRanges(Collections.singletonList(new Range(0, rowCount - 1)));
+  }
+
+  public static RowRanges empty() {
+    return EMPTY;
+  }
+
+  /**
+   * @return the rows contained in either left or right
+   */
+  public static RowRanges union(RowRanges left, RowRanges right) {
+    Builder builder = new Builder();
+    for (Range range : left.ranges) {
+      builder.add(range.from, range.to);
+    }
+    for (Range range : right.ranges) {
+      builder.add(range.from, range.to);
+    }
+    return builder.build();
+  }
+
+  /**
+   * @return the rows contained in both left and right
+   */
+  public static RowRanges intersection(RowRanges left, RowRanges right) {
+    List<Range> result = new ArrayList<Range>();
+    int i = 0;
+    int j = 0;
+    while (i < left.ranges.size() && j < right.ranges.size()) {
+      Range l = left.ranges.get(i);
+      Range r = right.ranges.get(j);
+      long from = Math.max(l.from, r.from);
+      long to = Math.min(l.to, r.to);
+      if (from <= to) {
+        result.add(new Range(from, to));
+      }
+      if (l.to < r.to) {
+        i += 1;
+      } else {
+        j += 1;
+      }
+    }
+    return new RowRanges(result);
+  }
+
+  /**
+   * Collects ranges in any order and merges overlapping or adjacent ones.
+   */
+  public static class Builder {
+    private final List<Range> ranges = new ArrayList<Range>();
+
+    public Builder add(long from, long to) {
+      ranges.add(new Range(from, to));
+      return this;
+    }
+
+    public RowRanges build() {
+      if (ranges.isEmpty()) {
+        return EMPTY;
+      }
+      List<Range> sorted = new ArrayList<Range>(ranges);
+      Collections.sort(sorted, BY_START);
+      List<Range> merged = new ArrayList<Range>();
+      Range current = sorted.get(0);
+      for (int i = 1; i < sorted.size(); i += 1) {
+        Range next = sorted.get(i);
+        if (next.from <= current.to + 1) {
+          current = new Range(current.from, Math.max(current.to, next.to));
+        } else {
+          merged.add(current);
+          current = next;
+        }
+      }
+      merged.add(current);
+      return new RowRanges(merged);
+    }
+  }
+
+  private final List<Range> ranges;
+
+  private RowRanges(List<Range> ranges) {
+    this.ranges = Collections.unmodifiableList(ranges);
+  }
+
+  public List<Range> getRanges() {
+    return ranges;
+  }
+
+  /**
+   * @return the number of rows in these ranges
+   */
+  public long rowCount() {
+    long count = 0;
+    for (Range range : ranges) {
+      count += range.count();
+    }
+    return count;
+  }
+
+  public boolean isEmpty() {
+    return ranges.isEmpty();
+  }
+
+  /**
+   * @param from the first row index (inclusive)
+   * @param to the last row index (inclusive)
+   * @return true if any row of [from, to] is in these ranges
+   */
+  public boolean isOverlapping(long from, long to) {
+    // binary search for the first range that ends at or after from
+    int low = 0;
+    int high = ranges.size() - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      Range range = ranges.get(mid);
+      if (range.to < from) {
+        low = mid + 1;
+      } else if (range.from > to) {
+        high = mid - 1;
+      } else {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof RowRanges && ranges.equals(((RowRanges) other).ranges);
+  }
+
+  @Override
+  public int hashCode() {
+    return ranges.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return ranges.toString();
+  }
+}
@@ -27,8 +27,10 @@ import static org.apache.parquet.column.ValuesType.VALUES;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 import org.apache.parquet.CorruptDeltaByteArrays;
+import org.apache.parquet.Preconditions;
 import org.apache.parquet.VersionParser.ParsedVersion;
 import org.apache.parquet.bytes.BytesInput;
 import org.apache.parquet.bytes.BytesUtils;
@@ -36,11 +38,13 @@ import org.apache.parquet.column.ColumnDescriptor;
 import org.apache.parquet.column.ColumnReader;
 import org.apache.parquet.column.Dictionary;
 import org.apache.parquet.column.Encoding;
+import org.apache.parquet.column.columnindex.RowRanges;
 import org.apache.parquet.column.page.DataPage;
 import org.apache.parquet.column.page.DataPageV1;
 import org.apache.parquet.column.page.DataPageV2;
 import org.apache.parquet.column.page.DictionaryPage;
 import org.apache.parquet.column.page.PageReader;
+import org.apache.parquet.column.page.RowRangesPageReader;
 import org.apache.parquet.column.values.RequiresPreviousReader;
 import org.apache.parquet.column.values.ValuesReader;
 import org.apache.parquet.column.values.rle.RunLengthBitPackingHybridDecoder;
@@ -134,11 +138,34 @@ public class ColumnReaderImpl implements ColumnReader {
     }
   }
 
+  /**
+   * fills the value array of a batch
+   */
+  private static abstract class ValueBatch {
+
+    /**
+     * store the current value of the reader at the given index
+     */
+    abstract void readCurrent(int index);
+
+    /**
+     * decode the next values of the current page into consecutive indexes
+     */
+    abstract void readValues(int index, int count);
+
+    /**
+     * move a value to another index of the batch
+     */
+    abstract void move(int from, int to);
+  }
+
   private final ParsedVersion writerVersion;
   private final ColumnDescriptor path;
   private final long totalValueCount;
   private final PageReader pageReader;
   private final Dictionary dictionary;
+  // the rows to return when the pages contain rows that were not selected (may be null)
+  private final RowRanges rowRanges;
 
   private IntIterator repetitionLevelColumn;
   private IntIterator definitionLevelColumn;
@@ -152,48 +179,116 @@ public class ColumnReaderImpl implements ColumnReader {
   private long endOfPageValueCount;
   private long readValues = 0;
   private int pageValueCount = 0;
+  private long currentRowIndex = -1;
+  private boolean currentRowSelected = true;
+  // false once consume() moved past the last value
+  private boolean hasCurrentValue;
 
   private final PrimitiveConverter converter;
   private Binding binding;
+  // whether dictionary pages are bound to ids for a converter without dictionary support
+  private boolean readDictionaryIds = false;
 
   // this is needed because we will attempt to read the value twice when filtering
   // TODO: rework that
   private boolean valueRead;
 
+  // definition levels of the values skipped by skipRecords, reused across calls
+  private int[] skippedLevels = new int[0];
+
+  /**
+   * reads dictionary ids and decodes them on demand
+   */
+  private abstract class DictionaryBinding extends Binding {
+    final Dictionary dictionary;
+
+    DictionaryBinding(Dictionary dictionary) {
+      this.dictionary = dictionary;
+    }
+
+    void read() {
+      dictionaryId = dataColumn.readValueDictionaryId();
+    }
+    public void skip() {
+      dataColumn.skip();
+    }
+    public int getDictionaryId() {
+      return dictionaryId;
+    }
+    public int getInteger() {
+      return dictionary.decodeToInt(dictionaryId);
+    }
+    public boolean getBoolean() {
+      return dictionary.decodeToBoolean(dictionaryId);
+    }
+    public long getLong() {
+      return dictionary.decodeToLong(dictionaryId);
+    }
+    public Binary getBinary() {
+      return dictionary.decodeToBinary(dictionaryId);
+    }
+    public float getFloat() {
+      return dictionary.decodeToFloat(dictionaryId);
+    }
+    public double getDouble() {
+      return dictionary.decodeToDouble(dictionaryId);
+    }
+  }
+
   private void bindToDictionary(final Dictionary dictionary) {
-    binding =
-        new Binding() {
-          void read() {
-            dictionaryId = dataColumn.readValueDictionaryId();
-          }
-          public void skip() {
-            dataColumn.skip();
-          }
-          public int getDictionaryId() {
-            return dictionaryId;
-          }
-          void writeValue() {
-            converter.addValueFromDictionary(dictionaryId);
-          }
-          public int getInteger() {
-            return dictionary.decodeToInt(dictionaryId);
-          }
-          public boolean getBoolean() {
-            return dictionary.decodeToBoolean(dictionaryId);
-          }
-          public long getLong() {
-            return dictionary.decodeToLong(dictionaryId);
-          }
-          public Binary getBinary() {
-            return dictionary.decodeToBinary(dictionaryId);
-          }
-          public float getFloat() {
-            return dictionary.decodeToFloat(dictionaryId);
-          }
-          public double getDouble() {
-            return dictionary.decodeToDouble(dictionaryId);
-          }
-        };
+    if (converter.hasDictionarySupport()) {
+      binding = new DictionaryBinding(dictionary) {
+        void writeValue() {
+          converter.addValueFromDictionary(dictionaryId);
+        }
+      };
+      return;
+    }
+    // the ids were requested by a filter: decode them for the converter
+    switch (path.getType()) {
+    case INT32:
+      binding = new DictionaryBinding(dictionary) {
+        void writeValue() {
+          converter.addInt(dictionary.decodeToInt(dictionaryId));
+        }
+      };
+      break;
+    case INT64:
+      binding = new DictionaryBinding(dictionary) {
+        void writeValue() {
+          converter.addLong(dictionary.decodeToLong(dictionaryId));
+        }
+      };
+      break;
+    case FLOAT:
+      binding = new DictionaryBinding(dictionary) {
+        void writeValue() {
+          converter.addFloat(dictionary.decodeToFloat(dictionaryId));
+        }
+      };
+      break;
+    case DOUBLE:
+      binding = new DictionaryBinding(dictionary) {
+        void writeValue() {
+          converter.addDouble(dictionary.decodeToDouble(dictionaryId));
+        }
+      };
+      break;
+    case BOOLEAN:
+      binding = new DictionaryBinding(dictionary) {
+        void writeValue() {
+          converter.addBoolean(dictionary.decodeToBoolean(dictionaryId));
+        }
+      };
+      break;
+    default:
+      binding = new DictionaryBinding(dictionary) {
+        void writeValue() {
+          converter.addBinary(dictionary.decodeToBinary(dictionaryId));
+        }
+      };
+      break;
+    }
   }
 
   private void bind(PrimitiveTypeName type) {
@@ -338,10 +433,12 @@ public class ColumnReaderImpl implements ColumnReader {
     this.pageReader = checkNotNull(pageReader, "pageReader");
     this.converter = checkNotNull(converter, "converter");
     this.writerVersion = writerVersion;
+    this.rowRanges = (pageReader instanceof RowRangesPageReader) ?
+        ((RowRangesPageReader) pageReader).getRowRanges() : null;
     DictionaryPage dictionaryPage = pageReader.readDictionaryPage();
     if (dictionaryPage != null) {
       try {
-        this.dictionary = dictionaryPage.getEncoding().initDictionary(path, dictionaryPage);
+        this.dictionary = dictionaryPage.decode(path);
         if (converter.hasDictionarySupport()) {
           converter.setDictionary(dictionary);
         }
@@ -378,6 +475,30 @@ public class ColumnReaderImpl implements ColumnReader {
     return binding.getDictionaryId();
   }
 
+  @Override
+  public boolean isCurrentValueDictionaryEncoded() {
+    return binding instanceof DictionaryBinding;
+  }
+
+  /**
+   * Reads the dictionary ids of dictionary-encoded pages even if the converter
+   * has no dictionary support, so that filters can evaluate the ids. Takes
+   * effect on the current page if its value was not read yet.
+   */
+  public void readDictionaryIds() {
+    this.readDictionaryIds = true;
+    if (currentEncoding != null && currentEncoding.usesDictionary() &&
+        !valueRead && !isCurrentValueDictionaryEncoded()) {
+      // the values reader of dictionary pages can read ids or values
+      bindToDictionary(dictionary);
+    }
+  }
+
+  @Override
+  public Dictionary getDictionary() {
+    return dictionary;
+  }
+
   /**
    * {@inheritDoc}
    * @see org.apache.parquet.column.ColumnReader#getInteger()
@@ -504,6 +625,74 @@ public class ColumnReaderImpl implements ColumnReader {
     }
   }
 
+  /**
+   * {@inheritDoc}
+   * @see org.apache.parquet.column.ColumnReader#skipRecords(long)
+   */
+  @Override
+  public long skipRecords(long n) {
+    long skipped = 0;
+    while (skipped < n && hasCurrentValue) {
+      skipCurrentValue();
+      ++skipped;
+
+      // records are single values: skip the rest of the page at once unless rows must be skipped
+      if (rowRanges == null && path.getMaxRepetitionLevel() == 0) {
+        int pageCount = (int) Math.min(n - skipped, endOfPageValueCount - readValues);
+        if (pageCount > 0) {
+          skipPageValues(pageCount);
+          skipped += pageCount;
+        }
+      }
+      consume();
+
+      // the other values of a repeated record
+      while (hasCurrentValue && repetitionLevel != 0) {
+        skipCurrentValue();
+        consume();
+      }
+    }
+    return skipped;
+  }
+
+  private void skipCurrentValue() {
+    if (definitionLevel == path.getMaxDefinitionLevel()) {
+      skip();
+    }
+  }
+
+  private void skipPageValues(int count) {
+    int maxDefinitionLevel = path.getMaxDefinitionLevel();
+    int nonNullCount = count;
+    if (maxDefinitionLevel > 0) {
+      if (skippedLevels.length < count) {
+        skippedLevels = new int[count];
+      }
+      definitionLevelColumn.nextInts(skippedLevels, 0, count);
+      nonNullCount = 0;
+      for (int i = 0; i < count; ++i) {
+        if (skippedLevels[i] == maxDefinitionLevel) {
+          ++nonNullCount;
+        }
+      }
+      definitionLevel = skippedLevels[count - 1];
+    }
+    repetitionLevelColumn.skip(count);
+
+    try {
+      dataColumn.skip(nonNullCount);
+    } catch (RuntimeException e) {
+      throw new ParquetDecodingException(
+          format("Can't skip %d values in column %s at value %d out of %d, " +
+                  "%d out of %d in currentPage",
+              nonNullCount, path, readValues, totalValueCount,
+              readValues - (endOfPageValueCount - pageValueCount), pageValueCount),
+          e);
+    }
+
+    readValues += count;
+  }
+
   /**
    * {@inheritDoc}
    * @see org.apache.parquet.column.ColumnReader#getCurrentDefinitionLevel()
@@ -518,23 +707,37 @@ public class ColumnReaderImpl implements ColumnReader {
     repetitionLevel = repetitionLevelColumn.nextInt();
     definitionLevel = definitionLevelColumn.nextInt();
     ++readValues;
+    if (rowRanges != null && repetitionLevel == 0) {
+      ++currentRowIndex;
+      currentRowSelected = rowRanges.isOverlapping(currentRowIndex, currentRowIndex);
+    }
   }
 
-  private void checkRead() {
+  /**
+   * @return false if the end of the column chunk was reached
+   */
+  private boolean checkRead() {
     if (isPageFullyConsumed()) {
       if (isFullyConsumed()) {
         LOG.debug("end reached");
         repetitionLevel = 0; // the next repetition level
-        return;
+        return false;
       }
       readPage();
     }
     readRepetitionAndDefinitionLevels();
+    return true;
   }
 
   private void readPage() {
     LOG.debug("loading page");
     DataPage page = pageReader.readPage();
+    if (rowRanges != null) {
+      if (page.getFirstRowIndex() < 0) {
+        throw new ParquetDecodingException("missing the first row index of a page in col " + path);
+      }
+      this.currentRowIndex = page.getFirstRowIndex() - 1;
+    }
     page.accept(new DataPage.Visitor<Void>() {
       @Override
       public Void visit(DataPageV1 dataPageV1) {
@@ -565,7 +768,7 @@ public class ColumnReaderImpl implements ColumnReader {
     } else {
       this.dataColumn = dataEncoding.getValuesReader(path, VALUES);
     }
-    if (dataEncoding.usesDictionary() && converter.hasDictionarySupport()) {
+    if (dataEncoding.usesDictionary() && (converter.hasDictionarySupport() || readDictionaryIds)) {
       bindToDictionary(dictionary);
     } else {
       bind(path.getType());
@@ -623,7 +826,7 @@ public class ColumnReaderImpl implements ColumnReader {
       return new RLEIntIterator(
           new RunLengthBitPackingHybridDecoder(
               BytesUtils.getWidthFromMaxInt(maxLevel),
-              bytes.toInputStream()));
+              bytes.toByteBuffer()));
     } catch (IOException e) {
       throw new ParquetDecodingException("could not read levels in page for col " + path, e);
     }
@@ -639,8 +842,216 @@ public class ColumnReaderImpl implements ColumnReader {
    */
   @Override
   public void consume() {
-    checkRead();
+    boolean hasValue = checkRead();
     valueRead = false;
+    // the pages may contain rows that were not selected: skip their values
+    while (hasValue && !currentRowSelected) {
+      if (definitionLevel == path.getMaxDefinitionLevel()) {
+        binding.skip();
+      }
+      hasValue = checkRead();
+    }
+    hasCurrentValue = hasValue;
+  }
+
+  @Override
+  public int readBatch(int n, int[] values, int[] definitionLevels) {
+    return readBatch(n, values, definitionLevels, null);
+  }
+
+  @Override
+  public int readBatch(int n, final int[] values, int[] definitionLevels, int[] repetitionLevels) {
+    return readValueBatch(n, definitionLevels, repetitionLevels, new ValueBatch() {
+      void readCurrent(int index) {
+        values[index] = getInteger();
+      }
+      void readValues(int index, int count) {
+        dataColumn.readIntegers(values, index, count);
+      }
+      void move(int from, int to) {
+        values[to] = values[from];
+      }
+    });
+  }
+
+  @Override
+  public int readBatch(int n, long[] values, int[] definitionLevels) {
+    return readBatch(n, values, definitionLevels, null);
+  }
+
+  @Override
+  public int readBatch(int n, final long[] values, int[] definitionLevels, int[] repetitionLevels) {
+    return readValueBatch(n, definitionLevels, repetitionLevels, new ValueBatch() {
+      void readCurrent(int index) {
+        values[index] = getLong();
+      }
+      void readValues(int index, int count) {
+        dataColumn.readLongs(values, index, count);
+      }
+      void move(int from, int to) {
+        values[to] = values[from];
+      }
+    });
+  }
+
+  @Override
+  public int readBatch(int n, float[] values, int[] definitionLevels) {
+    return readBatch(n, values, definitionLevels, null);
+  }
+
+  @Override
+  public int readBatch(int n, final float[] values, int[] definitionLevels, int[] repetitionLevels) {
+    return readValueBatch(n, definitionLevels, repetitionLevels, new ValueBatch() {
+      void readCurrent(int index) {
+        values[index] = getFloat();
+      }
+      void readValues(int index, int count) {
+        dataColumn.readFloats(values, index, count);
+      }
+      void move(int from, int to) {
+        values[to] = values[from];
+      }
+    });
+  }
+
+  @Override
+  public int readBatch(int n, double[] values, int[] definitionLevels) {
+    return readBatch(n, values, definitionLevels, null);
+  }
+
+  @Override
+  public int readBatch(int n, final double[] values, int[] definitionLevels, int[] repetitionLevels) {
+    return readValueBatch(n, definitionLevels, repetitionLevels, new ValueBatch() {
+      void readCurrent(int index) {
+        values[index] = getDouble();
+      }
+      void readValues(int index, int count) {
+        dataColumn.readDoubles(values, index, count);
+      }
+      void move(int from, int to) {
+        values[to] = values[from];
+      }
+    });
+  }
+
+  @Override
+  public int readBatch(int n, boolean[] values, int[] definitionLevels) {
+    return readBatch(n, values, definitionLevels, null);
+  }
+
+  @Override
+  public int readBatch(int n, final boolean[] values, int[] definitionLevels, int[] repetitionLevels) {
+    return readValueBatch(n, definitionLevels, repetitionLevels, new ValueBatch() {
+      void readCurrent(int index) {
+        values[index] = getBoolean();
+      }
+      void readValues(int index, int count) {
+        dataColumn.readBooleans(values, index, count);
+      }
+      void move(int from, int to) {
+        values[to] = values[from];
+      }
+    });
+  }
+
+  @Override
+  public int readBatch(int n, Binary[] values, int[] definitionLevels) {
+    return readBatch(n, values, definitionLevels, null);
+  }
+
+  @Override
+  public int readBatch(int n, final Binary[] values, int[] definitionLevels, int[] repetitionLevels) {
+    return readValueBatch(n, definitionLevels, repetitionLevels, new ValueBatch() {
+      void readCurrent(int index) {
+        values[index] = getBinary();
+      }
+      void readValues(int index, int count) {
+        dataColumn.readBinaries(values, index, count);
+      }
+      void move(int from, int to) {
+        values[to] = values[from];
+      }
+    });
+  }
+
+  private int readValueBatch(int n, int[] definitionLevels, int[] repetitionLevels, ValueBatch batch) {
+    Preconditions.checkArgument(definitionLevels != null || path.getMaxDefinitionLevel() == 0,
+        "Definition levels are required to read a batch of optional column %s", path);
+    Preconditions.checkArgument(repetitionLevels != null || path.getMaxRepetitionLevel() == 0,
+        "Repetition levels are required to read a batch of repeated column %s", path);
+    int count = 0;
+    while (count < n && hasCurrentValue) {
+      // the levels of the current value are already read, so it goes first
+      if (definitionLevels != null) {
+        definitionLevels[count] = definitionLevel;
+      }
+      if (repetitionLevels != null) {
+        repetitionLevels[count] = repetitionLevel;
+      }
+      if (definitionLevel == path.getMaxDefinitionLevel()) {
+        batch.readCurrent(count);
+      }
+      ++count;
+
+      // decode the rest of the page at once unless rows must be skipped
+      if (rowRanges == null) {
+        int pageCount = (int) Math.min(n - count, endOfPageValueCount - readValues);
+        if (pageCount > 0) {
+          readPageBatch(count, pageCount, definitionLevels, repetitionLevels, batch);
+          count += pageCount;
+        }
+      }
+      consume();
+    }
+    return count;
+  }
+
+  private void readPageBatch(int offset, int length, int[] definitionLevels, int[] repetitionLevels,
+                             ValueBatch batch) {
+    int maxDefinitionLevel = path.getMaxDefinitionLevel();
+    int end = offset + length;
+    int nonNullCount = length;
+    if (path.getMaxRepetitionLevel() > 0) {
+      repetitionLevelColumn.nextInts(repetitionLevels, offset, length);
+      repetitionLevel = repetitionLevels[end - 1];
+    } else if (repetitionLevels != null) {
+      Arrays.fill(repetitionLevels, offset, end, 0);
+    }
+    if (maxDefinitionLevel > 0) {
+      definitionLevelColumn.nextInts(definitionLevels, offset, length);
+      nonNullCount = 0;
+      for (int i = offset; i < end; ++i) {
+        if (definitionLevels[i] == maxDefinitionLevel) {
+          ++nonNullCount;
+        }
+      }
+    } else if (definitionLevels != null) {
+      Arrays.fill(definitionLevels, offset, end, 0);
+    }
+
+    try {
+      batch.readValues(offset, nonNullCount);
+    } catch (RuntimeException e) {
+      throw new ParquetDecodingException(
+          format("Can't read %d values in column %s at value %d out of %d, " +
+                  "%d out of %d in currentPage",
+              nonNullCount, path, readValues, totalValueCount,
+              readValues - (endOfPageValueCount - pageValueCount), pageValueCount),
+          e);
+    }
+
+    // the values were decoded next to each other: move them to the indexes
+    // of the non-null entries, starting from the end
+    int from = offset + nonNullCount - 1;
+    for (int to = end - 1; from < to; --to) {
+      if (definitionLevels[to] == maxDefinitionLevel) {
+        batch.move(from, to);
+        --from;
+      }
+    }
+
+    readValues += length;
+    definitionLevel = maxDefinitionLevel > 0 ? definitionLevels[end - 1] : 0;
   }
 
   /**
@@ -654,6 +1065,18 @@ public class ColumnReaderImpl implements ColumnReader {
 
   static abstract class IntIterator {
     abstract int nextInt();
+
+    void nextInts(int[] values, int offset, int length) {
+      for (int i = offset, end = offset + length; i < end; ++i) {
+        values[i] = nextInt();
+      }
+    }
+
+    void skip(int n) {
+      for (int i = 0; i < n; ++i) {
+        nextInt();
+      }
+    }
   }
 
   static class ValuesReaderIntIterator extends IntIterator {
@@ -668,6 +1091,16 @@ public class ColumnReaderImpl implements ColumnReader {
     int nextInt() {
       return delegate.readInteger();
     }
+
+    @Override
+    void nextInts(int[] values, int offset, int length) {
+      delegate.readIntegers(values, offset, length);
+    }
+
+    @Override
+    void skip(int n) {
+      delegate.skip(n);
+    }
   }
 
   static class RLEIntIterator extends IntIterator {
@@ -685,6 +1118,24 @@ public class ColumnReaderImpl implements ColumnReader {
         throw new ParquetDecodingException(e);
       }
     }
+
+    @Override
+    void nextInts(int[] values, int offset, int length) {
+      try {
+        delegate.readInts(values, offset, length);
+      } catch (IOException e) {
+        throw new ParquetDecodingException(e);
+      }
+    }
+
+    @Override
+    void skip(int n) {
+      try {
+        delegate.skip(n);
+      } catch (IOException e) {
+        throw new ParquetDecodingException(e);
+      }
+    }
   }
 
   private static final class NullIntIterator extends IntIterator {
@@ -692,5 +1143,9 @@ public class ColumnReaderImpl implements ColumnReader {
     int nextInt() {
       return 0;
     }
+
+    @Override
+    void skip(int n) {
+    }
   }
 }
@@ -45,7 +45,6 @@ public class ColumnWriteStoreV2 implements ColumnWriteStore {
   private final Map<ColumnDescriptor, ColumnWriterV2> columns;
   private final Collection<ColumnWriterV2> writers;
   private final ParquetProperties props;
-  private final long thresholdTolerance;
   private long rowCount;
   private long rowCountForNextSizeCheck;
 
@@ -54,7 +53,6 @@ public class ColumnWriteStoreV2 implements ColumnWriteStore {
       PageWriteStore pageWriteStore,
       ParquetProperties props) {
     this.props = props;
-    this.thresholdTolerance = (long)(props.getPageSizeThreshold() * THRESHOLD_TOLERANCE_RATIO);
     Map<ColumnDescriptor, ColumnWriterV2> mcolumns = new TreeMap<ColumnDescriptor, ColumnWriterV2>();
     for (ColumnDescriptor path : schema.getColumns()) {
       PageWriter pageWriter = pageWriteStore.getPageWriter(path);
@@ -141,21 +139,38 @@ public class ColumnWriteStoreV2 implements ColumnWriteStore {
 
   private void sizeCheck() {
     long minRecordToWait = Long.MAX_VALUE;
+    long minRowsToLimit = Long.MAX_VALUE;
+    int pageRowCountLimit = props.getPageRowCountLimit();
+    int pageRowCountMinimum = props.getPageRowCountMinimum();
     for (ColumnWriterV2 writer : writers) {
+      int pageSizeThreshold = writer.getPageSizeThreshold();
       long usedMem = writer.getCurrentPageBufferedSize();
       long rows = rowCount - writer.getRowsWrittenSoFar();
-      long remainingMem = props.getPageSizeThreshold() - usedMem;
-      if (remainingMem <= thresholdTolerance) {
+      long remainingMem = pageSizeThreshold - usedMem;
+      boolean pageFull = remainingMem <= (long)(pageSizeThreshold * THRESHOLD_TOLERANCE_RATIO);
+      long rowsToFillPage;
+      if ((pageFull && rows >= pageRowCountMinimum) || rows >= pageRowCountLimit) {
         writer.writePage(rowCount);
-        remainingMem = props.getPageSizeThreshold();
+        rowsToFillPage = estimatePageRowCount(writer);
+      } else if (pageFull) {
+        // the page is written once it reaches the minimum row count
+        rowsToFillPage = Long.MAX_VALUE;
+        if (pageRowCountMinimum - rows < minRowsToLimit) {
+          minRowsToLimit = pageRowCountMinimum - rows;
+        }
+      } else {
+        rowsToFillPage =
+            usedMem == 0 ?
+                estimatePageRowCount(writer) - rows
+                : (long)((double) rows / usedMem * remainingMem);
       }
-      long rowsToFillPage =
-          usedMem == 0 ?
-              props.getMaxRowCountForPageSizeCheck()
-              : (long)((float)rows) / usedMem * remainingMem;
       if (rowsToFillPage < minRecordToWait) {
         minRecordToWait = rowsToFillPage;
       }
+      long rowsToLimit = pageRowCountLimit - (rowCount - writer.getRowsWrittenSoFar());
+      if (rowsToLimit < minRowsToLimit) {
+        minRowsToLimit = rowsToLimit;
+      }
     }
     if (minRecordToWait == Long.MAX_VALUE) {
       minRecordToWait = props.getMinRowCountForPageSizeCheck();
@@ -170,6 +185,26 @@ public class ColumnWriteStoreV2 implements ColumnWriteStore {
     } else {
       rowCountForNextSizeCheck = rowCount + props.getMinRowCountForPageSizeCheck();
     }
+    if (minRowsToLimit != Long.MAX_VALUE) {
+      // pages are written as soon as they reach the row count limit or, when full, the minimum
+      rowCountForNextSizeCheck = min(rowCountForNextSizeCheck, rowCount + max(minRowsToLimit, 1));
+    }
+  }
+
+  /**
+   * Encoders that buffer values before encoding them, like the delta
+   * encodings, report no size for the first values of a page. The rows of
+   * such pages are estimated with the bytes per row of the pages written so
+   * far.
+   *
+   * @param writer a column writer
+   * @return the estimated number of rows in the current page of the writer,
+   *         or the minimum row count between size checks if no page was
+   *         written yet
+   */
+  private long estimatePageRowCount(ColumnWriterV2 writer) {
+    long rows = writer.getEstimatedPageRowCount();
+    return rows < 0 ? props.getMinRowCountForPageSizeCheck() : rows;
   }
 
 }
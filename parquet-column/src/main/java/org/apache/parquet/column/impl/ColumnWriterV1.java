@@ -18,10 +18,13 @@
  */
 package org.apache.parquet.column.impl;
 
+import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static org.apache.parquet.bytes.BytesInput.concat;
 
 import java.io.IOException;
 
+import org.apache.parquet.bytes.BytesInput;
 import org.apache.parquet.column.ColumnDescriptor;
 import org.apache.parquet.column.ColumnWriter;
 import org.apache.parquet.column.ParquetProperties;
@@ -29,6 +32,8 @@ import org.apache.parquet.column.page.DictionaryPage;
 import org.apache.parquet.column.page.PageWriter;
 import org.apache.parquet.column.statistics.Statistics;
 import org.apache.parquet.column.values.ValuesWriter;
+import org.apache.parquet.column.values.bloomfilter.BlockSplitBloomFilter;
+import org.apache.parquet.column.values.bloomfilter.BloomFilterWriter;
 import org.apache.parquet.io.ParquetEncodingException;
 import org.apache.parquet.io.api.Binary;
 import org.slf4j.Logger;
@@ -50,20 +55,34 @@ final class ColumnWriterV1 implements ColumnWriter {
   private final ColumnDescriptor path;
   private final PageWriter pageWriter;
   private final ParquetProperties props;
+  private final PageSizeEstimator pageSizeEstimator;
+  private final int pageRowCountLimit;
+  private final int pageRowCountMinimum;
+  private int pageSizeThreshold;
 
   private ValuesWriter repetitionLevelColumn;
   private ValuesWriter definitionLevelColumn;
   private ValuesWriter dataColumn;
   private int valueCount;
   private int valueCountForNextSizeCheck;
+  private int rowCount;
+  // bytes of the binary values written since the last size check
+  private long binaryBytesSinceSizeCheck;
+  // set when the page reached its size threshold, the page is written at the next record boundary
+  private boolean pageFull;
 
   private Statistics statistics;
+  private final BlockSplitBloomFilter bloomFilter;
 
   public ColumnWriterV1(ColumnDescriptor path, PageWriter pageWriter,
                         ParquetProperties props) {
     this.path = path;
     this.pageWriter = pageWriter;
     this.props = props;
+    this.pageSizeEstimator = new PageSizeEstimator(path, pageWriter, props);
+    this.pageSizeThreshold = pageSizeEstimator.getPageSizeThreshold();
+    this.pageRowCountLimit = props.getPageRowCountLimit();
+    this.pageRowCountMinimum = props.getPageRowCountMinimum();
 
     // initial check of memory usage. So that we have enough data to make an initial prediction
     this.valueCountForNextSizeCheck = props.getMinRowCountForPageSizeCheck();
@@ -73,6 +92,7 @@ final class ColumnWriterV1 implements ColumnWriter {
     this.repetitionLevelColumn = props.newRepetitionLevelWriter(path);
     this.definitionLevelColumn = props.newDefinitionLevelWriter(path);
     this.dataColumn = props.newValuesWriter(path);
+    this.bloomFilter = props.newBloomFilter(path);
   }
 
   private void log(Object value, int r, int d) {
@@ -91,65 +111,112 @@ final class ColumnWriterV1 implements ColumnWriter {
    *
    * That way we check the memory size log2(n) times.
    *
+   * Binary values can be large enough for a page to exceed its size long
+   * before the next check, so their size is also checked once the bytes
+   * written since the last check reach the threshold.
+   *
+   * The first check of the next page is scheduled when the page is written.
    */
   private void accountForValueWritten() {
     ++ valueCount;
-    if (valueCount > valueCountForNextSizeCheck) {
+    if (!pageFull && valueCount > valueCountForNextSizeCheck) {
       // not checking the memory used for every value
-      long memSize = repetitionLevelColumn.getBufferedSize()
-          + definitionLevelColumn.getBufferedSize()
-          + dataColumn.getBufferedSize();
-      if (memSize > props.getPageSizeThreshold()) {
-        // we will write the current page and check again the size at the predicted middle of next page
-        if (props.estimateNextSizeCheck()) {
-          valueCountForNextSizeCheck = valueCount / 2;
-        } else {
-          valueCountForNextSizeCheck = props.getMinRowCountForPageSizeCheck();
-        }
-        writePage();
+      binaryBytesSinceSizeCheck = 0;
+      long memSize = getCurrentPageBufferedSize();
+      if (memSize > pageSizeThreshold) {
+        pageFull = true;
       } else if (props.estimateNextSizeCheck()) {
         // not reached the threshold, will check again midway
-        valueCountForNextSizeCheck = (int)(valueCount + ((float)valueCount * props.getPageSizeThreshold() / memSize)) / 2 + 1;
+        valueCountForNextSizeCheck = (int)(valueCount + ((float)valueCount * pageSizeThreshold / memSize)) / 2 + 1;
       } else {
         valueCountForNextSizeCheck += props.getMinRowCountForPageSizeCheck();
       }
     }
   }
 
+  private void accountForBinaryWritten(Binary value) {
+    binaryBytesSinceSizeCheck += value.length();
+    if (!pageFull && binaryBytesSinceSizeCheck > pageSizeThreshold) {
+      // check the size when accounting for this value
+      valueCountForNextSizeCheck = valueCount;
+    }
+  }
+
+  /**
+   * Writes the repetition level of the next value. Pages are only written at
+   * record boundaries (repetition level 0) so that each page contains whole
+   * records and its first row index can be recorded in the offset index.
+   * A page is also written when it reaches the row count limit, and a full
+   * page is not written before it reaches the minimum row count.
+   */
+  private void repetitionLevel(int repetitionLevel) {
+    if (repetitionLevel == 0) {
+      if ((pageFull && rowCount >= pageRowCountMinimum) || rowCount >= pageRowCountLimit) {
+        writePage();
+      }
+      ++ rowCount;
+    }
+    repetitionLevelColumn.writeInteger(repetitionLevel);
+  }
+
   private void updateStatisticsNumNulls() {
     statistics.incrementNumNulls();
   }
 
   private void updateStatistics(int value) {
     statistics.updateStats(value);
+    if (bloomFilter != null) {
+      bloomFilter.insertHash(bloomFilter.hash(value));
+    }
   }
 
   private void updateStatistics(long value) {
     statistics.updateStats(value);
+    if (bloomFilter != null) {
+      bloomFilter.insertHash(bloomFilter.hash(value));
+    }
   }
 
   private void updateStatistics(float value) {
     statistics.updateStats(value);
+    if (bloomFilter != null) {
+      bloomFilter.insertHash(bloomFilter.hash(value));
+    }
   }
 
   private void updateStatistics(double value) {
    statistics.updateStats(value);
+    if (bloomFilter != null) {
+      bloomFilter.insertHash(bloomFilter.hash(value));
+    }
   }
 
   private void updateStatistics(Binary value) {
    statistics.updateStats(value);
+    if (bloomFilter != null) {
+      bloomFilter.insertHash(bloomFilter.hash(value));
+    }
   }
 
   private void updateStatistics(boolean value) {
    statistics.updateStats(value);
   }
 
+  private long getCurrentPageBufferedSize() {
+    return repetitionLevelColumn.getBufferedSize()
+        + definitionLevelColumn.getBufferedSize()
+        + dataColumn.getBufferedSize();
+  }
+
   private void writePage() {
     if (DEBUG) LOG.debug("write page");
     try {
+      BytesInput bytes = concat(repetitionLevelColumn.getBytes(), definitionLevelColumn.getBytes(), dataColumn.getBytes());
+      pageSizeEstimator.pageWritten(bytes.size(), valueCount);
       pageWriter.writePage(
-          concat(repetitionLevelColumn.getBytes(), definitionLevelColumn.getBytes(), dataColumn.getBytes()),
+          bytes,
           valueCount,
+          rowCount,
           statistics,
           repetitionLevelColumn.getEncoding(),
           definitionLevelColumn.getEncoding(),
@@ -161,13 +228,25 @@ final class ColumnWriterV1 implements ColumnWriter {
     definitionLevelColumn.reset();
     dataColumn.reset();
     valueCount = 0;
+    rowCount = 0;
+    binaryBytesSinceSizeCheck = 0;
+    pageFull = false;
     resetStatistics();
+    // the compression ratio of the written pages changes the size of the next one
+    pageSizeThreshold = pageSizeEstimator.getPageSizeThreshold();
+    long expectedValueCount = pageSizeEstimator.estimateCount(pageSizeThreshold);
+    if (props.estimateNextSizeCheck() && expectedValueCount >= 0) {
+      // check the size at the predicted middle of the next page
+      valueCountForNextSizeCheck = (int) min(max(expectedValueCount / 2, 1), Integer.MAX_VALUE);
+    } else {
+      valueCountForNextSizeCheck = props.getMinRowCountForPageSizeCheck();
+    }
   }
 
   @Override
   public void writeNull(int repetitionLevel, int definitionLevel) {
     if (DEBUG) log(null, repetitionLevel, definitionLevel);
-    repetitionLevelColumn.writeInteger(repetitionLevel);
+    repetitionLevel(repetitionLevel);
     definitionLevelColumn.writeInteger(definitionLevel);
     updateStatisticsNumNulls();
     accountForValueWritten();
@@ -176,7 +255,7 @@ final class ColumnWriterV1 implements ColumnWriter {
   @Override
   public void write(double value, int repetitionLevel, int definitionLevel) {
     if (DEBUG) log(value, repetitionLevel, definitionLevel);
-    repetitionLevelColumn.writeInteger(repetitionLevel);
+    repetitionLevel(repetitionLevel);
     definitionLevelColumn.writeInteger(definitionLevel);
     dataColumn.writeDouble(value);
     updateStatistics(value);
@@ -186,7 +265,7 @@ final class ColumnWriterV1 implements ColumnWriter {
   @Override
   public void write(float value, int repetitionLevel, int definitionLevel) {
     if (DEBUG) log(value, repetitionLevel, definitionLevel);
-    repetitionLevelColumn.writeInteger(repetitionLevel);
+    repetitionLevel(repetitionLevel);
     definitionLevelColumn.writeInteger(definitionLevel);
     dataColumn.writeFloat(value);
     updateStatistics(value);
@@ -196,17 +275,18 @@ final class ColumnWriterV1 implements ColumnWriter {
   @Override
   public void write(Binary value, int repetitionLevel, int definitionLevel) {
     if (DEBUG) log(value, repetitionLevel, definitionLevel);
-    repetitionLevelColumn.writeInteger(repetitionLevel);
+    repetitionLevel(repetitionLevel);
     definitionLevelColumn.writeInteger(definitionLevel);
     dataColumn.writeBytes(value);
     updateStatistics(value);
+    accountForBinaryWritten(value);
     accountForValueWritten();
   }
 
   @Override
   public void write(boolean value, int repetitionLevel, int definitionLevel) {
     if (DEBUG) log(value, repetitionLevel, definitionLevel);
-    repetitionLevelColumn.writeInteger(repetitionLevel);
+    repetitionLevel(repetitionLevel);
     definitionLevelColumn.writeInteger(definitionLevel);
     dataColumn.writeBoolean(value);
     updateStatistics(value);
@@ -216,7 +296,7 @@ final class ColumnWriterV1 implements ColumnWriter {
   @Override
   public void write(int value, int repetitionLevel, int definitionLevel) {
     if (DEBUG) log(value, repetitionLevel, definitionLevel);
-    repetitionLevelColumn.writeInteger(repetitionLevel);
+    repetitionLevel(repetitionLevel);
     definitionLevelColumn.writeInteger(definitionLevel);
     dataColumn.writeInteger(value);
     updateStatistics(value);
@@ -226,7 +306,7 @@ final class ColumnWriterV1 implements ColumnWriter {
   @Override
   public void write(long value, int repetitionLevel, int definitionLevel) {
     if (DEBUG) log(value, repetitionLevel, definitionLevel);
-    repetitionLevelColumn.writeInteger(repetitionLevel);
+    repetitionLevel(repetitionLevel);
     definitionLevelColumn.writeInteger(definitionLevel);
     dataColumn.writeLong(value);
     updateStatistics(value);
@@ -237,6 +317,9 @@ final class ColumnWriterV1 implements ColumnWriter {
     if (valueCount > 0) {
       writePage();
     }
+    if (bloomFilter != null && pageWriter instanceof BloomFilterWriter) {
+      ((BloomFilterWriter) pageWriter).writeBloomFilter(bloomFilter);
+    }
     final DictionaryPage dictionaryPage = dataColumn.toDictPageAndClose();
     if (dictionaryPage != null) {
       if (DEBUG) LOG.debug("write dictionary");
@@ -30,6 +30,8 @@ import org.apache.parquet.column.page.DictionaryPage;
 import org.apache.parquet.column.page.PageWriter;
 import org.apache.parquet.column.statistics.Statistics;
 import org.apache.parquet.column.values.ValuesWriter;
+import org.apache.parquet.column.values.bloomfilter.BlockSplitBloomFilter;
+import org.apache.parquet.column.values.bloomfilter.BloomFilterWriter;
 import org.apache.parquet.column.values.rle.RunLengthBitPackingHybridEncoder;
 import org.apache.parquet.io.ParquetEncodingException;
 import org.apache.parquet.io.api.Binary;
@@ -51,12 +53,15 @@ final class ColumnWriterV2 implements ColumnWriter {
 
   private final ColumnDescriptor path;
   private final PageWriter pageWriter;
+  private final PageSizeEstimator pageSizeEstimator;
+  private int pageSizeThreshold;
   private RunLengthBitPackingHybridEncoder repetitionLevelColumn;
   private RunLengthBitPackingHybridEncoder definitionLevelColumn;
   private ValuesWriter dataColumn;
   private int valueCount;
 
   private Statistics<?> statistics;
+  private final BlockSplitBloomFilter bloomFilter;
   private long rowsWrittenSoFar = 0;
 
   public ColumnWriterV2(
@@ -65,11 +70,14 @@ final class ColumnWriterV2 implements ColumnWriter {
       ParquetProperties props) {
     this.path = path;
     this.pageWriter = pageWriter;
+    this.pageSizeEstimator = new PageSizeEstimator(path, pageWriter, props);
+    this.pageSizeThreshold = pageSizeEstimator.getPageSizeThreshold();
     resetStatistics();
 
     this.repetitionLevelColumn = props.newRepetitionLevelEncoder(path);
     this.definitionLevelColumn = props.newDefinitionLevelEncoder(path);
     this.dataColumn = props.newValuesWriter(path);
+    this.bloomFilter = props.newBloomFilter(path);
   }
 
   private void log(Object value, int r, int d) {
@@ -137,6 +145,9 @@ final class ColumnWriterV2 implements ColumnWriter {
     definitionLevel(definitionLevel);
     dataColumn.writeDouble(value);
     statistics.updateStats(value);
+    if (bloomFilter != null) {
+      bloomFilter.insertHash(bloomFilter.hash(value));
+    }
     ++ valueCount;
   }
 
@@ -152,6 +163,9 @@ final class ColumnWriterV2 implements ColumnWriter {
     definitionLevel(definitionLevel);
     dataColumn.writeFloat(value);
     statistics.updateStats(value);
+    if (bloomFilter != null) {
+      bloomFilter.insertHash(bloomFilter.hash(value));
+    }
     ++ valueCount;
   }
 
@@ -167,6 +181,9 @@ final class ColumnWriterV2 implements ColumnWriter {
     definitionLevel(definitionLevel);
     dataColumn.writeBytes(value);
     statistics.updateStats(value);
+    if (bloomFilter != null) {
+      bloomFilter.insertHash(bloomFilter.hash(value));
+    }
     ++ valueCount;
   }
 
@@ -197,6 +214,9 @@ final class ColumnWriterV2 implements ColumnWriter {
     definitionLevel(definitionLevel);
     dataColumn.writeInteger(value);
     statistics.updateStats(value);
+    if (bloomFilter != null) {
+      bloomFilter.insertHash(bloomFilter.hash(value));
+    }
     ++ valueCount;
   }
 
@@ -212,6 +232,9 @@ final class ColumnWriterV2 implements ColumnWriter {
     definitionLevel(definitionLevel);
     dataColumn.writeLong(value);
     statistics.updateStats(value);
+    if (bloomFilter != null) {
+      bloomFilter.insertHash(bloomFilter.hash(value));
+    }
     ++ valueCount;
   }
 
@@ -220,6 +243,9 @@ final class ColumnWriterV2 implements ColumnWriter {
    * Is called right after writePage
    */
   public void finalizeColumnChunk() {
+    if (bloomFilter != null && pageWriter instanceof BloomFilterWriter) {
+      ((BloomFilterWriter) pageWriter).writeBloomFilter(bloomFilter);
+    }
     final DictionaryPage dictionaryPage = dataColumn.toDictPageAndClose();
     if (dictionaryPage != null) {
       if (DEBUG) LOG.debug("write dictionary");
@@ -278,6 +304,23 @@ final class ColumnWriterV2 implements ColumnWriter {
     return b.toString();
   }
 
+  /**
+   * @return the encoded size at which the current page of this column is
+   *         written
+   */
+  int getPageSizeThreshold() {
+    return pageSizeThreshold;
+  }
+
+  /**
+   * @return the estimated number of rows in a page of this column, from the
+   *         encoded bytes per row of the pages written so far, or -1 if no
+   *         page was written yet
+   */
+  long getEstimatedPageRowCount() {
+    return pageSizeEstimator.estimateCount(pageSizeThreshold);
+  }
+
   public long getRowsWrittenSoFar() {
     return this.rowsWrittenSoFar;
   }
@@ -294,12 +337,16 @@ final class ColumnWriterV2 implements ColumnWriter {
       // TODO: rework this API. Those must be called *in that order*
       BytesInput bytes = dataColumn.getBytes();
       Encoding encoding = dataColumn.getEncoding();
+      BytesInput repetitionLevels = path.getMaxRepetitionLevel() == 0 ? BytesInput.empty() : repetitionLevelColumn.toBytes();
+      BytesInput definitionLevels = path.getMaxDefinitionLevel() == 0 ? BytesInput.empty() : definitionLevelColumn.toBytes();
+      // the encoders that buffer values report their size only once encoded
+      pageSizeEstimator.pageWritten(bytes.size() + repetitionLevels.size() + definitionLevels.size(), pageRowCount);
       pageWriter.writePageV2(
           pageRowCount,
           Ints.checkedCast(statistics.getNumNulls()),
           valueCount,
-          path.getMaxRepetitionLevel() == 0 ? BytesInput.empty() : repetitionLevelColumn.toBytes(),
-          path.getMaxDefinitionLevel() == 0 ? BytesInput.empty() : definitionLevelColumn.toBytes(),
+          repetitionLevels,
+          definitionLevels,
           encoding,
           bytes,
           statistics
@@ -312,5 +359,7 @@ final class ColumnWriterV2 implements ColumnWriter {
     dataColumn.reset();
     valueCount = 0;
     resetStatistics();
+    // the compression ratio of the written pages changes the size of the next one
+    pageSizeThreshold = pageSizeEstimator.getPageSizeThreshold();
   }
 }
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.column.impl;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ParquetProperties;
+import org.apache.parquet.column.page.PageWriter;
+
+/**
+ * Sizes the pages of a column from the pages it already wrote.
+ *
+ * The page size threshold is compared with the encoded size of a page. When
+ * the page sizes are compressed sizes, the threshold is the page size divided
+ * by the compression ratio the page writer observed so far, so that the
+ * compressed pages come close to the page size.
+ *
+ * The encoded bytes per value of the written pages estimate how many values
+ * the next page holds, which the writers use to decide when to check its size.
+ */
+final class PageSizeEstimator {
+
+  // compressed page sizes make the encoded pages at most 8 times larger
+  private static final double MIN_COMPRESSION_RATIO = 0.125;
+
+  private final PageWriter pageWriter;
+  private final int pageSize;
+  private final boolean compressedPageSize;
+
+  // encoded size and number of values (or rows) of the pages written so far
+  private long encodedSize;
+  private long count;
+
+  PageSizeEstimator(ColumnDescriptor path, PageWriter pageWriter, ParquetProperties props) {
+    this.pageWriter = pageWriter;
+    this.pageSize = props.getPageSizeThreshold(path);
+    this.compressedPageSize = props.isCompressedPageSize();
+  }
+
+  /**
+   * @return the encoded size at which the next page is written
+   */
+  int getPageSizeThreshold() {
+    if (!compressedPageSize) {
+      return pageSize;
+    }
+    // pages that don't compress are not made smaller than the page size
+    double ratio = max(MIN_COMPRESSION_RATIO, min(1, pageWriter.getCompressionRatio()));
+    return (int) min(Integer.MAX_VALUE, (long) (pageSize / ratio));
+  }
+
+  /**
+   * @param pageEncodedSize the encoded size of a page that was written
+   * @param pageCount the number of values (or rows) in that page
+   */
+  void pageWritten(long pageEncodedSize, long pageCount) {
+    this.encodedSize += pageEncodedSize;
+    this.count += pageCount;
+  }
+
+  /**
+   * @param size an encoded size
+   * @return the estimated number of values (or rows) that fit in this size,
+   *         -1 if no page was written yet
+   */
+  long estimateCount(long size) {
+    if (encodedSize == 0) {
+      return -1;
+    }
+    return (long) ((double) size * count / encodedSize);
+  }
+
+}
@@ -27,10 +27,16 @@ package org.apache.parquet.column.page;
 abstract public class DataPage extends Page {
 
   private final int valueCount;
+  private final long firstRowIndex;
 
   DataPage(int compressedSize, int uncompressedSize, int valueCount) {
+    this(compressedSize, uncompressedSize, valueCount, -1);
+  }
+
+  DataPage(int compressedSize, int uncompressedSize, int valueCount, long firstRowIndex) {
     super(compressedSize, uncompressedSize);
     this.valueCount = valueCount;
+    this.firstRowIndex = firstRowIndex;
   }
 
   /**
@@ -40,6 +46,13 @@ abstract public class DataPage extends Page {
     return valueCount;
   }
 
+  /**
+   * @return the index of the first row of this page in the row group or -1 if it is not known
+   */
+  public long getFirstRowIndex() {
+    return firstRowIndex;
+  }
+
   public abstract <T> T accept(Visitor<T> visitor);
 
   public static interface Visitor<T> {
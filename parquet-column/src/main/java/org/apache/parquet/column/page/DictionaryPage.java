@@ -24,6 +24,8 @@ import java.io.IOException;
 
 import org.apache.parquet.Ints;
 import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.Dictionary;
 import org.apache.parquet.column.Encoding;
 
 /**
@@ -38,6 +40,10 @@ public class DictionaryPage extends Page {
   private final int dictionarySize;
   private final Encoding encoding;
 
+  // the dictionary decoded by the last call to decode and the column it was decoded for
+  private Dictionary dictionary = null;
+  private ColumnDescriptor dictionaryColumn = null;
+
   /**
    * creates an uncompressed page
    * @param bytes the content of the page
@@ -74,6 +80,28 @@ public class DictionaryPage extends Page {
     return encoding;
   }
 
+  /**
+   * Decodes the dictionary of this page. The decoded dictionary is kept and
+   * returned again for columns of the same type, so a page that is shared
+   * through a cache is only decoded once. The page bytes must be readable
+   * more than once if the page is decoded for columns of different types.
+   *
+   * @param column the column of the page
+   * @return the decoded dictionary
+   * @throws IOException if the dictionary can not be decoded
+   */
+  public synchronized Dictionary decode(ColumnDescriptor column) throws IOException {
+    if (dictionary == null || !sameType(dictionaryColumn, column)) {
+      this.dictionary = encoding.initDictionary(column, this);
+      this.dictionaryColumn = column;
+    }
+    return dictionary;
+  }
+
+  private static boolean sameType(ColumnDescriptor a, ColumnDescriptor b) {
+    return a.getType() == b.getType() && a.getTypeLength() == b.getTypeLength();
+  }
+
   public DictionaryPage copy() throws IOException {
     return new DictionaryPage(BytesInput.copy(bytes), getUncompressedSize(), dictionarySize, encoding);
   }
@@ -42,9 +42,25 @@ public interface PageWriter {
    * @param dlEncoding definition level encoding
    * @param valuesEncoding values encoding
    * @throws IOException
+   * @deprecated the row count of the page is needed to build the offset index;
+   *             use {@link #writePage(BytesInput, int, int, Statistics, Encoding, Encoding, Encoding)}
    */
+  @Deprecated
   void writePage(BytesInput bytesInput, int valueCount, Statistics<?> statistics, Encoding rlEncoding, Encoding dlEncoding, Encoding valuesEncoding) throws IOException;
 
+  /**
+   * writes a single page
+   * @param bytesInput the bytes for the page
+   * @param valueCount the number of values in that page
+   * @param rowCount the number of rows in that page
+   * @param statistics the statistics for that page
+   * @param rlEncoding repetition level encoding
+   * @param dlEncoding definition level encoding
+   * @param valuesEncoding values encoding
+   * @throws IOException
+   */
+  void writePage(BytesInput bytesInput, int valueCount, int rowCount, Statistics<?> statistics, Encoding rlEncoding, Encoding dlEncoding, Encoding valuesEncoding) throws IOException;
+
   /**
    * writes a single page in the new format
    * @param rowCount the number of rows in this page
@@ -74,6 +90,12 @@ public interface PageWriter {
    */
   long allocatedSize();
 
+  /**
+   * @return the ratio of the compressed size to the uncompressed size of the
+   *         pages written so far, 1 if no page was compressed yet
+   */
+  double getCompressionRatio();
+
   /**
    * writes a dictionary page
    * @param dictionaryPage the dictionary page containing the dictionary data
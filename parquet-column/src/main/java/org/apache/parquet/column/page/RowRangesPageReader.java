@@ -0,0 +1,36 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.column.page;
+
+import org.apache.parquet.column.columnindex.RowRanges;
+
+/**
+ * A {@link PageReader} that only returns the pages of a column chunk that
+ * contain some of the selected rows of the row group. The pages have their
+ * first row index set (see {@link DataPage#getFirstRowIndex()}) so that the
+ * values of the rows that were not selected can be skipped, which keeps the
+ * readers of columns with different page boundaries in sync.
+ */
+public interface RowRangesPageReader extends PageReader {
+
+  /**
+   * @return the selected rows of the row group or null if all the rows are read
+   */
+  RowRanges getRowRanges();
+}
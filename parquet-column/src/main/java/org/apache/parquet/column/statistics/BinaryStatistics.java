@@ -24,13 +24,33 @@ public class BinaryStatistics extends Statistics<Binary> {
 
   private Binary max;
   private Binary min;
+  // min and max in unsigned byte order, null when not known because the
+  // statistics were set from min and max values
+  private Binary unsignedMax;
+  private Binary unsignedMin;
 
   @Override
   public void updateStats(Binary value) {
     if (!this.hasNonNullValue()) {
-      initializeStats(value, value);
+      initializeMinMax(value, value);
+      unsignedMin = min;
+      unsignedMax = max;
     } else {
-      updateStats(value, value);
+      // a value is copied at most once, the signed and the unsigned bounds
+      // share the copy when the value is a new bound in both orders
+      Binary copy = null;
+      if (min.compareTo(value) > 0) {
+        min = copy = value.copy();
+      } else if (max.compareTo(value) < 0) {
+        max = copy = value.copy();
+      }
+      if (unsignedMin != null) {
+        if (Binary.compareUnsigned(unsignedMin, value) > 0) {
+          unsignedMin = copy != null ? copy : value.copy();
+        } else if (Binary.compareUnsigned(unsignedMax, value) < 0) {
+          unsignedMax = copy != null ? copy : value.copy();
+        }
+      }
     }
   }
 
@@ -38,12 +58,42 @@ public class BinaryStatistics extends Statistics<Binary> {
   public void mergeStatisticsMinMax(Statistics stats) {
     BinaryStatistics binaryStats = (BinaryStatistics)stats;
     if (!this.hasNonNullValue()) {
-      initializeStats(binaryStats.getMin(), binaryStats.getMax());
+      initializeMinMax(binaryStats.getMin(), binaryStats.getMax());
+      if (binaryStats.unsignedMin != null) {
+        unsignedMin = binaryStats.unsignedMin.copy();
+        unsignedMax = binaryStats.unsignedMax.copy();
+      }
     } else {
-      updateStats(binaryStats.getMin(), binaryStats.getMax());
+      updateMinMax(binaryStats.getMin(), binaryStats.getMax());
+      if (binaryStats.unsignedMin != null) {
+        updateUnsignedMinMax(binaryStats.unsignedMin, binaryStats.unsignedMax);
+      } else {
+        unsignedMin = null;
+        unsignedMax = null;
+      }
     }
   }
 
+  private void initializeMinMax(Binary min_value, Binary max_value) {
+    min = min_value.copy();
+    max = max_value.copy();
+    this.markAsNotEmpty();
+  }
+
+  private void updateMinMax(Binary min_value, Binary max_value) {
+    if (min.compareTo(min_value) > 0) { min = min_value.copy(); }
+    if (max.compareTo(max_value) < 0) { max = max_value.copy(); }
+  }
+
+  private void updateUnsignedMinMax(Binary min_value, Binary max_value) {
+    if (unsignedMin == null) {
+      // not known, it is not tracked anymore
+      return;
+    }
+    if (Binary.compareUnsigned(unsignedMin, min_value) > 0) { unsignedMin = min_value.copy(); }
+    if (Binary.compareUnsigned(unsignedMax, max_value) < 0) { unsignedMax = max_value.copy(); }
+  }
+
   /**
    * Sets min and max values, re-uses the byte[] passed in.
    * Any changes made to byte[] will be reflected in min and max values as well.
@@ -54,6 +104,8 @@ public class BinaryStatistics extends Statistics<Binary> {
   public void setMinMaxFromBytes(byte[] minBytes, byte[] maxBytes) {
     max = Binary.fromReusedByteArray(maxBytes);
     min = Binary.fromReusedByteArray(minBytes);
+    unsignedMax = null;
+    unsignedMin = null;
     this.markAsNotEmpty();
   }
 
@@ -87,8 +139,9 @@ public class BinaryStatistics extends Statistics<Binary> {
    */
   @Deprecated
   public void updateStats(Binary min_value, Binary max_value) {
-    if (min.compareTo(min_value) > 0) { min = min_value.copy(); }
-    if (max.compareTo(max_value) < 0) { max = max_value.copy(); }
+    updateMinMax(min_value, max_value);
+    unsignedMax = null;
+    unsignedMin = null;
   }
 
   /**
@@ -96,9 +149,9 @@ public class BinaryStatistics extends Statistics<Binary> {
    */
   @Deprecated
   public void initializeStats(Binary min_value, Binary max_value) {
-      min = min_value.copy();
-      max = max_value.copy();
-      this.markAsNotEmpty();
+      initializeMinMax(min_value, max_value);
+      unsignedMax = null;
+      unsignedMin = null;
   }
 
   @Override
@@ -111,6 +164,26 @@ public class BinaryStatistics extends Statistics<Binary> {
     return max;
   }
 
+  /**
+   * The min and max are aggregated in the signed byte order of
+   * {@link Binary#compareTo(Binary)}. The unsigned min is the min in the
+   * byte order of UTF8 strings and of the Parquet format, it is only known
+   * when the statistics were updated with each value.
+   *
+   * @return the min value in unsigned byte order, or null if it is not known
+   */
+  public Binary getUnsignedMin() {
+    return unsignedMin;
+  }
+
+  /**
+   * @return the max value in unsigned byte order, or null if it is not known
+   * @see #getUnsignedMin()
+   */
+  public Binary getUnsignedMax() {
+    return unsignedMax;
+  }
+
   /**
    * @deprecated use {@link #genericGetMax()}, will be removed in 2.0.0
    */
@@ -134,6 +207,8 @@ public class BinaryStatistics extends Statistics<Binary> {
   public void setMinMax(Binary min, Binary max) {
     this.max = max;
     this.min = min;
+    this.unsignedMax = null;
+    this.unsignedMin = null;
     this.markAsNotEmpty();
   }
 }
@@ -131,9 +131,102 @@ public abstract class ValuesReader {
     throw new UnsupportedOperationException();
   }
 
+  /**
+   * Reads the next dictionary ids from the page. Like the other batch read
+   * methods, this calls the single value method for each id unless the
+   * encoding can decode a batch of values at once.
+   *
+   * @param ids the array to fill
+   * @param offset the index of the first id in the array
+   * @param length the number of ids to read
+   */
+  public void readValueDictionaryIds(int[] ids, int offset, int length) {
+    for (int i = offset, end = offset + length; i < end; ++i) {
+      ids[i] = readValueDictionaryId();
+    }
+  }
+
+  /**
+   * @param values the array to fill with the next integers from the page
+   * @param offset the index of the first value in the array
+   * @param length the number of values to read
+   */
+  public void readIntegers(int[] values, int offset, int length) {
+    for (int i = offset, end = offset + length; i < end; ++i) {
+      values[i] = readInteger();
+    }
+  }
+
+  /**
+   * @param values the array to fill with the next longs from the page
+   * @param offset the index of the first value in the array
+   * @param length the number of values to read
+   */
+  public void readLongs(long[] values, int offset, int length) {
+    for (int i = offset, end = offset + length; i < end; ++i) {
+      values[i] = readLong();
+    }
+  }
+
+  /**
+   * @param values the array to fill with the next floats from the page
+   * @param offset the index of the first value in the array
+   * @param length the number of values to read
+   */
+  public void readFloats(float[] values, int offset, int length) {
+    for (int i = offset, end = offset + length; i < end; ++i) {
+      values[i] = readFloat();
+    }
+  }
+
+  /**
+   * @param values the array to fill with the next doubles from the page
+   * @param offset the index of the first value in the array
+   * @param length the number of values to read
+   */
+  public void readDoubles(double[] values, int offset, int length) {
+    for (int i = offset, end = offset + length; i < end; ++i) {
+      values[i] = readDouble();
+    }
+  }
+
+  /**
+   * @param values the array to fill with the next booleans from the page
+   * @param offset the index of the first value in the array
+   * @param length the number of values to read
+   */
+  public void readBooleans(boolean[] values, int offset, int length) {
+    for (int i = offset, end = offset + length; i < end; ++i) {
+      values[i] = readBoolean();
+    }
+  }
+
+  /**
+   * @param values the array to fill with the next Binary values from the page
+   * @param offset the index of the first value in the array
+   * @param length the number of values to read
+   */
+  public void readBinaries(Binary[] values, int offset, int length) {
+    for (int i = offset, end = offset + length; i < end; ++i) {
+      values[i] = readBytes();
+    }
+  }
+
   /**
    * Skips the next value in the page
    */
   abstract public void skip();
+
+  /**
+   * Skips the next values in the page. This calls {@link #skip()} for each
+   * value unless the encoding can move past several values at once.
+   *
+   * @param n the number of values to skip
+   */
+  public void skip(int n) {
+    for (int i = 0; i < n; ++i) {
+      skip();
+    }
+  }
 }
 
@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.column.values.bloomfilter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+import org.apache.parquet.Preconditions;
+import org.apache.parquet.io.api.Binary;
+
+/**
+ * A split block Bloom filter: the bitset is divided into blocks of 256 bits
+ * (eight 32-bit words) and each value sets one bit in every word of the
+ * block selected by its hash. Checking a value only touches a single block,
+ * which is cache friendly.
+ *
+ * Values are hashed with the 64-bit xxHash of their plain encoding: little
+ * endian ints, longs, floats and doubles, and the raw bytes of binaries.
+ */
+public class BlockSplitBloomFilter {
+
+  // the number of bytes in a block
+  public static final int BYTES_PER_BLOCK = 32;
+
+  public static final int DEFAULT_MAXIMUM_BYTES = 1024 * 1024;
+  public static final int MINIMUM_BYTES = BYTES_PER_BLOCK;
+  public static final int UPPER_BOUND_BYTES = 128 * 1024 * 1024;
+  public static final double DEFAULT_FPP = 0.01;
+
+  // the number of bits set in a block for each value
+  private static final int BITS_SET_PER_BLOCK = 8;
+
+  // the salts used to derive one bit per word from the hash of a value
+  private static final int[] SALT = {
+      0x47b6137b, 0x44974d91, 0x8824ad5b, 0xa2b7289d,
+      0x705495c7, 0x2df1424b, 0x9efc4947, 0x5c6bfb31 };
+
+  private final byte[] bitset;
+  private final IntBuffer intBuffer;
+  private final ByteBuffer cacheBuffer = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+
+  /**
+   * Creates an empty Bloom filter.
+   *
+   * @param numBytes the size of the bitset, rounded to a power of 2 between
+   *                 {@link #MINIMUM_BYTES} and {@link #UPPER_BOUND_BYTES}
+   */
+  public BlockSplitBloomFilter(int numBytes) {
+    this(new byte[roundNumBytes(numBytes)]);
+  }
+
+  /**
+   * Creates a Bloom filter from a bitset that was written by
+   * {@link #writeTo(OutputStream)}.
+   *
+   * @param bitset the bitset of the filter
+   */
+  public BlockSplitBloomFilter(byte[] bitset) {
+    Preconditions.checkArgument(bitset.length >= MINIMUM_BYTES && bitset.length % BYTES_PER_BLOCK == 0,
+        "Invalid Bloom filter size: %s", bitset.length);
+    this.bitset = bitset;
+    this.intBuffer = ByteBuffer.wrap(bitset).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+  }
+
+  private static int roundNumBytes(int numBytes) {
+    if (numBytes < MINIMUM_BYTES) {
+      return MINIMUM_BYTES;
+    }
+    if (numBytes > UPPER_BOUND_BYTES) {
+      return UPPER_BOUND_BYTES;
+    }
+    // round up to the next power of 2
+    return Integer.highestOneBit(numBytes - 1) << 1;
+  }
+
+  /**
+   * Calculates the number of bits needed to hold a number of distinct values
+   * with a given false positive probability.
+   *
+   * @param n the number of distinct values
+   * @param p the false positive probability, between 0 and 1
+   * @return the number of bits
+   */
+  public static int optimalNumOfBits(long n, double p) {
+    Preconditions.checkArgument(p > 0.0 && p < 1.0, "FPP should be between 0 and 1 (exclusive): %s", p);
+    final double m = -8 * n / Math.log(1 - Math.pow(p, 1.0 / 8));
+    int numBits = (int) Math.min(m, UPPER_BOUND_BYTES * 8L);
+    // round up to a multiple of the block size
+    numBits = (numBits + BYTES_PER_BLOCK * 8 - 1) & ~(BYTES_PER_BLOCK * 8 - 1);
+    return Math.max(numBits, MINIMUM_BYTES * 8);
+  }
+
+  /**
+   * @return the size of the bitset in bytes
+   */
+  public int getBitsetSize() {
+    return bitset.length;
+  }
+
+  /**
+   * Writes the bitset of this filter.
+   *
+   * @param out an output stream
+   * @throws IOException if there is an error while writing
+   */
+  public void writeTo(OutputStream out) throws IOException {
+    out.write(bitset);
+  }
+
+  private int blockIndex(long hash) {
+    int numBlocks = bitset.length / BYTES_PER_BLOCK;
+    // uses the upper 32 bits of the hash to select the block
+    return (int) (((hash >>> 32) * numBlocks) >>> 32);
+  }
+
+  /**
+   * Adds the hash of a value to this filter.
+   *
+   * @param hash a hash computed by one of the hash methods
+   */
+  public void insertHash(long hash) {
+    int blockOffset = blockIndex(hash) * BITS_SET_PER_BLOCK;
+    int key = (int) hash;
+    for (int i = 0; i < BITS_SET_PER_BLOCK; i += 1) {
+      int mask = 1 << ((key * SALT[i]) >>> 27);
+      intBuffer.put(blockOffset + i, intBuffer.get(blockOffset + i) | mask);
+    }
+  }
+
+  /**
+   * Checks whether a value may have been added to this filter.
+   *
+   * @param hash a hash computed by one of the hash methods
+   * @return false if the value was definitely not added, true if it may have been
+   */
+  public boolean findHash(long hash) {
+    int blockOffset = blockIndex(hash) * BITS_SET_PER_BLOCK;
+    int key = (int) hash;
+    for (int i = 0; i < BITS_SET_PER_BLOCK; i += 1) {
+      int mask = 1 << ((key * SALT[i]) >>> 27);
+      if ((intBuffer.get(blockOffset + i) & mask) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public long hash(int value) {
+    cacheBuffer.clear();
+    cacheBuffer.putInt(value);
+    return XxHash64.hash(cacheBuffer.array(), 0, 4);
+  }
+
+  public long hash(long value) {
+    cacheBuffer.clear();
+    cacheBuffer.putLong(value);
+    return XxHash64.hash(cacheBuffer.array(), 0, 8);
+  }
+
+  public long hash(float value) {
+    return hash(Float.floatToIntBits(value));
+  }
+
+  public long hash(double value) {
+    return hash(Double.doubleToLongBits(value));
+  }
+
+  public long hash(Binary value) {
+    byte[] bytes = value.getBytesUnsafe();
+    return XxHash64.hash(bytes, 0, bytes.length);
+  }
+
+  /**
+   * Hashes a value of one of the types used by filter predicates.
+   *
+   * @param value an Integer, Long, Float, Double or Binary
+   * @return the hash of the value
+   */
+  public long hash(Object value) {
+    if (value instanceof Integer) {
+      return hash(((Integer) value).intValue());
+    } else if (value instanceof Long) {
+      return hash(((Long) value).longValue());
+    } else if (value instanceof Float) {
+      return hash(((Float) value).floatValue());
+    } else if (value instanceof Double) {
+      return hash(((Double) value).doubleValue());
+    } else if (value instanceof Binary) {
+      return hash((Binary) value);
+    }
+    throw new IllegalArgumentException("Unsupported type for a Bloom filter: " + value.getClass());
+  }
+}
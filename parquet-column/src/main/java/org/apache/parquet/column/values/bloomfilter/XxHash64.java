@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.column.values.bloomfilter;
+
+/**
+ * The 64-bit xxHash (XXH64) of a byte array, with a seed of 0.
+ */
+final class XxHash64 {
+
+  private static final long PRIME64_1 = 0x9E3779B185EBCA87L;
+  private static final long PRIME64_2 = 0xC2B2AE3D27D4EB4FL;
+  private static final long PRIME64_3 = 0x165667B19E3779F9L;
+  private static final long PRIME64_4 = 0x85EBCA77C2B2AE63L;
+  private static final long PRIME64_5 = 0x27D4EB2F165667C5L;
+
+  private XxHash64() {
+  }
+
+  static long hash(byte[] input, int offset, int length) {
+    int end = offset + length;
+    int pos = offset;
+    long hash;
+
+    if (length >= 32) {
+      long v1 = PRIME64_1 + PRIME64_2;
+      long v2 = PRIME64_2;
+      long v3 = 0;
+      long v4 = -PRIME64_1;
+      int limit = end - 32;
+      do {
+        v1 = round(v1, getLong(input, pos));
+        v2 = round(v2, getLong(input, pos + 8));
+        v3 = round(v3, getLong(input, pos + 16));
+        v4 = round(v4, getLong(input, pos + 24));
+        pos += 32;
+      } while (pos <= limit);
+
+      hash = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7)
+          + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+      hash = mergeRound(hash, v1);
+      hash = mergeRound(hash, v2);
+      hash = mergeRound(hash, v3);
+      hash = mergeRound(hash, v4);
+    } else {
+      hash = PRIME64_5;
+    }
+
+    hash += length;
+
+    while (pos + 8 <= end) {
+      hash ^= round(0, getLong(input, pos));
+      hash = Long.rotateLeft(hash, 27) * PRIME64_1 + PRIME64_4;
+      pos += 8;
+    }
+
+    if (pos + 4 <= end) {
+      hash ^= (getInt(input, pos) & 0xFFFFFFFFL) * PRIME64_1;
+      hash = Long.rotateLeft(hash, 23) * PRIME64_2 + PRIME64_3;
+      pos += 4;
+    }
+
+    while (pos < end) {
+      hash ^= (input[pos] & 0xFF) * PRIME64_5;
+      hash = Long.rotateLeft(hash, 11) * PRIME64_1;
+      pos += 1;
+    }
+
+    hash ^= hash >>> 33;
+    hash *= PRIME64_2;
+    hash ^= hash >>> 29;
+    hash *= PRIME64_3;
+    hash ^= hash >>> 32;
+    return hash;
+  }
+
+  private static long round(long acc, long input) {
+    acc += input * PRIME64_2;
+    acc = Long.rotateLeft(acc, 31);
+    return acc * PRIME64_1;
+  }
+
+  private static long mergeRound(long acc, long val) {
+    acc ^= round(0, val);
+    return acc * PRIME64_1 + PRIME64_4;
+  }
+
+  private static long getLong(byte[] input, int pos) {
+    return (input[pos] & 0xFFL)
+        | (input[pos + 1] & 0xFFL) << 8
+        | (input[pos + 2] & 0xFFL) << 16
+        | (input[pos + 3] & 0xFFL) << 24
+        | (input[pos + 4] & 0xFFL) << 32
+        | (input[pos + 5] & 0xFFL) << 40
+        | (input[pos + 6] & 0xFFL) << 48
+        | (input[pos + 7] & 0xFFL) << 56;
+  }
+
+  private static int getInt(byte[] input, int pos) {
+    return (input[pos] & 0xFF)
+        | (input[pos + 1] & 0xFF) << 8
+        | (input[pos + 2] & 0xFF) << 16
+        | (input[pos + 3] & 0xFF) << 24;
+  }
+}
@@ -105,6 +105,12 @@ public class DeltaBinaryPackingValuesReader extends ValuesReader {
     valuesRead++;
   }
 
+  @Override
+  public void skip(int n) {
+    checkRead(n);
+    valuesRead += n;
+  }
+
   @Override
   public int readInteger() {
     // TODO: probably implement it separately
@@ -117,6 +123,28 @@ public class DeltaBinaryPackingValuesReader extends ValuesReader {
     return valuesBuffer[valuesRead++];
   }
 
+  @Override
+  public void readIntegers(int[] values, int offset, int length) {
+    checkRead(length);
+    for (int i = 0; i < length; ++i) {
+      values[offset + i] = (int) valuesBuffer[valuesRead + i];
+    }
+    valuesRead += length;
+  }
+
+  @Override
+  public void readLongs(long[] values, int offset, int length) {
+    checkRead(length);
+    System.arraycopy(valuesBuffer, valuesRead, values, offset, length);
+    valuesRead += length;
+  }
+
+  private void checkRead(int length) {
+    if (valuesRead + length > totalValueCount) {
+      throw new ParquetDecodingException("no more value to read, total value count is " + totalValueCount);
+    }
+  }
+
   private void checkRead() {
     if (valuesRead >= totalValueCount) {
       throw new ParquetDecodingException("no more value to read, total value count is " + totalValueCount);
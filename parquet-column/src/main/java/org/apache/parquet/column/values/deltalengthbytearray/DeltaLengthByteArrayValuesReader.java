@@ -40,6 +40,8 @@ public class DeltaLengthByteArrayValuesReader extends ValuesReader {
   private ValuesReader lengthReader;
   private ByteBuffer in;
   private int offset;
+  // lengths of the skipped values, reused across calls
+  private int[] lengths = new int[0];
 
   public DeltaLengthByteArrayValuesReader() {
     this.lengthReader = new DeltaBinaryPackingValuesReader();
@@ -68,4 +70,15 @@ public class DeltaLengthByteArrayValuesReader extends ValuesReader {
     int length = lengthReader.readInteger();
     offset = offset + length;
   }
+
+  @Override
+  public void skip(int n) {
+    if (lengths.length < n) {
+      lengths = new int[n];
+    }
+    lengthReader.readIntegers(lengths, 0, n);
+    for (int i = 0; i < n; ++i) {
+      offset += lengths[i];
+    }
+  }
 }
@@ -22,8 +22,6 @@ package org.apache.parquet.column.values.dictionary;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 
-import org.apache.parquet.bytes.ByteBufferInputStream;
-import org.apache.parquet.bytes.BytesUtils;
 import org.apache.parquet.column.Dictionary;
 import org.apache.parquet.column.values.ValuesReader;
 import org.apache.parquet.column.values.rle.RunLengthBitPackingHybridDecoder;
@@ -41,12 +39,13 @@ import org.slf4j.LoggerFactory;
 public class DictionaryValuesReader extends ValuesReader {
   private static final Logger LOG = LoggerFactory.getLogger(DictionaryValuesReader.class);
 
-  private ByteBufferInputStream in;
-
   private Dictionary dictionary;
 
   private RunLengthBitPackingHybridDecoder decoder;
 
+  // dictionary ids of the current batch, reused across batches
+  private int[] ids = new int[0];
+
   public DictionaryValuesReader(Dictionary dictionary) {
     this.dictionary = dictionary;
   }
@@ -54,18 +53,27 @@ public class DictionaryValuesReader extends ValuesReader {
   @Override
   public void initFromPage(int valueCount, ByteBuffer page, int offset)
       throws IOException {
-    this.in = new ByteBufferInputStream(page, offset, page.limit() - offset);
     if (page.limit() - offset > 0) {
       LOG.debug("init from page at offset {} for length {}", offset, (page.limit() - offset));
-      int bitWidth = BytesUtils.readIntLittleEndianOnOneByte(in);
+      int bitWidth = page.get(offset) & 0xFF;
       LOG.debug("bit width {}", bitWidth);
-      decoder = new RunLengthBitPackingHybridDecoder(bitWidth, in);
+      ByteBuffer encoded = page.duplicate();
+      encoded.position(offset + 1);
+      decoder = new RunLengthBitPackingHybridDecoder(bitWidth, encoded);
     } else {
-      decoder = new RunLengthBitPackingHybridDecoder(1, in) {
+      decoder = new RunLengthBitPackingHybridDecoder(1, ByteBuffer.allocate(0)) {
         @Override
         public int readInt() throws IOException {
           throw new IOException("Attempt to read from empty page");
         }
+        @Override
+        public void readInts(int[] values, int offset, int length) throws IOException {
+          throw new IOException("Attempt to read from empty page");
+        }
+        @Override
+        public void skip(long n) throws IOException {
+          throw new IOException("Attempt to read from empty page");
+        }
       };
     }
   }
@@ -124,10 +132,72 @@ public class DictionaryValuesReader extends ValuesReader {
     }
   }
 
+  @Override
+  public void readValueDictionaryIds(int[] ids, int offset, int length) {
+    try {
+      decoder.readInts(ids, offset, length);
+    } catch (IOException e) {
+      throw new ParquetDecodingException(e);
+    }
+  }
+
+  private int[] readIds(int length) {
+    if (ids.length < length) {
+      ids = new int[length];
+    }
+    readValueDictionaryIds(ids, 0, length);
+    return ids;
+  }
+
+  @Override
+  public void readIntegers(int[] values, int offset, int length) {
+    readValueDictionaryIds(values, offset, length);
+    for (int i = offset, end = offset + length; i < end; ++i) {
+      values[i] = dictionary.decodeToInt(values[i]);
+    }
+  }
+
+  @Override
+  public void readLongs(long[] values, int offset, int length) {
+    int[] ids = readIds(length);
+    for (int i = 0; i < length; ++i) {
+      values[offset + i] = dictionary.decodeToLong(ids[i]);
+    }
+  }
+
+  @Override
+  public void readFloats(float[] values, int offset, int length) {
+    int[] ids = readIds(length);
+    for (int i = 0; i < length; ++i) {
+      values[offset + i] = dictionary.decodeToFloat(ids[i]);
+    }
+  }
+
+  @Override
+  public void readDoubles(double[] values, int offset, int length) {
+    int[] ids = readIds(length);
+    for (int i = 0; i < length; ++i) {
+      values[offset + i] = dictionary.decodeToDouble(ids[i]);
+    }
+  }
+
+  @Override
+  public void readBinaries(Binary[] values, int offset, int length) {
+    int[] ids = readIds(length);
+    for (int i = 0; i < length; ++i) {
+      values[offset + i] = dictionary.decodeToBinary(ids[i]);
+    }
+  }
+
   @Override
   public void skip() {
+    skip(1); // Type does not matter as we are just skipping dictionary keys
+  }
+
+  @Override
+  public void skip(int n) {
     try {
-      decoder.readInt(); // Type does not matter as we are just skipping dictionary keys
+      decoder.skip(n);
     } catch (IOException e) {
       throw new ParquetDecodingException(e);
     }
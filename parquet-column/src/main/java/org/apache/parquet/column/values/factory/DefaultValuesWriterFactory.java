@@ -27,29 +27,31 @@ import org.apache.parquet.column.values.dictionary.DictionaryValuesWriter;
 import org.apache.parquet.column.values.fallback.FallbackValuesWriter;
 
 /**
- * Handles ValuesWriter creation statically based on the types of the columns and the writer version.
+ * Handles ValuesWriter creation statically based on the types of the columns and the writer version
+ * of their values.
  */
 public class DefaultValuesWriterFactory implements ValuesWriterFactory {
 
-  private ValuesWriterFactory delegateFactory;
+  private ParquetProperties properties;
 
-  private static final ValuesWriterFactory DEFAULT_V1_WRITER_FACTORY = new DefaultV1ValuesWriterFactory();
-  private static final ValuesWriterFactory DEFAULT_V2_WRITER_FACTORY = new DefaultV2ValuesWriterFactory();
+  // the delegates hold the properties of this factory and are not shared
+  private final ValuesWriterFactory v1WriterFactory = new DefaultV1ValuesWriterFactory();
+  private final ValuesWriterFactory v2WriterFactory = new DefaultV2ValuesWriterFactory();
 
   @Override
   public void initialize(ParquetProperties properties) {
-    if (properties.getWriterVersion() == WriterVersion.PARQUET_1_0) {
-      delegateFactory = DEFAULT_V1_WRITER_FACTORY;
-    } else {
-      delegateFactory = DEFAULT_V2_WRITER_FACTORY;
-    }
-
-    delegateFactory.initialize(properties);
+    this.properties = properties;
+    v1WriterFactory.initialize(properties);
+    v2WriterFactory.initialize(properties);
   }
 
   @Override
   public ValuesWriter newValuesWriter(ColumnDescriptor descriptor) {
-    return delegateFactory.newValuesWriter(descriptor);
+    if (properties.getValuesWriterVersion(descriptor) == WriterVersion.PARQUET_1_0) {
+      return v1WriterFactory.newValuesWriter(descriptor);
+    } else {
+      return v2WriterFactory.newValuesWriter(descriptor);
+    }
   }
 
   static DictionaryValuesWriter dictionaryWriter(ColumnDescriptor path, ParquetProperties properties, Encoding dictPageEncoding, Encoding dataPageEncoding) {
@@ -57,26 +59,26 @@ public class DefaultValuesWriterFactory implements ValuesWriterFactory {
       case BOOLEAN:
         throw new IllegalArgumentException("no dictionary encoding for BOOLEAN");
       case BINARY:
-        return new DictionaryValuesWriter.PlainBinaryDictionaryValuesWriter(properties.getDictionaryPageSizeThreshold(), dataPageEncoding, dictPageEncoding, properties.getAllocator());
+        return new DictionaryValuesWriter.PlainBinaryDictionaryValuesWriter(properties.getDictionaryPageSizeThreshold(path), dataPageEncoding, dictPageEncoding, properties.getAllocator());
       case INT32:
-        return new DictionaryValuesWriter.PlainIntegerDictionaryValuesWriter(properties.getDictionaryPageSizeThreshold(), dataPageEncoding, dictPageEncoding, properties.getAllocator());
+        return new DictionaryValuesWriter.PlainIntegerDictionaryValuesWriter(properties.getDictionaryPageSizeThreshold(path), dataPageEncoding, dictPageEncoding, properties.getAllocator());
       case INT64:
-        return new DictionaryValuesWriter.PlainLongDictionaryValuesWriter(properties.getDictionaryPageSizeThreshold(), dataPageEncoding, dictPageEncoding, properties.getAllocator());
+        return new DictionaryValuesWriter.PlainLongDictionaryValuesWriter(properties.getDictionaryPageSizeThreshold(path), dataPageEncoding, dictPageEncoding, properties.getAllocator());
       case INT96:
-        return new DictionaryValuesWriter.PlainFixedLenArrayDictionaryValuesWriter(properties.getDictionaryPageSizeThreshold(), 12, dataPageEncoding, dictPageEncoding, properties.getAllocator());
+        return new DictionaryValuesWriter.PlainFixedLenArrayDictionaryValuesWriter(properties.getDictionaryPageSizeThreshold(path), 12, dataPageEncoding, dictPageEncoding, properties.getAllocator());
       case DOUBLE:
-        return new DictionaryValuesWriter.PlainDoubleDictionaryValuesWriter(properties.getDictionaryPageSizeThreshold(), dataPageEncoding, dictPageEncoding, properties.getAllocator());
+        return new DictionaryValuesWriter.PlainDoubleDictionaryValuesWriter(properties.getDictionaryPageSizeThreshold(path), dataPageEncoding, dictPageEncoding, properties.getAllocator());
       case FLOAT:
-        return new DictionaryValuesWriter.PlainFloatDictionaryValuesWriter(properties.getDictionaryPageSizeThreshold(), dataPageEncoding, dictPageEncoding, properties.getAllocator());
+        return new DictionaryValuesWriter.PlainFloatDictionaryValuesWriter(properties.getDictionaryPageSizeThreshold(path), dataPageEncoding, dictPageEncoding, properties.getAllocator());
       case FIXED_LEN_BYTE_ARRAY:
-        return new DictionaryValuesWriter.PlainFixedLenArrayDictionaryValuesWriter(properties.getDictionaryPageSizeThreshold(), path.getTypeLength(), dataPageEncoding, dictPageEncoding, properties.getAllocator());
+        return new DictionaryValuesWriter.PlainFixedLenArrayDictionaryValuesWriter(properties.getDictionaryPageSizeThreshold(path), path.getTypeLength(), dataPageEncoding, dictPageEncoding, properties.getAllocator());
       default:
         throw new IllegalArgumentException("Unknown type " + path.getType());
     }
   }
 
   static ValuesWriter dictWriterWithFallBack(ColumnDescriptor path, ParquetProperties parquetProperties, Encoding dictPageEncoding, Encoding dataPageEncoding, ValuesWriter writerToFallBackTo) {
-    if (parquetProperties.isEnableDictionary()) {
+    if (parquetProperties.isEnableDictionary(path)) {
       return FallbackValuesWriter.of(
         dictionaryWriter(path, parquetProperties, dictPageEncoding, dataPageEncoding),
         writerToFallBackTo);
@@ -60,6 +60,19 @@ public class BinaryPlainValuesReader extends ValuesReader {
     }
   }
 
+  @Override
+  public void skip(int n) {
+    try {
+      for (int i = 0; i < n; ++i) {
+        offset += 4 + BytesUtils.readIntLittleEndian(in, offset);
+      }
+    } catch (IOException e) {
+      throw new ParquetDecodingException("could not skip bytes at offset " + offset, e);
+    } catch (RuntimeException e) {
+      throw new ParquetDecodingException("could not skip bytes at offset " + offset, e);
+    }
+  }
+
   @Override
   public void initFromPage(int valueCount, ByteBuffer in, int offset)
       throws IOException {
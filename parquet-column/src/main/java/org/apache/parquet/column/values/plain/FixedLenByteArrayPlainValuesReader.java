@@ -57,6 +57,11 @@ public class FixedLenByteArrayPlainValuesReader extends ValuesReader {
     offset += length;
   }
 
+  @Override
+  public void skip(int n) {
+    offset += n * length;
+  }
+
   @Override
   public void initFromPage(int valueCount, ByteBuffer in, int offset)
       throws IOException {
@@ -20,6 +20,7 @@ package org.apache.parquet.column.values.plain;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 import org.apache.parquet.bytes.ByteBufferInputStream;
 import org.apache.parquet.bytes.LittleEndianDataInputStream;
@@ -38,6 +39,7 @@ abstract public class PlainValuesReader extends ValuesReader {
   private static final Logger LOG = LoggerFactory.getLogger(PlainValuesReader.class);
 
   protected LittleEndianDataInputStream in;
+  private ByteBufferInputStream stream;
 
   /**
    * {@inheritDoc}
@@ -46,7 +48,36 @@ abstract public class PlainValuesReader extends ValuesReader {
   @Override
   public void initFromPage(int valueCount, ByteBuffer in, int offset) throws IOException {
     LOG.debug("init from page at offset {} for length {}", offset , (in.limit() - offset));
-    this.in = new LittleEndianDataInputStream(toInputStream(in, offset));
+    this.stream = toInputStream(in, offset);
+    this.in = new LittleEndianDataInputStream(stream);
+  }
+
+  /**
+   * Returns the next bytes of the page as a little endian buffer and skips
+   * them, so that a batch of values can be decoded without a call per value.
+   *
+   * @param length the number of bytes
+   * @return a little endian buffer positioned at the next value
+   */
+  protected ByteBuffer nextBytes(int length) {
+    if (stream.available() < length) {
+      throw new ParquetDecodingException("could not read " + length + " bytes, only " + stream.available() + " left");
+    }
+    ByteBuffer bytes = stream.toByteBuffer().order(ByteOrder.LITTLE_ENDIAN);
+    stream.skip(length);
+    return bytes;
+  }
+
+  /**
+   * Skips the next bytes of the page.
+   *
+   * @param length the number of bytes
+   */
+  protected void skipBytes(int length) {
+    if (stream.available() < length) {
+      throw new ParquetDecodingException("could not skip " + length + " bytes, only " + stream.available() + " left");
+    }
+    stream.skip(length);
   }
 
   private ByteBufferInputStream toInputStream(ByteBuffer in, int offset) {
@@ -72,6 +103,16 @@ abstract public class PlainValuesReader extends ValuesReader {
         throw new ParquetDecodingException("could not read double", e);
       }
     }
+
+    @Override
+    public void skip(int n) {
+      skipBytes(n * 8);
+    }
+
+    @Override
+    public void readDoubles(double[] values, int offset, int length) {
+      nextBytes(length * 8).asDoubleBuffer().get(values, offset, length);
+    }
   }
 
   public static class FloatPlainValuesReader extends PlainValuesReader {
@@ -93,6 +134,16 @@ abstract public class PlainValuesReader extends ValuesReader {
         throw new ParquetDecodingException("could not read float", e);
       }
     }
+
+    @Override
+    public void skip(int n) {
+      skipBytes(n * 4);
+    }
+
+    @Override
+    public void readFloats(float[] values, int offset, int length) {
+      nextBytes(length * 4).asFloatBuffer().get(values, offset, length);
+    }
   }
 
   public static class IntegerPlainValuesReader extends PlainValuesReader {
@@ -114,6 +165,16 @@ abstract public class PlainValuesReader extends ValuesReader {
         throw new ParquetDecodingException("could not read int", e);
       }
     }
+
+    @Override
+    public void skip(int n) {
+      skipBytes(n * 4);
+    }
+
+    @Override
+    public void readIntegers(int[] values, int offset, int length) {
+      nextBytes(length * 4).asIntBuffer().get(values, offset, length);
+    }
   }
 
   public static class LongPlainValuesReader extends PlainValuesReader {
@@ -135,5 +196,15 @@ abstract public class PlainValuesReader extends ValuesReader {
         throw new ParquetDecodingException("could not read long", e);
       }
     }
+
+    @Override
+    public void skip(int n) {
+      skipBytes(n * 8);
+    }
+
+    @Override
+    public void readLongs(long[] values, int offset, int length) {
+      nextBytes(length * 8).asLongBuffer().get(values, offset, length);
+    }
   }
 }
@@ -18,11 +18,11 @@
  */
 package org.apache.parquet.column.values.rle;
 
-
-import java.io.DataInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 import org.apache.parquet.bytes.ByteBufferInputStream;
 import org.apache.parquet.Preconditions;
@@ -35,6 +35,10 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Decodes values written in the grammar described in {@link RunLengthBitPackingHybridEncoder}
+ * <p>
+ * Values are decoded directly from a {@link ByteBuffer}. Bit-packed runs are
+ * unpacked into a buffer that is reused across runs, and runs that are
+ * skipped entirely are not unpacked.
  *
  * @author Julien Le Dem
  */
@@ -44,21 +48,61 @@ public class RunLengthBitPackingHybridDecoder {
   private static enum MODE { RLE, PACKED }
 
   private final int bitWidth;
+  private final int bytesWidth;
   private final BytePacker packer;
-  private final InputStream in;
+  private final ByteBuffer in;
 
   private MODE mode;
   private int currentCount;
   private int currentValue;
-  private int[] currentBuffer;
+  // unpacked values of the current bit-packed run, reused across runs
+  private int[] currentBuffer = new int[0];
+  private int currentPosition;
+  // holds the last bytes of a bit-packed run that is truncated at the end of the buffer
+  private byte[] paddedBytes = new byte[0];
 
-  public RunLengthBitPackingHybridDecoder(int bitWidth, InputStream in) {
+  /**
+   * @param bitWidth the bit width of the values
+   * @param in a buffer with the encoded values between its position and limit
+   */
+  public RunLengthBitPackingHybridDecoder(int bitWidth, ByteBuffer in) {
     LOG.debug("decoding bitWidth {}", bitWidth);
 
     Preconditions.checkArgument(bitWidth >= 0 && bitWidth <= 32, "bitWidth must be >= 0 and <= 32");
     this.bitWidth = bitWidth;
+    this.bytesWidth = BytesUtils.paddedByteCountFromBits(bitWidth);
     this.packer = Packer.LITTLE_ENDIAN.newBytePacker(bitWidth);
-    this.in = in;
+    this.in = in.slice();
+  }
+
+  /**
+   * The decoder reads the rest of the stream when it is created.
+   *
+   * @param bitWidth the bit width of the values
+   * @param in a stream with the encoded values
+   */
+  public RunLengthBitPackingHybridDecoder(int bitWidth, InputStream in) {
+    this(bitWidth, remaining(in));
+  }
+
+  private static ByteBuffer remaining(InputStream in) {
+    try {
+      if (in instanceof ByteBufferInputStream) {
+        ByteBufferInputStream bufferStream = (ByteBufferInputStream) in;
+        ByteBuffer buffer = bufferStream.toByteBuffer();
+        bufferStream.skip(buffer.remaining());
+        return buffer;
+      }
+      ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(in.available(), 32));
+      byte[] bytes = new byte[4096];
+      int bytesRead;
+      while ((bytesRead = in.read(bytes)) >= 0) {
+        out.write(bytes, 0, bytesRead);
+      }
+      return ByteBuffer.wrap(out.toByteArray());
+    } catch (IOException e) {
+      throw new ParquetDecodingException("could not read RLE/bit-packed values", e);
+    }
   }
 
   public int readInt() throws IOException {
@@ -66,46 +110,162 @@ public class RunLengthBitPackingHybridDecoder {
       readNext();
     }
     -- currentCount;
-    int result;
-    switch (mode) {
-    case RLE:
-      result = currentValue;
-      break;
-    case PACKED:
-      result = currentBuffer[currentBuffer.length - 1 - currentCount];
-      break;
-    default:
-      throw new ParquetDecodingException("not a valid mode " + mode);
+    if (mode == MODE.RLE) {
+      return currentValue;
+    }
+    return currentBuffer[currentPosition++];
+  }
+
+  /**
+   * Reads the next values into an array, copying a run at a time.
+   *
+   * @param values the array to fill
+   * @param offset the index of the first value in the array
+   * @param length the number of values to read
+   * @throws IOException if the values can not be read
+   */
+  public void readInts(int[] values, int offset, int length) throws IOException {
+    int end = offset + length;
+    while (offset < end) {
+      if (currentCount == 0) {
+        readNext();
+      }
+      int count = Math.min(currentCount, end - offset);
+      if (mode == MODE.RLE) {
+        Arrays.fill(values, offset, offset + count, currentValue);
+      } else {
+        System.arraycopy(currentBuffer, currentPosition, values, offset, count);
+        currentPosition += count;
+      }
+      currentCount -= count;
+      offset += count;
+    }
+  }
+
+  /**
+   * Skips the next values. Bit-packed runs that are skipped entirely are not
+   * unpacked.
+   *
+   * @param n the number of values to skip
+   * @throws IOException if the values can not be read
+   */
+  public void skip(long n) throws IOException {
+    while (n > 0) {
+      if (currentCount == 0) {
+        n -= readNextSkipping(n);
+        continue;
+      }
+      int count = (int) Math.min(currentCount, n);
+      if (mode == MODE.PACKED) {
+        currentPosition += count;
+      }
+      currentCount -= count;
+      n -= count;
     }
-    return result;
   }
 
   private void readNext() throws IOException {
-    Preconditions.checkArgument(in.available() > 0, "Reading past RLE/BitPacking stream.");
-    final int header = BytesUtils.readUnsignedVarInt(in);
+    readNextSkipping(0);
+  }
+
+  /**
+   * Reads the header of the next run. A bit-packed run with no more than
+   * {@code toSkip} values is skipped without unpacking it.
+   *
+   * @return the number of values skipped
+   */
+  private int readNextSkipping(long toSkip) throws IOException {
+    if (!in.hasRemaining()) {
+      throw new ParquetDecodingException("Reading past RLE/BitPacking stream.");
+    }
+    final int header = readUnsignedVarInt();
     mode = (header & 1) == 0 ? MODE.RLE : MODE.PACKED;
     switch (mode) {
     case RLE:
       currentCount = header >>> 1;
       LOG.debug("reading {} values RLE", currentCount);
-      currentValue = BytesUtils.readIntLittleEndianPaddedOnBitWidth(in, bitWidth);
-      break;
+      currentValue = readIntLittleEndianPaddedOnBitWidth();
+      return 0;
     case PACKED:
       int numGroups = header >>> 1;
-      currentCount = numGroups * 8;
-      LOG.debug("reading {} values BIT PACKED", currentCount);
-      currentBuffer = new int[currentCount]; // TODO: reuse a buffer
-      byte[] bytes = new byte[numGroups * bitWidth];
+      int count = numGroups * 8;
       // At the end of the file RLE data though, there might not be that many bytes left.
-      int bytesToRead = (int)Math.ceil(currentCount * bitWidth / 8.0);
-      bytesToRead = Math.min(bytesToRead, in.available());
-      new DataInputStream(in).readFully(bytes, 0, bytesToRead);
-      for (int valueIndex = 0, byteIndex = 0; valueIndex < currentCount; valueIndex += 8, byteIndex += bitWidth) {
-        packer.unpack8Values(bytes, byteIndex, currentBuffer, valueIndex);
+      // Only the last group may be cut short, a missing group is a truncated page.
+      if (bitWidth > 0 && numGroups > 0 && in.remaining() <= (long) (numGroups - 1) * bitWidth) {
+        throw new ParquetDecodingException(String.format(
+            "Truncated RLE/BitPacking stream: %d bytes left for %d groups of %d bytes",
+            in.remaining(), numGroups, bitWidth));
+      }
+      int length = (int) Math.min((long) numGroups * bitWidth, in.remaining());
+      if (count <= toSkip) {
+        LOG.debug("skipping {} values BIT PACKED", count);
+        in.position(in.position() + length);
+        currentCount = 0;
+        return count;
       }
-      break;
+      LOG.debug("reading {} values BIT PACKED", count);
+      unpack(numGroups, length);
+      currentCount = count;
+      currentPosition = 0;
+      return 0;
     default:
       throw new ParquetDecodingException("not a valid mode " + mode);
     }
   }
+
+  private void unpack(int numGroups, int length) {
+    if (currentBuffer.length < numGroups * 8) {
+      currentBuffer = new int[numGroups * 8];
+    }
+    int start = in.position();
+    int fullGroups = Math.min(numGroups, bitWidth == 0 ? numGroups : length / bitWidth);
+    for (int group = 0, byteIndex = start; group < fullGroups; group += 1, byteIndex += bitWidth) {
+      packer.unpack8Values(in, byteIndex, currentBuffer, group * 8);
+    }
+    if (fullGroups < numGroups) {
+      // the run is truncated, unpack the rest from zero-padded bytes
+      int paddedLength = (numGroups - fullGroups) * bitWidth;
+      if (paddedBytes.length < paddedLength) {
+        paddedBytes = new byte[paddedLength];
+      }
+      Arrays.fill(paddedBytes, 0, paddedLength, (byte) 0);
+      int remaining = length - fullGroups * bitWidth;
+      for (int i = 0; i < remaining; i += 1) {
+        paddedBytes[i] = in.get(start + fullGroups * bitWidth + i);
+      }
+      for (int group = fullGroups, byteIndex = 0; group < numGroups; group += 1, byteIndex += bitWidth) {
+        packer.unpack8Values(paddedBytes, byteIndex, currentBuffer, group * 8);
+      }
+    }
+    in.position(start + length);
+  }
+
+  private int readUnsignedVarInt() {
+    int value = 0;
+    int i = 0;
+    int b;
+    while (((b = readHeaderByte()) & 0x80) != 0) {
+      value |= (b & 0x7F) << i;
+      i += 7;
+    }
+    return value | (b << i);
+  }
+
+  private int readHeaderByte() {
+    if (!in.hasRemaining()) {
+      throw new ParquetDecodingException("Truncated RLE/BitPacking stream: incomplete run header");
+    }
+    return in.get();
+  }
+
+  private int readIntLittleEndianPaddedOnBitWidth() {
+    if (in.remaining() < bytesWidth) {
+      throw new ParquetDecodingException("Truncated RLE/BitPacking stream: incomplete RLE value");
+    }
+    int value = 0;
+    for (int i = 0; i < bytesWidth; i += 1) {
+      value |= (in.get() & 0xFF) << (8 * i);
+    }
+    return value;
+  }
 }
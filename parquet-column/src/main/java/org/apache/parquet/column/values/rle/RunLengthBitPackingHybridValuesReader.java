@@ -21,14 +21,12 @@ package org.apache.parquet.column.values.rle;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 
-import org.apache.parquet.bytes.ByteBufferInputStream;
 import org.apache.parquet.bytes.BytesUtils;
 import org.apache.parquet.column.values.ValuesReader;
 import org.apache.parquet.io.ParquetDecodingException;
 
 /**
- * This ValuesReader does all the reading in {@link #initFromPage}
- * and stores the values in an in memory buffer, which is less than ideal.
+ * This ValuesReader decodes the values of a page lazily, a run at a time.
  *
  * @author Alex Levenson
  */
@@ -43,10 +41,12 @@ public class RunLengthBitPackingHybridValuesReader extends ValuesReader {
 
   @Override
   public void initFromPage(int valueCountL, ByteBuffer page, int offset) throws IOException {
-    ByteBufferInputStream in = new ByteBufferInputStream(page, offset, page.limit() - offset);
-    int length = BytesUtils.readIntLittleEndian(in);
+    int length = BytesUtils.readIntLittleEndian(page, offset);
 
-    decoder = new RunLengthBitPackingHybridDecoder(bitWidth, in);
+    ByteBuffer encoded = page.duplicate();
+    encoded.position(offset + 4);
+    encoded.limit(Math.min(offset + 4 + length, page.limit()));
+    decoder = new RunLengthBitPackingHybridDecoder(bitWidth, encoded);
 
     // 4 is for the length which is stored as 4 bytes little endian
     this.nextOffset = offset + length + 4;
@@ -66,6 +66,15 @@ public class RunLengthBitPackingHybridValuesReader extends ValuesReader {
     }
   }
   
+  @Override
+  public void readIntegers(int[] values, int offset, int length) {
+    try {
+      decoder.readInts(values, offset, length);
+    } catch (IOException e) {
+      throw new ParquetDecodingException(e);
+    }
+  }
+
   @Override
   public boolean readBoolean() {
     return readInteger() == 0 ? false : true;
@@ -73,6 +82,15 @@ public class RunLengthBitPackingHybridValuesReader extends ValuesReader {
 
   @Override
   public void skip() {
-    readInteger();
+    skip(1);
+  }
+
+  @Override
+  public void skip(int n) {
+    try {
+      decoder.skip(n);
+    } catch (IOException e) {
+      throw new ParquetDecodingException(e);
+    }
   }
 }
@@ -50,4 +50,8 @@ public class ZeroIntegerValuesReader extends ValuesReader {
   public void skip() {
   }
 
+  @Override
+  public void skip(int n) {
+  }
+
 }
@@ -25,6 +25,8 @@ import org.apache.parquet.io.api.RecordConsumer;
 public class BinaryValue extends Primitive {
 
   private final Binary binary;
+  // decoded on first use, values of dictionary encoded columns are shared
+  private String string = null;
 
   public BinaryValue(Binary binary) {
     this.binary = binary;
@@ -37,7 +39,10 @@ public class BinaryValue extends Primitive {
 
   @Override
   public String getString() {
-    return binary.toStringUsingUTF8();
+    if (string == null) {
+      string = binary.toStringUsingUTF8();
+    }
+    return string;
   }
 
   @Override
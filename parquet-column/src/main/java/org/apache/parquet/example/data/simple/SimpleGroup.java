@@ -98,7 +98,14 @@ public class SimpleGroup extends Group {
     }
   }
 
-  private void add(int fieldIndex, Primitive value) {
+  /**
+   * Adds a primitive value. Primitives are immutable, so the same value can
+   * be added to more than one group.
+   *
+   * @param fieldIndex the index of the field
+   * @param value the value to add
+   */
+  public void add(int fieldIndex, Primitive value) {
     Type type = schema.getType(fieldIndex);
     List<Object> list = data[fieldIndex];
     if (!type.isRepetition(Type.Repetition.REPEATED)
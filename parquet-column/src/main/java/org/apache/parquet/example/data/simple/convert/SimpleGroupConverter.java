@@ -39,7 +39,7 @@ class SimpleGroupConverter extends GroupConverter {
     for (int i = 0; i < converters.length; i++) {
       final Type type = schema.getType(i);
       if (type.isPrimitive()) {
-        converters[i] = new SimplePrimitiveConverter(this, i);
+        converters[i] = new SimplePrimitiveConverter(this, i, type.asPrimitiveType().getPrimitiveTypeName());
       } else {
         converters[i] = new SimpleGroupConverter(this, i, type.asGroupType());
       }
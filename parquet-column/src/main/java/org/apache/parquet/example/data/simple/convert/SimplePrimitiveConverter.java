@@ -18,17 +18,62 @@
  */
 package org.apache.parquet.example.data.simple.convert;
 
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.example.data.simple.BinaryValue;
+import org.apache.parquet.example.data.simple.SimpleGroup;
 import org.apache.parquet.io.api.Binary;
 import org.apache.parquet.io.api.PrimitiveConverter;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
 
 class SimplePrimitiveConverter extends PrimitiveConverter {
 
   private final SimpleGroupConverter parent;
   private final int index;
+  private final PrimitiveTypeName type;
 
-  SimplePrimitiveConverter(SimpleGroupConverter parent, int index) {
+  // the values of the current dictionary, converted the first time they are used
+  private Dictionary dictionary = null;
+  private BinaryValue[] dictionaryValues = null;
+
+  SimplePrimitiveConverter(SimpleGroupConverter parent, int index, PrimitiveTypeName type) {
     this.parent = parent;
     this.index = index;
+    this.type = type;
+  }
+
+  /**
+   * Dictionary encoded strings are decoded once for each dictionary id
+   * and the value is shared by the records.
+   *
+   * @see org.apache.parquet.io.api.PrimitiveConverter#hasDictionarySupport()
+   */
+  @Override
+  public boolean hasDictionarySupport() {
+    return type == PrimitiveTypeName.BINARY || type == PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY;
+  }
+
+  /**
+   * {@inheritDoc}
+   * @see org.apache.parquet.io.api.PrimitiveConverter#setDictionary(Dictionary)
+   */
+  @Override
+  public void setDictionary(Dictionary dictionary) {
+    this.dictionary = dictionary;
+    this.dictionaryValues = new BinaryValue[dictionary.getMaxId() + 1];
+  }
+
+  /**
+   * {@inheritDoc}
+   * @see org.apache.parquet.io.api.PrimitiveConverter#addValueFromDictionary(int)
+   */
+  @Override
+  public void addValueFromDictionary(int dictionaryId) {
+    BinaryValue value = dictionaryValues[dictionaryId];
+    if (value == null) {
+      value = new BinaryValue(dictionary.decodeToBinary(dictionaryId));
+      dictionaryValues[dictionaryId] = value;
+    }
+    ((SimpleGroup) parent.getCurrentRecord()).add(index, value);
   }
 
   /**
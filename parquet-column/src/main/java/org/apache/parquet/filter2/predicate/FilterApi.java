@@ -19,6 +19,7 @@
 package org.apache.parquet.filter2.predicate;
 
 import java.io.Serializable;
+import java.util.Set;
 
 import org.apache.parquet.hadoop.metadata.ColumnPath;
 import org.apache.parquet.filter2.predicate.Operators.And;
@@ -30,12 +31,14 @@ import org.apache.parquet.filter2.predicate.Operators.Eq;
 import org.apache.parquet.filter2.predicate.Operators.FloatColumn;
 import org.apache.parquet.filter2.predicate.Operators.Gt;
 import org.apache.parquet.filter2.predicate.Operators.GtEq;
+import org.apache.parquet.filter2.predicate.Operators.In;
 import org.apache.parquet.filter2.predicate.Operators.IntColumn;
 import org.apache.parquet.filter2.predicate.Operators.LongColumn;
 import org.apache.parquet.filter2.predicate.Operators.Lt;
 import org.apache.parquet.filter2.predicate.Operators.LtEq;
 import org.apache.parquet.filter2.predicate.Operators.Not;
 import org.apache.parquet.filter2.predicate.Operators.NotEq;
+import org.apache.parquet.filter2.predicate.Operators.NotIn;
 import org.apache.parquet.filter2.predicate.Operators.Or;
 import org.apache.parquet.filter2.predicate.Operators.SupportsEqNotEq;
 import org.apache.parquet.filter2.predicate.Operators.SupportsLtGt;
@@ -120,6 +123,31 @@ public final class FilterApi {
     return new NotEq<T>(column, value);
   }
 
+  /**
+   * Keeps records if their value is one of the provided values.
+   * The provided values cannot be null, and records with null values will be dropped.
+   * For example:
+   *   in(column, values) will keep all records whose value is in values, and not null.
+   *   or(in(column, values), eq(column, null)) will also keep records whose value is null.
+   *
+   * This is equivalent to an or() of eq() predicates, but is much faster to
+   * build and to evaluate for large sets of values.
+   */
+  public static <T extends Comparable<T>, C extends Column<T> & SupportsEqNotEq> In<T> in(C column, Set<T> values) {
+    return new In<T>(column, values);
+  }
+
+  /**
+   * Keeps records if their value is none of the provided values.
+   * The provided values cannot be null. Like {@link #notEq}, records with null values will be kept.
+   * For example:
+   *   notIn(column, values) will keep all records whose value is not in values, including records whose value is null.
+   *   and(notIn(column, values), notEq(column, null)) will drop records whose value is null.
+   */
+  public static <T extends Comparable<T>, C extends Column<T> & SupportsEqNotEq> NotIn<T> notIn(C column, Set<T> values) {
+    return new NotIn<T>(column, values);
+  }
+
   /**
    * Keeps records if their value is less than (but not equal to) the provided value.
    * The provided value cannot be null, as less than null has no meaning.
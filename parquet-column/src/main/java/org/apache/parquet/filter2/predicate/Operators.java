@@ -19,11 +19,16 @@
 package org.apache.parquet.filter2.predicate;
 
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.Locale;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
 
 import org.apache.parquet.hadoop.metadata.ColumnPath;
 import org.apache.parquet.io.api.Binary;
 
+import static org.apache.parquet.Preconditions.checkArgument;
 import static org.apache.parquet.Preconditions.checkNotNull;
 
 /**
@@ -250,6 +255,87 @@ public final class Operators {
     }
   }
 
+  // base class for In, NotIn
+  static abstract class SetColumnFilterPredicate<T extends Comparable<T>> implements FilterPredicate, Serializable {
+    private final Column<T> column;
+    // sorted in the natural order of the values, so that ranges can be searched
+    private final TreeSet<T> values;
+
+    protected SetColumnFilterPredicate(Column<T> column, Set<T> values) {
+      this.column = checkNotNull(column, "column");
+      checkNotNull(values, "values");
+      checkArgument(!values.isEmpty(), "values must not be empty");
+      for (T value : values) {
+        checkNotNull(value, "value");
+      }
+      this.values = new TreeSet<T>(values);
+    }
+
+    public Column<T> getColumn() {
+      return column;
+    }
+
+    /**
+     * @return the values, sorted in their natural order
+     */
+    public SortedSet<T> getValues() {
+      return Collections.unmodifiableSortedSet(values);
+    }
+
+    @Override
+    public String toString() {
+      String name = getClass().getSimpleName().toLowerCase(Locale.ENGLISH);
+      return name + "(" + column.getColumnPath().toDotString() + ", " + values + ")";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+
+      SetColumnFilterPredicate that = (SetColumnFilterPredicate) o;
+
+      if (!column.equals(that.column)) return false;
+      if (!values.equals(that.values)) return false;
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      int result = column.hashCode();
+      result = 31 * result + values.hashCode();
+      result = 31 * result + getClass().hashCode();
+      return result;
+    }
+  }
+
+  public static final class In<T extends Comparable<T>> extends SetColumnFilterPredicate<T> {
+
+    // values cannot be null
+    In(Column<T> column, Set<T> values) {
+      super(column, values);
+    }
+
+    @Override
+    public <R> R accept(Visitor<R> visitor) {
+      return visitor.visit(this);
+    }
+  }
+
+  public static final class NotIn<T extends Comparable<T>> extends SetColumnFilterPredicate<T> {
+
+    // values cannot be null
+    NotIn(Column<T> column, Set<T> values) {
+      super(column, values);
+    }
+
+    @Override
+    public <R> R accept(Visitor<R> visitor) {
+      return visitor.visit(this);
+    }
+  }
+
   // base class for And, Or
   private static abstract class BinaryLogicalFilterPredicate implements FilterPredicate, Serializable {
     private final FilterPredicate left;
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.filter2.recordlevel;
+
+import java.util.BitSet;
+
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.filter2.recordlevel.IncrementallyUpdatedFilterPredicate.ValueInspector;
+import org.apache.parquet.io.ParquetDecodingException;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+
+import static org.apache.parquet.Preconditions.checkNotNull;
+
+/**
+ * Updates the {@link ValueInspector}s of a dictionary encoded column with
+ * dictionary ids instead of values.
+ *
+ * The result of each inspector is computed once for each id of the
+ * dictionary, the first time the id is seen, and kept in a bitset. The values
+ * of the following records are then evaluated with a bitset lookup, without
+ * decoding and comparing the value again.
+ */
+public final class DictionaryIdInspectors {
+  private final ValueInspector[] valueInspectors;
+  private final Dictionary dictionary;
+  private final PrimitiveTypeName type;
+  // the ids for which the results of the inspectors are known
+  private final BitSet evaluated;
+  // the ids that satisfy each inspector
+  private final BitSet[] matches;
+
+  /**
+   * @param valueInspectors the value inspectors of a column
+   * @param dictionary the dictionary of the column chunk
+   * @param type the primitive type of the column
+   */
+  public DictionaryIdInspectors(ValueInspector[] valueInspectors, Dictionary dictionary, PrimitiveTypeName type) {
+    this.valueInspectors = checkNotNull(valueInspectors, "valueInspectors");
+    this.dictionary = checkNotNull(dictionary, "dictionary");
+    this.type = checkNotNull(type, "type");
+    int size = dictionary.getMaxId() + 1;
+    this.evaluated = new BitSet(size);
+    this.matches = new BitSet[valueInspectors.length];
+    for (int i = 0; i < matches.length; ++i) {
+      matches[i] = new BitSet(size);
+    }
+  }
+
+  /**
+   * Signals the value of the current record to the inspectors.
+   *
+   * @param dictionaryId the dictionary id of the value
+   */
+  public void update(int dictionaryId) {
+    if (!evaluated.get(dictionaryId)) {
+      evaluate(dictionaryId);
+    }
+    for (int i = 0; i < valueInspectors.length; ++i) {
+      valueInspectors[i].setResult(matches[i].get(dictionaryId));
+    }
+  }
+
+  // the inspectors are not updated yet for the current record, so they can
+  // be used to compute the results for the id and reset
+  private void evaluate(int dictionaryId) {
+    for (int i = 0; i < valueInspectors.length; ++i) {
+      ValueInspector inspector = valueInspectors[i];
+      update(inspector, dictionaryId);
+      if (inspector.getResult()) {
+        matches[i].set(dictionaryId);
+      }
+      inspector.reset();
+    }
+    evaluated.set(dictionaryId);
+  }
+
+  private void update(ValueInspector inspector, int dictionaryId) {
+    switch (type) {
+    case INT32:
+      inspector.update(dictionary.decodeToInt(dictionaryId));
+      break;
+    case INT64:
+      inspector.update(dictionary.decodeToLong(dictionaryId));
+      break;
+    case FLOAT:
+      inspector.update(dictionary.decodeToFloat(dictionaryId));
+      break;
+    case DOUBLE:
+      inspector.update(dictionary.decodeToDouble(dictionaryId));
+      break;
+    case BOOLEAN:
+      inspector.update(dictionary.decodeToBoolean(dictionaryId));
+      break;
+    case BINARY:
+    case FIXED_LEN_BYTE_ARRAY:
+    case INT96:
+      inspector.update(dictionary.decodeToBinary(dictionaryId));
+      break;
+    default:
+      throw new ParquetDecodingException("Unknown type " + type);
+    }
+  }
+}
@@ -81,7 +81,8 @@ public class FilteringGroupConverter extends GroupConverter {
       PrimitiveColumnIO columnIO = getColumnIO(newIndexFieldPath);
       ColumnPath columnPath = ColumnPath.get(columnIO.getColumnDescriptor().getPath());
       ValueInspector[] valueInspectors = getValueInspectors(columnPath);
-      return new FilteringPrimitiveConverter(delegateConverter.asPrimitiveConverter(), valueInspectors);
+      return new FilteringPrimitiveConverter(delegateConverter.asPrimitiveConverter(), valueInspectors,
+          columnIO.getColumnDescriptor().getType());
     } else {
       return new FilteringGroupConverter(delegateConverter.asGroupConverter(), newIndexFieldPath, valueInspectorsByColumn, columnIOsByIndexFieldPath);
     }
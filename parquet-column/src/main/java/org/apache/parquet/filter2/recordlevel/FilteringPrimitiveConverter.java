@@ -22,6 +22,7 @@ import org.apache.parquet.column.Dictionary;
 import org.apache.parquet.filter2.recordlevel.IncrementallyUpdatedFilterPredicate.ValueInspector;
 import org.apache.parquet.io.api.Binary;
 import org.apache.parquet.io.api.PrimitiveConverter;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
 
 import static org.apache.parquet.Preconditions.checkNotNull;
 
@@ -34,29 +35,49 @@ import static org.apache.parquet.Preconditions.checkNotNull;
 public class FilteringPrimitiveConverter extends PrimitiveConverter {
   private final PrimitiveConverter delegate;
   private final ValueInspector[] valueInspectors;
+  // the type of the column, used to evaluate dictionary ids (may be null)
+  private final PrimitiveTypeName type;
+  private DictionaryIdInspectors dictionaryInspectors = null;
 
   public FilteringPrimitiveConverter(PrimitiveConverter delegate, ValueInspector[] valueInspectors) {
+    this(delegate, valueInspectors, null);
+  }
+
+  /**
+   * @param delegate the real converter
+   * @param valueInspectors the value inspectors of the column
+   * @param type the type of the column, needed to support dictionaries
+   */
+  public FilteringPrimitiveConverter(PrimitiveConverter delegate, ValueInspector[] valueInspectors,
+                                     PrimitiveTypeName type) {
     this.delegate = checkNotNull(delegate, "delegate");
     this.valueInspectors = checkNotNull(valueInspectors, "valueInspectors");
+    this.type = type;
   }
 
-  // TODO: this works, but
-  // TODO: essentially turns off the benefits of dictionary support
-  // TODO: even if the underlying delegate supports it.
-  // TODO: we should support it here. (https://issues.apache.org/jira/browse/PARQUET-36)
+  // dictionary ids are passed through to the delegate, so values are only
+  // decoded when the delegate doesn't support dictionaries
   @Override
   public boolean hasDictionarySupport() {
-    return false;
+    return type != null && delegate.hasDictionarySupport();
   }
 
   @Override
   public void setDictionary(Dictionary dictionary) {
-    throw new UnsupportedOperationException("FilteringPrimitiveConverter doesn't have dictionary support");
+    if (!hasDictionarySupport()) {
+      throw new UnsupportedOperationException("FilteringPrimitiveConverter doesn't have dictionary support");
+    }
+    this.dictionaryInspectors = new DictionaryIdInspectors(valueInspectors, dictionary, type);
+    delegate.setDictionary(dictionary);
   }
 
   @Override
   public void addValueFromDictionary(int dictionaryId) {
-    throw new UnsupportedOperationException("FilteringPrimitiveConverter doesn't have dictionary support");
+    if (dictionaryInspectors == null) {
+      throw new UnsupportedOperationException("FilteringPrimitiveConverter doesn't have dictionary support");
+    }
+    dictionaryInspectors.update(dictionaryId);
+    delegate.addValueFromDictionary(dictionaryId);
   }
 
   @Override
@@ -78,21 +78,11 @@ class FilteredRecordReader<T> extends RecordReaderImplementation<T> {
    */
   private void skipToMatch() {
     while (recordsRead < recordCount && !recordFilter.isMatch()) {
-      State currentState = getState(0);
-      do {
-        ColumnReader columnReader = currentState.column;
-
-        // currentLevel = depth + 1 at this point
-        // set the current value
-        if (columnReader.getCurrentDefinitionLevel() >= currentState.maxDefinitionLevel) {
-          columnReader.skip();
-        }
-        columnReader.consume();
-
-        // Based on repetition level work out next state to go to
-        int nextR = currentState.maxRepetitionLevel == 0 ? 0 : columnReader.getCurrentRepetitionLevel();
-        currentState = currentState.getNextState(nextR);
-      } while (currentState != null);
+      // each column moves past the values of the record on its own,
+      // without walking the record through the state machine
+      for (ColumnReader columnReader : getColumnReaders()) {
+        columnReader.skipRecords(1);
+      }
       ++ recordsRead;
     }
   }
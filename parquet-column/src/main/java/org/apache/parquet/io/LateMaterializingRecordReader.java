@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.io;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnReader;
+import org.apache.parquet.column.impl.ColumnReadStoreImpl;
+import org.apache.parquet.column.impl.ColumnReaderImpl;
+import org.apache.parquet.filter2.recordlevel.DictionaryIdInspectors;
+import org.apache.parquet.filter2.recordlevel.IncrementallyUpdatedFilterPredicate;
+import org.apache.parquet.filter2.recordlevel.IncrementallyUpdatedFilterPredicate.ValueInspector;
+import org.apache.parquet.filter2.recordlevel.IncrementallyUpdatedFilterPredicateEvaluator;
+import org.apache.parquet.filter2.recordlevel.IncrementallyUpdatedFilterPredicateResetter;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordMaterializer;
+
+import static org.apache.parquet.Preconditions.checkNotNull;
+
+/**
+ * Reads the records that match a filter2 predicate in two phases.
+ *
+ * The current values of the predicate columns are evaluated first, without
+ * assembling the record. The other columns are only moved forward when a
+ * matching record is found: they skip all the records that were dropped at
+ * once, so their values are decoded only for the matching records.
+ *
+ * This requires the predicate columns to be non-repeated, so that each record
+ * has exactly one value in each of them.
+ *
+ * @param <T> the type of the materialized record
+ */
+class LateMaterializingRecordReader<T> extends RecordReaderImplementation<T> {
+
+  private final IncrementallyUpdatedFilterPredicate predicate;
+  private final ColumnReader[] predicateColumns;
+  // the value inspectors of each predicate column
+  private final ValueInspector[][] valueInspectors;
+  // evaluates the dictionary ids of each predicate column, null if it has no dictionary
+  private final DictionaryIdInspectors[] dictionaryInspectors;
+  private final ColumnReader[] otherColumns;
+  private final long recordCount;
+  private long recordsRead = 0;
+  private boolean endReached = false;
+
+  /**
+   * @param root the root of the schema
+   * @param recordMaterializer the materializer of the matching records
+   * @param validating whether to validate the records against the schema
+   * @param columnStore the readers of the columns
+   * @param predicate the predicate to evaluate
+   * @param valueInspectorsByColumn the value inspectors of the predicate
+   * @param recordCount the number of records in the column store
+   */
+  LateMaterializingRecordReader(MessageColumnIO root, RecordMaterializer<T> recordMaterializer, boolean validating,
+                                ColumnReadStoreImpl columnStore, IncrementallyUpdatedFilterPredicate predicate,
+                                Map<ColumnPath, List<ValueInspector>> valueInspectorsByColumn, long recordCount) {
+    super(root, recordMaterializer, validating, columnStore);
+    this.predicate = checkNotNull(predicate, "predicate");
+    this.recordCount = recordCount;
+
+    List<ColumnReader> predicateColumns = new ArrayList<ColumnReader>();
+    List<ValueInspector[]> valueInspectors = new ArrayList<ValueInspector[]>();
+    List<ColumnReader> otherColumns = new ArrayList<ColumnReader>();
+    for (ColumnReader column : getColumnReaders()) {
+      List<ValueInspector> inspectors = valueInspectorsByColumn.get(ColumnPath.get(column.getDescriptor().getPath()));
+      if (inspectors == null) {
+        otherColumns.add(column);
+      } else {
+        predicateColumns.add(column);
+        valueInspectors.add(inspectors.toArray(new ValueInspector[inspectors.size()]));
+      }
+    }
+    this.predicateColumns = predicateColumns.toArray(new ColumnReader[predicateColumns.size()]);
+    this.valueInspectors = valueInspectors.toArray(new ValueInspector[valueInspectors.size()][]);
+    this.otherColumns = otherColumns.toArray(new ColumnReader[otherColumns.size()]);
+
+    this.dictionaryInspectors = new DictionaryIdInspectors[this.predicateColumns.length];
+    for (int i = 0; i < dictionaryInspectors.length; ++i) {
+      ColumnReader column = this.predicateColumns[i];
+      if (column.getDictionary() != null && column instanceof ColumnReaderImpl) {
+        // the converters may not support dictionaries, ids are only read for the predicate
+        ((ColumnReaderImpl) column).readDictionaryIds();
+        dictionaryInspectors[i] = new DictionaryIdInspectors(
+            this.valueInspectors[i], column.getDictionary(), column.getDescriptor().getType());
+      }
+    }
+  }
+
+  /**
+   * @param leaves the columns that are read
+   * @param valueInspectorsByColumn the value inspectors of the predicate
+   * @return whether the predicate can be evaluated before assembling the records
+   */
+  static boolean canEvaluateFirst(List<PrimitiveColumnIO> leaves,
+                                  Map<ColumnPath, List<ValueInspector>> valueInspectorsByColumn) {
+    for (PrimitiveColumnIO leaf : leaves) {
+      if (leaf.getColumnDescriptor().getMaxRepetitionLevel() > 0 &&
+          valueInspectorsByColumn.containsKey(ColumnPath.get(leaf.getColumnDescriptor().getPath()))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Skips the records that do not match and reads the next matching one.
+   *
+   * @return the next matching record or null when the end of the column store is reached
+   */
+  @Override
+  public T read() {
+    long skipped = skipToMatch();
+    if (recordsRead == recordCount) {
+      endReached = true;
+      return null;
+    }
+    for (ColumnReader column : otherColumns) {
+      column.skipRecords(skipped);
+    }
+    ++ recordsRead;
+    return super.read();
+  }
+
+  // the end of the column store is signaled by returning null, like FilteredRecordReader
+  @Override
+  public boolean shouldSkipCurrentRecord() {
+    return !endReached && super.shouldSkipCurrentRecord();
+  }
+
+  private long skipToMatch() {
+    long skipped = 0;
+    while (recordsRead < recordCount && !isMatch()) {
+      for (ColumnReader column : predicateColumns) {
+        column.skipRecords(1);
+      }
+      ++ skipped;
+      ++ recordsRead;
+    }
+    return skipped;
+  }
+
+  private boolean isMatch() {
+    for (int i = 0; i < predicateColumns.length; ++i) {
+      update(predicateColumns[i], valueInspectors[i], dictionaryInspectors[i]);
+    }
+    // null values are applied to the inspectors that were not updated
+    boolean match = IncrementallyUpdatedFilterPredicateEvaluator.evaluate(predicate);
+    IncrementallyUpdatedFilterPredicateResetter.reset(predicate);
+    return match;
+  }
+
+  private static void update(ColumnReader column, ValueInspector[] inspectors,
+                             DictionaryIdInspectors dictionaryInspectors) {
+    ColumnDescriptor descriptor = column.getDescriptor();
+    if (column.getCurrentDefinitionLevel() < descriptor.getMaxDefinitionLevel()) {
+      return;
+    }
+    if (dictionaryInspectors != null && column.isCurrentValueDictionaryEncoded()) {
+      dictionaryInspectors.update(column.getCurrentValueDictionaryID());
+      return;
+    }
+    switch (descriptor.getType()) {
+    case INT32:
+      int intValue = column.getInteger();
+      for (ValueInspector inspector : inspectors) {
+        inspector.update(intValue);
+      }
+      break;
+    case INT64:
+      long longValue = column.getLong();
+      for (ValueInspector inspector : inspectors) {
+        inspector.update(longValue);
+      }
+      break;
+    case FLOAT:
+      float floatValue = column.getFloat();
+      for (ValueInspector inspector : inspectors) {
+        inspector.update(floatValue);
+      }
+      break;
+    case DOUBLE:
+      double doubleValue = column.getDouble();
+      for (ValueInspector inspector : inspectors) {
+        inspector.update(doubleValue);
+      }
+      break;
+    case BOOLEAN:
+      boolean booleanValue = column.getBoolean();
+      for (ValueInspector inspector : inspectors) {
+        inspector.update(booleanValue);
+      }
+      break;
+    case BINARY:
+    case FIXED_LEN_BYTE_ARRAY:
+    case INT96:
+      Binary binaryValue = column.getBinary();
+      for (ValueInspector inspector : inspectors) {
+        inspector.update(binaryValue);
+      }
+      break;
+    default:
+      throw new ParquetDecodingException("Unknown type " + descriptor.getType() + " for column " + descriptor);
+    }
+  }
+}
@@ -111,6 +111,19 @@ public class MessageColumnIO extends GroupColumnIO {
         FilterPredicate predicate = filterPredicateCompat.getFilterPredicate();
         IncrementallyUpdatedFilterPredicateBuilder builder = new IncrementallyUpdatedFilterPredicateBuilder();
         IncrementallyUpdatedFilterPredicate streamingPredicate = builder.build(predicate);
+
+        // evaluate the predicate before assembling the records when it only uses non-repeated columns
+        if (LateMaterializingRecordReader.canEvaluateFirst(leaves, builder.getValueInspectorsByColumn())) {
+          return new LateMaterializingRecordReader<T>(
+              MessageColumnIO.this,
+              recordMaterializer,
+              validating,
+              new ColumnReadStoreImpl(columns, recordMaterializer.getRootConverter(), getType(), createdBy),
+              streamingPredicate,
+              builder.getValueInspectorsByColumn(),
+              columns.getRowCount());
+        }
+
         RecordMaterializer<T> filteringRecordMaterializer = new FilteringRecordMaterializer<T>(
             recordMaterializer,
             leaves,
@@ -77,6 +77,13 @@ abstract public class Binary implements Comparable<Binary>, Serializable {
 
   abstract int compareTo(ByteBuffer bytes, int offset, int length);
 
+  // these compare this value to the other value as unsigned bytes
+  abstract int compareUnsignedTo(Binary other);
+
+  abstract int compareUnsignedTo(byte[] bytes, int offset, int length);
+
+  abstract int compareUnsignedTo(ByteBuffer bytes, int offset, int length);
+
   abstract public ByteBuffer toByteBuffer();
 
   @Override
@@ -202,6 +209,21 @@ abstract public class Binary implements Comparable<Binary>, Serializable {
       return Binary.compareByteArrayToByteBuffer(value, offset, length, bytes, otherOffset, otherLength);
     }
 
+    @Override
+    int compareUnsignedTo(Binary other) {
+      return -other.compareUnsignedTo(value, offset, length);
+    }
+
+    @Override
+    int compareUnsignedTo(byte[] other, int otherOffset, int otherLength) {
+      return Binary.compareTwoByteArraysUnsigned(value, offset, length, other, otherOffset, otherLength);
+    }
+
+    @Override
+    int compareUnsignedTo(ByteBuffer bytes, int otherOffset, int otherLength) {
+      return Binary.compareByteArrayToByteBufferUnsigned(value, offset, length, bytes, otherOffset, otherLength);
+    }
+
     @Override
     public ByteBuffer toByteBuffer() {
       return ByteBuffer.wrap(value, offset, length);
@@ -358,6 +380,21 @@ abstract public class Binary implements Comparable<Binary>, Serializable {
       return Binary.compareByteArrayToByteBuffer(value, 0, value.length, bytes, otherOffset, otherLength);
     }
 
+    @Override
+    int compareUnsignedTo(Binary other) {
+      return -other.compareUnsignedTo(value, 0, value.length);
+    }
+
+    @Override
+    int compareUnsignedTo(byte[] other, int otherOffset, int otherLength) {
+      return Binary.compareTwoByteArraysUnsigned(value, 0, value.length, other, otherOffset, otherLength);
+    }
+
+    @Override
+    int compareUnsignedTo(ByteBuffer bytes, int otherOffset, int otherLength) {
+      return Binary.compareByteArrayToByteBufferUnsigned(value, 0, value.length, bytes, otherOffset, otherLength);
+    }
+
     @Override
     public ByteBuffer toByteBuffer() {
       return ByteBuffer.wrap(value);
@@ -527,9 +564,34 @@ abstract public class Binary implements Comparable<Binary>, Serializable {
       return Binary.compareTwoByteBuffers(value, offset, length, bytes, otherOffset, otherLength);
     }
 
+    @Override
+    int compareUnsignedTo(Binary other) {
+      if (value.hasArray()) {
+        return -other.compareUnsignedTo(value.array(), value.arrayOffset() + offset, length);
+      } else {
+        return -other.compareUnsignedTo(value, offset, length);
+      }
+    }
+
+    @Override
+    int compareUnsignedTo(byte[] other, int otherOffset, int otherLength) {
+      if (value.hasArray()) {
+        return Binary.compareTwoByteArraysUnsigned(value.array(), value.arrayOffset() + offset, length,
+            other, otherOffset, otherLength);
+      } else {
+        return -Binary.compareByteArrayToByteBufferUnsigned(other, otherOffset, otherLength, value, offset, length);
+      }
+    }
+
+    @Override
+    int compareUnsignedTo(ByteBuffer bytes, int otherOffset, int otherLength) {
+      return Binary.compareTwoByteBuffersUnsigned(value, offset, length, bytes, otherOffset, otherLength);
+    }
+
     @Override
     public ByteBuffer toByteBuffer() {
-      ByteBuffer ret = value.slice();
+      // the offset is relative to the start of the buffer, not its position
+      ByteBuffer ret = value.duplicate();
       ret.position(offset);
       ret.limit(offset + length);
       return ret;
@@ -671,6 +733,56 @@ abstract public class Binary implements Comparable<Binary>, Serializable {
     return -1 * Binary.compareByteArrayToByteBuffer(array, offset1, length1, buf, offset2, length2);
   }
 
+  /**
+   * Compares binary values lexicographically as unsigned bytes, the order of
+   * UTF8 strings. {@link #compareTo(Binary)} compares signed bytes.
+   *
+   * @param left a binary value
+   * @param right another binary value
+   * @return a negative number, zero or a positive number if left is less
+   *         than, equal to or greater than right
+   */
+  public static int compareUnsigned(Binary left, Binary right) {
+    return left.compareUnsignedTo(right);
+  }
+
+  private static final int compareTwoByteArraysUnsigned(byte[] array1, int offset1, int length1,
+                                                        byte[] array2, int offset2, int length2) {
+    if (array1 == array2 && offset1 == offset2 && length1 == length2) return 0;
+    int min_length = (length1 < length2) ? length1 : length2;
+    for (int i = 0; i < min_length; i++) {
+      int cmp = (array1[i + offset1] & 0xFF) - (array2[i + offset2] & 0xFF);
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return length1 - length2;
+  }
+
+  private static final int compareByteArrayToByteBufferUnsigned(byte[] array1, int offset1, int length1,
+                                                                ByteBuffer buf, int offset2, int length2) {
+    int min_length = (length1 < length2) ? length1 : length2;
+    for (int i = 0; i < min_length; i++) {
+      int cmp = (array1[i + offset1] & 0xFF) - (buf.get(i + offset2) & 0xFF);
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return length1 - length2;
+  }
+
+  private static final int compareTwoByteBuffersUnsigned(ByteBuffer buf1, int offset1, int length1,
+                                                         ByteBuffer buf2, int offset2, int length2) {
+    int min_length = (length1 < length2) ? length1 : length2;
+    for (int i = 0; i < min_length; i++) {
+      int cmp = (buf1.get(i + offset1) & 0xFF) - (buf2.get(i + offset2) & 0xFF);
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return length1 - length2;
+  }
+
   private static final int compareByteArrayToByteBuffer(byte[] array1, int offset1, int length1,
                                                         ByteBuffer buf, int offset2, int length2) {
     if (array1 == null && buf == null) return 0;
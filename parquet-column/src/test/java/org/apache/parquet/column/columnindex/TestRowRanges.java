@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.column.columnindex;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.apache.parquet.column.columnindex.RowRanges.Range;
+import org.apache.parquet.column.statistics.IntStatistics;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.junit.Test;
+
+public class TestRowRanges {
+
+  private static RowRanges ranges(long... bounds) {
+    RowRanges.Builder builder = new RowRanges.Builder();
+    for (int i = 0; i < bounds.length; i += 2) {
+      builder.add(bounds[i], bounds[i + 1]);
+    }
+    return builder.build();
+  }
+
+  @Test
+  public void testBuilderMergesRanges() {
+    RowRanges ranges = ranges(20, 29, 0, 4, 5, 9, 25, 39, 50, 50);
+    assertEquals(Arrays.asList(new Range(0, 9), new Range(20, 39), new Range(50, 50)), ranges.getRanges());
+    assertEquals(31, ranges.rowCount());
+    assertTrue(ranges(new long[0]).isEmpty());
+  }
+
+  @Test
+  public void testUnion() {
+    assertEquals(ranges(0, 9, 15, 29),
+        RowRanges.union(ranges(0, 4, 15, 19), ranges(5, 9, 18, 29)));
+    assertEquals(ranges(3, 7), RowRanges.union(RowRanges.empty(), ranges(3, 7)));
+    assertEquals(RowRanges.all(10), RowRanges.union(RowRanges.all(10), ranges(3, 7)));
+  }
+
+  @Test
+  public void testIntersection() {
+    assertEquals(ranges(5, 9, 18, 19, 40, 40),
+        RowRanges.intersection(ranges(0, 19, 30, 40), ranges(5, 9, 18, 29, 40, 45)));
+    assertTrue(RowRanges.intersection(ranges(0, 4), ranges(5, 9)).isEmpty());
+    assertTrue(RowRanges.intersection(RowRanges.empty(), RowRanges.all(10)).isEmpty());
+  }
+
+  @Test
+  public void testIsOverlapping() {
+    RowRanges ranges = ranges(10, 19, 30, 39);
+    assertFalse(ranges.isOverlapping(0, 9));
+    assertTrue(ranges.isOverlapping(0, 10));
+    assertTrue(ranges.isOverlapping(15, 16));
+    assertFalse(ranges.isOverlapping(20, 29));
+    assertTrue(ranges.isOverlapping(25, 45));
+    assertFalse(ranges.isOverlapping(40, 100));
+    assertFalse(RowRanges.empty().isOverlapping(0, 100));
+  }
+
+  @Test
+  public void testOffsetIndexBuilder() {
+    OffsetIndex.Builder builder = new OffsetIndex.Builder();
+    builder.add(100, 10);
+    builder.add(120, 15);
+    builder.add(80, 5);
+    OffsetIndex offsetIndex = builder.build(1000);
+    assertEquals(3, offsetIndex.getPageCount());
+    assertEquals(1100, offsetIndex.getOffset(1));
+    assertEquals(1220, offsetIndex.getOffset(2));
+    assertEquals(25, offsetIndex.getFirstRowIndex(2));
+    assertEquals(24, offsetIndex.getLastRowIndex(1, 30));
+    assertEquals(29, offsetIndex.getLastRowIndex(2, 30));
+
+    builder = new OffsetIndex.Builder();
+    builder.add(100, 10);
+    builder.invalidate();
+    builder.add(100, 10);
+    assertNull(builder.build(1000));
+  }
+
+  @Test
+  public void testColumnIndexBuilder() {
+    ColumnIndex.Builder builder = new ColumnIndex.Builder(PrimitiveTypeName.INT32, 4096);
+    IntStatistics stats = new IntStatistics();
+    stats.updateStats(3);
+    stats.updateStats(-7);
+    builder.add(stats);
+    IntStatistics nulls = new IntStatistics();
+    nulls.incrementNumNulls(5);
+    builder.add(nulls);
+    ColumnIndex columnIndex = builder.build();
+
+    assertEquals(2, columnIndex.getPageCount());
+    assertFalse(columnIndex.isNullPage(0));
+    assertEquals(stats, columnIndex.getPageStatistics(0));
+    assertTrue(columnIndex.isNullPage(1));
+    assertEquals(5, columnIndex.getNullCount(1));
+
+    builder.add(null);
+    assertNull("A page without statistics invalidates the index", builder.build());
+  }
+}
@@ -0,0 +1,335 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.column.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.apache.parquet.Version;
+import org.apache.parquet.VersionParser;
+import org.apache.parquet.column.ColumnBatch;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnReader;
+import org.apache.parquet.column.ColumnWriteStore;
+import org.apache.parquet.column.ParquetProperties;
+import org.apache.parquet.column.ParquetProperties.WriterVersion;
+import org.apache.parquet.column.page.mem.MemPageStore;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.PrimitiveConverter;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+@RunWith(Parameterized.class)
+public class TestColumnReaderBatch {
+
+  private static final int ROWS = 10007;
+  private static final MessageType SCHEMA = MessageTypeParser.parseMessageType(
+      "message test { "
+          + "optional int32 small_int; "
+          + "required int64 id; "
+          + "optional double score; "
+          + "optional binary name; "
+          + "required boolean flag; "
+          + "required float ratio; "
+          + "}");
+
+  @Parameterized.Parameters(name = "{0}, dictionary: {1}")
+  public static Collection<Object[]> params() {
+    return Arrays.asList(new Object[][] {
+        { WriterVersion.PARQUET_1_0, true },
+        { WriterVersion.PARQUET_1_0, false },
+        { WriterVersion.PARQUET_2_0, true },
+        { WriterVersion.PARQUET_2_0, false } });
+  }
+
+  private final WriterVersion writerVersion;
+  private final boolean dictionary;
+  private MemPageStore pageStore;
+
+  public TestColumnReaderBatch(WriterVersion writerVersion, boolean dictionary) {
+    this.writerVersion = writerVersion;
+    this.dictionary = dictionary;
+  }
+
+  private static boolean isNull(int row) {
+    return row % 7 == 3;
+  }
+
+  @Before
+  public void writeColumns() {
+    pageStore = new MemPageStore(ROWS);
+    ColumnWriteStore store = ParquetProperties.builder()
+        .withWriterVersion(writerVersion)
+        .withDictionaryEncoding(dictionary)
+        .withPageSize(1024)
+        .withDictionaryPageSize(2048)
+        .build()
+        .newColumnWriteStore(SCHEMA, pageStore);
+    for (int i = 0; i < ROWS; ++i) {
+      if (isNull(i)) {
+        store.getColumnWriter(column(0)).writeNull(0, 0);
+        store.getColumnWriter(column(2)).writeNull(0, 0);
+        store.getColumnWriter(column(3)).writeNull(0, 0);
+      } else {
+        store.getColumnWriter(column(0)).write(i % 100, 0, 1);
+        store.getColumnWriter(column(2)).write(i * 0.5, 0, 1);
+        store.getColumnWriter(column(3)).write(Binary.fromString("name-" + (i % 50)), 0, 1);
+      }
+      store.getColumnWriter(column(1)).write((long) i * 1000, 0, 0);
+      store.getColumnWriter(column(4)).write(i % 3 == 0, 0, 0);
+      store.getColumnWriter(column(5)).write(i / 4.0f, 0, 0);
+      store.endRecord();
+    }
+    store.flush();
+  }
+
+  private static ColumnDescriptor column(int index) {
+    return SCHEMA.getColumns().get(index);
+  }
+
+  private ColumnReader reader(int index) throws Exception {
+    return new ColumnReaderImpl(column(index), pageStore.getPageReader(column(index)),
+        new PrimitiveConverter() {}, VersionParser.parse(Version.FULL_VERSION));
+  }
+
+  @Test
+  public void testBatches() throws Exception {
+    for (int batchSize : new int[] { 1, 333, 1000, ROWS + 10 }) {
+      int[] ints = new int[batchSize];
+      long[] longs = new long[batchSize];
+      double[] doubles = new double[batchSize];
+      Binary[] binaries = new Binary[batchSize];
+      boolean[] booleans = new boolean[batchSize];
+      float[] floats = new float[batchSize];
+      int[] dl = new int[batchSize];
+
+      ColumnReader smallInt = reader(0);
+      ColumnReader id = reader(1);
+      ColumnReader score = reader(2);
+      ColumnReader name = reader(3);
+      ColumnReader flag = reader(4);
+      ColumnReader ratio = reader(5);
+
+      int row = 0;
+      while (row < ROWS) {
+        int expected = Math.min(batchSize, ROWS - row);
+
+        assertEquals(expected, smallInt.readBatch(batchSize, ints, dl));
+        for (int i = 0; i < expected; ++i) {
+          assertEquals(isNull(row + i) ? 0 : 1, dl[i]);
+          if (!isNull(row + i)) {
+            assertEquals((row + i) % 100, ints[i]);
+          }
+        }
+
+        assertEquals(expected, score.readBatch(batchSize, doubles, dl));
+        for (int i = 0; i < expected; ++i) {
+          assertEquals(isNull(row + i) ? 0 : 1, dl[i]);
+          if (!isNull(row + i)) {
+            assertEquals((row + i) * 0.5, doubles[i], 0.0);
+          }
+        }
+
+        assertEquals(expected, name.readBatch(batchSize, binaries, dl));
+        for (int i = 0; i < expected; ++i) {
+          if (!isNull(row + i)) {
+            assertEquals("name-" + ((row + i) % 50), binaries[i].toStringUsingUTF8());
+          }
+        }
+
+        // required columns do not need definition levels
+        assertEquals(expected, id.readBatch(batchSize, longs, null));
+        assertEquals(expected, flag.readBatch(batchSize, booleans, null));
+        assertEquals(expected, ratio.readBatch(batchSize, floats, null));
+        for (int i = 0; i < expected; ++i) {
+          assertEquals((long) (row + i) * 1000, longs[i]);
+          assertEquals((row + i) % 3 == 0, booleans[i]);
+          assertEquals((row + i) / 4.0f, floats[i], 0.0f);
+        }
+
+        row += expected;
+      }
+
+      // the end of the column was reached
+      assertEquals(0, smallInt.readBatch(batchSize, ints, dl));
+      assertEquals(0, id.readBatch(batchSize, longs, null));
+    }
+  }
+
+  @Test
+  public void testMixedWithValueReads() throws Exception {
+    ColumnReader id = reader(1);
+    long[] longs = new long[100];
+    // read the current value before and after reading a batch
+    assertEquals(0L, id.getLong());
+    assertEquals(100, id.readBatch(100, longs, null));
+    assertEquals(0L, longs[0]);
+    assertEquals(99000L, longs[99]);
+    assertEquals(100000L, id.getLong());
+    id.consume();
+    assertEquals(101000L, id.getLong());
+    assertEquals(100, id.readBatch(100, longs, null));
+    assertEquals(101000L, longs[0]);
+    assertEquals(201000L, id.getLong());
+  }
+
+  @Test
+  public void testSkipRecords() throws Exception {
+    ColumnReader smallInt = reader(0);
+    ColumnReader id = reader(1);
+    ColumnReader score = reader(2);
+    ColumnReader name = reader(3);
+    ColumnReader flag = reader(4);
+    ColumnReader ratio = reader(5);
+    ColumnReader[] readers = { smallInt, id, score, name, flag, ratio };
+
+    int row = 0;
+    // skip within a page, across pages and past a read value
+    for (int skip : new int[] { 0, 1, 3, 10, 500, 1, 2000, 7, 3333 }) {
+      for (ColumnReader reader : readers) {
+        assertEquals(skip, reader.skipRecords(skip));
+      }
+      row += skip;
+
+      assertEquals((long) row * 1000, id.getLong());
+      assertEquals(row % 3 == 0, flag.getBoolean());
+      assertEquals(row / 4.0f, ratio.getFloat(), 0.0f);
+      assertEquals(isNull(row) ? 0 : 1, smallInt.getCurrentDefinitionLevel());
+      if (!isNull(row)) {
+        assertEquals(row % 100, smallInt.getInteger());
+        assertEquals(row * 0.5, score.getDouble(), 0.0);
+        assertEquals("name-" + (row % 50), name.getBinary().toStringUsingUTF8());
+      }
+    }
+
+    // skipping stops at the end of the column
+    for (ColumnReader reader : readers) {
+      assertEquals(ROWS - row, reader.skipRecords(ROWS));
+      assertEquals(0, reader.skipRecords(1));
+    }
+  }
+
+  @Test
+  public void testColumnBatch() throws Exception {
+    ColumnBatch batch = new ColumnBatch(column(0), 500);
+    ColumnReader reader = reader(0);
+    int row = 0;
+    int read;
+    while ((read = batch.read(reader, 500)) > 0) {
+      assertEquals(read, batch.size());
+      assertTrue(batch.getLongValues() == null);
+      for (int i = 0; i < read; ++i, ++row) {
+        assertEquals(isNull(row), batch.isNull(i));
+        if (!isNull(row)) {
+          assertEquals(row % 100, batch.getIntValues()[i]);
+        }
+      }
+    }
+    assertEquals(ROWS, row);
+
+    ColumnBatch required = new ColumnBatch(column(1), 10);
+    assertTrue(required.getDefinitionLevels() == null);
+    assertEquals(10, required.read(reader(1), 10));
+    assertFalse(required.isNull(0));
+    assertArrayEquals(new long[] { 0, 1000, 2000, 3000, 4000, 5000, 6000, 7000, 8000, 9000 },
+        required.getLongValues());
+  }
+
+  @Test
+  public void testRepeatedColumn() throws Exception {
+    MessageType schema = MessageTypeParser.parseMessageType(
+        "message test { repeated int32 values; }");
+    ColumnDescriptor values = schema.getColumns().get(0);
+    MemPageStore repeatedStore = new MemPageStore(ROWS);
+    ColumnWriteStore store = ParquetProperties.builder()
+        .withWriterVersion(writerVersion)
+        .withDictionaryEncoding(dictionary)
+        .withPageSize(1024)
+        .withDictionaryPageSize(2048)
+        .build()
+        .newColumnWriteStore(schema, repeatedStore);
+    // row i has i % 4 values, an empty list has a single null entry
+    int valueCount = 0;
+    for (int i = 0; i < ROWS; ++i) {
+      if (i % 4 == 0) {
+        store.getColumnWriter(values).writeNull(0, 0);
+        ++valueCount;
+      }
+      for (int j = 0; j < i % 4; ++j) {
+        store.getColumnWriter(values).write(i * 10 + j, j == 0 ? 0 : 1, 1);
+        ++valueCount;
+      }
+      store.endRecord();
+    }
+    store.flush();
+
+    for (int batchSize : new int[] { 1, 7, 1000, valueCount + 10 }) {
+      ColumnReader reader = new ColumnReaderImpl(values, repeatedStore.getPageReader(values),
+          new PrimitiveConverter() {}, VersionParser.parse(Version.FULL_VERSION));
+      int[] ints = new int[batchSize];
+      int[] dl = new int[batchSize];
+      int[] rl = new int[batchSize];
+      int row = -1;
+      int index = 0;
+      int read;
+      while ((read = reader.readBatch(batchSize, ints, dl, rl)) > 0) {
+        for (int i = 0; i < read; ++i) {
+          if (rl[i] == 0) {
+            ++row;
+            index = 0;
+          }
+          if (row % 4 == 0) {
+            assertEquals(0, dl[i]);
+          } else {
+            assertEquals(1, dl[i]);
+            assertEquals(row * 10 + index, ints[i]);
+          }
+          ++index;
+        }
+      }
+      assertEquals(ROWS - 1, row);
+    }
+
+    ColumnBatch batch = new ColumnBatch(values, 100);
+    assertEquals(100, batch.read(new ColumnReaderImpl(values, repeatedStore.getPageReader(values),
+        new PrimitiveConverter() {}, VersionParser.parse(Version.FULL_VERSION)), 100));
+    // rows 0, 1, 2 and 3 have 1, 1, 2 and 3 entries
+    assertArrayEquals(new int[] { 0, 0, 0, 1, 0, 1, 1 }, Arrays.copyOf(batch.getRepetitionLevels(), 7));
+    assertTrue(batch.isNull(0));
+    assertEquals(31, batch.getIntValues()[5]);
+
+    try {
+      new ColumnReaderImpl(values, repeatedStore.getPageReader(values), new PrimitiveConverter() {},
+          VersionParser.parse(Version.FULL_VERSION)).readBatch(10, new int[10], new int[10]);
+      fail("Should require repetition levels");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+}
@@ -19,6 +19,8 @@
 package org.apache.parquet.column.impl;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
 import static org.apache.parquet.column.ParquetProperties.WriterVersion.PARQUET_2_0;
 
 import java.util.List;
@@ -128,4 +130,43 @@ public class TestColumnReaderImpl {
     assertEquals(0, converter.count);
   }
 
+  @Test
+  public void testDictionaryIds() throws Exception {
+    MessageType schema = MessageTypeParser.parseMessageType("message test { required binary foo; }");
+    ColumnDescriptor col = schema.getColumns().get(0);
+    MemPageWriter pageWriter = new MemPageWriter();
+    ColumnWriterV2 columnWriterV2 = new ColumnWriterV2(col, pageWriter,
+        ParquetProperties.builder()
+            .withDictionaryPageSize(1024).withWriterVersion(PARQUET_2_0)
+            .withPageSize(2048).build());
+    for (int i = 0; i < rows; i++) {
+      columnWriterV2.write(Binary.fromString("bar" + i % 10), 0, 0);
+      if ((i + 1) % 1000 == 0) {
+        columnWriterV2.writePage(i);
+      }
+    }
+    columnWriterV2.writePage(rows);
+    columnWriterV2.finalizeColumnChunk();
+    List<DataPage> pages = pageWriter.getPages();
+
+    // values are decoded by the page reader for converters without dictionary support
+    ColumnReaderImpl columnReader = new ColumnReaderImpl(col,
+        new MemPageReader((long) rows, pages.iterator(), pageWriter.getDictionaryPage()),
+        new ValidatingConverter(), VersionParser.parse(Version.FULL_VERSION));
+    assertFalse(columnReader.isCurrentValueDictionaryEncoded());
+
+    ValidatingConverter converter = new ValidatingConverter();
+    columnReader = new ColumnReaderImpl(col,
+        new MemPageReader((long) rows, pages.iterator(), pageWriter.getDictionaryPage()),
+        converter, VersionParser.parse(Version.FULL_VERSION));
+    columnReader.readDictionaryIds();
+    for (int i = 0; i < rows; i++) {
+      assertTrue(columnReader.isCurrentValueDictionaryEncoded());
+      assertEquals("bar" + i % 10, columnReader.getDictionary()
+          .decodeToBinary(columnReader.getCurrentValueDictionaryID()).toStringUsingUTF8());
+      columnReader.writeCurrentValueToConverter();
+      columnReader.consume();
+    }
+    assertEquals(rows, converter.count);
+  }
 }
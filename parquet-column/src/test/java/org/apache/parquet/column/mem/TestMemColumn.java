@@ -19,6 +19,9 @@
 package org.apache.parquet.column.mem;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
 
 import org.apache.parquet.column.ParquetProperties;
 import org.junit.Test;
@@ -28,7 +31,10 @@ import org.apache.parquet.column.ColumnReader;
 import org.apache.parquet.column.ColumnWriter;
 import org.apache.parquet.column.impl.ColumnReadStoreImpl;
 import org.apache.parquet.column.impl.ColumnWriteStoreV1;
+import org.apache.parquet.column.impl.ColumnWriteStoreV2;
+import org.apache.parquet.column.page.DataPage;
 import org.apache.parquet.column.page.mem.MemPageStore;
+import org.apache.parquet.column.page.mem.MemPageWriter;
 import org.apache.parquet.example.DummyRecordConverter;
 import org.apache.parquet.io.api.Binary;
 import org.apache.parquet.schema.MessageType;
@@ -160,6 +166,176 @@ public class TestMemColumn {
     }
   }
 
+  @Test
+  public void testPageRowCountLimit() throws Exception {
+    MessageType mt = MessageTypeParser.parseMessageType("message msg { required boolean foo; }");
+    ColumnDescriptor path = mt.getColumnDescription(new String[] {"foo"});
+    ParquetProperties props = ParquetProperties.builder()
+        .withPageRowCountLimit(100)
+        .build();
+
+    MemPageStore v1PageStore = new MemPageStore(1000);
+    ColumnWriteStoreV1 v1Store = new ColumnWriteStoreV1(v1PageStore, props);
+    ColumnWriter v1Writer = v1Store.getColumnWriter(path);
+    MemPageStore v2PageStore = new MemPageStore(1000);
+    ColumnWriteStoreV2 v2Store = new ColumnWriteStoreV2(mt, v2PageStore, props);
+    ColumnWriter v2Writer = v2Store.getColumnWriter(path);
+    for (int i = 0; i < 1000; i++) {
+      v1Writer.write(i % 3 == 0, 0, 0);
+      v1Store.endRecord();
+      v2Writer.write(i % 3 == 0, 0, 0);
+      v2Store.endRecord();
+    }
+    v1Store.flush();
+    v2Store.flush();
+
+    for (MemPageStore pageStore : new MemPageStore[] {v1PageStore, v2PageStore}) {
+      List<DataPage> pages = ((MemPageWriter) pageStore.getPageWriter(path)).getPages();
+      assertEquals(10, pages.size());
+      for (DataPage page : pages) {
+        assertEquals(100, page.getValueCount());
+      }
+    }
+  }
+
+  @Test
+  public void testColumnPageSize() throws Exception {
+    MessageType mt = MessageTypeParser.parseMessageType(
+        "message msg { required int64 foo; required int64 bar; }");
+    ColumnDescriptor foo = mt.getColumnDescription(new String[] {"foo"});
+    ColumnDescriptor bar = mt.getColumnDescription(new String[] {"bar"});
+    MemPageStore memPageStore = new MemPageStore(10000);
+    ColumnWriteStoreV1 memColumnsStore = new ColumnWriteStoreV1(memPageStore,
+        ParquetProperties.builder()
+            .withPageSize(64 * 1024)
+            .withPageSize("bar", 4 * 1024)
+            .withDictionaryEncoding(false)
+            .build());
+    ColumnWriter fooWriter = memColumnsStore.getColumnWriter(foo);
+    ColumnWriter barWriter = memColumnsStore.getColumnWriter(bar);
+    for (long i = 0; i < 10000; i++) {
+      fooWriter.write(i, 0, 0);
+      barWriter.write(i, 0, 0);
+      memColumnsStore.endRecord();
+    }
+    memColumnsStore.flush();
+
+    assertEquals(2, ((MemPageWriter) memPageStore.getPageWriter(foo)).getPages().size());
+    List<DataPage> barPages = ((MemPageWriter) memPageStore.getPageWriter(bar)).getPages();
+    assertTrue("Should write pages of the column page size", barPages.size() >= 16);
+    for (DataPage page : barPages) {
+      assertTrue(page.getUncompressedSize() <= 6 * 1024);
+    }
+  }
+
+  @Test
+  public void testLargeBinaryValuesCheckPageSize() throws Exception {
+    MessageType mt = MessageTypeParser.parseMessageType("message msg { required binary foo; }");
+    ColumnDescriptor path = mt.getColumnDescription(new String[] {"foo"});
+    MemPageStore memPageStore = new MemPageStore(50);
+    ColumnWriteStoreV1 memColumnsStore = newColumnWriteStoreImpl(memPageStore);
+    ColumnWriter columnWriter = memColumnsStore.getColumnWriter(path);
+    byte[] bytes = new byte[1000];
+    for (int i = 0; i < 50; i++) {
+      bytes[0] = (byte) i;
+      columnWriter.write(Binary.fromConstantByteArray(bytes), 0, 0);
+      memColumnsStore.endRecord();
+    }
+    memColumnsStore.flush();
+
+    // the page size is checked before the minimum number of values is reached
+    List<DataPage> pages = ((MemPageWriter) memPageStore.getPageWriter(path)).getPages();
+    assertTrue("Should write several pages", pages.size() > 10);
+    for (DataPage page : pages) {
+      assertTrue(page.getUncompressedSize() <= 4 * 1024);
+    }
+  }
+
+  @Test
+  public void testCompressedPageSize() throws Exception {
+    MessageType mt = MessageTypeParser.parseMessageType("message msg { required int64 foo; }");
+    ColumnDescriptor path = mt.getColumnDescription(new String[] {"foo"});
+    ParquetProperties props = ParquetProperties.builder()
+        .withPageSize(4 * 1024)
+        .withDictionaryEncoding(false)
+        .withCompressedPageSize(true)
+        .build();
+
+    MemPageStore v1PageStore = new MemPageStore(10000);
+    MemPageStore v2PageStore = new MemPageStore(10000);
+    // the pages would compress to a quarter of their size
+    ((MemPageWriter) v1PageStore.getPageWriter(path)).setCompressionRatio(0.25);
+    ((MemPageWriter) v2PageStore.getPageWriter(path)).setCompressionRatio(0.25);
+    ColumnWriteStoreV1 v1Store = new ColumnWriteStoreV1(v1PageStore, props);
+    ColumnWriter v1Writer = v1Store.getColumnWriter(path);
+    ColumnWriteStoreV2 v2Store = new ColumnWriteStoreV2(mt, v2PageStore, props);
+    ColumnWriter v2Writer = v2Store.getColumnWriter(path);
+    for (long i = 0; i < 10000; i++) {
+      v1Writer.write(i, 0, 0);
+      v1Store.endRecord();
+      v2Writer.write(i, 0, 0);
+      v2Store.endRecord();
+    }
+    v1Store.flush();
+    v2Store.flush();
+
+    for (MemPageStore pageStore : new MemPageStore[] {v1PageStore, v2PageStore}) {
+      List<DataPage> pages = ((MemPageWriter) pageStore.getPageWriter(path)).getPages();
+      assertTrue("Should write pages of 4 times the page size: " + pages.size(),
+          pages.size() >= 4 && pages.size() <= 6);
+      for (DataPage page : pages.subList(0, pages.size() - 1)) {
+        assertTrue(page.getUncompressedSize() >= 12 * 1024);
+        assertTrue(page.getUncompressedSize() <= 20 * 1024);
+      }
+    }
+  }
+
+  @Test
+  public void testPageRowCountMinimum() throws Exception {
+    MessageType mt = MessageTypeParser.parseMessageType("message msg { required binary foo; }");
+    ColumnDescriptor path = mt.getColumnDescription(new String[] {"foo"});
+    ParquetProperties props = ParquetProperties.builder()
+        .withPageSize(1024)
+        .withDictionaryEncoding(false)
+        .withMinRowCountForPageSizeCheck(1)
+        .withPageRowCountMinimum(10)
+        .build();
+
+    MemPageStore v1PageStore = new MemPageStore(100);
+    ColumnWriteStoreV1 v1Store = new ColumnWriteStoreV1(v1PageStore, props);
+    ColumnWriter v1Writer = v1Store.getColumnWriter(path);
+    MemPageStore v2PageStore = new MemPageStore(100);
+    ColumnWriteStoreV2 v2Store = new ColumnWriteStoreV2(mt, v2PageStore, props);
+    ColumnWriter v2Writer = v2Store.getColumnWriter(path);
+    byte[] bytes = new byte[1000];
+    for (int i = 0; i < 100; i++) {
+      bytes[0] = (byte) i;
+      v1Writer.write(Binary.fromConstantByteArray(bytes), 0, 0);
+      v1Store.endRecord();
+      v2Writer.write(Binary.fromConstantByteArray(bytes), 0, 0);
+      v2Store.endRecord();
+    }
+    v1Store.flush();
+    v2Store.flush();
+
+    // every value fills a page, pages are written once they reach the minimum row count
+    for (MemPageStore pageStore : new MemPageStore[] {v1PageStore, v2PageStore}) {
+      List<DataPage> pages = ((MemPageWriter) pageStore.getPageWriter(path)).getPages();
+      assertEquals(10, pages.size());
+      for (DataPage page : pages) {
+        assertEquals(10, page.getValueCount());
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testPageRowCountMinimumAboveLimit() {
+    ParquetProperties.builder()
+        .withPageRowCountLimit(10)
+        .withPageRowCountMinimum(100)
+        .build();
+  }
+
   private ColumnWriteStoreV1 newColumnWriteStoreImpl(MemPageStore memPageStore) {
     return new ColumnWriteStoreV1(memPageStore,
         ParquetProperties.builder()
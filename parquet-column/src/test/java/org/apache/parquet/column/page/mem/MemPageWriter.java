@@ -43,6 +43,7 @@ public class MemPageWriter implements PageWriter {
   private DictionaryPage dictionaryPage;
   private long memSize = 0;
   private long totalValueCount = 0;
+  private double compressionRatio = 1;
 
   @Override
   public void writePage(BytesInput bytesInput, int valueCount, Statistics statistics, Encoding rlEncoding, Encoding dlEncoding, Encoding valuesEncoding)
@@ -56,6 +57,12 @@ public class MemPageWriter implements PageWriter {
     LOG.debug("page written for {} bytes and {} records", bytesInput.size(), valueCount);
   }
 
+  @Override
+  public void writePage(BytesInput bytesInput, int valueCount, int rowCount, Statistics<?> statistics, Encoding rlEncoding, Encoding dlEncoding, Encoding valuesEncoding)
+      throws IOException {
+    writePage(bytesInput, valueCount, statistics, rlEncoding, dlEncoding, valuesEncoding);
+  }
+
   @Override
   public void writePageV2(int rowCount, int nullCount, int valueCount,
       BytesInput repetitionLevels, BytesInput definitionLevels,
@@ -93,6 +100,16 @@ public class MemPageWriter implements PageWriter {
     return memSize;
   }
 
+  @Override
+  public double getCompressionRatio() {
+    // pages are kept uncompressed, tests can set the ratio a compressor would reach
+    return compressionRatio;
+  }
+
+  public void setCompressionRatio(double compressionRatio) {
+    this.compressionRatio = compressionRatio;
+  }
+
   @Override
   public void writeDictionaryPage(DictionaryPage dictionaryPage) throws IOException {
     if (this.dictionaryPage != null) {
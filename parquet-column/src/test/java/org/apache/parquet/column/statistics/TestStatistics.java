@@ -21,6 +21,8 @@ package org.apache.parquet.column.statistics;
 import static org.junit.Assert.*;
 
 import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
 
 import org.junit.Test;
 
@@ -383,6 +385,56 @@ public class TestStatistics {
     assertEquals(stats.toString(), "min: a, max: world, num_nulls: 0");
   }
 
+  @Test
+  public void testBinaryUnsignedMinMaxOfReusedBytes() {
+    byte[] buffer = new byte[2];
+    BinaryStatistics stats = new BinaryStatistics();
+    for (String s : new String[] {"bb", "aa", "cc", "\u00e9"}) {
+      byte[] bytes = s.getBytes(Charset.forName("UTF-8"));
+      System.arraycopy(bytes, 0, buffer, 0, 2);
+      stats.updateStats(Binary.fromReusedByteArray(buffer));
+    }
+    Arrays.fill(buffer, (byte) 0);
+    assertEquals(Binary.fromString("\u00e9"), stats.genericGetMin());
+    assertEquals(Binary.fromString("cc"), stats.genericGetMax());
+    assertEquals(Binary.fromString("aa"), stats.getUnsignedMin());
+    assertEquals(Binary.fromString("\u00e9"), stats.getUnsignedMax());
+    // the value is copied once when it is a bound in both orders
+    assertSame(stats.genericGetMin(), stats.getUnsignedMax());
+  }
+
+  @Test
+  public void testBinaryUnsignedMinMax() {
+    // 0xC3 0xA9 is negative as signed bytes
+    stringArray = new String[] {"z", "\u00e9t\u00e9", "a", "\u00e9"};
+    BinaryStatistics stats = new BinaryStatistics();
+    for (String s: stringArray) {
+      stats.updateStats(Binary.fromString(s));
+    }
+    assertEquals(Binary.fromString("\u00e9"), stats.genericGetMin());
+    assertEquals(Binary.fromString("z"), stats.genericGetMax());
+    assertEquals(Binary.fromString("a"), stats.getUnsignedMin());
+    assertEquals(Binary.fromString("\u00e9t\u00e9"), stats.getUnsignedMax());
+
+    BinaryStatistics other = new BinaryStatistics();
+    other.updateStats(Binary.fromString("\u00ff"));
+    other.updateStats(Binary.fromString("0"));
+    BinaryStatistics merged = new BinaryStatistics();
+    merged.mergeStatistics(stats);
+    merged.mergeStatistics(other);
+    assertEquals(Binary.fromString("0"), merged.getUnsignedMin());
+    assertEquals(Binary.fromString("\u00ff"), merged.getUnsignedMax());
+
+    // not known for statistics set from min and max
+    BinaryStatistics statsFromBytes = new BinaryStatistics();
+    statsFromBytes.setMinMaxFromBytes(stats.getMinBytes(), stats.getMaxBytes());
+    assertNull(statsFromBytes.getUnsignedMin());
+    assertNull(statsFromBytes.getUnsignedMax());
+    merged.mergeStatistics(statsFromBytes);
+    assertNull(merged.getUnsignedMin());
+    assertNull(merged.getUnsignedMax());
+  }
+
   @Test
   public void testBinaryMinMaxForReusedBackingByteArray() {
     BinaryStatistics stats = new BinaryStatistics();
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.column.values.bloomfilter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Random;
+
+import org.apache.parquet.io.api.Binary;
+import org.junit.Test;
+
+public class TestBlockSplitBloomFilter {
+
+  private static final Charset UTF8 = Charset.forName("UTF-8");
+
+  @Test
+  public void testXxHash64() {
+    byte[] empty = new byte[0];
+    assertEquals(0xEF46DB3751D8E999L, XxHash64.hash(empty, 0, 0));
+    byte[] abc = "abc".getBytes(UTF8);
+    assertEquals(0x44BC2CF5AD770999L, XxHash64.hash(abc, 0, abc.length));
+  }
+
+  @Test
+  public void testSizeIsRoundedToPowerOfTwo() {
+    assertEquals(BlockSplitBloomFilter.MINIMUM_BYTES, new BlockSplitBloomFilter(0).getBitsetSize());
+    assertEquals(1024, new BlockSplitBloomFilter(1000).getBitsetSize());
+    assertEquals(1024, new BlockSplitBloomFilter(1024).getBitsetSize());
+    assertEquals(BlockSplitBloomFilter.UPPER_BOUND_BYTES,
+        new BlockSplitBloomFilter(Integer.MAX_VALUE).getBitsetSize());
+  }
+
+  @Test
+  public void testInsertAndFind() throws IOException {
+    BlockSplitBloomFilter filter = new BlockSplitBloomFilter(1024);
+    String[] values = { "hello", "parquet", "bloom", "filter" };
+    for (String value : values) {
+      filter.insertHash(filter.hash(Binary.fromString(value)));
+    }
+    filter.insertHash(filter.hash(42));
+    filter.insertHash(filter.hash(42L));
+    filter.insertHash(filter.hash(4.2f));
+    filter.insertHash(filter.hash(4.2d));
+
+    // round trip through the serialized bitset
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    filter.writeTo(out);
+    BlockSplitBloomFilter read = new BlockSplitBloomFilter(out.toByteArray());
+
+    for (String value : values) {
+      assertTrue(read.findHash(read.hash(Binary.fromString(value))));
+      assertTrue(read.findHash(read.hash((Object) Binary.fromString(value))));
+    }
+    assertTrue(read.findHash(read.hash((Object) 42)));
+    assertTrue(read.findHash(read.hash((Object) 42L)));
+    assertTrue(read.findHash(read.hash((Object) 4.2f)));
+    assertTrue(read.findHash(read.hash((Object) 4.2d)));
+    assertFalse(read.findHash(read.hash(Binary.fromString("absent"))));
+  }
+
+  @Test
+  public void testFalsePositiveProbability() {
+    final int ndv = 10000;
+    BlockSplitBloomFilter filter = new BlockSplitBloomFilter(
+        BlockSplitBloomFilter.optimalNumOfBits(ndv, BlockSplitBloomFilter.DEFAULT_FPP) / 8);
+    Random random = new Random(42);
+    long[] inserted = new long[ndv];
+    for (int i = 0; i < ndv; ++i) {
+      inserted[i] = random.nextLong();
+      filter.insertHash(filter.hash(inserted[i]));
+    }
+
+    for (long value : inserted) {
+      assertTrue("Bloom filters must not have false negatives", filter.findHash(filter.hash(value)));
+    }
+
+    int falsePositives = 0;
+    for (int i = 0; i < ndv; ++i) {
+      if (filter.findHash(filter.hash(random.nextLong()))) {
+        ++falsePositives;
+      }
+    }
+    assertTrue("Too many false positives: " + falsePositives,
+        falsePositives < ndv * BlockSplitBloomFilter.DEFAULT_FPP * 2);
+  }
+}
@@ -303,6 +303,24 @@ public class DefaultValuesWriterFactoryTest {
       PlainValuesWriter.class);
   }
 
+  @Test
+  public void testColumnSettingsOfPropertiesAreNotShared() {
+    ColumnDescriptor id = new ColumnDescriptor(new String[] {"id"}, PrimitiveTypeName.INT64, 0, 0);
+    ParquetProperties noDictionary = ParquetProperties.builder()
+      .withDictionaryEncoding("id", false)
+      .build();
+    ParquetProperties deltaEncoding = ParquetProperties.builder()
+      .withValuesWriterVersion("id", WriterVersion.PARQUET_2_0)
+      .build();
+
+    // properties built later must not change the writers of earlier properties
+    validateWriterType(noDictionary.newValuesWriter(id), PlainValuesWriter.class);
+    validateFallbackWriter(deltaEncoding.newValuesWriter(id),
+      PlainLongDictionaryValuesWriter.class, DeltaBinaryPackingValuesWriterForLong.class);
+    validateFallbackWriter(ParquetProperties.builder().build().newValuesWriter(id),
+      PlainLongDictionaryValuesWriter.class, PlainValuesWriter.class);
+  }
+
   private void doTestValueWriter(PrimitiveTypeName typeName, WriterVersion version, boolean enableDictionary, Class<? extends ValuesWriter> expectedValueWriterClass) {
     ColumnDescriptor mockPath = getMockColumn(typeName);
     ValuesWriterFactory factory = getDefaultFactory(version, enableDictionary);
@@ -97,5 +97,42 @@ public class RunLengthBitPackingHybridIntegrationTest {
     for (int i = 0; i < 1000; i++) {
       assertEquals(17 % modValue, decoder.readInt());
     }
+
+    // read the same values in batches that do not match the runs
+    decoder = new RunLengthBitPackingHybridDecoder(bitWidth, new ByteBufferInputStream(encodedBytes));
+    int[] values = new int[numValues];
+    for (int offset = 0; offset < numValues; offset += 37) {
+      decoder.readInts(values, offset, Math.min(37, numValues - offset));
+    }
+
+    int index = 0;
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i % modValue, values[index++]);
+    }
+    for (int i = 0; i < 100; i++) {
+      assertEquals(77 % modValue, values[index++]);
+    }
+    for (int i = 0; i < 100; i++) {
+      assertEquals(88 % modValue, values[index++]);
+    }
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(i % modValue, values[index++]);
+      assertEquals(i % modValue, values[index++]);
+      assertEquals(i % modValue, values[index++]);
+    }
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(17 % modValue, values[index++]);
+    }
+
+    // skip within and across runs, then check the value that follows
+    decoder = new RunLengthBitPackingHybridDecoder(bitWidth, encodedBytes);
+    int position = 0;
+    for (int skip : new int[] { 0, 3, 50, 130, 1, 7, 8, 1000, 1500, 40, 62 }) {
+      decoder.skip(skip);
+      position += skip;
+      assertEquals("value after skipping to " + position, values[position], decoder.readInt());
+      position += 1;
+    }
+    decoder.skip(numValues - position);
   }
 }
@@ -19,6 +19,7 @@
 package org.apache.parquet.column.values.rle;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 import java.io.ByteArrayInputStream;
 import java.nio.ByteBuffer;
@@ -33,6 +34,7 @@ import org.apache.parquet.bytes.DirectByteBufferAllocator;
 import org.apache.parquet.bytes.BytesUtils;
 import org.apache.parquet.column.values.bitpacking.BytePacker;
 import org.apache.parquet.column.values.bitpacking.Packer;
+import org.apache.parquet.io.ParquetDecodingException;
 
 /**
  * @author Alex Levenson
@@ -307,6 +309,32 @@ public class TestRunLengthBitPackingHybridEncoder {
     assertEquals(stream.available(), 0);
   }
 
+  @Test
+  public void testTruncatedStreams() throws Exception {
+    RunLengthBitPackingHybridEncoder encoder = getRunLengthBitPackingHybridEncoder(3, 5, 10);
+    for (int i = 0; i < 100; i++) {
+      encoder.writeInt(i % 2 == 0 ? 5 : i % 8);
+    }
+    for (int i = 0; i < 100; i++) {
+      encoder.writeInt(7);
+    }
+    byte[] encoded = encoder.toBytes().toByteArray();
+
+    // a bit-packed run header, a run with a missing group and an RLE run without its value
+    for (int length : new int[] { 0, 1, 3, encoded.length - 1 }) {
+      RunLengthBitPackingHybridDecoder decoder = new RunLengthBitPackingHybridDecoder(3,
+          new ByteArrayInputStream(Arrays.copyOf(encoded, length)));
+      try {
+        for (int i = 0; i < 200; i++) {
+          decoder.readInt();
+        }
+        fail("Should not read values from " + length + " bytes");
+      } catch (ParquetDecodingException e) {
+        // expected
+      }
+    }
+  }
+
   private static List<Integer> unpack(int bitWidth, int numValues, ByteArrayInputStream is)
     throws Exception {
 
@@ -19,16 +19,25 @@
 package org.apache.parquet.filter2.recordlevel;
 
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 
 import org.junit.Test;
 
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.column.Encoding;
 import org.apache.parquet.filter2.recordlevel.IncrementallyUpdatedFilterPredicate.ValueInspector;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.apache.parquet.filter2.predicate.FilterApi.doubleColumn;
+import static org.apache.parquet.filter2.predicate.FilterApi.eq;
+import static org.apache.parquet.filter2.predicate.FilterApi.floatColumn;
+import static org.apache.parquet.filter2.predicate.FilterApi.in;
+import static org.apache.parquet.filter2.predicate.FilterApi.notIn;
 import static org.apache.parquet.filter2.recordlevel.TestIncrementallyUpdatedFilterPredicateEvaluator.intIsEven;
 
 public class TestValueInspector {
@@ -82,6 +91,36 @@ public class TestValueInspector {
 
   }
 
+  @Test
+  public void testDictionaryIds() {
+    ValueInspector v = intIsEven();
+    final int[] values = new int[] { 7, 8, 11, 200 };
+    final int[] decoded = new int[1];
+    Dictionary dictionary = new Dictionary(Encoding.PLAIN_DICTIONARY) {
+      @Override
+      public int getMaxId() {
+        return values.length - 1;
+      }
+
+      @Override
+      public int decodeToInt(int id) {
+        decoded[0] += 1;
+        return values[id];
+      }
+    };
+    DictionaryIdInspectors inspectors = new DictionaryIdInspectors(
+        new ValueInspector[] { v }, dictionary, PrimitiveTypeName.INT32);
+
+    for (int id : new int[] { 0, 1, 1, 3, 0, 2, 3 }) {
+      inspectors.update(id);
+      assertTrue(v.isKnown());
+      assertEquals(values[id] % 2 == 0, v.getResult());
+      v.reset();
+    }
+    // each id is decoded once
+    assertEquals(values.length, decoded[0]);
+  }
+
   @Test
   public void testReusable() {
     List<Integer> values = Arrays.asList(2, 4, 7, 3, 8, 8, 11, 200);
@@ -94,4 +133,46 @@ public class TestValueInspector {
     }
 
   }
+
+  private static boolean matches(ValueInspector v, double value) {
+    v.reset();
+    v.update(value);
+    return v.getResult();
+  }
+
+  private static boolean matches(ValueInspector v, float value) {
+    v.reset();
+    v.update(value);
+    return v.getResult();
+  }
+
+  @Test
+  public void testFloatingPointInMatchesLikeEq() {
+    // In and NotIn use == as Eq does: NaN matches nothing and -0.0 matches 0.0
+    ValueInspector eqZero = (ValueInspector) new IncrementallyUpdatedFilterPredicateBuilder()
+        .build(eq(doubleColumn("x"), -0.0));
+    ValueInspector in = (ValueInspector) new IncrementallyUpdatedFilterPredicateBuilder()
+        .build(in(doubleColumn("x"), new HashSet<Double>(Arrays.asList(-0.0, 1.5, Double.NaN))));
+    ValueInspector notIn = (ValueInspector) new IncrementallyUpdatedFilterPredicateBuilder()
+        .build(notIn(doubleColumn("x"), new HashSet<Double>(Arrays.asList(0.0, Double.NaN))));
+    for (double value : new double[] { 0.0, -0.0 }) {
+      assertTrue(matches(eqZero, value));
+      assertTrue(matches(in, value));
+      assertFalse(matches(notIn, value));
+    }
+    assertTrue(matches(in, 1.5));
+    assertFalse(matches(in, 2.0));
+    assertTrue(matches(notIn, 2.0));
+    assertFalse(matches(in, Double.NaN));
+    assertTrue(matches(notIn, Double.NaN));
+
+    ValueInspector floatIn = (ValueInspector) new IncrementallyUpdatedFilterPredicateBuilder()
+        .build(in(floatColumn("y"), new HashSet<Float>(Arrays.asList(0.0f, Float.NaN))));
+    ValueInspector floatNotIn = (ValueInspector) new IncrementallyUpdatedFilterPredicateBuilder()
+        .build(notIn(floatColumn("y"), new HashSet<Float>(Arrays.asList(-0.0f))));
+    assertTrue(matches(floatIn, -0.0f));
+    assertFalse(matches(floatIn, Float.NaN));
+    assertFalse(matches(floatNotIn, 0.0f));
+    assertTrue(matches(floatNotIn, Float.NaN));
+  }
 }
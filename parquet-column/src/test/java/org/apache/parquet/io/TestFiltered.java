@@ -33,9 +33,14 @@ import org.apache.parquet.example.data.simple.convert.GroupRecordConverter;
 import org.apache.parquet.filter.ColumnPredicates.LongPredicateFunction;
 import org.apache.parquet.filter.ColumnPredicates.PredicateFunction;
 import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.io.api.Binary;
 import org.apache.parquet.io.api.RecordMaterializer;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.apache.parquet.example.Paper.r1;
 import static org.apache.parquet.example.Paper.r2;
 import static org.apache.parquet.example.Paper.schema;
@@ -47,6 +52,10 @@ import static org.apache.parquet.filter.ColumnRecordFilter.column;
 import static org.apache.parquet.filter.NotRecordFilter.not;
 import static org.apache.parquet.filter.OrRecordFilter.or;
 import static org.apache.parquet.filter.PagedRecordFilter.page;
+import static org.apache.parquet.filter2.predicate.FilterApi.binaryColumn;
+import static org.apache.parquet.filter2.predicate.FilterApi.eq;
+import static org.apache.parquet.filter2.predicate.FilterApi.longColumn;
+import static org.apache.parquet.filter2.predicate.FilterApi.notEq;
 
 public class TestFiltered {
 
@@ -256,13 +265,85 @@ public class TestFiltered {
     }
   }
 
+  @Test
+  public void testFilterPredicateEvaluatedFirst() {
+    MessageColumnIO columnIO =  new ColumnIOFactory(true).getColumnIO(schema);
+    MemPageStore memPageStore = writeTestRecords(columnIO, 1000);
+
+    RecordMaterializer<Group> recordConverter = new GroupRecordConverter(schema);
+    RecordReader<Group> recordReader = columnIO.getRecordReader(memPageStore, recordConverter,
+        FilterCompat.get(eq(longColumn("DocId"), 20l)));
+    assertTrue("DocId is not repeated", recordReader instanceof LateMaterializingRecordReader);
+
+    List<Group> all = readAll(recordReader);
+    assertEquals(1000, all.size());
+    for (Group group : all) {
+      assertEquals(r2.toString(), group.toString());
+    }
+    assertFalse(recordReader.shouldSkipCurrentRecord());
+
+    // predicates on repeated columns are evaluated while assembling the records
+    recordReader = columnIO.getRecordReader(memPageStore, recordConverter,
+        FilterCompat.get(FilterApi.or(eq(longColumn("DocId"), 10l), eq(binaryColumn("Name.Url"), Binary.fromString("http://C")))));
+    assertFalse("Name.Url is repeated", recordReader instanceof LateMaterializingRecordReader);
+  }
+
+  @Test
+  public void testFilterPredicateOnDictionaryIds() {
+    MessageColumnIO columnIO =  new ColumnIOFactory(true).getColumnIO(schema);
+    MemPageStore memPageStore = writeTestRecords(columnIO, 1000, true);
+
+    RecordMaterializer<Group> recordConverter = new GroupRecordConverter(schema);
+    RecordReader<Group> recordReader = columnIO.getRecordReader(memPageStore, recordConverter,
+        FilterCompat.get(eq(longColumn("DocId"), 20l)));
+    assertTrue("DocId is not repeated", recordReader instanceof LateMaterializingRecordReader);
+
+    List<Group> all = readAll(recordReader);
+    assertEquals(1000, all.size());
+    for (Group group : all) {
+      assertEquals(r2.toString(), group.toString());
+    }
+
+    recordReader = columnIO.getRecordReader(memPageStore, recordConverter,
+        FilterCompat.get(notEq(longColumn("DocId"), 20l)));
+    all = readAll(recordReader);
+    assertEquals(1000, all.size());
+    for (Group group : all) {
+      assertEquals(r1.toString(), group.toString());
+    }
+  }
+
+  @Test
+  public void testDictionaryValuesShared() {
+    MessageColumnIO columnIO =  new ColumnIOFactory(true).getColumnIO(schema);
+    MemPageStore memPageStore = writeTestRecords(columnIO, 10, true);
+
+    RecordMaterializer<Group> recordConverter = new GroupRecordConverter(schema);
+    RecordReader<Group> recordReader = columnIO.getRecordReader(memPageStore, recordConverter,
+        FilterCompat.get(eq(longColumn("DocId"), 20l)));
+
+    List<Group> all = readAll(recordReader);
+    assertEquals(10, all.size());
+    String url = all.get(0).getGroup("Name", 0).getString("Url", 0);
+    assertEquals("http://C", url);
+    for (Group group : all) {
+      assertEquals(r2.toString(), group.toString());
+      // dictionary encoded strings are decoded once
+      assertSame(url, group.getGroup("Name", 0).getString("Url", 0));
+    }
+  }
+
   private MemPageStore writeTestRecords(MessageColumnIO columnIO, int number) {
+    return writeTestRecords(columnIO, number, false);
+  }
+
+  private MemPageStore writeTestRecords(MessageColumnIO columnIO, int number, boolean dictionary) {
     MemPageStore memPageStore = new MemPageStore(number * 2);
     ColumnWriteStoreV1 columns = new ColumnWriteStoreV1(
         memPageStore,
         ParquetProperties.builder()
             .withPageSize(800)
-            .withDictionaryEncoding(false)
+            .withDictionaryEncoding(dictionary)
             .build());
 
     RecordConsumer recordWriter = columnIO.getRecordWriter(columns);
@@ -155,6 +155,47 @@ public class TestBinary {
     assertEquals(bin1, bin2);
   }
 
+  @Test
+  public void testCompareUnsigned() throws Exception {
+    Binary ascii = Binary.fromString("a");
+    Binary nonAscii = Binary.fromConstantByteBuffer(ByteBuffer.wrap(new byte[] { 0, (byte) 0xE9 }, 1, 1));
+    assertTrue("Signed order puts 0xE9 first", nonAscii.compareTo(ascii) < 0);
+    assertTrue(Binary.compareUnsigned(nonAscii, ascii) > 0);
+    assertTrue(Binary.compareUnsigned(ascii, nonAscii) < 0);
+
+    Binary prefix = Binary.fromConstantByteArray("alice".getBytes(), 0, 3);
+    assertEquals(0, Binary.compareUnsigned(prefix, Binary.fromString("ali")));
+    assertTrue(Binary.compareUnsigned(prefix, Binary.fromString("alice")) < 0);
+    assertTrue(Binary.compareUnsigned(Binary.fromString("alice"), prefix) > 0);
+
+    // every combination of array, slice, heap buffer and direct buffer values
+    byte[] low = new byte[] { 'a', 'b' };
+    byte[] high = new byte[] { 'a', (byte) 0xE9 };
+    ByteBuffer lowDirect = ByteBuffer.allocateDirect(3);
+    lowDirect.put((byte) 0).put(low).flip();
+    ByteBuffer highDirect = ByteBuffer.allocateDirect(3);
+    highDirect.put((byte) 0).put(high).flip();
+    Binary[] lows = new Binary[] {
+        Binary.fromConstantByteArray(low),
+        Binary.fromConstantByteArray(new byte[] { 0, 'a', 'b' }, 1, 2),
+        Binary.fromConstantByteBuffer(ByteBuffer.wrap(new byte[] { 0, 'a', 'b' }, 1, 2)),
+        Binary.fromConstantByteBuffer(lowDirect, 1, 2) };
+    Binary[] highs = new Binary[] {
+        Binary.fromConstantByteArray(high),
+        Binary.fromConstantByteArray(new byte[] { 0, 'a', (byte) 0xE9 }, 1, 2),
+        Binary.fromConstantByteBuffer(ByteBuffer.wrap(new byte[] { 0, 'a', (byte) 0xE9 }, 1, 2)),
+        Binary.fromConstantByteBuffer(highDirect, 1, 2) };
+    for (Binary left : lows) {
+      for (Binary right : highs) {
+        assertTrue(Binary.compareUnsigned(left, right) < 0);
+        assertTrue(Binary.compareUnsigned(right, left) > 0);
+      }
+      for (Binary right : lows) {
+        assertEquals(0, Binary.compareUnsigned(left, right));
+      }
+    }
+  }
+
   @Test
   public void testWriteAllTo() throws Exception {
     byte[] orig = {10, 9 ,8, 7, 6, 5, 4, 3, 2, 1};
@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.io;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * {@code LocalInputFile} is an {@link InputFile} for files on a local file
+ * system that is read using a NIO {@link FileChannel}, without Hadoop.
+ * <p>
+ * In addition to streams, ranges of the file can be memory-mapped with
+ * {@link #map(long, int)}. Readers that recognize this class use the mapped
+ * buffers directly instead of copying the bytes into a newly allocated buffer.
+ */
+public class LocalInputFile implements InputFile {
+
+  private final Path path;
+  private long length = -1;
+
+  public LocalInputFile(Path path) {
+    this.path = path;
+  }
+
+  public LocalInputFile(File file) {
+    this(file.toPath());
+  }
+
+  public Path getPath() {
+    return path;
+  }
+
+  /**
+   * Returns the time the file was last modified, in milliseconds since the epoch.
+   * @throws IOException if the modification time cannot be determined
+   */
+  public long getModificationTime() throws IOException {
+    return Files.getLastModifiedTime(path).toMillis();
+  }
+
+  @Override
+  public long getLength() throws IOException {
+    if (length < 0) {
+      length = Files.size(path);
+    }
+    return length;
+  }
+
+  @Override
+  public SeekableInputStream newStream() throws IOException {
+    return new LocalSeekableInputStream(FileChannel.open(path, StandardOpenOption.READ));
+  }
+
+  /**
+   * Memory-maps a range of the file.
+   * <p>
+   * The returned buffer is read-only and positioned at 0 with its limit set
+   * to {@code length}. The mapping remains valid until the buffer is garbage
+   * collected, even after the file is closed.
+   *
+   * @param offset the position of the first byte to map
+   * @param length the number of bytes to map
+   * @return a read-only buffer over the requested range
+   * @throws IOException If the range cannot be mapped
+   * @throws EOFException If the range extends past the end of the file
+   */
+  public ByteBuffer map(long offset, int length) throws IOException {
+    if (offset < 0 || length < 0) {
+      throw new IllegalArgumentException(
+          "Invalid range: offset=" + offset + " length=" + length);
+    }
+    if (offset + length > getLength()) {
+      throw new EOFException("Reached the end of " + path + " while mapping "
+          + length + " bytes at offset " + offset);
+    }
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      return channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return path.toString();
+  }
+
+  private static class LocalSeekableInputStream extends SeekableInputStream {
+
+    private final FileChannel channel;
+    private final ByteBuffer single = ByteBuffer.allocate(1);
+    private long pos = 0;
+
+    LocalSeekableInputStream(FileChannel channel) {
+      this.channel = channel;
+    }
+
+    @Override
+    public long getPos() throws IOException {
+      return pos;
+    }
+
+    @Override
+    public void seek(long newPos) throws IOException {
+      if (newPos < 0) {
+        throw new EOFException("Cannot seek to a negative position: " + newPos);
+      }
+      this.pos = newPos;
+    }
+
+    @Override
+    public int read() throws IOException {
+      single.clear();
+      if (read(single) < 0) {
+        return -1;
+      }
+      return single.get(0) & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int start, int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+      return read(ByteBuffer.wrap(bytes, start, len));
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      if (n <= 0) {
+        return 0;
+      }
+      long skipped = Math.min(n, Math.max(0, channel.size() - pos));
+      pos += skipped;
+      return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+      return (int) Math.min(Integer.MAX_VALUE, Math.max(0, channel.size() - pos));
+    }
+
+    @Override
+    public void readFully(byte[] bytes) throws IOException {
+      readFully(ByteBuffer.wrap(bytes));
+    }
+
+    @Override
+    public void readFully(byte[] bytes, int start, int len) throws IOException {
+      readFully(ByteBuffer.wrap(bytes, start, len));
+    }
+
+    @Override
+    public int read(ByteBuffer buf) throws IOException {
+      if (!buf.hasRemaining()) {
+        return 0;
+      }
+      int bytesRead = channel.read(buf, pos);
+      if (bytesRead > 0) {
+        pos += bytesRead;
+      }
+      return bytesRead;
+    }
+
+    @Override
+    public void readFully(ByteBuffer buf) throws IOException {
+      while (buf.hasRemaining()) {
+        int bytesRead = channel.read(buf, pos);
+        if (bytesRead < 0) {
+          throw new EOFException(
+              "Reached the end of stream with " + buf.remaining() + " bytes left to read");
+        }
+        pos += bytesRead;
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * {@code LocalOutputFile} is an {@link OutputFile} for files on a local file
+ * system that is written using a NIO {@link FileChannel}, without Hadoop.
+ */
+public class LocalOutputFile implements OutputFile {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final Path path;
+
+  public LocalOutputFile(Path path) {
+    this.path = path;
+  }
+
+  public LocalOutputFile(File file) {
+    this(file.toPath());
+  }
+
+  public Path getPath() {
+    return path;
+  }
+
+  @Override
+  public PositionOutputStream create(long blockSizeHint) throws IOException {
+    return new LocalPositionOutputStream(FileChannel.open(path,
+        StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW));
+  }
+
+  @Override
+  public PositionOutputStream createOrOverwrite(long blockSizeHint) throws IOException {
+    return new LocalPositionOutputStream(FileChannel.open(path,
+        StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING));
+  }
+
+  @Override
+  public boolean supportsBlockSize() {
+    return false;
+  }
+
+  @Override
+  public long defaultBlockSize() {
+    return 0;
+  }
+
+  @Override
+  public String toString() {
+    return path.toString();
+  }
+
+  private static class LocalPositionOutputStream extends PositionOutputStream {
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private long flushedPos = 0;
+    private boolean closed = false;
+
+    LocalPositionOutputStream(FileChannel channel) {
+      this.channel = channel;
+    }
+
+    @Override
+    public long getPos() {
+      return flushedPos + buffer.position();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      if (!buffer.hasRemaining()) {
+        flushBuffer();
+      }
+      buffer.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] bytes, int off, int len) throws IOException {
+      if (len > buffer.remaining()) {
+        flushBuffer();
+        if (len > buffer.remaining()) {
+          // large writes go directly to the channel
+          writeFully(ByteBuffer.wrap(bytes, off, len));
+          return;
+        }
+      }
+      buffer.put(bytes, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      flushBuffer();
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      try {
+        flushBuffer();
+      } finally {
+        channel.close();
+      }
+    }
+
+    private void flushBuffer() throws IOException {
+      buffer.flip();
+      writeFully(buffer);
+      buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer bytes) throws IOException {
+      while (bytes.hasRemaining()) {
+        flushedPos += channel.write(bytes);
+      }
+    }
+  }
+}
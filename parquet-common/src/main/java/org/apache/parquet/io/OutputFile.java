@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.io;
+
+import java.io.IOException;
+
+/**
+ * {@code OutputFile} is an interface with the methods needed by Parquet to
+ * write data files using {@link PositionOutputStream} instances.
+ */
+public interface OutputFile {
+
+  /**
+   * Opens a new {@link PositionOutputStream} for a file that must not exist.
+   *
+   * @param blockSizeHint the block size to use if the file system has blocks
+   * @return a stream positioned at the start of the new file
+   * @throws IOException if the file exists or cannot be created
+   */
+  PositionOutputStream create(long blockSizeHint) throws IOException;
+
+  /**
+   * Opens a new {@link PositionOutputStream}, replacing the file if it exists.
+   *
+   * @param blockSizeHint the block size to use if the file system has blocks
+   * @return a stream positioned at the start of the new file
+   * @throws IOException if the file cannot be created
+   */
+  PositionOutputStream createOrOverwrite(long blockSizeHint) throws IOException;
+
+  /**
+   * Returns whether the file is stored in blocks, in which case row groups
+   * are aligned to block boundaries when writing.
+   */
+  boolean supportsBlockSize();
+
+  /**
+   * Returns the default block size of the underlying file system, in bytes.
+   */
+  long defaultBlockSize();
+
+}
@@ -58,6 +58,7 @@ import org.slf4j.LoggerFactory;
 public class CapacityByteArrayOutputStream extends OutputStream {
   private static final Logger LOG = LoggerFactory.getLogger(CapacityByteArrayOutputStream.class);
   private static final ByteBuffer EMPTY_SLAB = ByteBuffer.wrap(new byte[0]);
+  private static final int COPY_BUFFER_SIZE = 8192;
 
   private int initialSlabSize;
   private final int maxCapacityHint;
@@ -221,11 +222,17 @@ public class CapacityByteArrayOutputStream extends OutputStream {
       out.write(buf.array(), buf.arrayOffset(), len);
     } else {
       // The OutputStream interface only takes a byte[], unfortunately this means that a ByteBuffer
-      // not backed by a byte array must be copied to fulfil this interface
-      byte[] copy = new byte[len];
-      buf.flip();
-      buf.get(copy);
-      out.write(copy);
+      // not backed by a byte array must be copied to fulfil this interface. The slab is copied
+      // through a small buffer to avoid allocating a heap copy of each direct slab.
+      ByteBuffer slab = buf.duplicate();
+      slab.position(0);
+      slab.limit(len);
+      byte[] copy = new byte[Math.min(len, COPY_BUFFER_SIZE)];
+      while (slab.hasRemaining()) {
+        int n = Math.min(slab.remaining(), copy.length);
+        slab.get(copy, 0, n);
+        out.write(copy, 0, n);
+      }
     }
   }
 
@@ -47,35 +47,45 @@ public class IncrementallyUpdatedFilterPredicateGenerator {
     public final String primitiveName;
     public final boolean useComparable;
     public final boolean supportsInequality;
+    // whether sets of values are searched in a sorted array rather than a hash set
+    public final boolean useSortedArray;
 
-    private TypeInfo(String className, String primitiveName, boolean useComparable, boolean supportsInequality) {
+    private TypeInfo(String className, String primitiveName, boolean useComparable, boolean supportsInequality,
+                     boolean useSortedArray) {
       this.className = className;
       this.primitiveName = primitiveName;
       this.useComparable = useComparable;
       this.supportsInequality = supportsInequality;
+      this.useSortedArray = useSortedArray;
     }
   }
 
   private static final TypeInfo[] TYPES = new TypeInfo[]{
-    new TypeInfo("Integer", "int", false, true),
-    new TypeInfo("Long", "long", false, true),
-    new TypeInfo("Boolean", "boolean", false, false),
-    new TypeInfo("Float", "float", false, true),
-    new TypeInfo("Double", "double", false, true),
-    new TypeInfo("Binary", "Binary", true, true),
+    new TypeInfo("Integer", "int", false, true, true),
+    new TypeInfo("Long", "long", false, true, true),
+    new TypeInfo("Boolean", "boolean", false, false, false),
+    new TypeInfo("Float", "float", false, true, true),
+    new TypeInfo("Double", "double", false, true, true),
+    new TypeInfo("Binary", "Binary", true, true, false),
   };
 
   public void run() throws IOException {
     add("package org.apache.parquet.filter2.recordlevel;\n" +
+        "\n" +
+        "import java.util.Arrays;\n" +
+        "import java.util.HashSet;\n" +
+        "import java.util.Set;\n" +
         "\n" +
         "import org.apache.parquet.hadoop.metadata.ColumnPath;\n" +
         "import org.apache.parquet.filter2.predicate.Operators.Eq;\n" +
         "import org.apache.parquet.filter2.predicate.Operators.Gt;\n" +
         "import org.apache.parquet.filter2.predicate.Operators.GtEq;\n" +
+        "import org.apache.parquet.filter2.predicate.Operators.In;\n" +
         "import org.apache.parquet.filter2.predicate.Operators.LogicalNotUserDefined;\n" +
         "import org.apache.parquet.filter2.predicate.Operators.Lt;\n" +
         "import org.apache.parquet.filter2.predicate.Operators.LtEq;\n" +
         "import org.apache.parquet.filter2.predicate.Operators.NotEq;\n" +
+        "import org.apache.parquet.filter2.predicate.Operators.NotIn;\n" +
         "import org.apache.parquet.filter2.predicate.Operators.UserDefined;\n" +
         "import org.apache.parquet.filter2.predicate.UserDefinedPredicate;\n" +
         "import org.apache.parquet.filter2.recordlevel.IncrementallyUpdatedFilterPredicate.ValueInspector;\n" +
@@ -124,6 +134,18 @@ public class IncrementallyUpdatedFilterPredicateGenerator {
     }
     addVisitEnd();
 
+    addVisitBegin("In");
+    for (TypeInfo info : TYPES) {
+      addInNotInCase(info, true);
+    }
+    addVisitEnd();
+
+    addVisitBegin("NotIn");
+    for (TypeInfo info : TYPES) {
+      addInNotInCase(info, false);
+    }
+    addVisitEnd();
+
     add("  @Override\n" +
         "  public <T extends Comparable<T>, U extends UserDefinedPredicate<T>> IncrementallyUpdatedFilterPredicate visit(UserDefined<T, U> pred) {\n");
     addUdpBegin();
@@ -232,6 +254,48 @@ public class IncrementallyUpdatedFilterPredicateGenerator {
         "    }\n\n");
   }
 
+  private void addInNotInCase(TypeInfo info, boolean isIn) throws IOException {
+    add("    if (clazz.equals(" + info.className + ".class)) {\n");
+
+    // floating point values match with == as in Eq: NaN matches no value and
+    // -0.0 matches 0.0, while Arrays.binarySearch tells them apart
+    String zero = isFloatingPoint(info) ? " + 0.0" + (info.primitiveName.equals("float") ? "f" : "") : "";
+    if (info.useSortedArray) {
+      // the values are sorted in their natural order, which is the order used by Arrays.binarySearch.
+      // Adding 0.0 turns -0.0 into 0.0, the next value in that order, so the array stays sorted
+      add("      final " + info.primitiveName + "[] targets = new " + info.primitiveName + "[pred.getValues().size()];\n" +
+          "      int i = 0;\n" +
+          "      for (T target : pred.getValues()) {\n" +
+          "        targets[i++] = (" + info.className + ") (Object) target" + zero + ";\n" +
+          "      }\n");
+    } else {
+      add("      final Set<T> targets = new HashSet<T>(pred.getValues());\n");
+    }
+
+    add("\n" +
+        "      valueInspector = new ValueInspector() {\n" +
+        "        @Override\n" +
+        "        public void updateNull() {\n" +
+        "          setResult(" + !isIn + ");\n" +
+        "        }\n" +
+        "\n" +
+        "        @Override\n" +
+        "        public void update(" + info.primitiveName + " value) {\n");
+
+    if (info.useSortedArray && isFloatingPoint(info)) {
+      add("          setResult(" + (isIn ? "value == value && " : "value != value || ") +
+          "Arrays.binarySearch(targets, value" + zero + ") " + (isIn ? ">=" : "<") + " 0);\n");
+    } else if (info.useSortedArray) {
+      add("          setResult(Arrays.binarySearch(targets, value) " + (isIn ? ">=" : "<") + " 0);\n");
+    } else {
+      add("          setResult(" + (isIn ? "" : "!") + "targets.contains(value));\n");
+    }
+
+    add("        }\n" +
+        "      };\n" +
+        "    }\n\n");
+  }
+
   private void addUdpBegin() throws IOException {
     add("    ColumnPath columnPath = pred.getColumn().getColumnPath();\n" +
         "    Class<T> clazz = pred.getColumn().getColumnType();\n" +
@@ -259,6 +323,10 @@ public class IncrementallyUpdatedFilterPredicateGenerator {
         "    }\n\n");
   }
 
+  private static boolean isFloatingPoint(TypeInfo info) {
+    return info.primitiveName.equals("float") || info.primitiveName.equals("double");
+  }
+
   private String compareEquality(String var, String target, boolean eq) {
     return var + ".compareTo(" + target + ")" + (eq ? " == 0 " : " != 0");
   }
@@ -0,0 +1,327 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.filter2.columnindex;
+
+import java.util.SortedSet;
+
+import org.apache.parquet.column.columnindex.ColumnIndex;
+import org.apache.parquet.column.columnindex.OffsetIndex;
+import org.apache.parquet.column.columnindex.RowRanges;
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.predicate.Operators.And;
+import org.apache.parquet.filter2.predicate.Operators.Column;
+import org.apache.parquet.filter2.predicate.Operators.Eq;
+import org.apache.parquet.filter2.predicate.Operators.Gt;
+import org.apache.parquet.filter2.predicate.Operators.GtEq;
+import org.apache.parquet.filter2.predicate.Operators.In;
+import org.apache.parquet.filter2.predicate.Operators.LogicalNotUserDefined;
+import org.apache.parquet.filter2.predicate.Operators.Lt;
+import org.apache.parquet.filter2.predicate.Operators.LtEq;
+import org.apache.parquet.filter2.predicate.Operators.Not;
+import org.apache.parquet.filter2.predicate.Operators.NotEq;
+import org.apache.parquet.filter2.predicate.Operators.NotIn;
+import org.apache.parquet.filter2.predicate.Operators.Or;
+import org.apache.parquet.filter2.predicate.Operators.UserDefined;
+import org.apache.parquet.filter2.predicate.UserDefinedPredicate;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+
+import static org.apache.parquet.Preconditions.checkNotNull;
+
+/**
+ * Applies a {@link org.apache.parquet.filter2.predicate.FilterPredicate} to the
+ * column indexes of a row group and returns the ranges of rows that might match.
+ *
+ * This works like {@link org.apache.parquet.filter2.statisticslevel.StatisticsFilter},
+ * but on the statistics of each page instead of the statistics of the whole
+ * column chunk. Rows of a page are only dropped if the page cannot contain a
+ * matching value; columns without a column index or an offset index never
+ * drop any row.
+ *
+ * Note: the supplied predicate must not contain any instances of the not() operator as this is not
+ * supported by this filter.
+ *
+ * the supplied predicate should first be run through {@link org.apache.parquet.filter2.predicate.LogicalInverseRewriter} to rewrite it
+ * in a form that doesn't make use of the not() operator.
+ */
+public class ColumnIndexFilter implements FilterPredicate.Visitor<RowRanges> {
+
+  /**
+   * Provides the indexes of the column chunks of a row group.
+   */
+  public interface ColumnIndexStore {
+    /**
+     * @param column the path of a column
+     * @return the column index of the column or null if it is not available
+     */
+    ColumnIndex getColumnIndex(ColumnPath column);
+
+    /**
+     * @param column the path of a column
+     * @return the offset index of the column or null if it is not available
+     */
+    OffsetIndex getOffsetIndex(ColumnPath column);
+  }
+
+  public static RowRanges calculateRowRanges(FilterPredicate pred, ColumnIndexStore store, long rowCount) {
+    checkNotNull(pred, "pred");
+    checkNotNull(store, "store");
+    return pred.accept(new ColumnIndexFilter(store, rowCount));
+  }
+
+  private final ColumnIndexStore store;
+  private final long rowCount;
+
+  private ColumnIndexFilter(ColumnIndexStore store, long rowCount) {
+    this.store = store;
+    this.rowCount = rowCount;
+  }
+
+  /**
+   * Decides whether a single page can be dropped.
+   */
+  private static abstract class PageFilter<T extends Comparable<T>> {
+    // whether a page containing only nulls can be dropped
+    abstract boolean canDropNullPage();
+
+    // whether a page with the given null count and non-null min/max can be dropped
+    abstract boolean canDrop(long nullCount, T min, T max);
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T extends Comparable<T>> RowRanges applyPredicate(Column<T> column, PageFilter<T> filter) {
+    ColumnPath path = column.getColumnPath();
+    ColumnIndex columnIndex = store.getColumnIndex(path);
+    OffsetIndex offsetIndex = store.getOffsetIndex(path);
+    if (columnIndex == null || offsetIndex == null
+        || columnIndex.getPageCount() != offsetIndex.getPageCount()) {
+      // no index for this column (or the column is missing): cannot drop any pages
+      return RowRanges.all(rowCount);
+    }
+
+    RowRanges.Builder ranges = new RowRanges.Builder();
+    for (int i = 0; i < columnIndex.getPageCount(); i += 1) {
+      boolean drop;
+      if (columnIndex.isNullPage(i)) {
+        drop = filter.canDropNullPage();
+      } else {
+        Statistics<T> stats = (Statistics<T>) columnIndex.getPageStatistics(i);
+        drop = filter.canDrop(columnIndex.getNullCount(i), stats.genericGetMin(), stats.genericGetMax());
+      }
+      if (!drop) {
+        ranges.add(offsetIndex.getFirstRowIndex(i), offsetIndex.getLastRowIndex(i, rowCount));
+      }
+    }
+    return ranges.build();
+  }
+
+  @Override
+  public <T extends Comparable<T>> RowRanges visit(Eq<T> eq) {
+    final T value = eq.getValue();
+    return applyPredicate(eq.getColumn(), new PageFilter<T>() {
+      @Override
+      boolean canDropNullPage() {
+        // a page of nulls only matches eq(null)
+        return value != null;
+      }
+
+      @Override
+      boolean canDrop(long nullCount, T min, T max) {
+        if (value == null) {
+          // drop if there are no nulls in this page
+          return nullCount == 0;
+        }
+        // drop if value < min || value > max
+        return value.compareTo(min) < 0 || value.compareTo(max) > 0;
+      }
+    });
+  }
+
+  @Override
+  public <T extends Comparable<T>> RowRanges visit(NotEq<T> notEq) {
+    final T value = notEq.getValue();
+    return applyPredicate(notEq.getColumn(), new PageFilter<T>() {
+      @Override
+      boolean canDropNullPage() {
+        // a page of nulls matches every notEq(someNonNull)
+        return value == null;
+      }
+
+      @Override
+      boolean canDrop(long nullCount, T min, T max) {
+        if (value == null || nullCount > 0) {
+          // this page has non-null values or nulls that match
+          return false;
+        }
+        // drop if this is a page where min = max = value
+        return value.compareTo(min) == 0 && value.compareTo(max) == 0;
+      }
+    });
+  }
+
+  @Override
+  public <T extends Comparable<T>> RowRanges visit(Lt<T> lt) {
+    final T value = lt.getValue();
+    return applyPredicate(lt.getColumn(), new PageFilter<T>() {
+      @Override
+      boolean canDropNullPage() {
+        return true;
+      }
+
+      @Override
+      boolean canDrop(long nullCount, T min, T max) {
+        // drop if value <= min
+        return value.compareTo(min) <= 0;
+      }
+    });
+  }
+
+  @Override
+  public <T extends Comparable<T>> RowRanges visit(LtEq<T> ltEq) {
+    final T value = ltEq.getValue();
+    return applyPredicate(ltEq.getColumn(), new PageFilter<T>() {
+      @Override
+      boolean canDropNullPage() {
+        return true;
+      }
+
+      @Override
+      boolean canDrop(long nullCount, T min, T max) {
+        // drop if value < min
+        return value.compareTo(min) < 0;
+      }
+    });
+  }
+
+  @Override
+  public <T extends Comparable<T>> RowRanges visit(Gt<T> gt) {
+    final T value = gt.getValue();
+    return applyPredicate(gt.getColumn(), new PageFilter<T>() {
+      @Override
+      boolean canDropNullPage() {
+        return true;
+      }
+
+      @Override
+      boolean canDrop(long nullCount, T min, T max) {
+        // drop if value >= max
+        return value.compareTo(max) >= 0;
+      }
+    });
+  }
+
+  @Override
+  public <T extends Comparable<T>> RowRanges visit(GtEq<T> gtEq) {
+    final T value = gtEq.getValue();
+    return applyPredicate(gtEq.getColumn(), new PageFilter<T>() {
+      @Override
+      boolean canDropNullPage() {
+        return true;
+      }
+
+      @Override
+      boolean canDrop(long nullCount, T min, T max) {
+        // drop if value > max
+        return value.compareTo(max) > 0;
+      }
+    });
+  }
+
+  @Override
+  public <T extends Comparable<T>> RowRanges visit(In<T> in) {
+    final SortedSet<T> values = in.getValues();
+    return applyPredicate(in.getColumn(), new PageFilter<T>() {
+      @Override
+      boolean canDropNullPage() {
+        return true;
+      }
+
+      @Override
+      boolean canDrop(long nullCount, T min, T max) {
+        // drop if no value is between min and max
+        SortedSet<T> valuesFromMin = values.tailSet(min);
+        return valuesFromMin.isEmpty() || valuesFromMin.first().compareTo(max) > 0;
+      }
+    });
+  }
+
+  @Override
+  public <T extends Comparable<T>> RowRanges visit(NotIn<T> notIn) {
+    final SortedSet<T> values = notIn.getValues();
+    return applyPredicate(notIn.getColumn(), new PageFilter<T>() {
+      @Override
+      boolean canDropNullPage() {
+        // a page of nulls matches every notIn(someNonNullValues)
+        return false;
+      }
+
+      @Override
+      boolean canDrop(long nullCount, T min, T max) {
+        // drop if this is a page without nulls where min = max and the value is in the set
+        return nullCount == 0 && min.compareTo(max) == 0 && values.contains(min);
+      }
+    });
+  }
+
+  @Override
+  public RowRanges visit(And and) {
+    return RowRanges.intersection(and.getLeft().accept(this), and.getRight().accept(this));
+  }
+
+  @Override
+  public RowRanges visit(Or or) {
+    return RowRanges.union(or.getLeft().accept(this), or.getRight().accept(this));
+  }
+
+  @Override
+  public RowRanges visit(Not not) {
+    throw new IllegalArgumentException(
+        "This predicate contains a not! Did you forget to run this predicate through LogicalInverseRewriter? " + not);
+  }
+
+  private <T extends Comparable<T>, U extends UserDefinedPredicate<T>> RowRanges visit(
+      UserDefined<T, U> ud, final boolean inverted) {
+    final U udp = ud.getUserDefinedPredicate();
+    return applyPredicate(ud.getColumn(), new PageFilter<T>() {
+      @Override
+      boolean canDropNullPage() {
+        // lets run the udp with null value to see if it keeps null or not.
+        return inverted ? udp.keep(null) : !udp.keep(null);
+      }
+
+      @Override
+      boolean canDrop(long nullCount, T min, T max) {
+        org.apache.parquet.filter2.predicate.Statistics<T> udpStats =
+            new org.apache.parquet.filter2.predicate.Statistics<T>(min, max);
+        return inverted ? udp.inverseCanDrop(udpStats) : udp.canDrop(udpStats);
+      }
+    });
+  }
+
+  @Override
+  public <T extends Comparable<T>, U extends UserDefinedPredicate<T>> RowRanges visit(UserDefined<T, U> ud) {
+    return visit(ud, false);
+  }
+
+  @Override
+  public <T extends Comparable<T>, U extends UserDefinedPredicate<T>> RowRanges visit(LogicalNotUserDefined<T, U> lnud) {
+    return visit(lnud.getUserDefined(), true);
+  }
+
+}
@@ -21,16 +21,38 @@ package org.apache.parquet.filter2.compat;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.parquet.filter2.compat.FilterCompat.Filter;
 import org.apache.parquet.filter2.compat.FilterCompat.NoOpFilter;
 import org.apache.parquet.filter2.compat.FilterCompat.Visitor;
+import org.apache.parquet.filter2.bloomfilterlevel.BloomFilterImpl;
 import org.apache.parquet.filter2.dictionarylevel.DictionaryFilter;
+import org.apache.parquet.column.statistics.BinaryStatistics;
+import org.apache.parquet.column.statistics.Statistics;
 import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.predicate.Operators.And;
+import org.apache.parquet.filter2.predicate.Operators.Column;
+import org.apache.parquet.filter2.predicate.Operators.Eq;
+import org.apache.parquet.filter2.predicate.Operators.Gt;
+import org.apache.parquet.filter2.predicate.Operators.GtEq;
+import org.apache.parquet.filter2.predicate.Operators.In;
+import org.apache.parquet.filter2.predicate.Operators.LogicalNotUserDefined;
+import org.apache.parquet.filter2.predicate.Operators.Lt;
+import org.apache.parquet.filter2.predicate.Operators.LtEq;
+import org.apache.parquet.filter2.predicate.Operators.Not;
+import org.apache.parquet.filter2.predicate.Operators.NotEq;
+import org.apache.parquet.filter2.predicate.Operators.NotIn;
+import org.apache.parquet.filter2.predicate.Operators.Or;
+import org.apache.parquet.filter2.predicate.Operators.UserDefined;
 import org.apache.parquet.filter2.predicate.SchemaCompatibilityValidator;
+import org.apache.parquet.filter2.predicate.UserDefinedPredicate;
 import org.apache.parquet.filter2.statisticslevel.StatisticsFilter;
 import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetFileWriter;
 import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
 import org.apache.parquet.schema.MessageType;
 
 import static org.apache.parquet.Preconditions.checkNotNull;
@@ -39,6 +61,11 @@ import static org.apache.parquet.Preconditions.checkNotNull;
  * Given a {@link Filter} applies it to a list of BlockMetaData (row groups)
  * If the Filter is an {@link org.apache.parquet.filter.UnboundRecordFilter} or the no op filter,
  * no filtering will be performed.
+ *
+ * When the footer of a file records that its row groups are sorted across the
+ * file, the range of row groups a predicate can match on the leading sort key
+ * is found first with a binary search on the key statistics, and only these
+ * row groups are filtered further.
  */
 public class RowGroupFilter implements Visitor<List<BlockMetaData>> {
   private final List<BlockMetaData> blocks;
@@ -48,7 +75,8 @@ public class RowGroupFilter implements Visitor<List<BlockMetaData>> {
 
   public enum FilterLevel {
     STATISTICS,
-    DICTIONARY
+    DICTIONARY,
+    BLOOMFILTER
   }
 
   public static List<BlockMetaData> filterRowGroups(Filter filter, List<BlockMetaData> blocks, MessageType schema) {
@@ -85,7 +113,7 @@ public class RowGroupFilter implements Visitor<List<BlockMetaData>> {
 
     List<BlockMetaData> filteredBlocks = new ArrayList<BlockMetaData>();
 
-    for (BlockMetaData block : blocks) {
+    for (BlockMetaData block : getSortKeyRange(filterPredicate)) {
       boolean drop = false;
 
       if(levels.contains(FilterLevel.STATISTICS)) {
@@ -96,6 +124,10 @@ public class RowGroupFilter implements Visitor<List<BlockMetaData>> {
         drop = DictionaryFilter.canDrop(filterPredicate, block.getColumns(), reader.getDictionaryReader(block));
       }
 
+      if(!drop && levels.contains(FilterLevel.BLOOMFILTER)) {
+        drop = BloomFilterImpl.canDrop(filterPredicate, block.getColumns(), reader.getBloomFilterReader(block));
+      }
+
       if(!drop) {
         filteredBlocks.add(block);
       }
@@ -104,6 +136,247 @@ public class RowGroupFilter implements Visitor<List<BlockMetaData>> {
     return filteredBlocks;
   }
 
+  /**
+   * Returns the row groups that can match the bounds the predicate puts on
+   * the leading sort key. The sorting columns of a row group only mean that
+   * its own rows are sorted, so the row groups are only known to be sorted
+   * across the file when the writer recorded it in the footer. Both the row
+   * groups before the lower bound and the ones after the upper bound are then
+   * contiguous.
+   */
+  @SuppressWarnings("unchecked")
+  private List<BlockMetaData> getSortKeyRange(FilterPredicate filterPredicate) {
+    if (reader == null || !levels.contains(FilterLevel.STATISTICS) || blocks.size() < 2) {
+      // the blocks may come from several files without a reader
+      return blocks;
+    }
+
+    ColumnPath sortKey = getSortedFileKey(
+        reader.getFileMetaData().getKeyValueMetaData(), blocks);
+    if (sortKey == null) {
+      return blocks;
+    }
+
+    SortKeyBounds bounds = filterPredicate.accept(new SortKeyBoundsVisitor(sortKey));
+    if (bounds.lower == null && bounds.upper == null) {
+      return blocks;
+    }
+
+    List<Statistics> stats = new ArrayList<Statistics>(blocks.size());
+    for (BlockMetaData block : blocks) {
+      Statistics blockStats = getStatistics(block, sortKey);
+      if (blockStats == null || blockStats.isEmpty()) {
+        // cannot tell where this row group is
+        return blocks;
+      } else if (blockStats instanceof BinaryStatistics) {
+        // binary keys are sorted as unsigned bytes but their min and max are
+        // signed, so the row groups are not in the order of the statistics
+        return blocks;
+      }
+      stats.add(blockStats);
+    }
+
+    // first row group that is not entirely below the lower bound
+    int start = 0;
+    if (bounds.lower != null) {
+      int low = 0;
+      int high = stats.size();
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        Statistics blockStats = stats.get(mid);
+        // nulls are first, a row group of nulls is below any bound
+        if (!blockStats.hasNonNullValue() ||
+            blockStats.genericGetMax().compareTo(bounds.lower) < 0) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      start = low;
+    }
+
+    // first row group that is entirely above the upper bound
+    int end = stats.size();
+    if (bounds.upper != null) {
+      int low = start;
+      int high = stats.size();
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        Statistics blockStats = stats.get(mid);
+        if (blockStats.hasNonNullValue() &&
+            blockStats.genericGetMin().compareTo(bounds.upper) > 0) {
+          high = mid;
+        } else {
+          low = mid + 1;
+        }
+      }
+      end = low;
+    }
+
+    return blocks.subList(start, Math.max(start, end));
+  }
+
+  /**
+   * Returns the leading sort key of a file whose footer records that its row
+   * groups are sorted across the file by the sorting columns they all declare,
+   * null otherwise.
+   */
+  private static ColumnPath getSortedFileKey(Map<String, String> keyValueMetaData,
+                                             List<BlockMetaData> blocks) {
+    String sortedBy = keyValueMetaData.get(ParquetFileWriter.SORTED_FILE_METADATA_KEY);
+    if (sortedBy == null) {
+      return null;
+    }
+    for (BlockMetaData block : blocks) {
+      List<ColumnPath> sortingColumns = block.getSortingColumns();
+      if (sortingColumns.isEmpty() ||
+          !sortedBy.equals(ParquetFileWriter.toSortedFileValue(sortingColumns))) {
+        return null;
+      }
+    }
+    return blocks.get(0).getSortingColumns().get(0);
+  }
+
+  private static Statistics getStatistics(BlockMetaData block, ColumnPath path) {
+    for (ColumnChunkMetaData column : block.getColumns()) {
+      if (column.getPath().equals(path)) {
+        return column.getStatistics();
+      }
+    }
+    return null;
+  }
+
+  /**
+   * The inclusive bounds of the values of a column that can match a
+   * predicate, null when the predicate does not bound the values.
+   */
+  private static class SortKeyBounds {
+    private static final SortKeyBounds UNBOUNDED = new SortKeyBounds(null, null);
+
+    private final Comparable lower;
+    private final Comparable upper;
+
+    private SortKeyBounds(Comparable lower, Comparable upper) {
+      this.lower = lower;
+      this.upper = upper;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static class SortKeyBoundsVisitor implements FilterPredicate.Visitor<SortKeyBounds> {
+    private final ColumnPath sortKey;
+
+    private SortKeyBoundsVisitor(ColumnPath sortKey) {
+      this.sortKey = sortKey;
+    }
+
+    private SortKeyBounds bounds(Column<?> column, Comparable lower, Comparable upper) {
+      if (!sortKey.equals(column.getColumnPath())) {
+        return SortKeyBounds.UNBOUNDED;
+      }
+      return new SortKeyBounds(lower, upper);
+    }
+
+    @Override
+    public <T extends Comparable<T>> SortKeyBounds visit(Eq<T> eq) {
+      // eq(null) matches the nulls before the other values
+      return bounds(eq.getColumn(), eq.getValue(), eq.getValue());
+    }
+
+    @Override
+    public <T extends Comparable<T>> SortKeyBounds visit(NotEq<T> notEq) {
+      return SortKeyBounds.UNBOUNDED;
+    }
+
+    @Override
+    public <T extends Comparable<T>> SortKeyBounds visit(Lt<T> lt) {
+      return bounds(lt.getColumn(), null, lt.getValue());
+    }
+
+    @Override
+    public <T extends Comparable<T>> SortKeyBounds visit(LtEq<T> ltEq) {
+      return bounds(ltEq.getColumn(), null, ltEq.getValue());
+    }
+
+    @Override
+    public <T extends Comparable<T>> SortKeyBounds visit(Gt<T> gt) {
+      return bounds(gt.getColumn(), gt.getValue(), null);
+    }
+
+    @Override
+    public <T extends Comparable<T>> SortKeyBounds visit(GtEq<T> gtEq) {
+      return bounds(gtEq.getColumn(), gtEq.getValue(), null);
+    }
+
+    @Override
+    public <T extends Comparable<T>> SortKeyBounds visit(In<T> in) {
+      if (in.getValues().isEmpty()) {
+        return SortKeyBounds.UNBOUNDED;
+      }
+      return bounds(in.getColumn(), in.getValues().first(), in.getValues().last());
+    }
+
+    @Override
+    public <T extends Comparable<T>> SortKeyBounds visit(NotIn<T> notIn) {
+      return SortKeyBounds.UNBOUNDED;
+    }
+
+    @Override
+    public SortKeyBounds visit(And and) {
+      // both sides must match, keep the tighter bounds
+      SortKeyBounds left = and.getLeft().accept(this);
+      SortKeyBounds right = and.getRight().accept(this);
+      return new SortKeyBounds(
+          max(left.lower, right.lower),
+          min(left.upper, right.upper));
+    }
+
+    @Override
+    public SortKeyBounds visit(Or or) {
+      // either side may match, keep the looser bounds
+      SortKeyBounds left = or.getLeft().accept(this);
+      SortKeyBounds right = or.getRight().accept(this);
+      return new SortKeyBounds(
+          (left.lower == null || right.lower == null) ? null : min(left.lower, right.lower),
+          (left.upper == null || right.upper == null) ? null : max(left.upper, right.upper));
+    }
+
+    @Override
+    public SortKeyBounds visit(Not not) {
+      return SortKeyBounds.UNBOUNDED;
+    }
+
+    @Override
+    public <T extends Comparable<T>, U extends UserDefinedPredicate<T>> SortKeyBounds visit(UserDefined<T, U> udp) {
+      return SortKeyBounds.UNBOUNDED;
+    }
+
+    @Override
+    public <T extends Comparable<T>, U extends UserDefinedPredicate<T>> SortKeyBounds visit(LogicalNotUserDefined<T, U> udp) {
+      return SortKeyBounds.UNBOUNDED;
+    }
+
+    // null is unbounded
+    private static Comparable min(Comparable a, Comparable b) {
+      if (a == null) {
+        return b;
+      } else if (b == null) {
+        return a;
+      }
+      return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    // null is unbounded
+    private static Comparable max(Comparable a, Comparable b) {
+      if (a == null) {
+        return b;
+      } else if (b == null) {
+        return a;
+      }
+      return a.compareTo(b) >= 0 ? a : b;
+    }
+  }
+
   @Override
   public List<BlockMetaData> visit(FilterCompat.UnboundRecordFilterCompat unboundRecordFilterCompat) {
     return blocks;
@@ -83,7 +83,7 @@ public class DictionaryFilter implements FilterPredicate.Visitor<Boolean> {
       return null;
     }
 
-    Dictionary dict = page.getEncoding().initDictionary(col, page);
+    Dictionary dict = page.decode(col);
 
     Set dictSet = new HashSet<T>();
 
@@ -187,6 +187,82 @@ public class DictionaryFilter implements FilterPredicate.Visitor<Boolean> {
     return BLOCK_MIGHT_MATCH;
   }
 
+  @Override
+  public <T extends Comparable<T>> Boolean visit(In<T> in) {
+    Column<T> filterColumn = in.getColumn();
+    ColumnChunkMetaData meta = getColumnChunk(filterColumn.getColumnPath());
+
+    if (meta == null) {
+      // the column isn't in this file so all values are null, which are
+      // never in the set
+      return BLOCK_CANNOT_MATCH;
+    }
+
+    // if the chunk has non-dictionary pages, don't bother decoding the
+    // dictionary because the row group can't be eliminated.
+    if (hasNonDictionaryPages(meta)) {
+      return BLOCK_MIGHT_MATCH;
+    }
+
+    try {
+      Set<T> dictSet = expandDictionary(meta);
+      if (dictSet != null && !intersects(dictSet, in.getValues())) {
+        return BLOCK_CANNOT_MATCH;
+      }
+    } catch (IOException e) {
+      LOG.warn("Failed to process dictionary for filter evaluation.", e);
+    }
+
+    return BLOCK_MIGHT_MATCH;
+  }
+
+  @Override
+  public <T extends Comparable<T>> Boolean visit(NotIn<T> notIn) {
+    Column<T> filterColumn = notIn.getColumn();
+    ColumnChunkMetaData meta = getColumnChunk(filterColumn.getColumnPath());
+
+    if (meta == null) {
+      // column is missing from this file and is always null, which is not in
+      // the set, so the predicate is true for all rows
+      return BLOCK_MIGHT_MATCH;
+    }
+
+    // if the chunk has non-dictionary pages, don't bother decoding the
+    // dictionary because the row group can't be eliminated.
+    if (hasNonDictionaryPages(meta)) {
+      return BLOCK_MIGHT_MATCH;
+    }
+
+    // the dictionary does not contain nulls, which match notIn
+    if (meta.getStatistics() != null && !meta.getStatistics().isEmpty() &&
+        meta.getStatistics().getNumNulls() > 0) {
+      return BLOCK_MIGHT_MATCH;
+    }
+
+    try {
+      Set<T> dictSet = expandDictionary(meta);
+      if (dictSet != null && notIn.getValues().containsAll(dictSet)) {
+        return BLOCK_CANNOT_MATCH;
+      }
+    } catch (IOException e) {
+      LOG.warn("Failed to process dictionary for filter evaluation.", e);
+    }
+
+    return BLOCK_MIGHT_MATCH;
+  }
+
+  // looks up the values of the smaller set in the other one
+  private static <T> boolean intersects(Set<T> dictSet, Set<T> values) {
+    Set<T> smaller = dictSet.size() <= values.size() ? dictSet : values;
+    Set<T> larger = smaller == dictSet ? values : dictSet;
+    for (T value : smaller) {
+      if (larger.contains(value)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   @Override
   public <T extends Comparable<T>> Boolean visit(Lt<T> lt) {
     Column<T> filterColumn = lt.getColumn();
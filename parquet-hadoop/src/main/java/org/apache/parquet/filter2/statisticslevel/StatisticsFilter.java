@@ -21,6 +21,7 @@ package org.apache.parquet.filter2.statisticslevel;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.SortedSet;
 
 import org.apache.parquet.column.statistics.Statistics;
 import org.apache.parquet.hadoop.metadata.ColumnPath;
@@ -30,15 +31,18 @@ import org.apache.parquet.filter2.predicate.Operators.Column;
 import org.apache.parquet.filter2.predicate.Operators.Eq;
 import org.apache.parquet.filter2.predicate.Operators.Gt;
 import org.apache.parquet.filter2.predicate.Operators.GtEq;
+import org.apache.parquet.filter2.predicate.Operators.In;
 import org.apache.parquet.filter2.predicate.Operators.LogicalNotUserDefined;
 import org.apache.parquet.filter2.predicate.Operators.Lt;
 import org.apache.parquet.filter2.predicate.Operators.LtEq;
 import org.apache.parquet.filter2.predicate.Operators.Not;
 import org.apache.parquet.filter2.predicate.Operators.NotEq;
+import org.apache.parquet.filter2.predicate.Operators.NotIn;
 import org.apache.parquet.filter2.predicate.Operators.Or;
 import org.apache.parquet.filter2.predicate.Operators.UserDefined;
 import org.apache.parquet.filter2.predicate.UserDefinedPredicate;
 import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.io.api.Binary;
 
 import static org.apache.parquet.Preconditions.checkArgument;
 import static org.apache.parquet.Preconditions.checkNotNull;
@@ -57,6 +61,10 @@ import static org.apache.parquet.Preconditions.checkNotNull;
  * {@link org.apache.parquet.filter2.predicate.SchemaCompatibilityValidator}
  * to make sure it is compatible with the schema of this file.
  *
+ * Binary columns without min and max statistics may still have lower and upper bounds of their values,
+ * in unsigned byte order and possibly truncated (see {@link ColumnChunkMetaData#getBinaryLowerBound()}).
+ * They are only used to drop the chunks that can't match a value.
+ *
  * Returns true if all the records represented by the statistics in the provided column metadata can be dropped.
  *         false otherwise (including when it is not known, which is often the case).
  */
@@ -97,6 +105,21 @@ public class StatisticsFilter implements FilterPredicate.Visitor<Boolean> {
     return column.getStatistics().getNumNulls() > 0;
   }
 
+  // does this binary column chunk have bounds of its values but no min and max?
+  private boolean hasOnlyBinaryBounds(ColumnChunkMetaData column) {
+    return !column.getStatistics().hasNonNullValue() && column.getBinaryLowerBound() != null;
+  }
+
+  // compares a binary value to the lower bound, in unsigned byte order
+  private int compareToLowerBound(Object value, ColumnChunkMetaData column) {
+    return Binary.compareUnsigned((Binary) value, column.getBinaryLowerBound());
+  }
+
+  // compares a binary value to the upper bound, in unsigned byte order
+  private int compareToUpperBound(Object value, ColumnChunkMetaData column) {
+    return Binary.compareUnsigned((Binary) value, column.getBinaryUpperBound());
+  }
+
   @Override
   @SuppressWarnings("unchecked")
   public <T extends Comparable<T>> Boolean visit(Eq<T> eq) {
@@ -116,6 +139,11 @@ public class StatisticsFilter implements FilterPredicate.Visitor<Boolean> {
 
     Statistics<T> stats = meta.getStatistics();
 
+    if (value != null && hasOnlyBinaryBounds(meta)) {
+      // drop if value < lower bound || value > upper bound
+      return compareToLowerBound(value, meta) < 0 || compareToUpperBound(value, meta) > 0;
+    }
+
     if (stats.isEmpty()) {
       // we have no statistics available, we cannot drop any chunks
       return BLOCK_MIGHT_MATCH;
@@ -190,6 +218,11 @@ public class StatisticsFilter implements FilterPredicate.Visitor<Boolean> {
 
     Statistics<T> stats = meta.getStatistics();
 
+    if (hasOnlyBinaryBounds(meta)) {
+      // drop if value <= lower bound
+      return compareToLowerBound(lt.getValue(), meta) <= 0;
+    }
+
     if (stats.isEmpty()) {
       // we have no statistics available, we cannot drop any chunks
       return BLOCK_MIGHT_MATCH;
@@ -221,6 +254,11 @@ public class StatisticsFilter implements FilterPredicate.Visitor<Boolean> {
 
     Statistics<T> stats = meta.getStatistics();
 
+    if (hasOnlyBinaryBounds(meta)) {
+      // drop if value < lower bound
+      return compareToLowerBound(ltEq.getValue(), meta) < 0;
+    }
+
     if (stats.isEmpty()) {
       // we have no statistics available, we cannot drop any chunks
       return BLOCK_MIGHT_MATCH;
@@ -252,6 +290,11 @@ public class StatisticsFilter implements FilterPredicate.Visitor<Boolean> {
 
     Statistics<T> stats = meta.getStatistics();
 
+    if (hasOnlyBinaryBounds(meta)) {
+      // drop if value >= upper bound
+      return compareToUpperBound(gt.getValue(), meta) >= 0;
+    }
+
     if (stats.isEmpty()) {
       // we have no statistics available, we cannot drop any chunks
       return BLOCK_MIGHT_MATCH;
@@ -283,6 +326,11 @@ public class StatisticsFilter implements FilterPredicate.Visitor<Boolean> {
 
     Statistics<T> stats = meta.getStatistics();
 
+    if (hasOnlyBinaryBounds(meta)) {
+      // drop if value > upper bound
+      return compareToUpperBound(gtEq.getValue(), meta) > 0;
+    }
+
     if (stats.isEmpty()) {
       // we have no statistics available, we cannot drop any chunks
       return BLOCK_MIGHT_MATCH;
@@ -300,6 +348,76 @@ public class StatisticsFilter implements FilterPredicate.Visitor<Boolean> {
     return value.compareTo(stats.genericGetMax()) > 0;
   }
 
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T extends Comparable<T>> Boolean visit(In<T> in) {
+    Column<T> filterColumn = in.getColumn();
+    ColumnChunkMetaData meta = getColumnChunk(filterColumn.getColumnPath());
+
+    if (meta == null) {
+      // the column is missing and always null, which is never in the set
+      return BLOCK_CANNOT_MATCH;
+    }
+
+    Statistics<T> stats = meta.getStatistics();
+
+    if (hasOnlyBinaryBounds(meta)) {
+      // drop if no value is between the bounds: the values are not sorted in
+      // unsigned byte order, so all of them are checked
+      for (T value : in.getValues()) {
+        if (compareToLowerBound(value, meta) >= 0 && compareToUpperBound(value, meta) <= 0) {
+          return BLOCK_MIGHT_MATCH;
+        }
+      }
+      return BLOCK_CANNOT_MATCH;
+    }
+
+    if (stats.isEmpty()) {
+      // we have no statistics available, we cannot drop any chunks
+      return BLOCK_MIGHT_MATCH;
+    }
+
+    if (isAllNulls(meta)) {
+      // we are looking for records where v in someNonNullValues
+      // this chunk is all nulls, so we can drop it
+      return BLOCK_CANNOT_MATCH;
+    }
+
+    // drop if no value is between min and max: the values are sorted, so
+    // this only looks at the smallest value that is not less than min
+    SortedSet<T> valuesFromMin = in.getValues().tailSet(stats.genericGetMin());
+    return valuesFromMin.isEmpty() || valuesFromMin.first().compareTo(stats.genericGetMax()) > 0;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T extends Comparable<T>> Boolean visit(NotIn<T> notIn) {
+    Column<T> filterColumn = notIn.getColumn();
+    ColumnChunkMetaData meta = getColumnChunk(filterColumn.getColumnPath());
+
+    if (meta == null) {
+      // the column is missing and always null, which is never in the set
+      return BLOCK_MIGHT_MATCH;
+    }
+
+    Statistics<T> stats = meta.getStatistics();
+
+    if (stats.isEmpty()) {
+      // we have no statistics available, we cannot drop any chunks
+      return BLOCK_MIGHT_MATCH;
+    }
+
+    if (hasNulls(meta)) {
+      // we are looking for records where v notIn someNonNullValues
+      // but this chunk contains nulls, we cannot drop it
+      return BLOCK_MIGHT_MATCH;
+    }
+
+    // drop if this is a column where min = max and the value is in the set
+    T min = stats.genericGetMin();
+    return min.compareTo(stats.genericGetMax()) == 0 && notIn.getValues().contains(min);
+  }
+
   @Override
   public Boolean visit(And and) {
     // seems unintuitive to put an || not an && here but we can
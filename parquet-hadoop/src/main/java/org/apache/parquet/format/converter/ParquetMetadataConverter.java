@@ -19,11 +19,16 @@
 package org.apache.parquet.format.converter;
 
 import static org.apache.parquet.format.Util.readFileMetaData;
+import static org.apache.parquet.format.event.Consumers.fieldConsumer;
+import static org.apache.parquet.format.event.Consumers.listElementsOf;
+import static org.apache.parquet.format.event.Consumers.listOf;
+import static org.apache.parquet.format.event.Consumers.struct;
 import static org.apache.parquet.format.Util.writePageHeader;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -38,7 +43,10 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.parquet.CorruptStatistics;
+import org.apache.parquet.format.BoundaryOrder;
+import org.apache.parquet.format.ColumnOrder;
 import org.apache.parquet.format.PageEncodingStats;
+import org.apache.parquet.format.PageLocation;
 import org.apache.parquet.hadoop.metadata.ColumnPath;
 import org.apache.parquet.format.ColumnChunk;
 import org.apache.parquet.format.ColumnMetaData;
@@ -49,19 +57,38 @@ import org.apache.parquet.format.DictionaryPageHeader;
 import org.apache.parquet.format.Encoding;
 import org.apache.parquet.format.FieldRepetitionType;
 import org.apache.parquet.format.FileMetaData;
+import org.apache.parquet.format.InterningProtocol;
 import org.apache.parquet.format.KeyValue;
 import org.apache.parquet.format.PageHeader;
 import org.apache.parquet.format.PageType;
 import org.apache.parquet.format.RowGroup;
+import org.apache.parquet.format.SortingColumn;
 import org.apache.parquet.format.SchemaElement;
 import org.apache.parquet.format.Statistics;
 import org.apache.parquet.format.Type;
+import org.apache.parquet.format.TypeDefinedOrder;
+import org.apache.parquet.format.event.Consumers.Consumer;
+import org.apache.parquet.format.event.Consumers.DelegatingFieldConsumer;
+import org.apache.parquet.format.event.EventBasedThriftReader;
+import org.apache.parquet.format.event.TypedConsumer.I32Consumer;
+import org.apache.parquet.format.event.TypedConsumer.I64Consumer;
+import org.apache.parquet.format.event.TypedConsumer.StringConsumer;
 import org.apache.parquet.hadoop.metadata.BlockMetaData;
 import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
 import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.hadoop.metadata.IndexReference;
+import org.apache.parquet.column.ColumnDescriptor;
 import org.apache.parquet.column.EncodingStats;
+import org.apache.parquet.column.ParquetProperties;
+import org.apache.parquet.column.statistics.BinaryStatistics;
+import org.apache.parquet.column.columnindex.ColumnIndex;
+import org.apache.parquet.column.columnindex.OffsetIndex;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.predicate.Operators;
+import org.apache.parquet.filter2.predicate.UserDefinedPredicate;
 import org.apache.parquet.hadoop.metadata.ParquetMetadata;
 import org.apache.parquet.io.ParquetDecodingException;
+import org.apache.parquet.io.api.Binary;
 import org.apache.parquet.schema.GroupType;
 import org.apache.parquet.schema.MessageType;
 import org.apache.parquet.schema.OriginalType;
@@ -73,6 +100,10 @@ import org.apache.parquet.schema.Types;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import shaded.parquet.org.apache.thrift.TException;
+import shaded.parquet.org.apache.thrift.protocol.TCompactProtocol;
+import shaded.parquet.org.apache.thrift.transport.TIOStreamTransport;
+
 // TODO: This file has become too long!
 // TODO: Lets split it up: https://issues.apache.org/jira/browse/PARQUET-310
 public class ParquetMetadataConverter {
@@ -81,20 +112,38 @@ public class ParquetMetadataConverter {
   public static final MetadataFilter SKIP_ROW_GROUPS = new SkipMetadataFilter();
   public static final long MAX_STATS_SIZE = 4096; // limit stats to 4k
 
+  // the Bloom filter of a column chunk is referenced from its key/value metadata
+  static final String BLOOM_FILTER_OFFSET_KEY = "parquet.bloom.filter.offset";
+  static final String BLOOM_FILTER_LENGTH_KEY = "parquet.bloom.filter.length";
+
   private static final Logger LOG = LoggerFactory.getLogger(ParquetMetadataConverter.class);
 
   private final boolean useSignedStringMinMax;
+  // the length of the bounds written instead of binary min/max statistics that are too large
+  private final int statisticsTruncateLength;
 
   public ParquetMetadataConverter() {
-    this(false);
+    this(false, ParquetProperties.DEFAULT_STATISTICS_TRUNCATE_LENGTH);
   }
 
   public ParquetMetadataConverter(Configuration conf) {
-    this(conf.getBoolean("parquet.strings.signed-min-max.enabled", false));
+    this(conf.getBoolean("parquet.strings.signed-min-max.enabled", false),
+        ParquetProperties.DEFAULT_STATISTICS_TRUNCATE_LENGTH);
+  }
+
+  /**
+   * @param statisticsTruncateLength the length of the lower and upper bounds
+   *                                 written in the footer instead of binary
+   *                                 min and max statistics that are too large,
+   *                                 0 to drop the statistics
+   */
+  public ParquetMetadataConverter(int statisticsTruncateLength) {
+    this(false, statisticsTruncateLength);
   }
 
-  private ParquetMetadataConverter(boolean useSignedStringMinMax) {
+  private ParquetMetadataConverter(boolean useSignedStringMinMax, int statisticsTruncateLength) {
     this.useSignedStringMinMax = useSignedStringMinMax;
+    this.statisticsTruncateLength = statisticsTruncateLength;
   }
 
   // NOTE: this cache is for memory savings, not cpu savings, and is used to de-duplicate
@@ -113,11 +162,19 @@ public class ParquetMetadataConverter {
       numRows += block.getRowCount();
       addRowGroup(parquetMetadata, rowGroups, block);
     }
+    MessageType schema = parquetMetadata.getFileMetaData().getSchema();
     FileMetaData fileMetaData = new FileMetaData(
         currentVersion,
-        toParquetSchema(parquetMetadata.getFileMetaData().getSchema()),
+        toParquetSchema(schema),
         numRows,
         rowGroups);
+    // min_value and max_value statistics are in the sort order of the type of
+    // each column, see toParquetStatistics
+    List<ColumnOrder> columnOrders = new ArrayList<ColumnOrder>();
+    for (int i = 0; i < schema.getColumns().size(); i += 1) {
+      columnOrders.add(ColumnOrder.TYPE_ORDER(new TypeDefinedOrder()));
+    }
+    fileMetaData.setColumn_orders(columnOrders);
 
     Set<Entry<String, String>> keyValues = parquetMetadata.getFileMetaData().getKeyValueMetaData().entrySet();
     for (Entry<String, String> keyValue : keyValues) {
@@ -184,6 +241,7 @@ public class ParquetMetadataConverter {
 
   private void addRowGroup(ParquetMetadata parquetMetadata, List<RowGroup> rowGroups, BlockMetaData block) {
     //rowGroup.total_byte_size = ;
+    MessageType schema = parquetMetadata.getFileMetaData().getSchema();
     List<ColumnChunkMetaData> columns = block.getColumns();
     List<ColumnChunk> parquetColumns = new ArrayList<ColumnChunk>();
     for (ColumnChunkMetaData columnMetaData : columns) {
@@ -199,18 +257,63 @@ public class ParquetMetadataConverter {
           columnMetaData.getTotalSize(),
           columnMetaData.getFirstDataPageOffset());
       columnChunk.meta_data.dictionary_page_offset = columnMetaData.getDictionaryPageOffset();
+      String[] path = columnMetaData.getPath().toArray();
+      boolean unsignedBinary = schema.containsPath(path) &&
+          isUnsignedBinary(schema.getType(path).asPrimitiveType());
       if (!columnMetaData.getStatistics().isEmpty()) {
-        columnChunk.meta_data.setStatistics(toParquetStatistics(columnMetaData.getStatistics()));
+        columnChunk.meta_data.setStatistics(toParquetStatistics(
+            columnMetaData.getStatistics(), unsignedBinary ? statisticsTruncateLength : 0));
+      }
+      if (unsignedBinary && columnMetaData.getBinaryLowerBound() != null &&
+          (!columnChunk.meta_data.isSetStatistics() ||
+              !columnChunk.meta_data.getStatistics().isSetMax_value())) {
+        // bounds read from another file, when a row group is copied
+        if (!columnChunk.meta_data.isSetStatistics()) {
+          columnChunk.meta_data.setStatistics(new Statistics());
+        }
+        columnChunk.meta_data.getStatistics()
+            .setMin_value(columnMetaData.getBinaryLowerBound().getBytes())
+            .setMax_value(columnMetaData.getBinaryUpperBound().getBytes());
       }
       if (columnMetaData.getEncodingStats() != null) {
         columnChunk.meta_data.setEncoding_stats(convertEncodingStats(columnMetaData.getEncodingStats()));
       }
 //      columnChunk.meta_data.index_page_offset = ;
-//      columnChunk.meta_data.key_value_metadata = ; // nothing yet
+      IndexReference bloomFilterRef = columnMetaData.getBloomFilterReference();
+      if (bloomFilterRef != null) {
+        columnChunk.meta_data.addToKey_value_metadata(
+            new KeyValue(BLOOM_FILTER_OFFSET_KEY).setValue(String.valueOf(bloomFilterRef.getOffset())));
+        columnChunk.meta_data.addToKey_value_metadata(
+            new KeyValue(BLOOM_FILTER_LENGTH_KEY).setValue(String.valueOf(bloomFilterRef.getLength())));
+      }
+      IndexReference columnIndexRef = columnMetaData.getColumnIndexReference();
+      if (columnIndexRef != null) {
+        columnChunk.setColumn_index_offset(columnIndexRef.getOffset());
+        columnChunk.setColumn_index_length(columnIndexRef.getLength());
+      }
+      IndexReference offsetIndexRef = columnMetaData.getOffsetIndexReference();
+      if (offsetIndexRef != null) {
+        columnChunk.setOffset_index_offset(offsetIndexRef.getOffset());
+        columnChunk.setOffset_index_length(offsetIndexRef.getLength());
+      }
 
       parquetColumns.add(columnChunk);
     }
     RowGroup rowGroup = new RowGroup(parquetColumns, block.getTotalByteSize(), block.getRowCount());
+    for (ColumnPath sortingColumn : block.getSortingColumns()) {
+      int index = -1;
+      for (int i = 0; i < columns.size(); i += 1) {
+        if (columns.get(i).getPath().equals(sortingColumn)) {
+          index = i;
+          break;
+        }
+      }
+      if (index < 0) {
+        // the remaining columns are not known to be sorted
+        break;
+      }
+      rowGroup.addToSorting_columns(new SortingColumn(index, false, true));
+    }
     rowGroups.add(rowGroup);
   }
 
@@ -300,21 +403,78 @@ public class ParquetMetadataConverter {
 
   public static Statistics toParquetStatistics(
       org.apache.parquet.column.statistics.Statistics statistics) {
+    return toParquetStatistics(statistics, 0);
+  }
+
+  /**
+   * Converts statistics, writing truncated bounds for binary min and max
+   * values that are larger than {@link #MAX_STATS_SIZE}.
+   *
+   * The min and max fields are not truncated. The rationale is that some
+   * engines may use the minimum value in the page as the true minimum for
+   * aggregations and there is no way to mark that a value has been truncated
+   * and is a lower bound and not in the page. The truncated bounds are
+   * written in the min_value and max_value fields instead. They are in
+   * unsigned byte order, the order the Parquet format defines for UTF8 and
+   * binary columns, so they must only be written for the columns that use
+   * this order. This converter reads them back as bounds of the column chunk,
+   * see {@link ColumnChunkMetaData#getBinaryLowerBound()}, and not as min and
+   * max statistics.
+   *
+   * @param statistics the statistics of a column chunk
+   * @param truncateLength the length of the bounds, 0 to drop min and max
+   *                       values that are too large
+   * @return the statistics to write in the footer
+   */
+  public static Statistics toParquetStatistics(
+      org.apache.parquet.column.statistics.Statistics statistics, int truncateLength) {
     Statistics stats = new Statistics();
-    // Don't write stats larger than the max size rather than truncating. The
-    // rationale is that some engines may use the minimum value in the page as
-    // the true minimum for aggregations and there is no way to mark that a
-    // value has been truncated and is a lower bound and not in the page.
     if (!statistics.isEmpty() && statistics.isSmallerThan(MAX_STATS_SIZE)) {
       stats.setNull_count(statistics.getNumNulls());
       if (statistics.hasNonNullValue()) {
         stats.setMax(statistics.getMaxBytes());
         stats.setMin(statistics.getMinBytes());
       }
+    } else if (!statistics.isEmpty() && truncateLength > 0 &&
+        statistics instanceof BinaryStatistics) {
+      stats.setNull_count(statistics.getNumNulls());
+      BinaryStatistics binaryStats = (BinaryStatistics) statistics;
+      // not known when the statistics were not computed from the values
+      if (binaryStats.getUnsignedMax() != null) {
+        byte[] upperBound = truncateUpperBound(
+            binaryStats.getUnsignedMax().getBytesUnsafe(), truncateLength);
+        if (upperBound != null) {
+          stats.setMax_value(upperBound);
+          stats.setMin_value(truncateLowerBound(
+              binaryStats.getUnsignedMin().getBytesUnsafe(), truncateLength));
+        }
+      }
     }
     return stats;
   }
 
+  // a prefix is never larger than the value
+  static byte[] truncateLowerBound(byte[] min, int length) {
+    return min.length <= length ? min : Arrays.copyOf(min, length);
+  }
+
+  // the prefix is incremented, in unsigned byte order, so that it is larger
+  // than all values that start with it. Trailing 0xFF bytes can't be
+  // incremented and are dropped. Returns null if no prefix can be incremented.
+  static byte[] truncateUpperBound(byte[] max, int length) {
+    if (max.length <= length) {
+      return max;
+    }
+    for (int i = length - 1; i >= 0; i -= 1) {
+      if (max[i] != (byte) 0xFF) {
+        byte[] upperBound = Arrays.copyOf(max, i + 1);
+        upperBound[i] += 1;
+        return upperBound;
+      }
+    }
+    return null;
+  }
+
   /**
    * @deprecated Replaced by {@link #fromParquetStatistics(
    * String createdBy, Statistics statistics, PrimitiveTypeName type)}
@@ -402,6 +562,37 @@ public class ParquetMetadataConverter {
         (annotation == null || STRING_TYPES.contains(annotation));
   }
 
+  /**
+   * @param type a primitive type with a logical type annotation
+   * @return whether the values are binary and ordered as unsigned bytes
+   */
+  private static boolean isUnsignedBinary(PrimitiveType type) {
+    PrimitiveTypeName primitive = type.getPrimitiveTypeName();
+    return (primitive == PrimitiveTypeName.BINARY ||
+        primitive == PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY) &&
+        SortOrder.UNSIGNED == sortOrder(type);
+  }
+
+  /**
+   * @param parquetMetadata the file metadata
+   * @param schema the schema of the file
+   * @return the columns that are ordered by the sort order of their type
+   */
+  private static Set<ColumnPath> getTypeDefinedOrderColumns(FileMetaData parquetMetadata,
+                                                           MessageType schema) {
+    Set<ColumnPath> columns = new HashSet<ColumnPath>();
+    List<ColumnOrder> columnOrders = parquetMetadata.getColumn_orders();
+    if (columnOrders != null) {
+      List<ColumnDescriptor> descriptors = schema.getColumns();
+      for (int i = 0; i < columnOrders.size() && i < descriptors.size(); i += 1) {
+        if (columnOrders.get(i).isSetTYPE_ORDER()) {
+          columns.add(ColumnPath.get(descriptors.get(i).getPath()));
+        }
+      }
+    }
+    return columns;
+  }
+
   /**
    * @param primitive a primitive physical type
    * @return the default sort order used when the logical type is not known
@@ -460,6 +651,104 @@ public class ParquetMetadataConverter {
     return defaultSortOrder(primitive.getPrimitiveTypeName());
   }
 
+  public static org.apache.parquet.format.ColumnIndex toParquetColumnIndex(ColumnIndex columnIndex) {
+    int pageCount = columnIndex.getPageCount();
+    List<Boolean> nullPages = new ArrayList<Boolean>(pageCount);
+    List<Long> nullCounts = new ArrayList<Long>(pageCount);
+    List<ByteBuffer> minValues = new ArrayList<ByteBuffer>(pageCount);
+    List<ByteBuffer> maxValues = new ArrayList<ByteBuffer>(pageCount);
+    for (int i = 0; i < pageCount; i += 1) {
+      nullPages.add(columnIndex.isNullPage(i));
+      nullCounts.add(columnIndex.getNullCount(i));
+      minValues.add(ByteBuffer.wrap(columnIndex.getMinBytes(i)));
+      maxValues.add(ByteBuffer.wrap(columnIndex.getMaxBytes(i)));
+    }
+    org.apache.parquet.format.ColumnIndex parquetColumnIndex = new org.apache.parquet.format.ColumnIndex(
+        nullPages, minValues, maxValues, BoundaryOrder.UNORDERED);
+    parquetColumnIndex.setNull_counts(nullCounts);
+    return parquetColumnIndex;
+  }
+
+  /**
+   * Converts a column index read from a file. Like the column statistics, the
+   * min and max values were aggregated using a signed ordering so they are
+   * discarded for types that need a different sort order.
+   *
+   * @param type the type of the column
+   * @param parquetColumnIndex the column index read from the file
+   * @return the column index or null if it can not be used for this type
+   */
+  public ColumnIndex fromParquetColumnIndex(PrimitiveType type,
+                                            org.apache.parquet.format.ColumnIndex parquetColumnIndex) {
+    SortOrder expectedOrder = overrideSortOrderToSigned(type) ?
+        SortOrder.SIGNED : sortOrder(type);
+    if (SortOrder.SIGNED != expectedOrder || !parquetColumnIndex.isSetNull_counts()) {
+      return null;
+    }
+    int pageCount = parquetColumnIndex.getNull_pagesSize();
+    boolean[] nullPages = new boolean[pageCount];
+    long[] nullCounts = new long[pageCount];
+    List<byte[]> minValues = new ArrayList<byte[]>(pageCount);
+    List<byte[]> maxValues = new ArrayList<byte[]>(pageCount);
+    for (int i = 0; i < pageCount; i += 1) {
+      nullPages[i] = parquetColumnIndex.getNull_pages().get(i);
+      nullCounts[i] = parquetColumnIndex.getNull_counts().get(i);
+      minValues.add(toBytes(parquetColumnIndex.getMin_values().get(i)));
+      maxValues.add(toBytes(parquetColumnIndex.getMax_values().get(i)));
+    }
+    return new ColumnIndex(type.getPrimitiveTypeName(), nullPages, nullCounts, minValues, maxValues);
+  }
+
+  private static byte[] toBytes(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.duplicate().get(bytes);
+    return bytes;
+  }
+
+  public static org.apache.parquet.format.OffsetIndex toParquetOffsetIndex(OffsetIndex offsetIndex) {
+    List<PageLocation> locations = new ArrayList<PageLocation>(offsetIndex.getPageCount());
+    for (int i = 0; i < offsetIndex.getPageCount(); i += 1) {
+      locations.add(new PageLocation(
+          offsetIndex.getOffset(i),
+          offsetIndex.getCompressedPageSize(i),
+          offsetIndex.getFirstRowIndex(i)));
+    }
+    return new org.apache.parquet.format.OffsetIndex(locations);
+  }
+
+  private static IndexReference fromBloomFilterMetadata(List<KeyValue> keyValueMetadata) {
+    if (keyValueMetadata == null) {
+      return null;
+    }
+    String offset = null;
+    String length = null;
+    for (KeyValue keyValue : keyValueMetadata) {
+      if (BLOOM_FILTER_OFFSET_KEY.equals(keyValue.getKey())) {
+        offset = keyValue.getValue();
+      } else if (BLOOM_FILTER_LENGTH_KEY.equals(keyValue.getKey())) {
+        length = keyValue.getValue();
+      }
+    }
+    if (offset == null || length == null) {
+      return null;
+    }
+    return new IndexReference(Long.parseLong(offset), Integer.parseInt(length));
+  }
+
+  public static OffsetIndex fromParquetOffsetIndex(org.apache.parquet.format.OffsetIndex parquetOffsetIndex) {
+    int pageCount = parquetOffsetIndex.getPage_locationsSize();
+    long[] offsets = new long[pageCount];
+    int[] compressedPageSizes = new int[pageCount];
+    long[] firstRowIndexes = new long[pageCount];
+    for (int i = 0; i < pageCount; i += 1) {
+      PageLocation location = parquetOffsetIndex.getPage_locations().get(i);
+      offsets[i] = location.getOffset();
+      compressedPageSizes[i] = location.getCompressed_page_size();
+      firstRowIndexes[i] = location.getFirst_row_index();
+    }
+    return new OffsetIndex(offsets, compressedPageSizes, firstRowIndexes);
+  }
+
   public PrimitiveTypeName getPrimitive(Type type) {
     switch (type) {
       case BYTE_ARRAY: // TODO: rename BINARY and remove this switch
@@ -622,6 +911,7 @@ public class ParquetMetadataConverter {
     T visit(SkipMetadataFilter filter) throws E;
     T visit(RangeMetadataFilter filter) throws E;
     T visit(OffsetMetadataFilter filter) throws E;
+    T visit(ColumnsMetadataFilter filter) throws E;
   }
 
   public abstract static class MetadataFilter {
@@ -647,6 +937,132 @@ public class ParquetMetadataConverter {
     return new OffsetMetadataFilter(set);
   }
 
+  /**
+   * Selects row groups with another filter and only converts the metadata of
+   * the column chunks in a projection. The metadata of other column chunks is
+   * dropped as each row group is read, which saves most of the footer cost
+   * for wide schemas. Row groups are selected using all of their columns.
+   * <p>
+   * Readers of the returned footer can only read the columns in the
+   * projection. Use {@link #columns(MetadataFilter, MessageType, FilterPredicate)}
+   * when row groups or records are filtered by other columns.
+   *
+   * @param filter a filter that selects row groups
+   * @param projection the columns to keep
+   * @return the filter
+   */
+  public static MetadataFilter columns(MetadataFilter filter, MessageType projection) {
+    return columns(filter, projection, null);
+  }
+
+  /**
+   * Like {@link #columns(MetadataFilter, MessageType)}, but also keeps the
+   * metadata of the columns used by a filter predicate, so that statistics
+   * and dictionary filters can still evaluate it.
+   *
+   * @param filter a filter that selects row groups
+   * @param projection the columns to keep
+   * @param predicate a filter predicate whose columns are kept, or null
+   * @return the filter
+   */
+  public static MetadataFilter columns(MetadataFilter filter, MessageType projection,
+                                       FilterPredicate predicate) {
+    if (filter instanceof ColumnsMetadataFilter) {
+      throw new IllegalArgumentException("Cannot project columns twice: " + filter);
+    }
+    Set<ColumnPath> columns = new HashSet<ColumnPath>();
+    for (String[] path : projection.getPaths()) {
+      columns.add(ColumnPath.get(path));
+    }
+    if (predicate != null) {
+      predicate.accept(new PredicateColumns(columns));
+    }
+    return new ColumnsMetadataFilter(filter, columns);
+  }
+
+  /**
+   * Adds the columns referenced by a filter predicate to a set.
+   */
+  private static final class PredicateColumns implements FilterPredicate.Visitor<Void> {
+    private final Set<ColumnPath> columns;
+
+    private PredicateColumns(Set<ColumnPath> columns) {
+      this.columns = columns;
+    }
+
+    private Void add(Operators.Column<?> column) {
+      columns.add(column.getColumnPath());
+      return null;
+    }
+
+    @Override
+    public <T extends Comparable<T>> Void visit(Operators.Eq<T> eq) {
+      return add(eq.getColumn());
+    }
+
+    @Override
+    public <T extends Comparable<T>> Void visit(Operators.NotEq<T> notEq) {
+      return add(notEq.getColumn());
+    }
+
+    @Override
+    public <T extends Comparable<T>> Void visit(Operators.Lt<T> lt) {
+      return add(lt.getColumn());
+    }
+
+    @Override
+    public <T extends Comparable<T>> Void visit(Operators.LtEq<T> ltEq) {
+      return add(ltEq.getColumn());
+    }
+
+    @Override
+    public <T extends Comparable<T>> Void visit(Operators.Gt<T> gt) {
+      return add(gt.getColumn());
+    }
+
+    @Override
+    public <T extends Comparable<T>> Void visit(Operators.GtEq<T> gtEq) {
+      return add(gtEq.getColumn());
+    }
+
+    @Override
+    public <T extends Comparable<T>> Void visit(Operators.In<T> in) {
+      return add(in.getColumn());
+    }
+
+    @Override
+    public <T extends Comparable<T>> Void visit(Operators.NotIn<T> notIn) {
+      return add(notIn.getColumn());
+    }
+
+    @Override
+    public Void visit(Operators.And and) {
+      and.getLeft().accept(this);
+      return and.getRight().accept(this);
+    }
+
+    @Override
+    public Void visit(Operators.Or or) {
+      or.getLeft().accept(this);
+      return or.getRight().accept(this);
+    }
+
+    @Override
+    public Void visit(Operators.Not not) {
+      return not.getPredicate().accept(this);
+    }
+
+    @Override
+    public <T extends Comparable<T>, U extends UserDefinedPredicate<T>> Void visit(Operators.UserDefined<T, U> udp) {
+      return add(udp.getColumn());
+    }
+
+    @Override
+    public <T extends Comparable<T>, U extends UserDefinedPredicate<T>> Void visit(Operators.LogicalNotUserDefined<T, U> udp) {
+      return add(udp.getUserDefined().getColumn());
+    }
+  }
+
   private static final class NoFilter extends MetadataFilter {
     private NoFilter() {}
     @Override
@@ -717,6 +1133,30 @@ public class ParquetMetadataConverter {
     }
   }
 
+  static final class ColumnsMetadataFilter extends MetadataFilter {
+    private final MetadataFilter rowGroupFilter;
+    private final Set<ColumnPath> columns;
+
+    ColumnsMetadataFilter(MetadataFilter rowGroupFilter, Set<ColumnPath> columns) {
+      this.rowGroupFilter = rowGroupFilter;
+      this.columns = columns;
+    }
+
+    public boolean contains(ColumnPath column) {
+      return columns.contains(column);
+    }
+
+    @Override
+    <T, E extends Throwable> T accept(MetadataFilterVisitor<T, E> visitor) throws E {
+      return visitor.visit(this);
+    }
+
+    @Override
+    public String toString() {
+      return "columns(" + rowGroupFilter + ", " + columns + ")";
+    }
+  }
+
   @Deprecated
   public ParquetMetadata readParquetMetadata(InputStream from) throws IOException {
     return readParquetMetadata(from, NO_FILTER);
@@ -755,6 +1195,224 @@ public class ParquetMetadataConverter {
     return metaData;
   }
 
+  /**
+   * Applies a {@link MetadataFilter} to a footer that was read without one,
+   * selecting the same row groups as reading the footer with the filter.
+   *
+   * @param metadata a footer read with {@link #NO_FILTER}
+   * @param filter the filter to apply to row groups
+   * @return a footer with the selected row groups
+   */
+  public static ParquetMetadata filterRowGroups(final ParquetMetadata metadata, MetadataFilter filter) {
+    List<BlockMetaData> blocks = filter.accept(new MetadataFilterVisitor<List<BlockMetaData>, RuntimeException>() {
+      @Override
+      public List<BlockMetaData> visit(NoFilter filter) {
+        return new ArrayList<BlockMetaData>(metadata.getBlocks());
+      }
+
+      @Override
+      public List<BlockMetaData> visit(SkipMetadataFilter filter) {
+        return new ArrayList<BlockMetaData>();
+      }
+
+      @Override
+      public List<BlockMetaData> visit(OffsetMetadataFilter filter) {
+        List<BlockMetaData> blocks = new ArrayList<BlockMetaData>();
+        for (BlockMetaData block : metadata.getBlocks()) {
+          if (filter.contains(block.getStartingPos())) {
+            blocks.add(block);
+          }
+        }
+        return blocks;
+      }
+
+      @Override
+      public List<BlockMetaData> visit(RangeMetadataFilter filter) {
+        List<BlockMetaData> blocks = new ArrayList<BlockMetaData>();
+        for (BlockMetaData block : metadata.getBlocks()) {
+          long midPoint = block.getStartingPos() + block.getCompressedSize() / 2;
+          if (filter.contains(midPoint)) {
+            blocks.add(block);
+          }
+        }
+        return blocks;
+      }
+
+      @Override
+      public List<BlockMetaData> visit(ColumnsMetadataFilter filter) {
+        List<BlockMetaData> blocks = new ArrayList<BlockMetaData>();
+        for (BlockMetaData block : filterRowGroups(metadata, filter.rowGroupFilter).getBlocks()) {
+          blocks.add(filterColumns(block, filter));
+        }
+        return blocks;
+      }
+    });
+    return new ParquetMetadata(metadata.getFileMetaData(), blocks);
+  }
+
+  // Visible for testing
+  static FileMetaData readFileMetaDataColumns(InputStream from, final ColumnsMetadataFilter filter) throws IOException {
+    final FileMetaData metaData = new FileMetaData();
+    // Util.readFileMetaData has no callback for column_orders, that the
+    // bounds of binary columns depend on, so the fields are consumed here
+    DelegatingFieldConsumer eventConsumer = fieldConsumer()
+        .onField(FileMetaData._Fields.VERSION, new I32Consumer() {
+          @Override
+          public void consume(int value) {
+            metaData.setVersion(value);
+          }
+        })
+        .onField(FileMetaData._Fields.SCHEMA, listOf(SchemaElement.class, new Consumer<List<SchemaElement>>() {
+          @Override
+          public void consume(List<SchemaElement> schema) {
+            metaData.setSchema(schema);
+          }
+        }))
+        .onField(FileMetaData._Fields.NUM_ROWS, new I64Consumer() {
+          @Override
+          public void consume(long value) {
+            metaData.setNum_rows(value);
+          }
+        })
+        .onField(FileMetaData._Fields.ROW_GROUPS, listElementsOf(struct(RowGroup.class, new Consumer<RowGroup>() {
+          @Override
+          public void consume(RowGroup rowGroup) {
+            // row groups are decoded one at a time and dropped unless selected
+            if (isSelected(rowGroup, filter.rowGroupFilter)) {
+              metaData.addToRow_groups(filterColumns(rowGroup, filter));
+            }
+          }
+        })))
+        .onField(FileMetaData._Fields.KEY_VALUE_METADATA, listElementsOf(struct(KeyValue.class, new Consumer<KeyValue>() {
+          @Override
+          public void consume(KeyValue kv) {
+            metaData.addToKey_value_metadata(kv);
+          }
+        })))
+        .onField(FileMetaData._Fields.CREATED_BY, new StringConsumer() {
+          @Override
+          public void consume(String value) {
+            metaData.setCreated_by(value);
+          }
+        })
+        .onField(FileMetaData._Fields.COLUMN_ORDERS, listOf(ColumnOrder.class, new Consumer<List<ColumnOrder>>() {
+          @Override
+          public void consume(List<ColumnOrder> columnOrders) {
+            metaData.setColumn_orders(columnOrders);
+          }
+        }));
+    try {
+      new EventBasedThriftReader(new InterningProtocol(new TCompactProtocol(new TIOStreamTransport(from))))
+          .readStruct(eventConsumer);
+    } catch (TException e) {
+      throw new IOException("can not read FileMetaData: " + e.getMessage(), e);
+    }
+    return metaData;
+  }
+
+  private static boolean isSelected(final RowGroup rowGroup, MetadataFilter filter) {
+    return filter.accept(new MetadataFilterVisitor<Boolean, RuntimeException>() {
+      @Override
+      public Boolean visit(NoFilter filter) {
+        return true;
+      }
+
+      @Override
+      public Boolean visit(SkipMetadataFilter filter) {
+        return false;
+      }
+
+      @Override
+      public Boolean visit(RangeMetadataFilter filter) {
+        long totalSize = 0;
+        for (ColumnChunk col : rowGroup.getColumns()) {
+          totalSize += col.getMeta_data().getTotal_compressed_size();
+        }
+        return filter.contains(getOffset(rowGroup) + totalSize / 2);
+      }
+
+      @Override
+      public Boolean visit(OffsetMetadataFilter filter) {
+        return filter.contains(getOffset(rowGroup));
+      }
+
+      @Override
+      public Boolean visit(ColumnsMetadataFilter filter) {
+        return isSelected(rowGroup, filter.rowGroupFilter);
+      }
+    });
+  }
+
+  // Visible for testing
+  static RowGroup filterColumns(RowGroup rowGroup, ColumnsMetadataFilter filter) {
+    List<ColumnChunk> columns = new ArrayList<ColumnChunk>();
+    for (ColumnChunk column : rowGroup.getColumns()) {
+      if (filter.contains(getPath(column.getMeta_data()))) {
+        columns.add(column);
+      }
+    }
+    if (columns.isEmpty()) {
+      // keep one column chunk so the row group still has a position
+      columns.add(rowGroup.getColumns().get(0));
+    }
+    // the row group may be shared by cached footers, so it is not changed
+    RowGroup projected = new RowGroup(columns, rowGroup.getTotal_byte_size(), rowGroup.getNum_rows());
+    if (rowGroup.isSetSorting_columns()) {
+      // the sorting columns refer to the columns by index
+      List<SortingColumn> sortingColumns = new ArrayList<SortingColumn>();
+      for (SortingColumn sortingColumn : rowGroup.getSorting_columns()) {
+        int oldIndex = sortingColumn.getColumn_idx();
+        int index = (oldIndex < 0 || oldIndex >= rowGroup.getColumns().size()) ? -1 :
+            columns.indexOf(rowGroup.getColumns().get(oldIndex));
+        if (index < 0) {
+          break;
+        }
+        sortingColumns.add(new SortingColumn(sortingColumn).setColumn_idx(index));
+      }
+      projected.setSorting_columns(sortingColumns);
+    }
+    return projected;
+  }
+
+  private static BlockMetaData filterColumns(BlockMetaData block, ColumnsMetadataFilter filter) {
+    BlockMetaData projected = new BlockMetaData();
+    projected.setRowCount(block.getRowCount());
+    projected.setTotalByteSize(block.getTotalByteSize());
+    projected.setPath(block.getPath());
+    projected.setSortingColumns(block.getSortingColumns());
+    for (ColumnChunkMetaData column : block.getColumns()) {
+      if (filter.contains(column.getPath())) {
+        projected.addColumn(column);
+      }
+    }
+    if (projected.getColumns().isEmpty()) {
+      // keep one column chunk so the row group still has a position
+      projected.addColumn(block.getColumns().get(0));
+    }
+    return projected;
+  }
+
+  /**
+   * Returns the leading sorting columns that are in ascending order with
+   * nulls first, which is the order the sorted row group filtering expects.
+   */
+  private static List<ColumnPath> fromSortingColumns(List<SortingColumn> sortingColumns,
+                                                     List<ColumnChunkMetaData> columns) {
+    if (sortingColumns == null) {
+      return Collections.emptyList();
+    }
+    List<ColumnPath> paths = new ArrayList<ColumnPath>();
+    for (SortingColumn sortingColumn : sortingColumns) {
+      int index = sortingColumn.getColumn_idx();
+      if (sortingColumn.isDescending() || !sortingColumn.isNulls_first()
+          || index < 0 || index >= columns.size()) {
+        break;
+      }
+      paths.add(columns.get(index).getPath());
+    }
+    return paths;
+  }
+
   static long getOffset(RowGroup rowGroup) {
     return getOffset(rowGroup.getColumns().get(0));
   }
@@ -789,6 +1447,14 @@ public class ParquetMetadataConverter {
       public FileMetaData visit(RangeMetadataFilter filter) throws IOException {
         return filterFileMetaDataByMidpoint(readFileMetaData(from), filter);
       }
+
+      @Override
+      public FileMetaData visit(ColumnsMetadataFilter filter) throws IOException {
+        if (filter.rowGroupFilter instanceof SkipMetadataFilter) {
+          return readFileMetaData(from, true);
+        }
+        return readFileMetaDataColumns(from, filter);
+      }
     });
     LOG.debug("{}", fileMetaData);
     ParquetMetadata parquetMetadata = fromParquetMetadata(fileMetaData);
@@ -798,6 +1464,7 @@ public class ParquetMetadataConverter {
 
   public ParquetMetadata fromParquetMetadata(FileMetaData parquetMetadata) throws IOException {
     MessageType messageType = fromParquetSchema(parquetMetadata.getSchema());
+    Set<ColumnPath> typeDefinedOrderColumns = getTypeDefinedOrderColumns(parquetMetadata, messageType);
     List<BlockMetaData> blocks = new ArrayList<BlockMetaData>();
     List<RowGroup> row_groups = parquetMetadata.getRow_groups();
     if (row_groups != null) {
@@ -829,12 +1496,31 @@ public class ParquetMetadataConverter {
               metaData.num_values,
               metaData.total_compressed_size,
               metaData.total_uncompressed_size);
+          if (columnChunk.isSetColumn_index_offset()) {
+            column.setColumnIndexReference(new IndexReference(
+                columnChunk.getColumn_index_offset(), columnChunk.getColumn_index_length()));
+          }
+          if (columnChunk.isSetOffset_index_offset()) {
+            column.setOffsetIndexReference(new IndexReference(
+                columnChunk.getOffset_index_offset(), columnChunk.getOffset_index_length()));
+          }
+          column.setBloomFilterReference(fromBloomFilterMetadata(metaData.getKey_value_metadata()));
+          Statistics statistics = metaData.statistics;
+          if (statistics != null && statistics.isSetMin_value() && statistics.isSetMax_value() &&
+              typeDefinedOrderColumns.contains(path) &&
+              isUnsignedBinary(messageType.getType(path.toArray()).asPrimitiveType())) {
+            // min_value and max_value may be truncated, they are kept as
+            // bounds and not as min and max statistics
+            column.setBinaryBounds(
+                Binary.fromConstantByteArray(statistics.getMin_value()),
+                Binary.fromConstantByteArray(statistics.getMax_value()));
+          }
           // TODO
           // index_page_offset
-          // key_value_metadata
           blockMetaData.addColumn(column);
         }
         blockMetaData.setPath(filePath);
+        blockMetaData.setSortingColumns(fromSortingColumns(rowGroup.getSorting_columns(), blockMetaData.getColumns()));
         blocks.add(blockMetaData);
       }
     }
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.parquet.column.values.bloomfilter.BlockSplitBloomFilter;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+import org.apache.parquet.io.ParquetDecodingException;
+
+/**
+ * Reads the bloom filters of a row group's column chunks from an open
+ * {@link ParquetFileReader}. Filters are cached so that a predicate that
+ * references the same column more than once reads its bitset only once.
+ */
+public class BloomFilterReader {
+
+  private final ParquetFileReader reader;
+  private final Map<ColumnPath, ColumnChunkMetaData> columns;
+  private final Map<ColumnPath, BlockSplitBloomFilter> cache = new HashMap<ColumnPath, BlockSplitBloomFilter>();
+
+  BloomFilterReader(ParquetFileReader reader, BlockMetaData block) {
+    this.reader = reader;
+    this.columns = new HashMap<ColumnPath, ColumnChunkMetaData>();
+    for (ColumnChunkMetaData column : block.getColumns()) {
+      columns.put(column.getPath(), column);
+    }
+  }
+
+  /**
+   * @param path the path of a column in this reader's row group
+   * @return the bloom filter of the column chunk or null if it has none
+   */
+  public BlockSplitBloomFilter readBloomFilter(ColumnPath path) {
+    ColumnChunkMetaData column = columns.get(path);
+    if (column == null || column.getBloomFilterReference() == null) {
+      return null;
+    }
+
+    synchronized (cache) {
+      if (!cache.containsKey(path)) {
+        try {
+          cache.put(path, reader.readBloomFilter(column));
+        } catch (IOException e) {
+          throw new ParquetDecodingException("Failed to read bloom filter for column " + path, e);
+        }
+      }
+      return cache.get(path);
+    }
+  }
+}
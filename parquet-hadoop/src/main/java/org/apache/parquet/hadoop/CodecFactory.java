@@ -26,19 +26,27 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.apache.hadoop.conf.Configurable;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.io.compress.CodecPool;
 import org.apache.hadoop.io.compress.CompressionCodec;
 import org.apache.hadoop.io.compress.CompressionOutputStream;
 import org.apache.hadoop.io.compress.Compressor;
 import org.apache.hadoop.io.compress.Decompressor;
+import org.apache.hadoop.io.compress.zlib.ZlibCompressor;
+import org.apache.hadoop.io.compress.zlib.ZlibFactory;
 import org.apache.hadoop.util.ReflectionUtils;
 
 import org.apache.parquet.bytes.ByteBufferAllocator;
 import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.hadoop.codec.Zstd;
+import org.apache.parquet.hadoop.codec.ZstdCodec;
 import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class CodecFactory {
+  private static final Logger LOG = LoggerFactory.getLogger(CodecFactory.class);
 
   protected static final Map<String, CompressionCodec> CODEC_BY_NAME = Collections
       .synchronizedMap(new HashMap<String, CompressionCodec>());
@@ -85,6 +93,22 @@ public class CodecFactory {
     return new DirectCodecFactory(config, allocator, pageSize);
   }
 
+  /**
+   * Create a codec factory for the pages of a writer. When the allocator
+   * provides direct buffers, the compressed pages are kept off heap too.
+   *
+   * @param config configuration options for different compression codecs
+   * @param allocator the allocator of the writer's page buffers
+   * @param pageSize the expected page size
+   * @return a codec factory for the writer
+   */
+  static CodecFactory createWriterCodecFactory(Configuration config, ByteBufferAllocator allocator, int pageSize) {
+    if (allocator.isDirect()) {
+      return createDirectCodecFactory(config, allocator, pageSize);
+    }
+    return new CodecFactory(config, pageSize);
+  }
+
   class HeapBytesDecompressor extends BytesDecompressor {
 
     private final CompressionCodec codec;
@@ -142,7 +166,8 @@ public class CodecFactory {
       this.codecName = codecName;
       this.codec = getCodec(codecName);
       if (codec != null) {
-        this.compressor = CodecPool.getCompressor(codec);
+        // pooled compressors are reinitialized with the compression level of the codec
+        this.compressor = CodecPool.getCompressor(codec, getCodecConfiguration(codec));
         this.compressedOutBuffer = new ByteArrayOutputStream(pageSize);
       } else {
         this.compressor = null;
@@ -192,6 +217,18 @@ public class CodecFactory {
     return comp;
   }
 
+  /**
+   * @param codecNames codecs by dot-separated column path
+   * @return the compressors of the codecs by column path
+   */
+  Map<String, BytesCompressor> getCompressors(Map<String, CompressionCodecName> codecNames) {
+    Map<String, BytesCompressor> columnCompressors = new HashMap<String, BytesCompressor>();
+    for (Map.Entry<String, CompressionCodecName> codecName : codecNames.entrySet()) {
+      columnCompressors.put(codecName.getKey(), getCompressor(codecName.getValue()));
+    }
+    return columnCompressors;
+  }
+
   public BytesDecompressor getDecompressor(CompressionCodecName codecName) {
     BytesDecompressor decomp = decompressors.get(codecName);
     if (decomp == null) {
@@ -220,21 +257,81 @@ public class CodecFactory {
     if (codecClassName == null) {
       return null;
     }
-    CompressionCodec codec = CODEC_BY_NAME.get(codecClassName);
+    // codecs are shared, one is created for each compression level
+    String level = getCompressionLevel(codecName);
+    String codecKey = level == null ? codecClassName : codecClassName + ":" + level;
+    CompressionCodec codec = CODEC_BY_NAME.get(codecKey);
     if (codec != null) {
       return codec;
     }
 
     try {
       Class<?> codecClass = Class.forName(codecClassName);
-      codec = (CompressionCodec) ReflectionUtils.newInstance(codecClass, configuration);
-      CODEC_BY_NAME.put(codecClassName, codec);
+      Configuration codecConf = configuration;
+      if (level != null) {
+        codecConf = new Configuration(configuration);
+        setCompressionLevel(codecConf, codecName, level);
+      }
+      codec = (CompressionCodec) ReflectionUtils.newInstance(codecClass, codecConf);
+      CODEC_BY_NAME.put(codecKey, codec);
       return codec;
     } catch (ClassNotFoundException e) {
       throw new BadConfigurationException("Class " + codecClassName + " was not found", e);
     }
   }
 
+  private String getCompressionLevel(CompressionCodecName codecName) {
+    switch (codecName) {
+    case GZIP:
+      return configuration.get(ParquetOutputFormat.GZIP_COMPRESSION_LEVEL);
+    case ZSTD:
+      return configuration.get(ParquetOutputFormat.ZSTD_COMPRESSION_LEVEL);
+    default:
+      return null;
+    }
+  }
+
+  /**
+   * Sets the level in the configuration keys read by the codecs. Logs a
+   * warning when the codec can not apply it.
+   */
+  private static void setCompressionLevel(Configuration conf, CompressionCodecName codecName, String level) {
+    int value;
+    try {
+      value = Integer.parseInt(level.trim());
+    } catch (NumberFormatException e) {
+      throw new BadConfigurationException("Invalid " + codecName + " compression level: " + level, e);
+    }
+    switch (codecName) {
+    case GZIP:
+      if (value < 0 || value > 9) {
+        throw new BadConfigurationException("Invalid GZIP compression level: " + level);
+      }
+      // the levels are declared in order, from NO_COMPRESSION to BEST_COMPRESSION
+      ZlibFactory.setCompressionLevel(conf, ZlibCompressor.CompressionLevel.values()[value]);
+      if (!ZlibFactory.isNativeZlibLoaded(conf)) {
+        // the built-in GzipCodec streams always use the default level
+        LOG.warn("GZIP compression level {} is ignored: native zlib is not loaded", value);
+      }
+      break;
+    case ZSTD:
+      conf.setInt(ZstdCodec.LEVEL_CONFIG, value);
+      if (!Zstd.isNativeLoaded()) {
+        LOG.warn("ZSTD compression level {} is ignored: zstd-jni is not loaded", value);
+      }
+      break;
+    default:
+      throw new IllegalArgumentException("No compression level for " + codecName);
+    }
+  }
+
+  private Configuration getCodecConfiguration(CompressionCodec codec) {
+    if (codec instanceof Configurable && ((Configurable) codec).getConf() != null) {
+      return ((Configurable) codec).getConf();
+    }
+    return configuration;
+  }
+
   public void release() {
     for (BytesCompressor compressor : compressors.values()) {
       compressor.release();
@@ -25,7 +25,9 @@ import java.util.List;
 import java.util.Map;
 
 import org.apache.parquet.Ints;
+import org.apache.parquet.bytes.BytesInput;
 import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.columnindex.RowRanges;
 import org.apache.parquet.column.page.DataPage;
 import org.apache.parquet.column.page.DataPageV1;
 import org.apache.parquet.column.page.DataPageV2;
@@ -33,6 +35,7 @@ import org.apache.parquet.column.page.DictionaryPage;
 import org.apache.parquet.column.page.DictionaryPageReadStore;
 import org.apache.parquet.column.page.PageReadStore;
 import org.apache.parquet.column.page.PageReader;
+import org.apache.parquet.column.page.RowRangesPageReader;
 import org.apache.parquet.hadoop.CodecFactory.BytesDecompressor;
 import org.apache.parquet.io.ParquetDecodingException;
 import org.slf4j.Logger;
@@ -54,15 +57,24 @@ class ColumnChunkPageReadStore implements PageReadStore, DictionaryPageReadStore
    * This implementation is provided with a list of pages, each of which
    * is decompressed and passed through.
    */
-  static final class ColumnChunkPageReader implements PageReader {
+  static final class ColumnChunkPageReader implements RowRangesPageReader {
 
     private final BytesDecompressor decompressor;
     private final long valueCount;
     private final List<DataPage> compressedPages;
     private final DictionaryPage compressedDictionaryPage;
+    private final RowRanges rowRanges;
+    // a decompressed page shared with other readers, returned instead of the compressed page
+    private DictionaryPage dictionaryPage = null;
 
     ColumnChunkPageReader(BytesDecompressor decompressor, List<DataPage> compressedPages, DictionaryPage compressedDictionaryPage) {
+      this(decompressor, compressedPages, compressedDictionaryPage, null);
+    }
+
+    ColumnChunkPageReader(BytesDecompressor decompressor, List<DataPage> compressedPages, DictionaryPage compressedDictionaryPage,
+                          RowRanges rowRanges) {
       this.decompressor = decompressor;
+      this.rowRanges = rowRanges;
       this.compressedPages = new LinkedList<DataPage>(compressedPages);
       this.compressedDictionaryPage = compressedDictionaryPage;
       long count = 0;
@@ -77,6 +89,11 @@ class ColumnChunkPageReadStore implements PageReadStore, DictionaryPageReadStore
       return valueCount;
     }
 
+    @Override
+    public RowRanges getRowRanges() {
+      return rowRanges;
+    }
+
     @Override
     public DataPage readPage() {
       if (compressedPages.isEmpty()) {
@@ -91,6 +108,7 @@ class ColumnChunkPageReadStore implements PageReadStore, DictionaryPageReadStore
                 decompressor.decompress(dataPageV1.getBytes(), dataPageV1.getUncompressedSize()),
                 dataPageV1.getValueCount(),
                 dataPageV1.getUncompressedSize(),
+                dataPageV1.getFirstRowIndex(),
                 dataPageV1.getStatistics(),
                 dataPageV1.getRlEncoding(),
                 dataPageV1.getDlEncoding(),
@@ -110,16 +128,20 @@ class ColumnChunkPageReadStore implements PageReadStore, DictionaryPageReadStore
                 dataPageV2.getUncompressedSize()
                 - dataPageV2.getDefinitionLevels().size()
                 - dataPageV2.getRepetitionLevels().size());
-            return DataPageV2.uncompressed(
+            BytesInput data = decompressor.decompress(dataPageV2.getData(), uncompressedSize);
+            return new DataPageV2(
                 dataPageV2.getRowCount(),
                 dataPageV2.getNullCount(),
                 dataPageV2.getValueCount(),
+                dataPageV2.getFirstRowIndex(),
                 dataPageV2.getRepetitionLevels(),
                 dataPageV2.getDefinitionLevels(),
                 dataPageV2.getDataEncoding(),
-                decompressor.decompress(dataPageV2.getData(), uncompressedSize),
-                dataPageV2.getStatistics()
-                );
+                data,
+                Ints.checkedCast(dataPageV2.getRepetitionLevels().size()
+                    + dataPageV2.getDefinitionLevels().size() + data.size()),
+                dataPageV2.getStatistics(),
+                false);
           } catch (IOException e) {
             throw new ParquetDecodingException("could not decompress page", e);
           }
@@ -127,8 +149,19 @@ class ColumnChunkPageReadStore implements PageReadStore, DictionaryPageReadStore
       });
     }
 
+    /**
+     * @param dictionaryPage a decompressed copy of the dictionary page of this
+     *                       chunk that can be read more than once
+     */
+    void setDictionaryPage(DictionaryPage dictionaryPage) {
+      this.dictionaryPage = dictionaryPage;
+    }
+
     @Override
     public DictionaryPage readDictionaryPage() {
+      if (dictionaryPage != null) {
+        return dictionaryPage;
+      }
       if (compressedDictionaryPage == null) {
         return null;
       }
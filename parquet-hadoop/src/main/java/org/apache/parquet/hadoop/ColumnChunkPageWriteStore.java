@@ -20,9 +20,9 @@ package org.apache.parquet.hadoop;
 
 import static org.apache.parquet.column.statistics.Statistics.getStatsBasedOnType;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -30,15 +30,20 @@ import java.util.Map;
 import java.util.Set;
 
 import org.apache.parquet.bytes.BytesInput;
-import org.apache.parquet.bytes.ConcatenatingByteArrayCollector;
+import org.apache.parquet.bytes.CapacityByteArrayOutputStream;
 import org.apache.parquet.column.ColumnDescriptor;
 import org.apache.parquet.column.Encoding;
+import org.apache.parquet.column.columnindex.ColumnIndex;
+import org.apache.parquet.column.columnindex.OffsetIndex;
 import org.apache.parquet.column.page.DictionaryPage;
 import org.apache.parquet.column.page.PageWriteStore;
 import org.apache.parquet.column.page.PageWriter;
 import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.column.values.bloomfilter.BlockSplitBloomFilter;
+import org.apache.parquet.column.values.bloomfilter.BloomFilterWriter;
 import org.apache.parquet.format.converter.ParquetMetadataConverter;
 import org.apache.parquet.hadoop.CodecFactory.BytesCompressor;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
 import org.apache.parquet.io.ParquetEncodingException;
 import org.apache.parquet.schema.MessageType;
 import org.apache.parquet.bytes.ByteBufferAllocator;
@@ -50,17 +55,24 @@ class ColumnChunkPageWriteStore implements PageWriteStore {
 
   private static ParquetMetadataConverter parquetMetadataConverter = new ParquetMetadataConverter();
 
-  private static final class ColumnChunkPageWriter implements PageWriter {
+  // the pages of a column chunk are buffered in slabs from the allocator that
+  // start small and grow linearly once the chunk reaches a fifth of the hint
+  private static final int INITIAL_SLAB_SIZE = 1024;
+  private static final int MAX_CAPACITY_HINT = 128 * 1024 * 1024;
+
+  private static final class ColumnChunkPageWriter implements PageWriter, BloomFilterWriter {
 
     private final ColumnDescriptor path;
     private final BytesCompressor compressor;
+    private final PageCompressionPipeline pipeline;
 
-    private final ByteArrayOutputStream tempOutputStream = new ByteArrayOutputStream();
-    private final ConcatenatingByteArrayCollector buf;
+    // page headers and compressed pages, released once written to the file
+    private final CapacityByteArrayOutputStream buf;
     private DictionaryPage dictionaryPage;
 
     private long uncompressedLength;
     private long compressedLength;
+    private long pendingLength;
     private long totalValueCount;
     private int pageCount;
 
@@ -70,39 +82,89 @@ class ColumnChunkPageWriteStore implements PageWriteStore {
     private List<Encoding> dataEncodings = new ArrayList<Encoding>();
 
     private Statistics totalStatistics;
+    private ColumnIndex.Builder columnIndexBuilder;
+    private OffsetIndex.Builder offsetIndexBuilder;
+    private BlockSplitBloomFilter bloomFilter;
     private final ByteBufferAllocator allocator;
 
     private ColumnChunkPageWriter(ColumnDescriptor path,
                                   BytesCompressor compressor,
-                                  ByteBufferAllocator allocator) {
+                                  ByteBufferAllocator allocator,
+                                  PageCompressionPipeline pipeline) {
       this.path = path;
       this.compressor = compressor;
+      this.pipeline = pipeline;
       this.allocator = allocator;
-      this.buf = new ConcatenatingByteArrayCollector();
+      this.buf = new CapacityByteArrayOutputStream(INITIAL_SLAB_SIZE, MAX_CAPACITY_HINT, allocator);
       this.totalStatistics = getStatsBasedOnType(this.path.getType());
+      this.columnIndexBuilder = newColumnIndexBuilder();
+      this.offsetIndexBuilder = new OffsetIndex.Builder();
+    }
+
+    private ColumnIndex.Builder newColumnIndexBuilder() {
+      return new ColumnIndex.Builder(path.getType(), ParquetMetadataConverter.MAX_STATS_SIZE);
     }
 
     @Override
+    @Deprecated
     public void writePage(BytesInput bytes,
                           int valueCount,
                           Statistics statistics,
                           Encoding rlEncoding,
                           Encoding dlEncoding,
                           Encoding valuesEncoding) throws IOException {
-      long uncompressedSize = bytes.size();
+      // the row count of the page is unknown so the offset index can not be built
+      offsetIndexBuilder.invalidate();
+      writePage(bytes, valueCount, -1, statistics, rlEncoding, dlEncoding, valuesEncoding);
+    }
+
+    @Override
+    public void writePage(BytesInput bytes,
+                          final int valueCount,
+                          final int rowCount,
+                          final Statistics statistics,
+                          final Encoding rlEncoding,
+                          final Encoding dlEncoding,
+                          final Encoding valuesEncoding) throws IOException {
+      final long uncompressedSize = bytes.size();
       if (uncompressedSize > Integer.MAX_VALUE) {
         throw new ParquetEncodingException(
             "Cannot write page larger than Integer.MAX_VALUE bytes: " +
                 uncompressedSize);
       }
-      BytesInput compressedBytes = compressor.compress(bytes);
+      if (pipeline == null) {
+        writeCompressedPage(compressor.compress(bytes), uncompressedSize, valueCount, rowCount,
+            statistics, rlEncoding, dlEncoding, valuesEncoding);
+        return;
+      }
+      // the column writer reuses its buffers once the page is written
+      BytesInput copy = BytesInput.copy(bytes);
+      pendingLength += uncompressedSize;
+      pipeline.submit(copy, new PageCompressionPipeline.PendingPage(uncompressedSize) {
+        @Override
+        void write(BytesInput compressedBytes) throws IOException {
+          pendingLength -= uncompressedSize;
+          writeCompressedPage(compressedBytes, uncompressedSize, valueCount, rowCount,
+              statistics, rlEncoding, dlEncoding, valuesEncoding);
+        }
+      });
+    }
+
+    private void writeCompressedPage(BytesInput compressedBytes,
+                                     long uncompressedSize,
+                                     int valueCount,
+                                     int rowCount,
+                                     Statistics statistics,
+                                     Encoding rlEncoding,
+                                     Encoding dlEncoding,
+                                     Encoding valuesEncoding) throws IOException {
       long compressedSize = compressedBytes.size();
       if (compressedSize > Integer.MAX_VALUE) {
         throw new ParquetEncodingException(
             "Cannot write compressed page larger than Integer.MAX_VALUE bytes: "
                 + compressedSize);
       }
-      tempOutputStream.reset();
+      long pageStart = buf.size();
       parquetMetadataConverter.writeDataPageHeader(
           (int)uncompressedSize,
           (int)compressedSize,
@@ -111,15 +173,17 @@ class ColumnChunkPageWriteStore implements PageWriteStore {
           rlEncoding,
           dlEncoding,
           valuesEncoding,
-          tempOutputStream);
+          buf);
+      long headerSize = buf.size() - pageStart;
       this.uncompressedLength += uncompressedSize;
       this.compressedLength += compressedSize;
       this.totalValueCount += valueCount;
       this.pageCount += 1;
       this.totalStatistics.mergeStatistics(statistics);
-      // by concatenating before collecting instead of collecting twice,
-      // we only allocate one buffer to copy into instead of multiple.
-      buf.collect(BytesInput.concat(BytesInput.from(tempOutputStream), compressedBytes));
+      columnIndexBuilder.add(statistics);
+      offsetIndexBuilder.add(toIntWithCheck(headerSize + compressedSize), rowCount);
+      // the header and the page are written directly to the allocator's slabs
+      compressedBytes.writeAllTo(buf);
       rlEncodings.add(rlEncoding);
       dlEncodings.add(dlEncoding);
       dataEncodings.add(valuesEncoding);
@@ -127,21 +191,44 @@ class ColumnChunkPageWriteStore implements PageWriteStore {
 
     @Override
     public void writePageV2(
+        final int rowCount, final int nullCount, final int valueCount,
+        BytesInput repetitionLevels, BytesInput definitionLevels,
+        final Encoding dataEncoding, BytesInput data,
+        final Statistics<?> statistics) throws IOException {
+      final int uncompressedSize = toIntWithCheck(
+          data.size() + repetitionLevels.size() + definitionLevels.size()
+      );
+      if (pipeline == null) {
+        writeCompressedPageV2(rowCount, nullCount, valueCount, repetitionLevels, definitionLevels,
+            dataEncoding, compressor.compress(data), uncompressedSize, statistics);
+        return;
+      }
+      // the column writer reuses its buffers once the page is written
+      final BytesInput rlCopy = BytesInput.copy(repetitionLevels);
+      final BytesInput dlCopy = BytesInput.copy(definitionLevels);
+      BytesInput dataCopy = BytesInput.copy(data);
+      pendingLength += uncompressedSize;
+      pipeline.submit(dataCopy, new PageCompressionPipeline.PendingPage(uncompressedSize) {
+        @Override
+        void write(BytesInput compressedData) throws IOException {
+          pendingLength -= uncompressedSize;
+          writeCompressedPageV2(rowCount, nullCount, valueCount, rlCopy, dlCopy,
+              dataEncoding, compressedData, uncompressedSize, statistics);
+        }
+      });
+    }
+
+    private void writeCompressedPageV2(
         int rowCount, int nullCount, int valueCount,
         BytesInput repetitionLevels, BytesInput definitionLevels,
-        Encoding dataEncoding, BytesInput data,
-        Statistics<?> statistics) throws IOException {
+        Encoding dataEncoding, BytesInput compressedData,
+        int uncompressedSize, Statistics<?> statistics) throws IOException {
       int rlByteLength = toIntWithCheck(repetitionLevels.size());
       int dlByteLength = toIntWithCheck(definitionLevels.size());
-      int uncompressedSize = toIntWithCheck(
-          data.size() + repetitionLevels.size() + definitionLevels.size()
-      );
-      // TODO: decide if we compress
-      BytesInput compressedData = compressor.compress(data);
       int compressedSize = toIntWithCheck(
           compressedData.size() + repetitionLevels.size() + definitionLevels.size()
       );
-      tempOutputStream.reset();
+      long pageStart = buf.size();
       parquetMetadataConverter.writeDataPageV2Header(
           uncompressedSize, compressedSize,
           valueCount, nullCount, rowCount,
@@ -149,22 +236,20 @@ class ColumnChunkPageWriteStore implements PageWriteStore {
           dataEncoding,
           rlByteLength,
           dlByteLength,
-          tempOutputStream);
+          buf);
+      long headerSize = buf.size() - pageStart;
       this.uncompressedLength += uncompressedSize;
       this.compressedLength += compressedSize;
       this.totalValueCount += valueCount;
       this.pageCount += 1;
       this.totalStatistics.mergeStatistics(statistics);
+      columnIndexBuilder.add(statistics);
+      offsetIndexBuilder.add(toIntWithCheck(headerSize + compressedSize), rowCount);
 
-      // by concatenating before collecting instead of collecting twice,
-      // we only allocate one buffer to copy into instead of multiple.
-      buf.collect(
-          BytesInput.concat(
-              BytesInput.from(tempOutputStream),
-              repetitionLevels,
-              definitionLevels,
-              compressedData)
-      );
+      // the header and the page are written directly to the allocator's slabs
+      repetitionLevels.writeAllTo(buf);
+      definitionLevels.writeAllTo(buf);
+      compressedData.writeAllTo(buf);
       dataEncodings.add(dataEncoding);
     }
 
@@ -179,7 +264,8 @@ class ColumnChunkPageWriteStore implements PageWriteStore {
 
     @Override
     public long getMemSize() {
-      return buf.size();
+      // pages waiting for compression are held uncompressed
+      return buf.size() + pendingLength;
     }
 
     public void writeToFileWriter(ParquetFileWriter writer) throws IOException {
@@ -188,8 +274,11 @@ class ColumnChunkPageWriteStore implements PageWriteStore {
         writer.writeDictionaryPage(dictionaryPage);
         // tracking the dictionary encoding is handled in writeDictionaryPage
       }
-      writer.writeDataPages(buf, uncompressedLength, compressedLength, totalStatistics,
-          rlEncodings, dlEncodings, dataEncodings);
+      writer.writeDataPages(BytesInput.from(buf), uncompressedLength, compressedLength, totalStatistics,
+          rlEncodings, dlEncodings, dataEncodings, columnIndexBuilder, offsetIndexBuilder);
+      if (bloomFilter != null) {
+        writer.writeBloomFilter(bloomFilter);
+      }
       writer.endColumn();
       if (LOG.isDebugEnabled()) {
         LOG.debug(
@@ -201,15 +290,26 @@ class ColumnChunkPageWriteStore implements PageWriteStore {
                 dictionaryPage.getDictionarySize(), dictionaryPage.getUncompressedSize(), dictionaryPage.getDictionarySize())
                 : ""));
       }
+      // the pages are in the file, give the slabs back to the allocator
+      buf.reset();
       rlEncodings.clear();
       dlEncodings.clear();
       dataEncodings.clear();
       pageCount = 0;
+      columnIndexBuilder = newColumnIndexBuilder();
+      offsetIndexBuilder = new OffsetIndex.Builder();
+      bloomFilter = null;
     }
 
     @Override
     public long allocatedSize() {
-      return buf.size();
+      return buf.getCapacity() + pendingLength;
+    }
+
+    @Override
+    public double getCompressionRatio() {
+      // pages waiting for compression are not counted
+      return uncompressedLength == 0 ? 1 : (double) compressedLength / uncompressedLength;
     }
 
     @Override
@@ -223,6 +323,11 @@ class ColumnChunkPageWriteStore implements PageWriteStore {
       this.dictionaryPage = new DictionaryPage(BytesInput.copy(compressedBytes), uncompressedSize, dictionaryPage.getDictionarySize(), dictionaryPage.getEncoding());
     }
 
+    @Override
+    public void writeBloomFilter(BlockSplitBloomFilter bloomFilter) {
+      this.bloomFilter = bloomFilter;
+    }
+
     @Override
     public String memUsageString(String prefix) {
       return buf.memUsageString(prefix + " ColumnChunkPageWriter");
@@ -232,11 +337,44 @@ class ColumnChunkPageWriteStore implements PageWriteStore {
 
   private final Map<ColumnDescriptor, ColumnChunkPageWriter> writers = new HashMap<ColumnDescriptor, ColumnChunkPageWriter>();
   private final MessageType schema;
+  private final PageCompressionPipeline pipeline;
 
   public ColumnChunkPageWriteStore(BytesCompressor compressor, MessageType schema, ByteBufferAllocator allocator) {
+    this(compressor, schema, allocator, null);
+  }
+
+  /**
+   * @param compressor the compressor used when the pipeline is null
+   * @param schema the schema of the records
+   * @param allocator the allocator of the page buffers
+   * @param pipeline compresses the data pages in parallel if not null
+   */
+  ColumnChunkPageWriteStore(BytesCompressor compressor, MessageType schema, ByteBufferAllocator allocator,
+                            PageCompressionPipeline pipeline) {
+    this(compressor, Collections.<String, BytesCompressor>emptyMap(), schema, allocator, pipeline);
+  }
+
+  /**
+   * @param compressor the compressor used when the pipeline is null
+   * @param columnCompressors the compressors of the columns that use their own
+   *                          codec, by dot-separated column path
+   * @param schema the schema of the records
+   * @param allocator the allocator of the page buffers
+   * @param pipeline compresses the data pages in parallel if not null
+   */
+  ColumnChunkPageWriteStore(BytesCompressor compressor, Map<String, BytesCompressor> columnCompressors,
+                            MessageType schema, ByteBufferAllocator allocator,
+                            PageCompressionPipeline pipeline) {
     this.schema = schema;
+    this.pipeline = pipeline;
     for (ColumnDescriptor path : schema.getColumns()) {
-      writers.put(path,  new ColumnChunkPageWriter(path, compressor, allocator));
+      BytesCompressor columnCompressor = columnCompressors.get(ColumnPath.get(path.getPath()).toDotString());
+      if (columnCompressor == null) {
+        writers.put(path,  new ColumnChunkPageWriter(path, compressor, allocator, pipeline));
+      } else {
+        // the pipeline compresses with the default codec, other codecs compress on the writing thread
+        writers.put(path,  new ColumnChunkPageWriter(path, columnCompressor, allocator, null));
+      }
     }
   }
 
@@ -245,7 +383,22 @@ class ColumnChunkPageWriteStore implements PageWriteStore {
     return writers.get(path);
   }
 
+  /**
+   * @return the number of bytes held by the page writers, including the
+   *         unused capacity of the allocator's buffers
+   */
+  long getAllocatedSize() {
+    long allocated = 0;
+    for (ColumnChunkPageWriter pageWriter : writers.values()) {
+      allocated += pageWriter.allocatedSize();
+    }
+    return allocated;
+  }
+
   public void flushToFileWriter(ParquetFileWriter writer) throws IOException {
+    if (pipeline != null) {
+      pipeline.drain(true);
+    }
     for (ColumnDescriptor path : schema.getColumns()) {
       ColumnChunkPageWriter pageWriter = writers.get(path);
       pageWriter.writeToFileWriter(writer);
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates daemon threads named after the work they do, so that background
+ * reads and writes do not keep the JVM running.
+ */
+class DaemonThreadFactory implements ThreadFactory {
+  private final ThreadFactory delegate = Executors.defaultThreadFactory();
+  private final String prefix;
+
+  /**
+   * @param prefix the prefix of the thread names, like "parquet-prefetch"
+   */
+  DaemonThreadFactory(String prefix) {
+    this.prefix = prefix;
+  }
+
+  @Override
+  public Thread newThread(Runnable r) {
+    Thread thread = delegate.newThread(r);
+    thread.setName(prefix + "-" + thread.getName());
+    thread.setDaemon(true);
+    return thread;
+  }
+}
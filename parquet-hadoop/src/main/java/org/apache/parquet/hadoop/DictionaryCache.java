@@ -0,0 +1,254 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop;
+
+import static org.apache.parquet.hadoop.ParquetInputFormat.DICTIONARY_CACHE_ENABLED;
+import static org.apache.parquet.hadoop.ParquetInputFormat.DICTIONARY_CACHE_ENABLED_DEFAULT;
+import static org.apache.parquet.hadoop.ParquetInputFormat.DICTIONARY_CACHE_MAX_BYTES;
+import static org.apache.parquet.hadoop.ParquetInputFormat.DICTIONARY_CACHE_MAX_BYTES_DEFAULT;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.Preconditions;
+import org.apache.parquet.column.page.DictionaryPage;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A cache of decompressed dictionary pages that can be shared by file readers.
+ * <p>
+ * Pages are keyed by their file, identified as in the {@link FooterCache}, and
+ * by the offset of their column chunk. The cached pages can be read more than
+ * once and keep their decoded dictionary (see
+ * {@link DictionaryPage#decode(org.apache.parquet.column.ColumnDescriptor)}),
+ * so the dictionary filter and the column readers of all the readers of a
+ * file decode a dictionary once. The cache is bounded by the estimated heap
+ * size of the pages and their decoded dictionaries and evicts the least
+ * recently used pages first.
+ */
+public class DictionaryCache {
+  private static final Logger LOG = LoggerFactory.getLogger(DictionaryCache.class);
+
+  // rough heap sizes of a cached page and of each decoded dictionary entry
+  private static final long PAGE_OVERHEAD = 256;
+  private static final long ENTRY_OVERHEAD = 32;
+
+  // the process-wide caches, one for each configured size
+  private static final Map<Long, DictionaryCache> sharedCaches = new HashMap<Long, DictionaryCache>();
+
+  /**
+   * @return the process-wide cache of the default size, created if needed
+   */
+  public static DictionaryCache getSharedCache() {
+    return getSharedCache(DICTIONARY_CACHE_MAX_BYTES_DEFAULT);
+  }
+
+  /**
+   * @param conf a configuration
+   * @return the process-wide cache of the size set in conf if it is enabled
+   *         in conf, or null
+   */
+  static DictionaryCache getSharedCache(Configuration conf) {
+    if (!conf.getBoolean(DICTIONARY_CACHE_ENABLED, DICTIONARY_CACHE_ENABLED_DEFAULT)) {
+      return null;
+    }
+    return getSharedCache(conf.getLong(DICTIONARY_CACHE_MAX_BYTES, DICTIONARY_CACHE_MAX_BYTES_DEFAULT));
+  }
+
+  /**
+   * Readers that configure different sizes don't share a cache, so that
+   * each size is respected.
+   *
+   * @param maxBytes the maximum estimated size of the cached dictionarys
+   * @return the process-wide cache of this size, created if needed
+   */
+  static synchronized DictionaryCache getSharedCache(long maxBytes) {
+    DictionaryCache cache = sharedCaches.get(maxBytes);
+    if (cache == null) {
+      if (!sharedCaches.isEmpty()) {
+        LOG.warn("Creating a shared dictionary cache of {} bytes, other readers use caches of {} bytes",
+            maxBytes, sharedCaches.keySet());
+      }
+      cache = new DictionaryCache(maxBytes);
+      sharedCaches.put(maxBytes, cache);
+    }
+    return cache;
+  }
+
+  private final long maxBytes;
+  private final LinkedHashMap<Key, Entry> entries =
+      new LinkedHashMap<Key, Entry>(16, 0.75f, true);
+  private long currentBytes = 0;
+  private long hitCount = 0;
+  private long missCount = 0;
+  private long evictionCount = 0;
+
+  /**
+   * @param maxBytes the maximum estimated size of the cached dictionaries
+   */
+  public DictionaryCache(long maxBytes) {
+    Preconditions.checkArgument(maxBytes > 0,
+        "Invalid dictionary cache size (negative or zero): %s", maxBytes);
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * @param file the key of a file
+   * @param column a column chunk of the file
+   * @return the cached dictionary page of the column chunk, or null
+   */
+  synchronized DictionaryPage get(FooterCache.Key file, ColumnChunkMetaData column) {
+    Entry entry = entries.get(new Key(file, column.getStartingPos()));
+    if (entry == null) {
+      missCount += 1;
+      return null;
+    }
+    hitCount += 1;
+    return entry.page;
+  }
+
+  /**
+   * @param file the key of a file
+   * @param column a column chunk of the file
+   * @param page a decompressed dictionary page that can be read more than once
+   */
+  synchronized void put(FooterCache.Key file, ColumnChunkMetaData column, DictionaryPage page) {
+    Key key = new Key(file, column.getStartingPos());
+    long size = estimateSize(page);
+    if (size > maxBytes) {
+      LOG.debug("Not caching dictionary of {}: {} bytes is over the limit", column.getPath(), size);
+      return;
+    }
+    Entry previous = entries.put(key, new Entry(page, size));
+    if (previous != null) {
+      currentBytes -= previous.size;
+    }
+    currentBytes += size;
+
+    Iterator<Entry> eldest = entries.values().iterator();
+    while (currentBytes > maxBytes && eldest.hasNext()) {
+      Entry entry = eldest.next();
+      eldest.remove();
+      currentBytes -= entry.size;
+      evictionCount += 1;
+    }
+  }
+
+  /**
+   * Removes all dictionaries from the cache.
+   */
+  public synchronized void invalidateAll() {
+    entries.clear();
+    currentBytes = 0;
+  }
+
+  /**
+   * @return the number of lookups that found a cached dictionary
+   */
+  public synchronized long getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * @return the number of lookups that did not find a cached dictionary
+   */
+  public synchronized long getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * @return the number of dictionaries evicted to stay under the size limit
+   */
+  public synchronized long getEvictionCount() {
+    return evictionCount;
+  }
+
+  /**
+   * @return the number of cached dictionaries
+   */
+  public synchronized int getDictionaryCount() {
+    return entries.size();
+  }
+
+  /**
+   * @return the estimated size of the cached dictionaries in bytes
+   */
+  public synchronized long getEstimatedSize() {
+    return currentBytes;
+  }
+
+  public long getMaxBytes() {
+    return maxBytes;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "DictionaryCache{dictionaries=" + entries.size() + ", bytes=" + currentBytes +
+        ", maxBytes=" + maxBytes + ", hits=" + hitCount + ", misses=" + missCount +
+        ", evictions=" + evictionCount + "}";
+  }
+
+  static long estimateSize(DictionaryPage page) {
+    // the page bytes and the decoded values, which are about as large
+    return PAGE_OVERHEAD + 2L * page.getUncompressedSize() +
+        ENTRY_OVERHEAD * page.getDictionarySize();
+  }
+
+  private static final class Key {
+    private final FooterCache.Key file;
+    private final long offset;
+
+    private Key(FooterCache.Key file, long offset) {
+      this.file = file;
+      this.offset = offset;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key other = (Key) o;
+      return offset == other.offset && file.equals(other.file);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * file.hashCode() + (int) (offset ^ (offset >>> 32));
+    }
+  }
+
+  private static final class Entry {
+    private final DictionaryPage page;
+    private final long size;
+
+    private Entry(DictionaryPage page, long size) {
+      this.page = page;
+      this.size = size;
+    }
+  }
+}
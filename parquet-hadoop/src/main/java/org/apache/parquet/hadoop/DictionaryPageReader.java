@@ -19,7 +19,6 @@
 package org.apache.parquet.hadoop;
 
 import org.apache.parquet.Strings;
-import org.apache.parquet.bytes.BytesInput;
 import org.apache.parquet.column.ColumnDescriptor;
 import org.apache.parquet.column.Encoding;
 import org.apache.parquet.column.EncodingStats;
@@ -93,11 +92,11 @@ class DictionaryPageReader implements DictionaryPageReadStore {
       synchronized (cache) {
         // check the cache again in case this thread waited on another reading the same page
         if (!cache.containsKey(dotPath)) {
-          DictionaryPage dict = hasDictionaryPage(column) ? reader.readDictionary(column) : null;
-          // copy the dictionary to ensure it can be reused if it is returned
-          // more than once. this can happen when a DictionaryFilter has two or
-          // more predicates for the same column.
-          cache.put(dotPath, reusableCopy(dict));
+          // the dictionary must be reusable if it is returned more than once.
+          // this can happen when a DictionaryFilter has two or more
+          // predicates for the same column.
+          DictionaryPage dict = hasDictionaryPage(column) ? reader.readReusableDictionary(column) : null;
+          cache.put(dotPath, dict);
         }
       }
 
@@ -108,19 +107,6 @@ class DictionaryPageReader implements DictionaryPageReadStore {
     }
   }
 
-  private static DictionaryPage reusableCopy(DictionaryPage dict) {
-    if (dict == null) {
-      return null;
-    }
-    try {
-      return new DictionaryPage(
-          BytesInput.from(dict.getBytes().toByteArray()),
-          dict.getDictionarySize(), dict.getEncoding());
-    } catch (IOException e) {
-      throw new ParquetDecodingException("Cannot read dictionary", e);
-    }
-  }
-
   private boolean hasDictionaryPage(ColumnChunkMetaData column) {
     EncodingStats stats = column.getEncodingStats();
     if (stats != null) {
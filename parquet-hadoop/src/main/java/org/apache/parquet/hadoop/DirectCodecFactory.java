@@ -39,6 +39,10 @@ import org.xerial.snappy.Snappy;
 
 import org.apache.parquet.bytes.ByteBufferAllocator;
 import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.hadoop.codec.Lz4;
+import org.apache.parquet.hadoop.codec.Lz4Codec;
+import org.apache.parquet.hadoop.codec.Zstd;
+import org.apache.parquet.hadoop.codec.ZstdCodec;
 import org.apache.parquet.hadoop.metadata.CompressionCodecName;
 import org.apache.parquet.ParquetRuntimeException;
 import org.apache.parquet.Preconditions;
@@ -117,6 +121,10 @@ class DirectCodecFactory extends CodecFactory implements AutoCloseable {
     } else if (codecName == CompressionCodecName.SNAPPY) {
       // avoid using the default Snappy codec since it allocates direct buffers at awkward spots.
       return new SnappyCompressor();
+    } else if (codecName == CompressionCodecName.LZ4) {
+      return new Lz4Compressor();
+    } else if (codecName == CompressionCodecName.ZSTD) {
+      return new ZstdCompressor(ZstdCodec.getLevel(((ZstdCodec) codec).getConf()));
     } else {
       // todo: create class similar to the SnappyCompressor for zlib and exclude it as
       // snappy is above since it also generates allocateDirect calls.
@@ -131,6 +139,10 @@ class DirectCodecFactory extends CodecFactory implements AutoCloseable {
       return new NoopDecompressor();
     } else if (codecName == CompressionCodecName.SNAPPY ) {
       return new SnappyDecompressor();
+    } else if (codecName == CompressionCodecName.LZ4) {
+      return new Lz4Decompressor();
+    } else if (codecName == CompressionCodecName.ZSTD) {
+      return new ZstdDecompressor();
     } else if (DirectCodecPool.INSTANCE.codec(codec).supportsDirectDecompression()) {
       return new FullDirectDecompressor(codecName);
     } else {
@@ -318,6 +330,175 @@ class DirectCodecFactory extends CodecFactory implements AutoCloseable {
 
   }
 
+  private int getLz4BufferSize() {
+    return configuration.getInt(Lz4Codec.BUFFER_SIZE_CONFIG, Lz4Codec.DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * Decompresses the blocks written by {@link Lz4Codec} straight from and to
+   * the given buffers. Each block starts with its uncompressed size and is
+   * made of compressed chunks, each starting with its compressed size.
+   */
+  public class Lz4Decompressor extends BytesDecompressor {
+
+    private HeapBytesDecompressor extraDecompressor;
+    public Lz4Decompressor() {
+      this.extraDecompressor = new HeapBytesDecompressor(CompressionCodecName.LZ4);
+    }
+
+    @Override
+    public BytesInput decompress(BytesInput bytes, int uncompressedSize) throws IOException {
+      return extraDecompressor.decompress(bytes, uncompressedSize);
+    }
+
+    @Override
+    public void decompress(ByteBuffer input, int compressedSize, ByteBuffer output, int uncompressedSize)
+        throws IOException {
+      ByteBuffer in = input.duplicate();
+      in.position(0);
+      in.limit(compressedSize);
+      output.clear();
+      output.limit(uncompressedSize);
+      while (in.hasRemaining()) {
+        int blockSize = in.getInt();
+        if (blockSize == 0) {
+          // an empty block ends the stream
+          break;
+        }
+        int blockEnd = output.position() + blockSize;
+        while (output.position() < blockEnd) {
+          int chunkSize = in.getInt();
+          ByteBuffer chunk = in.duplicate();
+          chunk.limit(in.position() + chunkSize);
+          Lz4.decompress(chunk, output);
+          in.position(chunk.limit());
+        }
+      }
+      if (output.position() != uncompressedSize) {
+        throw new IOException("Decompressed " + output.position() + " bytes, expected " + uncompressedSize);
+      }
+    }
+
+    @Override
+    protected void release() {
+      extraDecompressor.release();
+    }
+  }
+
+  /**
+   * Compresses to the blocks of {@link Lz4Codec} with a direct output buffer.
+   */
+  public class Lz4Compressor extends BytesCompressor {
+
+    private final int maxChunkSize;
+    private ByteBuffer outgoing;
+
+    public Lz4Compressor() {
+      int bufferSize = getLz4BufferSize();
+      // same chunks as the BlockCompressorStream used by the codec
+      this.maxChunkSize = bufferSize - Lz4Codec.getCompressionOverhead(bufferSize);
+    }
+
+    @Override
+    public BytesInput compress(BytesInput bytes) throws IOException {
+      ByteBuffer bufferIn = bytes.toByteBuffer();
+      int length = bufferIn.remaining();
+      int chunks = Math.max(1, (length + maxChunkSize - 1) / maxChunkSize);
+      outgoing = ensure(outgoing, 4 + chunks * (4 + Lz4.maxCompressedLength(maxChunkSize)));
+      outgoing.putInt(length);
+      do {
+        ByteBuffer chunk = bufferIn.duplicate();
+        chunk.limit(chunk.position() + Math.min(maxChunkSize, chunk.remaining()));
+        int sizePosition = outgoing.position();
+        outgoing.position(sizePosition + 4);
+        int size = Lz4.compress(chunk, outgoing);
+        outgoing.putInt(sizePosition, size);
+        bufferIn.position(chunk.position());
+      } while (bufferIn.hasRemaining());
+      int size = outgoing.position();
+      outgoing.flip();
+      return BytesInput.from(outgoing, 0, size);
+    }
+
+    @Override
+    public CompressionCodecName getCodecName() {
+      return CompressionCodecName.LZ4;
+    }
+
+    @Override
+    protected void release() {
+      outgoing = DirectCodecFactory.this.release(outgoing);
+    }
+  }
+
+  /**
+   * Decompresses the ZSTD frames written by {@link ZstdCodec} straight from
+   * and to the given buffers.
+   */
+  public class ZstdDecompressor extends BytesDecompressor {
+
+    private HeapBytesDecompressor extraDecompressor;
+    public ZstdDecompressor() {
+      this.extraDecompressor = new HeapBytesDecompressor(CompressionCodecName.ZSTD);
+    }
+
+    @Override
+    public BytesInput decompress(BytesInput bytes, int uncompressedSize) throws IOException {
+      return extraDecompressor.decompress(bytes, uncompressedSize);
+    }
+
+    @Override
+    public void decompress(ByteBuffer input, int compressedSize, ByteBuffer output, int uncompressedSize)
+        throws IOException {
+      ByteBuffer in = input.duplicate();
+      in.position(0);
+      in.limit(compressedSize);
+      output.clear();
+      output.limit(uncompressedSize);
+      int size = Zstd.decompress(in, output);
+      if (size != uncompressedSize) {
+        throw new IOException("Decompressed " + size + " bytes, expected " + uncompressedSize);
+      }
+    }
+
+    @Override
+    protected void release() {
+      extraDecompressor.release();
+    }
+  }
+
+  /**
+   * Compresses to a single ZSTD frame with a direct output buffer.
+   */
+  public class ZstdCompressor extends BytesCompressor {
+
+    private final int level;
+    private ByteBuffer outgoing;
+
+    public ZstdCompressor(int level) {
+      this.level = level;
+    }
+
+    @Override
+    public BytesInput compress(BytesInput bytes) throws IOException {
+      ByteBuffer bufferIn = bytes.toByteBuffer();
+      outgoing = ensure(outgoing, Zstd.maxCompressedLength(bufferIn.remaining()));
+      int size = Zstd.compress(bufferIn, outgoing, level);
+      outgoing.flip();
+      return BytesInput.from(outgoing, 0, size);
+    }
+
+    @Override
+    public CompressionCodecName getCodecName() {
+      return CompressionCodecName.ZSTD;
+    }
+
+    @Override
+    protected void release() {
+      outgoing = DirectCodecFactory.this.release(outgoing);
+    }
+  }
+
   public static class NoopCompressor extends BytesCompressor {
 
     public NoopCompressor() {}
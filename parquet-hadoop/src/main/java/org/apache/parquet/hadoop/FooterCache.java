@@ -0,0 +1,345 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop;
+
+import static org.apache.parquet.format.converter.ParquetMetadataConverter.NO_FILTER;
+import static org.apache.parquet.hadoop.ParquetInputFormat.FOOTER_CACHE_ENABLED;
+import static org.apache.parquet.hadoop.ParquetInputFormat.FOOTER_CACHE_ENABLED_DEFAULT;
+import static org.apache.parquet.hadoop.ParquetInputFormat.FOOTER_CACHE_MAX_BYTES;
+import static org.apache.parquet.hadoop.ParquetInputFormat.FOOTER_CACHE_MAX_BYTES_DEFAULT;
+
+import java.io.IOException;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.Preconditions;
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.format.converter.ParquetMetadataConverter.MetadataFilter;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.LocalInputFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A cache of parsed file footers that can be shared by file readers.
+ * <p>
+ * Footers are keyed by the file's path, length and modification time, so a
+ * rewritten file is read again. The cache is bounded by the estimated heap
+ * size of the footers it holds and evicts the least recently used footers
+ * first. Footers are held through soft references, so the garbage collector
+ * may also drop them when memory is low.
+ * <p>
+ * Only {@link HadoopInputFile} and {@link LocalInputFile} footers are cached;
+ * footers of other files are read on every call.
+ */
+public class FooterCache {
+  private static final Logger LOG = LoggerFactory.getLogger(FooterCache.class);
+
+  // rough heap sizes of the objects of a parsed footer
+  private static final long FOOTER_OVERHEAD = 1024;
+  private static final long SCHEMA_COLUMN_OVERHEAD = 128;
+  private static final long BLOCK_OVERHEAD = 64;
+  private static final long COLUMN_CHUNK_OVERHEAD = 256;
+
+  // the process-wide caches, one for each configured size
+  private static final Map<Long, FooterCache> sharedCaches = new HashMap<Long, FooterCache>();
+
+  /**
+   * @return the process-wide cache of the default size, created if needed
+   */
+  public static FooterCache getSharedCache() {
+    return getSharedCache(FOOTER_CACHE_MAX_BYTES_DEFAULT);
+  }
+
+  /**
+   * @param conf a configuration
+   * @return the process-wide cache of the size set in conf if it is enabled
+   *         in conf, or null
+   */
+  static FooterCache getSharedCache(Configuration conf) {
+    if (!conf.getBoolean(FOOTER_CACHE_ENABLED, FOOTER_CACHE_ENABLED_DEFAULT)) {
+      return null;
+    }
+    return getSharedCache(conf.getLong(FOOTER_CACHE_MAX_BYTES, FOOTER_CACHE_MAX_BYTES_DEFAULT));
+  }
+
+  /**
+   * Readers that configure different sizes don't share a cache, so that
+   * each size is respected.
+   *
+   * @param maxBytes the maximum estimated size of the cached footers
+   * @return the process-wide cache of this size, created if needed
+   */
+  static synchronized FooterCache getSharedCache(long maxBytes) {
+    FooterCache cache = sharedCaches.get(maxBytes);
+    if (cache == null) {
+      if (!sharedCaches.isEmpty()) {
+        LOG.warn("Creating a shared footer cache of {} bytes, other readers use caches of {} bytes",
+            maxBytes, sharedCaches.keySet());
+      }
+      cache = new FooterCache(maxBytes);
+      sharedCaches.put(maxBytes, cache);
+    }
+    return cache;
+  }
+
+  private final long maxBytes;
+  private final LinkedHashMap<Key, Entry> entries =
+      new LinkedHashMap<Key, Entry>(16, 0.75f, true);
+  private final ReferenceQueue<ParquetMetadata> collected =
+      new ReferenceQueue<ParquetMetadata>();
+  private long currentBytes = 0;
+  private long hitCount = 0;
+  private long missCount = 0;
+  private long evictionCount = 0;
+
+  /**
+   * @param maxBytes the maximum estimated size of the cached footers
+   */
+  public FooterCache(long maxBytes) {
+    Preconditions.checkArgument(maxBytes > 0,
+        "Invalid footer cache size (negative or zero): %s", maxBytes);
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * Returns the footer of a file, reading and caching it if needed.
+   *
+   * @param file a Parquet file
+   * @param filter the filter to apply to row groups
+   * @return the footer with the row groups selected by the filter
+   * @throws IOException if the footer cannot be read
+   */
+  public ParquetMetadata getFooter(InputFile file, MetadataFilter filter) throws IOException {
+    Key key = Key.of(file);
+    if (key == null) {
+      return ParquetFileReader.readFooter(file, filter);
+    }
+    ParquetMetadata footer = get(key);
+    if (footer == null) {
+      // all row groups are cached so that any filter can be applied later
+      footer = ParquetFileReader.readFooter(file, NO_FILTER);
+      put(key, footer);
+    }
+    return ParquetMetadataConverter.filterRowGroups(footer, filter);
+  }
+
+  synchronized ParquetMetadata get(Key key) {
+    expungeCollected();
+    Entry entry = entries.get(key);
+    if (entry != null) {
+      ParquetMetadata footer = entry.get();
+      if (footer != null) {
+        hitCount += 1;
+        return footer;
+      }
+      remove(entry);
+    }
+    missCount += 1;
+    return null;
+  }
+
+  synchronized void put(Key key, ParquetMetadata footer) {
+    expungeCollected();
+    long size = estimateSize(footer);
+    if (size > maxBytes) {
+      LOG.debug("Not caching footer of {}: {} bytes is over the limit", key.path, size);
+      return;
+    }
+    Entry previous = entries.put(key, new Entry(key, footer, size, collected));
+    if (previous != null) {
+      currentBytes -= previous.size;
+    }
+    currentBytes += size;
+
+    Iterator<Entry> eldest = entries.values().iterator();
+    while (currentBytes > maxBytes && eldest.hasNext()) {
+      Entry entry = eldest.next();
+      LOG.debug("Evicting footer of {} from the cache", entry.key.path);
+      eldest.remove();
+      currentBytes -= entry.size;
+      evictionCount += 1;
+    }
+  }
+
+  /**
+   * Removes all footers from the cache.
+   */
+  public synchronized void invalidateAll() {
+    expungeCollected();
+    entries.clear();
+    currentBytes = 0;
+  }
+
+  private void remove(Entry entry) {
+    // a newer entry for the same key may have replaced this one
+    if (entries.get(entry.key) == entry) {
+      entries.remove(entry.key);
+      currentBytes -= entry.size;
+    }
+  }
+
+  private void expungeCollected() {
+    Entry entry;
+    while ((entry = (Entry) collected.poll()) != null) {
+      remove(entry);
+    }
+  }
+
+  /**
+   * @return the number of lookups that found a cached footer
+   */
+  public synchronized long getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * @return the number of lookups that did not find a cached footer
+   */
+  public synchronized long getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * @return the number of footers evicted to stay under the size limit
+   */
+  public synchronized long getEvictionCount() {
+    return evictionCount;
+  }
+
+  /**
+   * @return the number of cached footers, including footers that were
+   * collected but not yet removed
+   */
+  public synchronized int getFooterCount() {
+    return entries.size();
+  }
+
+  /**
+   * @return the estimated size of the cached footers in bytes
+   */
+  public synchronized long getEstimatedSize() {
+    return currentBytes;
+  }
+
+  public long getMaxBytes() {
+    return maxBytes;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "FooterCache{footers=" + entries.size() + ", bytes=" + currentBytes +
+        ", maxBytes=" + maxBytes + ", hits=" + hitCount + ", misses=" + missCount +
+        ", evictions=" + evictionCount + "}";
+  }
+
+  static long estimateSize(ParquetMetadata footer) {
+    long size = FOOTER_OVERHEAD;
+    size += SCHEMA_COLUMN_OVERHEAD *
+        footer.getFileMetaData().getSchema().getColumns().size();
+    for (Map.Entry<String, String> entry :
+        footer.getFileMetaData().getKeyValueMetaData().entrySet()) {
+      size += 2 * (entry.getKey().length() + entry.getValue().length());
+    }
+    for (BlockMetaData block : footer.getBlocks()) {
+      size += BLOCK_OVERHEAD;
+      for (ColumnChunkMetaData column : block.getColumns()) {
+        size += COLUMN_CHUNK_OVERHEAD;
+        Statistics<?> stats = column.getStatistics();
+        if (stats != null && stats.hasNonNullValue()) {
+          size += stats.getMinBytes().length + stats.getMaxBytes().length;
+        }
+      }
+    }
+    return size;
+  }
+
+  static final class Key {
+    private final String path;
+    private final long length;
+    private final long modificationTime;
+
+    Key(String path, long length, long modificationTime) {
+      this.path = path;
+      this.length = length;
+      this.modificationTime = modificationTime;
+    }
+
+    /**
+     * @param file a file
+     * @return a key for the file, or null if its footer can't be cached
+     */
+    static Key of(InputFile file) throws IOException {
+      if (file instanceof HadoopInputFile) {
+        HadoopInputFile hadoopFile = (HadoopInputFile) file;
+        return new Key(hadoopFile.getPath().toString(),
+            hadoopFile.getLength(), hadoopFile.getModificationTime());
+      } else if (file instanceof LocalInputFile) {
+        LocalInputFile localFile = (LocalInputFile) file;
+        return new Key(localFile.getPath().toAbsolutePath().toString(),
+            localFile.getLength(), localFile.getModificationTime());
+      }
+      return null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key other = (Key) o;
+      return length == other.length &&
+          modificationTime == other.modificationTime &&
+          path.equals(other.path);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = path.hashCode();
+      result = 31 * result + (int) (length ^ (length >>> 32));
+      result = 31 * result + (int) (modificationTime ^ (modificationTime >>> 32));
+      return result;
+    }
+  }
+
+  private static final class Entry extends SoftReference<ParquetMetadata> {
+    private final Key key;
+    private final long size;
+
+    Entry(Key key, ParquetMetadata footer, long size,
+          ReferenceQueue<ParquetMetadata> queue) {
+      super(footer, queue);
+      this.key = key;
+      this.size = size;
+    }
+  }
+}
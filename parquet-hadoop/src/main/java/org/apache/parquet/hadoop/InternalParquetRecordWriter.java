@@ -24,7 +24,10 @@ import static java.lang.String.format;
 import static org.apache.parquet.Preconditions.checkNotNull;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.parquet.column.ColumnWriteStore;
@@ -32,6 +35,7 @@ import org.apache.parquet.column.ParquetProperties;
 import org.apache.parquet.hadoop.CodecFactory.BytesCompressor;
 import org.apache.parquet.hadoop.api.WriteSupport;
 import org.apache.parquet.hadoop.api.WriteSupport.FinalizedWriteContext;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
 import org.apache.parquet.io.ColumnIOFactory;
 import org.apache.parquet.io.MessageColumnIO;
 import org.apache.parquet.io.api.RecordConsumer;
@@ -53,11 +57,20 @@ class InternalParquetRecordWriter<T> {
   private long rowGroupSizeThreshold;
   private long nextRowGroupSize;
   private final BytesCompressor compressor;
+  private final Map<String, BytesCompressor> columnCompressors;
   private final boolean validating;
   private final ParquetProperties props;
+  private final PageCompressionPipeline pipeline;
+  // checks the order of the records if they are declared sorted
+  private final SortOrderValidatingRecordConsumer sortOrderValidator;
 
   private boolean closed;
 
+  // set when the writer is managed, it is told the bytes held by the buffers
+  private MemoryManager memoryManager = null;
+  // set by the memory manager, possibly from another writer's thread
+  private volatile boolean flushRequested = false;
+
   private long recordCount = 0;
   private long recordCountForNextMemCheck = MINIMUM_RECORD_COUNT_FOR_CHECK;
   private long lastRowGroupEndPos = 0;
@@ -83,6 +96,32 @@ class InternalParquetRecordWriter<T> {
       BytesCompressor compressor,
       boolean validating,
       ParquetProperties props) {
+    this(parquetFileWriter, writeSupport, schema, extraMetaData, rowGroupSize,
+        compressor, Collections.<String, BytesCompressor>emptyMap(), validating, props, null);
+  }
+
+  /**
+   * @param parquetFileWriter the file to write to
+   * @param writeSupport the class to convert incoming records
+   * @param schema the schema of the records
+   * @param extraMetaData extra meta data to write in the footer of the file
+   * @param rowGroupSize the size of a block in the file (this will be approximate)
+   * @param compressor the codec used to compress
+   * @param columnCompressors the codecs of the columns compressed with their
+   *                          own codec, by dot-separated column path
+   * @param pipeline compresses the pages in parallel if not null, closed by the caller
+   */
+  InternalParquetRecordWriter(
+      ParquetFileWriter parquetFileWriter,
+      WriteSupport<T> writeSupport,
+      MessageType schema,
+      Map<String, String> extraMetaData,
+      long rowGroupSize,
+      BytesCompressor compressor,
+      Map<String, BytesCompressor> columnCompressors,
+      boolean validating,
+      ParquetProperties props,
+      PageCompressionPipeline pipeline) {
     this.parquetFileWriter = parquetFileWriter;
     this.writeSupport = checkNotNull(writeSupport, "writeSupport");
     this.schema = schema;
@@ -91,16 +130,39 @@ class InternalParquetRecordWriter<T> {
     this.rowGroupSizeThreshold = rowGroupSize;
     this.nextRowGroupSize = rowGroupSizeThreshold;
     this.compressor = compressor;
+    this.columnCompressors = columnCompressors;
     this.validating = validating;
     this.props = props;
+    this.pipeline = pipeline;
+    if (pipeline != null) {
+      pipeline.setMaxPendingBytes(rowGroupSizeThreshold);
+    }
+    List<String> sortingColumns = props.getSortingColumns();
+    if (!sortingColumns.isEmpty()) {
+      List<ColumnPath> paths = new ArrayList<ColumnPath>();
+      for (String column : sortingColumns) {
+        paths.add(ColumnPath.fromDotString(column));
+      }
+      this.sortOrderValidator = new SortOrderValidatingRecordConsumer(
+          schema, paths, parquetFileWriter);
+      // the validator checks the order across the row groups too
+      parquetFileWriter.setSortingColumns(paths, true);
+    } else {
+      this.sortOrderValidator = null;
+    }
     initStore();
   }
 
   private void initStore() {
-    pageStore = new ColumnChunkPageWriteStore(compressor, schema, props.getAllocator());
+    pageStore = new ColumnChunkPageWriteStore(
+        compressor, columnCompressors, schema, props.getAllocator(), pipeline);
     columnStore = props.newColumnWriteStore(schema, pageStore);
     MessageColumnIO columnIO = new ColumnIOFactory(validating).getColumnIO(schema);
     this.recordConsumer = columnIO.getRecordWriter(columnStore);
+    if (sortOrderValidator != null) {
+      sortOrderValidator.setDelegate(recordConsumer);
+      this.recordConsumer = sortOrderValidator;
+    }
     writeSupport.prepareForWrite(recordConsumer);
   }
 
@@ -122,7 +184,17 @@ class InternalParquetRecordWriter<T> {
   public void write(T value) throws IOException, InterruptedException {
     writeSupport.write(value);
     ++ recordCount;
-    checkBlockSizeReached();
+    if (flushRequested) {
+      flushRequested = false;
+      LOG.info("memory manager requested a flush: flushing {} records to disk.", recordCount);
+      flushRowGroupAndStartNext();
+    } else {
+      checkBlockSizeReached();
+    }
+    if (sortOrderValidator != null) {
+      // the record is written and counted even when it is out of order
+      sortOrderValidator.checkOrder();
+    }
   }
 
   /**
@@ -140,20 +212,32 @@ class InternalParquetRecordWriter<T> {
       // it is much better to be slightly under size than to be over at all
       if (memSize > (nextRowGroupSize - 2 * recordSize)) {
         LOG.info("mem size {} > {}: flushing {} records to disk.", memSize, nextRowGroupSize, recordCount);
-        flushRowGroupToStore();
-        initStore();
-        recordCountForNextMemCheck = min(max(MINIMUM_RECORD_COUNT_FOR_CHECK, recordCount / 2), MAXIMUM_RECORD_COUNT_FOR_CHECK);
-        this.lastRowGroupEndPos = parquetFileWriter.getPos();
+        flushRowGroupAndStartNext();
       } else {
         recordCountForNextMemCheck = min(
             max(MINIMUM_RECORD_COUNT_FOR_CHECK, (recordCount + (long)(nextRowGroupSize / ((float)recordSize))) / 2), // will check halfway
             recordCount + MAXIMUM_RECORD_COUNT_FOR_CHECK // will not look more than max records ahead
             );
         LOG.debug("Checked mem at {} will check again at: {}", recordCount, recordCountForNextMemCheck);
+        MemoryManager manager = memoryManager;
+        if (manager != null) {
+          manager.updateAllocatedSize(this, getAllocatedSize());
+        }
       }
     }
   }
 
+  private void flushRowGroupAndStartNext() throws IOException {
+    flushRowGroupToStore();
+    initStore();
+    recordCountForNextMemCheck = min(max(MINIMUM_RECORD_COUNT_FOR_CHECK, recordCount / 2), MAXIMUM_RECORD_COUNT_FOR_CHECK);
+    this.lastRowGroupEndPos = parquetFileWriter.getPos();
+    MemoryManager manager = memoryManager;
+    if (manager != null) {
+      manager.updateAllocatedSize(this, getAllocatedSize());
+    }
+  }
+
   private void flushRowGroupToStore()
       throws IOException {
     recordConsumer.flush();
@@ -177,12 +261,47 @@ class InternalParquetRecordWriter<T> {
     pageStore = null;
   }
 
+  /**
+   * @return the number of bytes held by the buffers of the current row group,
+   *         they are provided by the allocator of the {@link ParquetProperties}
+   */
+  long getAllocatedSize() {
+    // the stores are replaced after each row group
+    ColumnWriteStore columns = columnStore;
+    ColumnChunkPageWriteStore pages = pageStore;
+    return (columns == null ? 0 : columns.getAllocatedSize()) +
+        (pages == null ? 0 : pages.getAllocatedSize());
+  }
+
+  /**
+   * @return whether the buffers of this writer are allocated off heap
+   */
+  boolean isDirect() {
+    return props.getAllocator().isDirect();
+  }
+
+  void setMemoryManager(MemoryManager memoryManager) {
+    this.memoryManager = memoryManager;
+  }
+
+  /**
+   * Asks this writer to flush its row group after the record being written.
+   * Called by the {@link MemoryManager} when the writers hold too much memory.
+   */
+  void requestFlush() {
+    this.flushRequested = true;
+  }
+
   long getRowGroupSizeThreshold() {
     return rowGroupSizeThreshold;
   }
 
   void setRowGroupSizeThreshold(long rowGroupSizeThreshold) {
     this.rowGroupSizeThreshold = rowGroupSizeThreshold;
+    if (pipeline != null) {
+      // pages waiting for compression are bounded by the memory of the writer
+      pipeline.setMaxPendingBytes(rowGroupSizeThreshold);
+    }
   }
 
   MessageType getSchema() {
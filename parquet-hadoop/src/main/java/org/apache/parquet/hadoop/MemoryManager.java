@@ -24,8 +24,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -39,6 +42,11 @@ import java.util.Map;
  * When the sum of each writer's allocation size  is less than total memory pool,
  * keep them original value.
  * When the sum exceeds, decrease each writer's allocation size by a ratio.
+ *
+ * Writers also report the bytes their buffers actually hold when they check
+ * their row group size. When the reported bytes of the writers exceed the
+ * pool, the largest writers are asked to flush their row group early. Writers
+ * that buffer pages off heap are accounted against a separate direct pool.
  */
 public class MemoryManager {
   private static final Logger LOG = LoggerFactory.getLogger(MemoryManager.class);
@@ -47,19 +55,42 @@ public class MemoryManager {
   private final float memoryPoolRatio;
 
   private final long totalMemoryPool;
+  private final long directMemoryPool;
   private final long minMemoryAllocation;
   private final Map<InternalParquetRecordWriter, Long> writerList = new
       HashMap<InternalParquetRecordWriter, Long>();
+  // the bytes last reported by each writer, see updateAllocatedSize
+  private final Map<InternalParquetRecordWriter, Long> allocatedSizes = new
+      HashMap<InternalParquetRecordWriter, Long>();
+  private long heapAllocated = 0;
+  private long directAllocated = 0;
   private final Map<String, Runnable> callBacks = new HashMap<String, Runnable>();
   private double scale = 1.0;
 
   public MemoryManager(float ratio, long minAllocation) {
+    this(ratio, minAllocation, 0, 0);
+  }
+
+  /**
+   * @param ratio the fraction of the heap used by the writers when maxPoolBytes is not set
+   * @param minAllocation the minimum row group size of a writer
+   * @param maxPoolBytes the number of heap bytes used by the writers, or 0 to use the ratio
+   * @param maxDirectBytes the number of direct bytes used by the writers, or 0 for no limit
+   */
+  public MemoryManager(float ratio, long minAllocation, long maxPoolBytes, long maxDirectBytes) {
     checkRatio(ratio);
+    Preconditions.checkArgument(maxPoolBytes >= 0, "Invalid memory pool size: %s", maxPoolBytes);
+    Preconditions.checkArgument(maxDirectBytes >= 0, "Invalid direct memory pool size: %s", maxDirectBytes);
 
     memoryPoolRatio = ratio;
     minMemoryAllocation = minAllocation;
-    totalMemoryPool = Math.round((double) ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getMax
-        () * ratio);
+    if (maxPoolBytes > 0) {
+      totalMemoryPool = maxPoolBytes;
+    } else {
+      totalMemoryPool = Math.round((double) ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getMax
+          () * ratio);
+    }
+    directMemoryPool = maxDirectBytes > 0 ? maxDirectBytes : Long.MAX_VALUE;
     LOG.debug("Allocated total memory pool is: {}", totalMemoryPool);
   }
 
@@ -79,6 +110,7 @@ public class MemoryManager {
     Long oldValue = writerList.get(writer);
     if (oldValue == null) {
       writerList.put(writer, allocation);
+      writer.setMemoryManager(this);
     } else {
       throw new IllegalArgumentException("[BUG] The Parquet Memory Manager should not add an " +
           "instance of InternalParquetRecordWriter more than once. The Manager already contains " +
@@ -94,7 +126,9 @@ public class MemoryManager {
   synchronized void removeWriter(InternalParquetRecordWriter writer) {
     if (writerList.containsKey(writer)) {
       writerList.remove(writer);
+      writer.setMemoryManager(null);
     }
+    setAllocatedSize(writer, null);
     if (!writerList.isEmpty()) {
       updateAllocation();
     }
@@ -140,6 +174,70 @@ public class MemoryManager {
     }
   }
 
+  /**
+   * Record the number of bytes held by the buffers of a writer and ask the
+   * largest writers to flush their row group when the pool is exceeded. A
+   * writer that is asked to flush reports 0 bytes until it reports again.
+   *
+   * @param writer a writer of this memory manager
+   * @param allocated the number of bytes held by the writer
+   */
+  synchronized void updateAllocatedSize(InternalParquetRecordWriter writer, long allocated) {
+    if (!writerList.containsKey(writer)) {
+      return;
+    }
+    setAllocatedSize(writer, allocated);
+
+    boolean direct = writer.isDirect();
+    long pool = direct ? directMemoryPool : totalMemoryPool;
+    long excess = (direct ? directAllocated : heapAllocated) - pool;
+    if (excess <= 0) {
+      return;
+    }
+
+    List<Map.Entry<InternalParquetRecordWriter, Long>> candidates =
+        new ArrayList<Map.Entry<InternalParquetRecordWriter, Long>>();
+    for (Map.Entry<InternalParquetRecordWriter, Long> entry : allocatedSizes.entrySet()) {
+      // flushing small writers frees little memory and creates tiny row groups
+      if (entry.getKey().isDirect() == direct && entry.getValue() >= minMemoryAllocation) {
+        candidates.add(entry);
+      }
+    }
+    Collections.sort(candidates, new Comparator<Map.Entry<InternalParquetRecordWriter, Long>>() {
+      @Override
+      public int compare(Map.Entry<InternalParquetRecordWriter, Long> a,
+                         Map.Entry<InternalParquetRecordWriter, Long> b) {
+        return Long.compare(b.getValue(), a.getValue());
+      }
+    });
+
+    int flushed = 0;
+    for (Map.Entry<InternalParquetRecordWriter, Long> entry : candidates) {
+      if (excess <= 0) {
+        break;
+      }
+      InternalParquetRecordWriter largest = entry.getKey();
+      excess -= entry.getValue();
+      largest.requestFlush();
+      setAllocatedSize(largest, 0L);
+      flushed += 1;
+    }
+    LOG.info(String.format(
+        "Writers hold more than the %s memory pool (%,d bytes), flushing the row groups of %d of %d writers",
+        direct ? "direct" : "heap", pool, flushed, writerList.size()));
+  }
+
+  private void setAllocatedSize(InternalParquetRecordWriter writer, Long allocated) {
+    Long previous = allocated == null ?
+        allocatedSizes.remove(writer) : allocatedSizes.put(writer, allocated);
+    long delta = (allocated == null ? 0 : allocated) - (previous == null ? 0 : previous);
+    if (writer.isDirect()) {
+      directAllocated += delta;
+    } else {
+      heapAllocated += delta;
+    }
+  }
+
   /**
    * Get the total memory pool size that is available for writers.
    * @return the number of bytes in the memory pool
@@ -148,6 +246,18 @@ public class MemoryManager {
     return totalMemoryPool;
   }
 
+  /**
+   * Get the number of bytes last reported by the writers, see
+   * {@link #updateAllocatedSize}. The buffers of the writers are not read
+   * from here: they are changed by the threads of the writers.
+   * @param direct whether to count the writers that allocate direct buffers or
+   *               the writers that allocate heap buffers
+   * @return the number of bytes reported by the writers
+   */
+  synchronized long getAllocatedSize(boolean direct) {
+    return direct ? directAllocated : heapAllocated;
+  }
+
   /**
    * Get the writers list
    * @return the writers in this memory manager
@@ -156,6 +266,15 @@ public class MemoryManager {
     return writerList;
   }
 
+  /**
+   * Get the direct memory pool size that is available for writers that
+   * buffer their pages off heap.
+   * @return the number of bytes in the direct memory pool
+   */
+  long getDirectMemoryPool() {
+    return directMemoryPool;
+  }
+
   /**
    * Get the ratio of memory allocated for all the writers.
    * @return the memory pool ratio
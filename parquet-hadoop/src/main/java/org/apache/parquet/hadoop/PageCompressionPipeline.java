@@ -0,0 +1,323 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.parquet.Preconditions;
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.hadoop.CodecFactory.BytesCompressor;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compresses the pages of a writer on a bounded pool of threads.
+ *
+ * The threads are shared by all the writers of the process: the pool is sized
+ * by the largest number of threads an open writer asked for, so many open
+ * writers do not each start their own threads, and it shrinks back when the
+ * writers that asked for more threads are closed. A writer keeps its own queue of pages
+ * waiting for compression and compresses at most as many pages at a time as
+ * it asked for threads, one per compressor.
+ *
+ * Pages are compressed in any order but are handed back to their column in
+ * the order they were submitted: {@link #drain(boolean)} only completes the
+ * oldest pending pages. The uncompressed bytes waiting for compression are
+ * bounded, the writer blocks until pages are compressed once the bound is
+ * reached. The bound follows the row group size of the writer, which is
+ * scaled by the {@link MemoryManager}.
+ *
+ * This class is not thread-safe: pages must be submitted and drained by the
+ * thread writing records.
+ */
+class PageCompressionPipeline {
+  private static final Logger LOG = LoggerFactory.getLogger(PageCompressionPipeline.class);
+
+  /**
+   * A page being compressed. It is written to its column once compressed and
+   * once all the pages submitted before it are written.
+   */
+  static abstract class PendingPage {
+    private final long size;
+    private Future<BytesInput> compressedBytes;
+
+    /**
+     * @param size the number of bytes held until the page is written
+     */
+    PendingPage(long size) {
+      this.size = size;
+    }
+
+    /**
+     * @param compressedBytes the compressed bytes of the page
+     * @throws IOException if the page can not be written
+     */
+    abstract void write(BytesInput compressedBytes) throws IOException;
+  }
+
+  private static ThreadPoolExecutor sharedExecutor = null;
+  // the number of threads asked for by each open writer
+  private static final List<Integer> openWriterThreads = new ArrayList<Integer>();
+
+  /**
+   * @param threads the number of threads a writer compresses pages with
+   * @return the process-wide executor, grown to at least this many threads
+   */
+  private static synchronized ThreadPoolExecutor acquireSharedExecutor(int threads) {
+    openWriterThreads.add(threads);
+    if (sharedExecutor == null) {
+      sharedExecutor = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.MINUTES,
+          new LinkedBlockingQueue<Runnable>(), new DaemonThreadFactory("parquet-compression"));
+      sharedExecutor.allowCoreThreadTimeOut(true);
+    } else {
+      resizeSharedExecutor(Collections.max(openWriterThreads));
+    }
+    return sharedExecutor;
+  }
+
+  /**
+   * @param threads the number of threads a closed writer asked for
+   */
+  private static synchronized void releaseSharedExecutor(int threads) {
+    openWriterThreads.remove(Integer.valueOf(threads));
+    // idle threads time out when no writer is open
+    if (!openWriterThreads.isEmpty()) {
+      resizeSharedExecutor(Collections.max(openWriterThreads));
+    }
+  }
+
+  private static void resizeSharedExecutor(int threads) {
+    int current = sharedExecutor.getMaximumPoolSize();
+    if (threads > current) {
+      LOG.debug("Growing the page compression threads from {} to {}", current, threads);
+      sharedExecutor.setMaximumPoolSize(threads);
+      sharedExecutor.setCorePoolSize(threads);
+    } else if (threads < current) {
+      LOG.debug("Shrinking the page compression threads from {} to {}", current, threads);
+      sharedExecutor.setCorePoolSize(threads);
+      sharedExecutor.setMaximumPoolSize(threads);
+    }
+  }
+
+  // Visible for testing
+  static synchronized ThreadPoolExecutor getSharedExecutor() {
+    return sharedExecutor;
+  }
+
+  private final ThreadPoolExecutor executor;
+  private final Queue<BytesCompressor> compressors;
+  private final List<BytesCompressor> allCompressors;
+  // pages waiting for a compressor, taken by the workers of this writer
+  private final Queue<Runnable> queuedPages = new ConcurrentLinkedQueue<Runnable>();
+  private final AtomicInteger runningWorkers = new AtomicInteger(0);
+  // guarded by runningWorkers, the last worker releases the compressors
+  private boolean closed = false;
+  private final Runnable worker = new Runnable() {
+    @Override
+    public void run() {
+      do {
+        Runnable page;
+        while ((page = queuedPages.poll()) != null) {
+          page.run();
+        }
+        stopWorker();
+        // a page queued after the last poll may not have started a worker
+      } while (!queuedPages.isEmpty() && startWorker());
+    }
+  };
+  private final Deque<PendingPage> pendingPages = new ArrayDeque<PendingPage>();
+  private long pendingBytes = 0;
+  private long maxPendingBytes = Long.MAX_VALUE;
+
+  /**
+   * @param codecFactory the factory of the compressors, one per thread
+   * @param codecName the codec used to compress the pages
+   * @param threads the number of pages compressed at a time
+   */
+  PageCompressionPipeline(CodecFactory codecFactory, CompressionCodecName codecName, int threads) {
+    Preconditions.checkArgument(threads > 0, "Invalid number of compression threads: %s", threads);
+    this.compressors = new ConcurrentLinkedQueue<BytesCompressor>();
+    this.allCompressors = new ArrayList<BytesCompressor>(threads);
+    for (int i = 0; i < threads; i += 1) {
+      // compressors reuse their buffers and can not be shared between threads
+      BytesCompressor compressor = codecFactory.createCompressor(codecName);
+      compressors.add(compressor);
+      allCompressors.add(compressor);
+    }
+    this.executor = acquireSharedExecutor(threads);
+  }
+
+  /**
+   * Reserves a worker if fewer workers than compressors are running.
+   */
+  private boolean startWorker() {
+    while (true) {
+      int running = runningWorkers.get();
+      if (running >= allCompressors.size()) {
+        return false;
+      }
+      if (runningWorkers.compareAndSet(running, running + 1)) {
+        return true;
+      }
+    }
+  }
+
+  private void stopWorker() {
+    synchronized (runningWorkers) {
+      if (runningWorkers.decrementAndGet() == 0 && closed) {
+        releaseCompressors();
+      }
+    }
+  }
+
+  private void releaseCompressors() {
+    for (BytesCompressor compressor : allCompressors) {
+      compressor.release();
+    }
+  }
+
+  /**
+   * @param maxPendingBytes the number of uncompressed bytes that can wait for
+   *                        compression before the writer blocks
+   */
+  void setMaxPendingBytes(long maxPendingBytes) {
+    this.maxPendingBytes = maxPendingBytes;
+  }
+
+  /**
+   * @return the number of bytes of the submitted pages that are not written yet
+   */
+  long getPendingBytes() {
+    return pendingBytes;
+  }
+
+  /**
+   * Submits a page for compression and writes the pages that are done.
+   *
+   * @param bytes the uncompressed bytes, they must not be reused by the caller
+   * @param page the page to write once compressed
+   * @throws IOException if a previous page can not be compressed or written
+   */
+  void submit(final BytesInput bytes, PendingPage page) throws IOException {
+    FutureTask<BytesInput> compression = new FutureTask<BytesInput>(new Callable<BytesInput>() {
+      @Override
+      public BytesInput call() throws Exception {
+        // there are no more running workers than compressors
+        BytesCompressor compressor = compressors.poll();
+        try {
+          // the compressor output is reused by the next page
+          return BytesInput.copy(compressor.compress(bytes));
+        } finally {
+          compressors.add(compressor);
+        }
+      }
+    });
+    page.compressedBytes = compression;
+    queuedPages.add(compression);
+    if (startWorker()) {
+      try {
+        executor.execute(worker);
+      } catch (RuntimeException e) {
+        stopWorker();
+        throw e;
+      }
+    }
+    pendingPages.add(page);
+    pendingBytes += page.size;
+    drain(false);
+  }
+
+  /**
+   * Writes the oldest pending pages as long as they are compressed.
+   *
+   * @param all whether to wait until all the pending pages are written
+   * @throws IOException if a page can not be compressed or written
+   */
+  void drain(boolean all) throws IOException {
+    while (!pendingPages.isEmpty()) {
+      PendingPage page = pendingPages.peek();
+      boolean block = all || pendingBytes > maxPendingBytes;
+      if (!block && !page.compressedBytes.isDone()) {
+        return;
+      }
+      BytesInput compressedBytes = get(page.compressedBytes);
+      pendingPages.remove();
+      pendingBytes -= page.size;
+      page.write(compressedBytes);
+    }
+  }
+
+  private static BytesInput get(Future<BytesInput> future) throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while compressing pages", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException("Failed to compress page", e.getCause());
+    }
+  }
+
+  /**
+   * Drops the pending pages and releases the compressors, or lets the last
+   * running worker release them. It does not wait for the pages that are
+   * being compressed. The shared threads keep running for other writers.
+   */
+  void close() {
+    Runnable queued;
+    while ((queued = queuedPages.poll()) != null) {
+      ((Future<?>) queued).cancel(false);
+    }
+    if (!pendingPages.isEmpty()) {
+      LOG.warn("Dropping {} pages waiting for compression", pendingPages.size());
+      pendingPages.clear();
+      pendingBytes = 0;
+    }
+    // compressors can only be released once no thread uses them
+    synchronized (runningWorkers) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      if (runningWorkers.get() == 0) {
+        releaseCompressors();
+      }
+    }
+    releaseSharedExecutor(allCompressors.size());
+  }
+}
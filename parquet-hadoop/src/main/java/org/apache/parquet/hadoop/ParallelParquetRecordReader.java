@@ -0,0 +1,399 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop;
+
+import static java.lang.String.format;
+import static org.apache.parquet.hadoop.ParquetInputFormat.BLOOM_FILTERING_ENABLED;
+import static org.apache.parquet.hadoop.ParquetInputFormat.DICTIONARY_FILTERING_ENABLED;
+import static org.apache.parquet.hadoop.ParquetInputFormat.PARALLEL_READ_MAX_BYTES;
+import static org.apache.parquet.hadoop.ParquetInputFormat.PARALLEL_READ_MAX_BYTES_DEFAULT;
+import static org.apache.parquet.hadoop.ParquetInputFormat.PREFETCH_ENABLED;
+import static org.apache.parquet.hadoop.ParquetInputFormat.RECORD_FILTERING_ENABLED;
+import static org.apache.parquet.hadoop.ParquetInputFormat.RECORD_FILTERING_ENABLED_DEFAULT;
+import static org.apache.parquet.hadoop.ParquetInputFormat.STATS_FILTERING_ENABLED;
+import static org.apache.parquet.hadoop.ParquetInputFormat.STRICT_TYPE_CHECKING;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.compat.FilterCompat.Filter;
+import org.apache.parquet.hadoop.api.InitContext;
+import org.apache.parquet.hadoop.api.ReadSupport;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.FileMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.MessageColumnIO;
+import org.apache.parquet.io.ParquetDecodingException;
+import org.apache.parquet.io.RecordReader;
+import org.apache.parquet.io.api.RecordMaterializer;
+import org.apache.parquet.io.api.RecordMaterializer.RecordMaterializationException;
+import org.apache.parquet.schema.MessageType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads the row groups of a file concurrently on a {@link ForkJoinPool}.
+ * <p>
+ * Each row group is read, decompressed and assembled into records by a task
+ * that opens its own {@link ParquetFileReader} and uses its own
+ * {@link RecordMaterializer}. Row groups are submitted in file order while
+ * the uncompressed size of the row groups that are in flight or being
+ * returned is below {@link ParquetInputFormat#PARALLEL_READ_MAX_BYTES}.
+ * <p>
+ * Tasks hand their records over in chunks of {@link #CHUNK_SIZE} records
+ * through bounded queues and wait while the queues are full, so the records
+ * that are assembled but not returned yet are bounded as well. Records are
+ * held in these chunks until they are returned: the materializer must
+ * return a new object for each record and must not reuse them.
+ * Records are returned in file order, or in the order the chunks are
+ * assembled when ordering is not required.
+ *
+ * @param <T> the type of the materialized records
+ */
+class ParallelParquetRecordReader<T> extends InternalParquetRecordReader<T> {
+  private static final Logger LOG = LoggerFactory.getLogger(ParallelParquetRecordReader.class);
+
+  static final int CHUNK_SIZE = 1024;
+  // chunks queued for each row group, or for each thread when unordered
+  private static final int QUEUED_CHUNKS = 2;
+  private static final long CLOSE_CHECK_MILLIS = 100;
+
+  private final ReadSupport<T> readSupport;
+  private final Filter filter;
+  private final ForkJoinPool pool;
+  private final boolean ordered;
+
+  // the row groups in flight, in file order
+  private final Deque<RowGroupRecords<T>> pending = new ArrayDeque<RowGroupRecords<T>>();
+  // the chunks of all row groups, only used when records are not ordered
+  private final BlockingQueue<Chunk<T>> chunks;
+  // stops the tasks that are already running
+  private volatile boolean closed = false;
+
+  private ParquetFileReader reader;
+  private Configuration taskConf;
+  private InputFile file;
+  private FileMetaData fileMetaData;
+  private Map<String, String> keyValueMetaData;
+  private MessageType fileSchema;
+  private MessageType requestedSchema;
+  private ReadSupport.ReadContext readContext;
+  private ColumnIOFactory columnIOFactory;
+  private boolean strictTypeChecking;
+  private boolean filterRecords;
+  private UnmaterializableRecordCounter unmaterializableRecordCounter;
+
+  private List<BlockMetaData> blocks;
+  private int nextBlock = 0;
+  private long maxBytes;
+  private long bytesInFlight = 0;
+
+  private Iterator<T> currentRecords = null;
+  private T currentValue = null;
+  private long total;
+  private long current = 0;
+
+  /**
+   * @param readSupport Object which helps reads files of the given type, e.g. Thrift, Avro.
+   * @param filter for filtering individual records
+   * @param pool the pool that reads the row groups, it is not shut down by this reader
+   * @param ordered whether records are returned in file order
+   */
+  ParallelParquetRecordReader(ReadSupport<T> readSupport, Filter filter, ForkJoinPool pool, boolean ordered) {
+    super(readSupport, filter);
+    this.readSupport = readSupport;
+    this.filter = filter;
+    this.pool = pool;
+    this.ordered = ordered;
+    this.chunks = ordered ? null :
+        new ArrayBlockingQueue<Chunk<T>>(QUEUED_CHUNKS * pool.getParallelism());
+  }
+
+  @Override
+  public void initialize(ParquetFileReader reader, Configuration configuration) throws IOException {
+    this.reader = reader;
+    this.file = reader.getFile();
+    this.fileMetaData = reader.getFooter().getFileMetaData();
+    this.fileSchema = fileMetaData.getSchema();
+    this.keyValueMetaData = fileMetaData.getKeyValueMetaData();
+    this.readContext = readSupport.init(new InitContext(
+        configuration, toSetMultiMap(keyValueMetaData), fileSchema));
+    this.requestedSchema = readContext.getRequestedSchema();
+    this.columnIOFactory = new ColumnIOFactory(fileMetaData.getCreatedBy());
+    this.strictTypeChecking = configuration.getBoolean(STRICT_TYPE_CHECKING, true);
+    this.filterRecords = configuration.getBoolean(
+        RECORD_FILTERING_ENABLED, RECORD_FILTERING_ENABLED_DEFAULT);
+    this.maxBytes = configuration.getLong(PARALLEL_READ_MAX_BYTES, PARALLEL_READ_MAX_BYTES_DEFAULT);
+
+    // row groups were already filtered by the file reader, the tasks only
+    // need to apply the column indexes of their row group
+    this.taskConf = new Configuration(configuration);
+    taskConf.setBoolean(STATS_FILTERING_ENABLED, false);
+    taskConf.setBoolean(DICTIONARY_FILTERING_ENABLED, false);
+    taskConf.setBoolean(BLOOM_FILTERING_ENABLED, false);
+    taskConf.setBoolean(PREFETCH_ENABLED, false);
+
+    this.blocks = reader.getRowGroups();
+    this.total = reader.getRecordCount();
+    this.unmaterializableRecordCounter = new UnmaterializableRecordCounter(configuration, total);
+    LOG.info("RecordReader initialized will read {} row groups with a total of {} records on {} threads.",
+        blocks.size(), total, pool.getParallelism());
+  }
+
+  @Override
+  public boolean nextKeyValue() throws IOException, InterruptedException {
+    while (currentRecords == null || !currentRecords.hasNext()) {
+      currentRecords = null;
+      submitRowGroups();
+      if (pending.isEmpty()) {
+        return false;
+      }
+
+      Chunk<T> chunk = takeChunk();
+      if (chunk.last) {
+        finish(chunk.rowGroup);
+      } else {
+        chunk.rowGroup.returned += chunk.records.size();
+        currentRecords = chunk.records.iterator();
+      }
+    }
+
+    currentValue = currentRecords.next();
+    current += 1;
+    return true;
+  }
+
+  @Override
+  public T getCurrentValue() {
+    return currentValue;
+  }
+
+  @Override
+  public float getProgress() {
+    return total == 0 ? 1.0f : (float) current / total;
+  }
+
+  @Override
+  public void close() throws IOException {
+    // running tasks stop at the next record or chunk
+    closed = true;
+    for (RowGroupRecords<T> rowGroup : pending) {
+      rowGroup.future.cancel(false);
+    }
+    pending.clear();
+    currentRecords = null;
+    if (reader != null) {
+      reader.close();
+    }
+  }
+
+  private void submitRowGroups() {
+    while (nextBlock < blocks.size()) {
+      long size = blocks.get(nextBlock).getTotalByteSize();
+      if (bytesInFlight > 0 && bytesInFlight + size > maxBytes) {
+        return;
+      }
+      RowGroupRecords<T> rowGroup = new RowGroupRecords<T>(blocks.get(nextBlock), ordered ?
+          new ArrayBlockingQueue<Chunk<T>>(QUEUED_CHUNKS) : chunks);
+      rowGroup.future = pool.submit(new RowGroupTask(nextBlock, rowGroup));
+      pending.add(rowGroup);
+      bytesInFlight += size;
+      nextBlock += 1;
+    }
+  }
+
+  private Chunk<T> takeChunk() throws InterruptedException {
+    if (ordered) {
+      return pending.peek().chunks.take();
+    }
+    return chunks.take();
+  }
+
+  private void finish(RowGroupRecords<T> rowGroup) throws IOException, InterruptedException {
+    pending.remove(rowGroup);
+    bytesInFlight -= rowGroup.block.getTotalByteSize();
+    // rows that were filtered out or skipped using the column indexes count
+    // towards the progress
+    current += rowGroup.block.getRowCount() - rowGroup.returned;
+    try {
+      rowGroup.future.get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IOException("Could not read row group in file " + file, cause);
+    }
+  }
+
+  /**
+   * Puts a chunk in a queue, the pool adds a thread while the task waits so
+   * that the row groups that are returned first are not starved.
+   */
+  private void put(final BlockingQueue<Chunk<T>> queue, final Chunk<T> chunk) throws InterruptedException {
+    ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+      private boolean done = false;
+
+      @Override
+      public boolean block() throws InterruptedException {
+        done = closed || queue.offer(chunk, CLOSE_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+        return done;
+      }
+
+      @Override
+      public boolean isReleasable() {
+        if (!done) {
+          done = closed || queue.offer(chunk);
+        }
+        return done;
+      }
+    });
+  }
+
+  private static class RowGroupRecords<T> {
+    private final BlockMetaData block;
+    private final BlockingQueue<Chunk<T>> chunks;
+    private Future<?> future;
+    // the number of records returned, only used by the reader thread
+    private long returned = 0;
+
+    private RowGroupRecords(BlockMetaData block, BlockingQueue<Chunk<T>> chunks) {
+      this.block = block;
+      this.chunks = chunks;
+    }
+  }
+
+  private static class Chunk<T> {
+    private final RowGroupRecords<T> rowGroup;
+    private final List<T> records;
+    // the last chunk of a row group has no records, it is sent when the task is done
+    private final boolean last;
+
+    private Chunk(RowGroupRecords<T> rowGroup, List<T> records, boolean last) {
+      this.rowGroup = rowGroup;
+      this.records = records;
+      this.last = last;
+    }
+  }
+
+  private class RowGroupTask implements Callable<Void> {
+    private final int index;
+    private final RowGroupRecords<T> rowGroup;
+
+    private RowGroupTask(int index, RowGroupRecords<T> rowGroup) {
+      this.index = index;
+      this.rowGroup = rowGroup;
+    }
+
+    @Override
+    public Void call() throws IOException, InterruptedException {
+      try {
+        if (!closed) {
+          read();
+        }
+      } finally {
+        put(rowGroup.chunks, new Chunk<T>(rowGroup, Collections.<T>emptyList(), true));
+      }
+      return null;
+    }
+
+    private void read() throws IOException, InterruptedException {
+      BlockMetaData block = rowGroup.block;
+      ParquetFileReader blockReader = new ParquetFileReader(taskConf, file,
+          new ParquetMetadata(fileMetaData, Collections.singletonList(block)));
+      try {
+        blockReader.filterRowGroups(filter);
+        blockReader.setRequestedSchema(requestedSchema);
+        PageReadStore pages = blockReader.readNextFilteredRowGroup();
+        if (pages == null) {
+          return;
+        }
+
+        RecordMaterializer<T> materializer = readSupport.prepareForRead(
+            taskConf, keyValueMetaData, fileSchema, readContext);
+        MessageColumnIO columnIO = columnIOFactory.getColumnIO(requestedSchema, fileSchema, strictTypeChecking);
+        RecordReader<T> recordReader = columnIO.getRecordReader(pages, materializer,
+            filterRecords ? filter : FilterCompat.NOOP);
+
+        long rowCount = pages.getRowCount();
+        List<T> records = new ArrayList<T>(CHUNK_SIZE);
+        for (long i = 0; i < rowCount && !closed; i += 1) {
+          T record;
+          try {
+            record = recordReader.read();
+          } catch (RecordMaterializationException e) {
+            // this might throw, but it's fatal if it does.
+            synchronized (unmaterializableRecordCounter) {
+              unmaterializableRecordCounter.incErrors(e);
+            }
+            LOG.debug("skipping a corrupt record");
+            continue;
+          } catch (RuntimeException e) {
+            throw new ParquetDecodingException(format("Can not read value at %d in block %d in file %s",
+                i, index, file), e);
+          }
+
+          if (recordReader.shouldSkipCurrentRecord()) {
+            // this record is being filtered via the filter2 package
+            continue;
+          }
+
+          if (record == null) {
+            // only happens with FilteredRecordReader at end of block
+            break;
+          }
+
+          records.add(record);
+          if (records.size() == CHUNK_SIZE) {
+            put(rowGroup.chunks, new Chunk<T>(rowGroup, records, false));
+            records = new ArrayList<T>(CHUNK_SIZE);
+          }
+        }
+
+        if (!records.isEmpty()) {
+          put(rowGroup.chunks, new Chunk<T>(rowGroup, records, false));
+        }
+      } finally {
+        blockReader.close();
+      }
+    }
+  }
+}
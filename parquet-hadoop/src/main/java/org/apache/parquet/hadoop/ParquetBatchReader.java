@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.parquet.Preconditions;
+import org.apache.parquet.VersionParser;
+import org.apache.parquet.VersionParser.ParsedVersion;
+import org.apache.parquet.VersionParser.VersionParseException;
+import org.apache.parquet.column.ColumnBatch;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnReader;
+import org.apache.parquet.column.impl.ColumnReaderImpl;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.io.ParquetDecodingException;
+import org.apache.parquet.io.api.PrimitiveConverter;
+import org.apache.parquet.schema.MessageType;
+
+/**
+ * Reads the columns of a {@link ParquetFileReader} in batches of values
+ * instead of materializing records, for engines that process columns in
+ * tight loops.
+ *
+ * Each call to {@link #nextBatch()} refills the same {@link ColumnBatch}
+ * instances, one per column of the requested schema, with the next rows.
+ * Batches do not span row groups, so a batch can have fewer rows than the
+ * batch size at the end of a row group. Only schemas without repeated fields
+ * are supported, see {@link #isSupported(MessageType)}; repeated columns can be
+ * read in batches of values with {@link ColumnBatch} directly.
+ */
+public class ParquetBatchReader implements Closeable {
+
+  // batch reads bypass the converters
+  private static final PrimitiveConverter NO_OP_CONVERTER = new PrimitiveConverter() {
+  };
+
+  private final ParquetFileReader reader;
+  private final ParsedVersion writerVersion;
+  private final List<ColumnDescriptor> columns;
+  private final ColumnBatch[] batches;
+  private final ColumnReader[] columnReaders;
+  private final int batchSize;
+  private long rowsLeftInRowGroup = 0;
+
+  /**
+   * @param reader an open file reader, which is closed with this reader
+   * @param requestedSchema the columns to read
+   * @param batchSize the maximum number of rows in a batch
+   */
+  public ParquetBatchReader(ParquetFileReader reader, MessageType requestedSchema, int batchSize) {
+    Preconditions.checkArgument(batchSize > 0, "Invalid batch size: %s", batchSize);
+    Preconditions.checkArgument(isSupported(requestedSchema),
+        "Cannot read batches of rows with repeated columns: %s", requestedSchema);
+    this.reader = reader;
+    this.batchSize = batchSize;
+    this.columns = requestedSchema.getColumns();
+    this.batches = new ColumnBatch[columns.size()];
+    this.columnReaders = new ColumnReader[columns.size()];
+    for (int i = 0; i < batches.length; ++i) {
+      batches[i] = new ColumnBatch(columns.get(i), batchSize);
+    }
+    reader.setRequestedSchema(requestedSchema);
+
+    ParsedVersion version;
+    try {
+      version = VersionParser.parse(reader.getFileMetaData().getCreatedBy());
+    } catch (RuntimeException e) {
+      version = null;
+    } catch (VersionParseException e) {
+      version = null;
+    }
+    this.writerVersion = version;
+  }
+
+  /**
+   * Batches hold the same rows in every column, so the columns must have one
+   * value per row.
+   *
+   * @param requestedSchema the columns to read
+   * @return whether the columns can be read with this reader
+   */
+  public static boolean isSupported(MessageType requestedSchema) {
+    for (ColumnDescriptor column : requestedSchema.getColumns()) {
+      if (column.getMaxRepetitionLevel() > 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return the batches of the requested columns, in schema order
+   */
+  public ColumnBatch[] getBatches() {
+    return batches;
+  }
+
+  /**
+   * Fills the batches with the next rows.
+   *
+   * @return the number of rows in the batches or 0 when all rows were read
+   * @throws IOException if an error occurs while reading a row group
+   */
+  public int nextBatch() throws IOException {
+    while (rowsLeftInRowGroup == 0) {
+      PageReadStore rowGroup = reader.readNextFilteredRowGroup();
+      if (rowGroup == null) {
+        return 0;
+      }
+      for (int i = 0; i < columnReaders.length; ++i) {
+        ColumnDescriptor column = columns.get(i);
+        columnReaders[i] = new ColumnReaderImpl(
+            column, rowGroup.getPageReader(column), NO_OP_CONVERTER, writerVersion);
+      }
+      rowsLeftInRowGroup = rowGroup.getRowCount();
+    }
+
+    int rows = (int) Math.min(batchSize, rowsLeftInRowGroup);
+    for (int i = 0; i < batches.length; ++i) {
+      int read = batches[i].read(columnReaders[i], rows);
+      if (read != rows) {
+        throw new ParquetDecodingException("Expected " + rows + " values in column " +
+            columns.get(i) + " but only found " + read);
+      }
+    }
+    rowsLeftInRowGroup -= rows;
+    return rows;
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+}
@@ -19,6 +19,7 @@
 package org.apache.parquet.hadoop;
 
 import static org.apache.parquet.bytes.BytesUtils.readIntLittleEndian;
+import static org.apache.parquet.filter2.compat.RowGroupFilter.FilterLevel.BLOOMFILTER;
 import static org.apache.parquet.filter2.compat.RowGroupFilter.FilterLevel.DICTIONARY;
 import static org.apache.parquet.filter2.compat.RowGroupFilter.FilterLevel.STATISTICS;
 import static org.apache.parquet.format.converter.ParquetMetadataConverter.NO_FILTER;
@@ -26,8 +27,18 @@ import static org.apache.parquet.format.converter.ParquetMetadataConverter.SKIP_
 import static org.apache.parquet.hadoop.ParquetFileWriter.MAGIC;
 import static org.apache.parquet.hadoop.ParquetFileWriter.PARQUET_COMMON_METADATA_FILE;
 import static org.apache.parquet.hadoop.ParquetFileWriter.PARQUET_METADATA_FILE;
+import static org.apache.parquet.hadoop.ParquetInputFormat.COLUMN_INDEX_FILTERING_ENABLED;
+import static org.apache.parquet.hadoop.ParquetInputFormat.COLUMN_INDEX_FILTERING_ENABLED_DEFAULT;
+import static org.apache.parquet.hadoop.ParquetInputFormat.BLOOM_FILTERING_ENABLED;
+import static org.apache.parquet.hadoop.ParquetInputFormat.BLOOM_FILTERING_ENABLED_DEFAULT;
 import static org.apache.parquet.hadoop.ParquetInputFormat.DICTIONARY_FILTERING_ENABLED;
 import static org.apache.parquet.hadoop.ParquetInputFormat.DICTIONARY_FILTERING_ENABLED_DEFAULT;
+import static org.apache.parquet.hadoop.ParquetInputFormat.PREFETCH_ENABLED;
+import static org.apache.parquet.hadoop.ParquetInputFormat.PREFETCH_ENABLED_DEFAULT;
+import static org.apache.parquet.hadoop.ParquetInputFormat.PREFETCH_MAX_BYTES;
+import static org.apache.parquet.hadoop.ParquetInputFormat.PREFETCH_MAX_BYTES_DEFAULT;
+import static org.apache.parquet.hadoop.ParquetInputFormat.PREFETCH_THREADS;
+import static org.apache.parquet.hadoop.ParquetInputFormat.PREFETCH_THREADS_DEFAULT;
 import static org.apache.parquet.hadoop.ParquetInputFormat.STATS_FILTERING_ENABLED;
 import static org.apache.parquet.hadoop.ParquetInputFormat.STATS_FILTERING_ENABLED_DEFAULT;
 
@@ -57,13 +68,21 @@ import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 
+import org.apache.parquet.Ints;
 import org.apache.parquet.bytes.ByteBufferAllocator;
 import org.apache.parquet.bytes.ByteBufferInputStream;
 import org.apache.parquet.bytes.HeapByteBufferAllocator;
 import org.apache.parquet.column.Encoding;
+import org.apache.parquet.column.columnindex.ColumnIndex;
+import org.apache.parquet.column.columnindex.OffsetIndex;
+import org.apache.parquet.column.columnindex.RowRanges;
 import org.apache.parquet.column.page.DictionaryPageReadStore;
+import org.apache.parquet.column.values.bloomfilter.BlockSplitBloomFilter;
 import org.apache.parquet.filter2.compat.FilterCompat;
 import org.apache.parquet.filter2.compat.RowGroupFilter;
+import org.apache.parquet.filter2.columnindex.ColumnIndexFilter;
+import org.apache.parquet.filter2.columnindex.ColumnIndexFilter.ColumnIndexStore;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
 
 import org.apache.parquet.bytes.BytesInput;
 import org.apache.parquet.column.ColumnDescriptor;
@@ -85,6 +104,7 @@ import org.apache.parquet.hadoop.ColumnChunkPageReadStore.ColumnChunkPageReader;
 import org.apache.parquet.hadoop.metadata.BlockMetaData;
 import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
 import org.apache.parquet.hadoop.metadata.FileMetaData;
+import org.apache.parquet.hadoop.metadata.IndexReference;
 import org.apache.parquet.hadoop.metadata.ParquetMetadata;
 import org.apache.parquet.hadoop.util.HadoopInputFile;
 import org.apache.parquet.hadoop.util.HiddenFileFilter;
@@ -93,6 +113,7 @@ import org.apache.parquet.io.SeekableInputStream;
 import org.apache.parquet.hadoop.util.counters.BenchmarkCounter;
 import org.apache.parquet.io.ParquetDecodingException;
 import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.LocalInputFile;
 import org.apache.parquet.schema.MessageType;
 import org.apache.parquet.schema.PrimitiveType;
 import org.slf4j.Logger;
@@ -211,7 +232,7 @@ public class ParquetFileReader implements Closeable {
     return result;
   }
 
-  private static <T> List<T> runAllInParallel(int parallelism, List<Callable<T>> toRun) throws ExecutionException {
+  static <T> List<T> runAllInParallel(int parallelism, List<Callable<T>> toRun) throws ExecutionException {
     LOG.info("Initiating action with parallelism: {}", parallelism);
     ExecutorService threadPool = Executors.newFixedThreadPool(parallelism);
     try {
@@ -325,7 +346,7 @@ public class ParquetFileReader implements Closeable {
     return readAllFootersInParallelUsingSummaryFiles(configuration, files, skipRowGroups);
   }
 
-  private static List<FileStatus> listFiles(Configuration conf, FileStatus fileStatus) throws IOException {
+  static List<FileStatus> listFiles(Configuration conf, FileStatus fileStatus) throws IOException {
     if (fileStatus.isDir()) {
       FileSystem fs = fileStatus.getPath().getFileSystem(conf);
       FileStatus[] list = fs.listStatus(fileStatus.getPath(), HiddenFileFilter.INSTANCE);
@@ -504,9 +525,32 @@ public class ParquetFileReader implements Closeable {
     return new ParquetFileReader(conf, file, footer);
   }
 
+  public static ParquetFileReader open(InputFile file) throws IOException {
+    return new ParquetFileReader(file, NO_FILTER);
+  }
+
+  public static ParquetFileReader open(InputFile file, MetadataFilter filter) throws IOException {
+    return new ParquetFileReader(file, filter);
+  }
+
+  /**
+   * Opens a file, using a footer from the given cache if it is present.
+   *
+   * @param conf the Hadoop Configuration used for reader settings
+   * @param file an {@link InputFile} for a parquet file
+   * @param filter a {@link MetadataFilter} for selecting row groups
+   * @param footerCache a cache of parsed footers
+   * @return a reader for the file
+   * @throws IOException if the file can not be opened
+   */
+  public static ParquetFileReader open(Configuration conf, InputFile file, MetadataFilter filter,
+                                       FooterCache footerCache) throws IOException {
+    return new ParquetFileReader(conf, file, footerCache.getFooter(file, filter));
+  }
+
   private final CodecFactory codecFactory;
   private final SeekableInputStream f;
-  private final FileStatus fileStatus;
+  private final InputFile file;
   private final Map<ColumnPath, ColumnDescriptor> paths = new HashMap<ColumnPath, ColumnDescriptor>();
   private final FileMetaData fileMetaData; // may be null
   private final ByteBufferAllocator allocator;
@@ -521,6 +565,20 @@ public class ParquetFileReader implements Closeable {
   private ColumnChunkPageReadStore currentRowGroup = null;
   private DictionaryPageReader nextDictionaryReader = null;
 
+  // set by filterRowGroups when the column indexes can be used to skip pages
+  private FilterPredicate columnIndexPredicate = null;
+  private RowGroupIndexStore[] indexStores = null;
+  private RowRanges[] rowRanges = null;
+
+  // set when the column chunks of the next row group are read in the background
+  private final ExecutorService prefetchExecutor;
+  private final long prefetchMaxBytes;
+  private PrefetchedRowGroup prefetchedRowGroup = null;
+
+  // shares decompressed dictionaries with other readers of the file if not null
+  private final DictionaryCache dictionaryCache;
+  private FooterCache.Key fileKey = null;
+
   /**
    * @deprecated use @link{ParquetFileReader(Configuration configuration, FileMetaData fileMetaData,
    * Path filePath, List<BlockMetaData> blocks, List<ColumnDescriptor> columns)} instead
@@ -543,9 +601,8 @@ public class ParquetFileReader implements Closeable {
     this.converter = new ParquetMetadataConverter(configuration);
     this.conf = configuration;
     this.fileMetaData = fileMetaData;
-    FileSystem fs = filePath.getFileSystem(configuration);
-    this.f = HadoopStreams.wrap(fs.open(filePath));
-    this.fileStatus = fs.getFileStatus(filePath);
+    this.file = HadoopInputFile.fromPath(filePath, configuration);
+    this.f = file.newStream();
     this.blocks = blocks;
     for (ColumnDescriptor col : columns) {
       paths.put(ColumnPath.get(col.getPath()), col);
@@ -554,6 +611,9 @@ public class ParquetFileReader implements Closeable {
     // the codec factory to get decompressors
     this.codecFactory = new CodecFactory(configuration, 0);
     this.allocator = new HeapByteBufferAllocator();
+    this.prefetchExecutor = newPrefetchExecutor(configuration);
+    this.prefetchMaxBytes = configuration.getLong(PREFETCH_MAX_BYTES, PREFETCH_MAX_BYTES_DEFAULT);
+    this.dictionaryCache = DictionaryCache.getSharedCache(configuration);
   }
 
   /**
@@ -572,12 +632,39 @@ public class ParquetFileReader implements Closeable {
    * @throws IOException if the file can not be opened
    */
   public ParquetFileReader(Configuration conf, Path file, MetadataFilter filter) throws IOException {
+    this(conf, HadoopInputFile.fromPath(file, conf), filter);
+  }
+
+  /**
+   * Opens a file without a Hadoop Configuration. Settings are read from the
+   * file's Configuration if it is a {@link HadoopInputFile} and otherwise the
+   * defaults are used.
+   *
+   * @param file an {@link InputFile} for a parquet file
+   * @param filter a {@link MetadataFilter} for selecting row groups
+   * @throws IOException if the file can not be opened
+   */
+  public ParquetFileReader(InputFile file, MetadataFilter filter) throws IOException {
+    this(getConfiguration(file), file, filter);
+  }
+
+  /**
+   * @param conf the Hadoop Configuration used for reader settings
+   * @param file an {@link InputFile} for a parquet file
+   * @param filter a {@link MetadataFilter} for selecting row groups
+   * @throws IOException if the file can not be opened
+   */
+  public ParquetFileReader(Configuration conf, InputFile file, MetadataFilter filter) throws IOException {
     this.converter = new ParquetMetadataConverter(conf);
     this.conf = conf;
-    FileSystem fs = file.getFileSystem(conf);
-    this.fileStatus = fs.getFileStatus(file);
-    this.f = HadoopStreams.wrap(fs.open(file));
-    this.footer = readFooter(converter, fileStatus.getLen(), fileStatus.getPath().toString(), f, filter);
+    this.file = file;
+    this.f = file.newStream();
+    FooterCache footerCache = FooterCache.getSharedCache(conf);
+    if (footerCache != null) {
+      this.footer = footerCache.getFooter(file, filter);
+    } else {
+      this.footer = readFooter(converter, file.getLength(), file.toString(), f, filter);
+    }
     this.fileMetaData = footer.getFileMetaData();
     this.blocks = footer.getBlocks();
     for (ColumnDescriptor col : footer.getFileMetaData().getSchema().getColumns()) {
@@ -587,6 +674,9 @@ public class ParquetFileReader implements Closeable {
     // the codec factory to get decompressors
     this.codecFactory = new CodecFactory(conf, 0);
     this.allocator = new HeapByteBufferAllocator();
+    this.prefetchExecutor = newPrefetchExecutor(conf);
+    this.prefetchMaxBytes = conf.getLong(PREFETCH_MAX_BYTES, PREFETCH_MAX_BYTES_DEFAULT);
+    this.dictionaryCache = DictionaryCache.getSharedCache(conf);
   }
 
   /**
@@ -596,11 +686,20 @@ public class ParquetFileReader implements Closeable {
    * @throws IOException if the file can not be opened
    */
   public ParquetFileReader(Configuration conf, Path file, ParquetMetadata footer) throws IOException {
+    this(conf, HadoopInputFile.fromPath(file, conf), footer);
+  }
+
+  /**
+   * @param conf the Hadoop Configuration used for reader settings
+   * @param file an {@link InputFile} for a parquet file
+   * @param footer a {@link ParquetMetadata} footer already read from the file
+   * @throws IOException if the file can not be opened
+   */
+  public ParquetFileReader(Configuration conf, InputFile file, ParquetMetadata footer) throws IOException {
     this.converter = new ParquetMetadataConverter(conf);
     this.conf = conf;
-    FileSystem fs = file.getFileSystem(conf);
-    this.fileStatus = fs.getFileStatus(file);
-    this.f = HadoopStreams.wrap(fs.open(file));
+    this.file = file;
+    this.f = file.newStream();
     this.footer = footer;
     this.fileMetaData = footer.getFileMetaData();
     this.blocks = footer.getBlocks();
@@ -611,13 +710,35 @@ public class ParquetFileReader implements Closeable {
     // the codec factory to get decompressors
     this.codecFactory = new CodecFactory(conf, 0);
     this.allocator = new HeapByteBufferAllocator();
+    this.prefetchExecutor = newPrefetchExecutor(conf);
+    this.prefetchMaxBytes = conf.getLong(PREFETCH_MAX_BYTES, PREFETCH_MAX_BYTES_DEFAULT);
+    this.dictionaryCache = DictionaryCache.getSharedCache(conf);
+  }
+
+  private static Configuration getConfiguration(InputFile file) {
+    if (file instanceof HadoopInputFile) {
+      return ((HadoopInputFile) file).getConfiguration();
+    }
+    // reader settings are not loaded from the environment for non-Hadoop files
+    return new Configuration(false);
+  }
+
+  private static ExecutorService newPrefetchExecutor(Configuration conf) {
+    if (!conf.getBoolean(PREFETCH_ENABLED, PREFETCH_ENABLED_DEFAULT)) {
+      return null;
+    }
+    int threads = conf.getInt(PREFETCH_THREADS, PREFETCH_THREADS_DEFAULT);
+    if (threads <= 0) {
+      throw new IllegalArgumentException("Invalid number of prefetch threads: " + threads);
+    }
+    return Executors.newFixedThreadPool(threads, new DaemonThreadFactory("parquet-prefetch"));
   }
 
   public ParquetMetadata getFooter() {
     if (footer == null) {
       try {
         // don't read the row groups because this.blocks is always set
-        this.footer = readFooter(converter, fileStatus.getLen(), fileStatus.getPath().toString(), f, SKIP_ROW_GROUPS);
+        this.footer = readFooter(converter, file.getLength(), file.toString(), f, SKIP_ROW_GROUPS);
       } catch (IOException e) {
         throw new ParquetDecodingException("Unable to read file footer", e);
       }
@@ -641,10 +762,19 @@ public class ParquetFileReader implements Closeable {
   }
 
   public Path getPath() {
-    return fileStatus.getPath();
+    if (file instanceof HadoopInputFile) {
+      return ((HadoopInputFile) file).getPath();
+    }
+    return new Path(file.toString());
+  }
+
+  public InputFile getFile() {
+    return file;
   }
 
   void filterRowGroups(FilterCompat.Filter filter) throws IOException {
+    cancelPrefetch();
+
     // set up data filters based on configured levels
     List<RowGroupFilter.FilterLevel> levels = new ArrayList<RowGroupFilter.FilterLevel>();
 
@@ -658,7 +788,40 @@ public class ParquetFileReader implements Closeable {
       levels.add(DICTIONARY);
     }
 
+    if (conf.getBoolean(
+        BLOOM_FILTERING_ENABLED, BLOOM_FILTERING_ENABLED_DEFAULT)) {
+      levels.add(BLOOMFILTER);
+    }
+
     this.blocks = RowGroupFilter.filterRowGroups(levels, filter, blocks, this);
+
+    this.columnIndexPredicate = null;
+    this.indexStores = null;
+    this.rowRanges = null;
+    if (filter instanceof FilterCompat.FilterPredicateCompat && conf.getBoolean(
+        COLUMN_INDEX_FILTERING_ENABLED, COLUMN_INDEX_FILTERING_ENABLED_DEFAULT)) {
+      this.columnIndexPredicate = ((FilterCompat.FilterPredicateCompat) filter).getFilterPredicate();
+      this.indexStores = new RowGroupIndexStore[blocks.size()];
+      this.rowRanges = new RowRanges[blocks.size()];
+    }
+  }
+
+  /**
+   * Returns the number of rows that {@link #readNextFilteredRowGroup()} will
+   * return. This is the same as {@link #getRecordCount()} unless the column
+   * indexes of the file allow to skip some of the pages.
+   *
+   * @return the number of rows in the remaining pages of the row groups
+   */
+  public long getFilteredRecordCount() {
+    if (columnIndexPredicate == null) {
+      return getRecordCount();
+    }
+    long total = 0;
+    for (int i = 0; i < blocks.size(); i += 1) {
+      total += getRowRanges(i).rowCount();
+    }
+    return total;
   }
 
   public List<BlockMetaData> getRowGroups() {
@@ -666,6 +829,7 @@ public class ParquetFileReader implements Closeable {
   }
 
   public void setRequestedSchema(MessageType projection) {
+    cancelPrefetch();
     paths.clear();
     for (ColumnDescriptor col : projection.getColumns()) {
       paths.put(ColumnPath.get(col.getPath()), col);
@@ -690,13 +854,61 @@ public class ParquetFileReader implements Closeable {
       throw new RuntimeException("Illegal row group of 0 rows");
     }
     this.currentRowGroup = new ColumnChunkPageReadStore(block.getRowCount());
-    // prepare the list of consecutive chunks to read them in one scan
+    for (ColumnChunkMetaData mc : block.getColumns()) {
+      if (paths.containsKey(mc.getPath())) {
+        BenchmarkCounter.incrementTotalBytes(mc.getTotalSize());
+      }
+    }
+
+    if (prefetchExecutor != null) {
+      PrefetchedRowGroup rowGroup = prefetchedRowGroup;
+      if (rowGroup == null || rowGroup.blockIndex != currentBlock) {
+        cancelPrefetch();
+        rowGroup = new PrefetchedRowGroup(currentBlock);
+      }
+      this.prefetchedRowGroup = null;
+      // start reading the next row group while this one is consumed
+      prefetchRowGroup(currentBlock + 1, rowGroup.length);
+      List<ConsecutiveChunkList> allChunks = rowGroup.chunkLists;
+      for (int i = 0; i < allChunks.size(); i += 1) {
+        ConsecutiveChunkList consecutiveChunks = allChunks.get(i);
+        ByteBuffer chunksByteBuffer = rowGroup.getBuffer(i);
+        // counters are updated by the reading thread only
+        BenchmarkCounter.incrementBytesRead(consecutiveChunks.length);
+        // the last chunk may need to read past the end of the list
+        f.seek(consecutiveChunks.endPos());
+        for (Chunk chunk : consecutiveChunks.toChunks(chunksByteBuffer, f)) {
+          currentRowGroup.addColumn(chunk.descriptor.col, chunk.readAllPages());
+        }
+      }
+    } else {
+      // actually read all the chunks
+      for (ConsecutiveChunkList consecutiveChunks : getChunkLists(block)) {
+        final List<Chunk> chunks = consecutiveChunks.readAll(f);
+        for (Chunk chunk : chunks) {
+          currentRowGroup.addColumn(chunk.descriptor.col, chunk.readAllPages());
+        }
+      }
+    }
+
+    // avoid re-reading bytes the dictionary reader is used after this call
+    if (nextDictionaryReader != null) {
+      nextDictionaryReader.setRowGroup(currentRowGroup);
+    }
+
+    advanceToNextBlock();
+
+    return currentRowGroup;
+  }
+
+  /**
+   * prepares the list of consecutive chunks of a row group to read them in one scan
+   */
+  private List<ConsecutiveChunkList> getChunkLists(BlockMetaData block) {
     List<ConsecutiveChunkList> allChunks = new ArrayList<ConsecutiveChunkList>();
     ConsecutiveChunkList currentChunks = null;
     for (ColumnChunkMetaData mc : block.getColumns()) {
-      ColumnPath pathKey = mc.getPath();
-      BenchmarkCounter.incrementTotalBytes(mc.getTotalSize());
-      ColumnDescriptor columnDescriptor = paths.get(pathKey);
+      ColumnDescriptor columnDescriptor = paths.get(mc.getPath());
       if (columnDescriptor != null) {
         long startingPos = mc.getStartingPos();
         // first chunk or not consecutive => new list
@@ -707,11 +919,81 @@ public class ParquetFileReader implements Closeable {
         currentChunks.addChunk(new ChunkDescriptor(columnDescriptor, mc, startingPos, (int)mc.getTotalSize()));
       }
     }
-    // actually read all the chunks
-    for (ConsecutiveChunkList consecutiveChunks : allChunks) {
-      final List<Chunk> chunks = consecutiveChunks.readAll(f);
-      for (Chunk chunk : chunks) {
-        currentRowGroup.addColumn(chunk.descriptor.col, chunk.readAllPages());
+    return allChunks;
+  }
+
+  /**
+   * Starts reading a row group in the background if it is read in full and if
+   * it fits in the prefetch memory budget along with the bytes in use.
+   */
+  private void prefetchRowGroup(int blockIndex, long bytesInUse) {
+    if (blockIndex >= blocks.size()) {
+      return;
+    }
+    BlockMetaData block = blocks.get(blockIndex);
+    if (columnIndexPredicate != null &&
+        getRowRanges(blockIndex).rowCount() != block.getRowCount()) {
+      // filtered row groups only read some of the pages
+      return;
+    }
+    long length = 0;
+    for (ConsecutiveChunkList chunkList : getChunkLists(block)) {
+      length += chunkList.length;
+    }
+    if (bytesInUse + length > prefetchMaxBytes) {
+      LOG.debug("not prefetching row group {}: {} bytes exceed the budget", blockIndex, length);
+      return;
+    }
+    this.prefetchedRowGroup = new PrefetchedRowGroup(blockIndex);
+  }
+
+  private void cancelPrefetch() {
+    if (prefetchedRowGroup != null) {
+      prefetchedRowGroup.cancel();
+      prefetchedRowGroup = null;
+    }
+  }
+
+  /**
+   * Reads the pages of the requested columns from the row group at the
+   * current file position, skipping the pages that the column indexes show
+   * can not match the filter passed to filterRowGroups. Row groups where no
+   * page can match are skipped entirely.
+   *
+   * Each column only returns the pages that contain some of the selected rows
+   * and its readers skip the values of the other rows of those pages, so the
+   * returned PageReadStore can be used as a regular row group that only
+   * contains the selected rows.
+   *
+   * @throws IOException if an error occurs while reading
+   * @return the PageReadStore which can provide PageReaders for each column
+   *         or null if there are no more row groups to read
+   */
+  public PageReadStore readNextFilteredRowGroup() throws IOException {
+    if (columnIndexPredicate == null) {
+      return readNextRowGroup();
+    }
+    while (currentBlock < blocks.size() && getRowRanges(currentBlock).isEmpty()) {
+      advanceToNextBlock();
+    }
+    if (currentBlock == blocks.size()) {
+      return null;
+    }
+    BlockMetaData block = blocks.get(currentBlock);
+    RowRanges ranges = getRowRanges(currentBlock);
+    if (ranges.rowCount() == block.getRowCount()) {
+      return readNextRowGroup();
+    }
+
+    RowGroupIndexStore indexStore = getIndexStore(currentBlock);
+    this.currentRowGroup = new ColumnChunkPageReadStore(ranges.rowCount());
+    for (ColumnChunkMetaData mc : block.getColumns()) {
+      ColumnDescriptor columnDescriptor = paths.get(mc.getPath());
+      if (columnDescriptor != null) {
+        BenchmarkCounter.incrementTotalBytes(mc.getTotalSize());
+        OffsetIndex offsetIndex = indexStore.getOffsetIndex(mc.getPath());
+        Chunk chunk = readFilteredChunk(columnDescriptor, mc, offsetIndex, ranges, block.getRowCount());
+        currentRowGroup.addColumn(columnDescriptor, chunk.readAllPages());
       }
     }
 
@@ -725,6 +1007,146 @@ public class ParquetFileReader implements Closeable {
     return currentRowGroup;
   }
 
+  /**
+   * Reads the dictionary page and the data pages overlapping the given rows of
+   * a column chunk into a single buffer.
+   */
+  private Chunk readFilteredChunk(ColumnDescriptor columnDescriptor, ColumnChunkMetaData mc,
+                                  OffsetIndex offsetIndex, RowRanges ranges, long rowCount) throws IOException {
+    // the dictionary page (if any) is stored before the first data page
+    List<long[]> regions = new ArrayList<long[]>();
+    List<Long> firstRowIndexes = new ArrayList<Long>();
+    long dictionaryLength = offsetIndex.getOffset(0) - mc.getStartingPos();
+    if (dictionaryLength > 0) {
+      regions.add(new long[] { mc.getStartingPos(), dictionaryLength });
+    }
+    for (int i = 0; i < offsetIndex.getPageCount(); i += 1) {
+      if (ranges.isOverlapping(offsetIndex.getFirstRowIndex(i), offsetIndex.getLastRowIndex(i, rowCount))) {
+        firstRowIndexes.add(offsetIndex.getFirstRowIndex(i));
+        long offset = offsetIndex.getOffset(i);
+        long length = offsetIndex.getCompressedPageSize(i);
+        long[] last = regions.isEmpty() ? null : regions.get(regions.size() - 1);
+        if (last != null && last[0] + last[1] == offset) {
+          // consecutive pages are read at once
+          last[1] += length;
+        } else {
+          regions.add(new long[] { offset, length });
+        }
+      }
+    }
+
+    long totalLength = 0;
+    for (long[] region : regions) {
+      totalLength += region[1];
+    }
+    int size = Ints.checkedCast(totalLength);
+    ByteBuffer buffer = allocator.allocate(size);
+    for (long[] region : regions) {
+      f.seek(region[0]);
+      buffer.limit(buffer.position() + (int) region[1]);
+      f.readFully(buffer);
+    }
+    // report in a counter the data we just scanned
+    BenchmarkCounter.incrementBytesRead(size);
+
+    return new FilteredChunk(new ChunkDescriptor(columnDescriptor, mc, mc.getStartingPos(), size), buffer,
+        ranges, firstRowIndexes);
+  }
+
+  private RowRanges getRowRanges(int blockIndex) {
+    if (rowRanges[blockIndex] == null) {
+      BlockMetaData block = blocks.get(blockIndex);
+      RowGroupIndexStore indexStore = getIndexStore(blockIndex);
+      if (hasOffsetIndexes(indexStore, block)) {
+        rowRanges[blockIndex] = ColumnIndexFilter.calculateRowRanges(
+            columnIndexPredicate, indexStore, block.getRowCount());
+      } else {
+        // the pages of some columns are unknown: read the whole row group
+        rowRanges[blockIndex] = RowRanges.all(block.getRowCount());
+      }
+    }
+    return rowRanges[blockIndex];
+  }
+
+  /**
+   * Returns whether every requested column of the row group has an offset
+   * index, which is needed to read only some of its pages.
+   */
+  private boolean hasOffsetIndexes(RowGroupIndexStore indexStore, BlockMetaData block) {
+    for (ColumnChunkMetaData mc : block.getColumns()) {
+      if (paths.containsKey(mc.getPath()) && indexStore.getOffsetIndex(mc.getPath()) == null) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private RowGroupIndexStore getIndexStore(int blockIndex) {
+    if (indexStores[blockIndex] == null) {
+      indexStores[blockIndex] = new RowGroupIndexStore(blocks.get(blockIndex));
+    }
+    return indexStores[blockIndex];
+  }
+
+  /**
+   * Reads the column index of the given column chunk.
+   *
+   * Returns null if the column chunk has no column index or if it can not be
+   * used for the type of the column.
+   *
+   * @param column a column's ColumnChunkMetaData to read the column index for
+   * @return the column index or null
+   * @throws IOException if an error occurs while reading
+   */
+  public ColumnIndex readColumnIndex(ColumnChunkMetaData column) throws IOException {
+    IndexReference ref = column.getColumnIndexReference();
+    if (ref == null) {
+      return null;
+    }
+    f.seek(ref.getOffset());
+    PrimitiveType type = getFileMetaData().getSchema()
+        .getType(column.getPath().toArray()).asPrimitiveType();
+    return converter.fromParquetColumnIndex(type, Util.readColumnIndex(f));
+  }
+
+  /**
+   * Reads the offset index of the given column chunk.
+   *
+   * @param column a column's ColumnChunkMetaData to read the offset index for
+   * @return the offset index or null if the column chunk has no offset index
+   * @throws IOException if an error occurs while reading
+   */
+  public OffsetIndex readOffsetIndex(ColumnChunkMetaData column) throws IOException {
+    IndexReference ref = column.getOffsetIndexReference();
+    if (ref == null) {
+      return null;
+    }
+    f.seek(ref.getOffset());
+    return ParquetMetadataConverter.fromParquetOffsetIndex(Util.readOffsetIndex(f));
+  }
+
+  /**
+   * Reads the bloom filter of the given column chunk.
+   *
+   * @param column a column's ColumnChunkMetaData to read the bloom filter for
+   * @return the bloom filter or null if the column chunk has no bloom filter
+   * @throws IOException if an error occurs while reading
+   */
+  public BlockSplitBloomFilter readBloomFilter(ColumnChunkMetaData column) throws IOException {
+    IndexReference ref = column.getBloomFilterReference();
+    if (ref == null) {
+      return null;
+    }
+    f.seek(ref.getOffset());
+    byte[] bitset = new byte[ref.getLength()];
+    f.readFully(bitset);
+    return new BlockSplitBloomFilter(bitset);
+  }
+
+  public BloomFilterReader getBloomFilterReader(BlockMetaData block) {
+    return new BloomFilterReader(this, block);
+  }
+
   public boolean skipNextRowGroup() {
     return advanceToNextBlock();
   }
@@ -734,6 +1156,11 @@ public class ParquetFileReader implements Closeable {
       return false;
     }
 
+    // the block was skipped if its prefetched data was not used
+    if (prefetchedRowGroup != null && prefetchedRowGroup.blockIndex == currentBlock) {
+      cancelPrefetch();
+    }
+
     // update the current block and instantiate a dictionary reader for it
     ++currentBlock;
     this.nextDictionaryReader = null;
@@ -793,6 +1220,69 @@ public class ParquetFileReader implements Closeable {
         compressedPage.getEncoding());
   }
 
+  /**
+   * Reads and decompresses a dictionary page that can be read more than once,
+   * using the {@link DictionaryCache} if it is enabled.
+   *
+   * @param meta a column's ColumnChunkMetaData to read the dictionary from
+   * @return an uncompressed DictionaryPage or null
+   * @throws IOException if the dictionary can not be read
+   */
+  DictionaryPage readReusableDictionary(ColumnChunkMetaData meta) throws IOException {
+    FooterCache.Key key = getDictionaryCacheKey();
+    if (key != null) {
+      DictionaryPage cached = dictionaryCache.get(key, meta);
+      if (cached != null) {
+        return cached;
+      }
+    }
+    DictionaryPage dict = readDictionary(meta);
+    if (dict == null) {
+      return null;
+    }
+    dict = dict.copy();
+    if (key != null) {
+      dictionaryCache.put(key, meta, dict);
+    }
+    return dict;
+  }
+
+  /**
+   * @param meta the metadata of a column chunk
+   * @param compressedPage the dictionary page read with the chunk
+   * @param decompressor the decompressor of the chunk
+   * @return the cached dictionary page of the chunk, decompressed and added
+   *         to the cache if needed, or null if the cache is not used
+   * @throws IOException if the page can not be decompressed
+   */
+  private DictionaryPage getCachedDictionary(ColumnChunkMetaData meta, DictionaryPage compressedPage,
+                                             BytesDecompressor decompressor) throws IOException {
+    FooterCache.Key key = getDictionaryCacheKey();
+    if (key == null) {
+      return null;
+    }
+    DictionaryPage cached = dictionaryCache.get(key, meta);
+    if (cached == null) {
+      cached = new DictionaryPage(
+          decompressor.decompress(compressedPage.getBytes(), compressedPage.getUncompressedSize()),
+          compressedPage.getDictionarySize(),
+          compressedPage.getEncoding()).copy();
+      dictionaryCache.put(key, meta, cached);
+    }
+    return cached;
+  }
+
+  /**
+   * @return the key of this file in the dictionary cache, or null if
+   *         dictionaries are not cached
+   */
+  private FooterCache.Key getDictionaryCacheKey() throws IOException {
+    if (dictionaryCache != null && fileKey == null) {
+      this.fileKey = FooterCache.Key.of(file);
+    }
+    return fileKey;
+  }
+
   private DictionaryPage readCompressedDictionary(
       PageHeader pageHeader, SeekableInputStream fin) throws IOException {
     DictionaryPageHeader dictHeader = pageHeader.getDictionary_page_header();
@@ -820,6 +1310,65 @@ public class ParquetFileReader implements Closeable {
       if (codecFactory != null) {
         codecFactory.release();
       }
+      if (prefetchExecutor != null) {
+        cancelPrefetch();
+        prefetchExecutor.shutdownNow();
+      }
+    }
+  }
+
+  /**
+   * The column chunks of a row group that are read in the background, each
+   * list of consecutive chunks with its own stream so that they are read in
+   * parallel.
+   */
+  private class PrefetchedRowGroup {
+
+    private final int blockIndex;
+    private final List<ConsecutiveChunkList> chunkLists;
+    private final List<Future<ByteBuffer>> buffers;
+    private final long length;
+
+    PrefetchedRowGroup(int blockIndex) {
+      this.blockIndex = blockIndex;
+      this.chunkLists = getChunkLists(blocks.get(blockIndex));
+      this.buffers = new ArrayList<Future<ByteBuffer>>(chunkLists.size());
+      long length = 0;
+      for (final ConsecutiveChunkList chunkList : chunkLists) {
+        length += chunkList.length;
+        buffers.add(prefetchExecutor.submit(new Callable<ByteBuffer>() {
+          @Override
+          public ByteBuffer call() throws IOException {
+            SeekableInputStream in = file.newStream();
+            try {
+              return chunkList.read(in);
+            } finally {
+              in.close();
+            }
+          }
+        }));
+      }
+      this.length = length;
+    }
+
+    ByteBuffer getBuffer(int index) throws IOException {
+      try {
+        return buffers.get(index).get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted while reading column chunks", e);
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof IOException) {
+          throw (IOException) e.getCause();
+        }
+        throw new IOException("Failed to read column chunks", e.getCause());
+      }
+    }
+
+    void cancel() {
+      for (Future<ByteBuffer> buffer : buffers) {
+        buffer.cancel(true);
+      }
     }
   }
 
@@ -858,7 +1407,8 @@ public class ParquetFileReader implements Closeable {
       PrimitiveType type = getFileMetaData().getSchema()
           .getType(descriptor.col.getPath()).asPrimitiveType();
       long valuesCountReadSoFar = 0;
-      while (valuesCountReadSoFar < descriptor.metadata.getValueCount()) {
+      int dataPageCount = 0;
+      while (hasMorePages(valuesCountReadSoFar)) {
         PageHeader pageHeader = readPageHeader();
         int uncompressedPageSize = pageHeader.getUncompressed_page_size();
         int compressedPageSize = pageHeader.getCompressed_page_size();
@@ -884,6 +1434,7 @@ public class ParquetFileReader implements Closeable {
                     this.readAsBytesInput(compressedPageSize),
                     dataHeaderV1.getNum_values(),
                     uncompressedPageSize,
+                    getFirstRowIndex(dataPageCount++),
                     converter.fromParquetStatistics(
                         getFileMetaData().getCreatedBy(),
                         dataHeaderV1.getStatistics(),
@@ -902,6 +1453,7 @@ public class ParquetFileReader implements Closeable {
                     dataHeaderV2.getNum_rows(),
                     dataHeaderV2.getNum_nulls(),
                     dataHeaderV2.getNum_values(),
+                    getFirstRowIndex(dataPageCount++),
                     this.readAsBytesInput(dataHeaderV2.getRepetition_levels_byte_length()),
                     this.readAsBytesInput(dataHeaderV2.getDefinition_levels_byte_length()),
                     converter.getEncoding(dataHeaderV2.getEncoding()),
@@ -921,16 +1473,56 @@ public class ParquetFileReader implements Closeable {
             break;
         }
       }
+      verifyValueCount(valuesCountReadSoFar, pagesInChunk.size());
+      BytesDecompressor decompressor = codecFactory.getDecompressor(descriptor.metadata.getCodec());
+      ColumnChunkPageReader pageReader = new ColumnChunkPageReader(
+          decompressor, pagesInChunk, dictionaryPage, getRowRanges());
+      if (dictionaryPage != null) {
+        DictionaryPage cached = getCachedDictionary(descriptor.metadata, dictionaryPage, decompressor);
+        if (cached != null) {
+          pageReader.setDictionaryPage(cached);
+        }
+      }
+      return pageReader;
+    }
+
+    /**
+     * @param dataPageIndex the index of a data page in this chunk
+     * @return the index of the first row of the page or -1 if it is not known
+     */
+    protected long getFirstRowIndex(int dataPageIndex) {
+      return -1;
+    }
+
+    /**
+     * @return the rows to read from the pages of this chunk or null to read all of them
+     */
+    protected RowRanges getRowRanges() {
+      return null;
+    }
+
+    /**
+     * @param valuesCountReadSoFar the number of values in the pages read so far
+     * @return whether there are more pages to read in this chunk
+     */
+    protected boolean hasMorePages(long valuesCountReadSoFar) {
+      return valuesCountReadSoFar < descriptor.metadata.getValueCount();
+    }
+
+    /**
+     * @param valuesCountReadSoFar the number of values in the pages read
+     * @param pageCount the number of pages read
+     * @throws IOException if the pages do not contain all of the values of the chunk
+     */
+    protected void verifyValueCount(long valuesCountReadSoFar, int pageCount) throws IOException {
       if (valuesCountReadSoFar != descriptor.metadata.getValueCount()) {
         // Would be nice to have a CorruptParquetFileException or something as a subclass?
         throw new IOException(
             "Expected " + descriptor.metadata.getValueCount() + " values in column chunk at " +
             getPath() + " offset " + descriptor.metadata.getFirstDataPageOffset() +
-            " but got " + valuesCountReadSoFar + " values instead over " + pagesInChunk.size()
+            " but got " + valuesCountReadSoFar + " values instead over " + pageCount
             + " pages ending at file offset " + (descriptor.fileOffset + pos()));
       }
-      BytesDecompressor decompressor = codecFactory.getDecompressor(descriptor.metadata.getCodec());
-      return new ColumnChunkPageReader(decompressor, pagesInChunk, dictionaryPage);
     }
 
     /**
@@ -1009,6 +1601,97 @@ public class ParquetFileReader implements Closeable {
 
   }
 
+  /**
+   * A column chunk that only contains some of its pages, as selected by the
+   * column indexes. The pages are read until the data is exhausted.
+   */
+  private class FilteredChunk extends Chunk {
+
+    private final RowRanges rowRanges;
+    private final List<Long> firstRowIndexes;
+
+    /**
+     * @param descriptor the descriptor of the chunk, with the size of the selected pages
+     * @param data contains the selected pages of the chunk
+     * @param rowRanges the selected rows of the row group
+     * @param firstRowIndexes the first row index of each selected page
+     */
+    private FilteredChunk(ChunkDescriptor descriptor, ByteBuffer data,
+                          RowRanges rowRanges, List<Long> firstRowIndexes) {
+      super(descriptor, data, 0);
+      this.rowRanges = rowRanges;
+      this.firstRowIndexes = firstRowIndexes;
+    }
+
+    @Override
+    protected long getFirstRowIndex(int dataPageIndex) {
+      return firstRowIndexes.get(dataPageIndex);
+    }
+
+    @Override
+    protected RowRanges getRowRanges() {
+      return rowRanges;
+    }
+
+    @Override
+    protected boolean hasMorePages(long valuesCountReadSoFar) {
+      return this.byteBuf.hasRemaining();
+    }
+
+    @Override
+    protected void verifyValueCount(long valuesCountReadSoFar, int pageCount) {
+      // only some of the pages were read
+    }
+  }
+
+  /**
+   * Provides the column and offset indexes of a row group, reading them from
+   * the file the first time they are requested.
+   */
+  private class RowGroupIndexStore implements ColumnIndexStore {
+
+    private final Map<ColumnPath, ColumnChunkMetaData> columns = new HashMap<ColumnPath, ColumnChunkMetaData>();
+    private final Map<ColumnPath, ColumnIndex> columnIndexes = new HashMap<ColumnPath, ColumnIndex>();
+    private final Map<ColumnPath, OffsetIndex> offsetIndexes = new HashMap<ColumnPath, OffsetIndex>();
+
+    private RowGroupIndexStore(BlockMetaData block) {
+      for (ColumnChunkMetaData column : block.getColumns()) {
+        columns.put(column.getPath(), column);
+      }
+    }
+
+    @Override
+    public ColumnIndex getColumnIndex(ColumnPath path) {
+      ColumnChunkMetaData column = columns.get(path);
+      if (column == null) {
+        return null;
+      }
+      if (!columnIndexes.containsKey(path)) {
+        try {
+          columnIndexes.put(path, readColumnIndex(column));
+        } catch (IOException e) {
+          throw new ParquetDecodingException("Unable to read the column index of column " + path, e);
+        }
+      }
+      return columnIndexes.get(path);
+    }
+
+    @Override
+    public OffsetIndex getOffsetIndex(ColumnPath path) {
+      ColumnChunkMetaData column = columns.get(path);
+      if (column == null) {
+        return null;
+      }
+      if (!offsetIndexes.containsKey(path)) {
+        try {
+          offsetIndexes.put(path, readOffsetIndex(column));
+        } catch (IOException e) {
+          throw new ParquetDecodingException("Unable to read the offset index of column " + path, e);
+        }
+      }
+      return offsetIndexes.get(path);
+    }
+  }
 
   /**
    * information needed to read a column chunk
@@ -1073,15 +1756,40 @@ public class ParquetFileReader implements Closeable {
      * @throws IOException
      */
     public List<Chunk> readAll(SeekableInputStream f) throws IOException {
-      List<Chunk> result = new ArrayList<Chunk>(chunks.size());
-      f.seek(offset);
+      ByteBuffer chunksByteBuffer = read(f);
+      // report in a counter the data we just scanned
+      BenchmarkCounter.incrementBytesRead(length);
+      return toChunks(chunksByteBuffer, f);
+    }
+
+    /**
+     * @param in stream to read the chunks from
+     * @return a buffer with the bytes of the chunks
+     * @throws IOException
+     */
+    ByteBuffer read(SeekableInputStream in) throws IOException {
+      if (file instanceof LocalInputFile) {
+        // use the mapped file region directly instead of copying it
+        ByteBuffer chunksByteBuffer = ((LocalInputFile) file).map(offset, length);
+        in.seek(endPos());
+        return chunksByteBuffer;
+      }
+
+      in.seek(offset);
 
       // Allocate the bytebuffer based on whether the FS can support it.
       ByteBuffer chunksByteBuffer = allocator.allocate(length);
-      f.readFully(chunksByteBuffer);
+      in.readFully(chunksByteBuffer);
+      return chunksByteBuffer;
+    }
 
-      // report in a counter the data we just scanned
-      BenchmarkCounter.incrementBytesRead(length);
+    /**
+     * @param chunksByteBuffer the bytes of the chunks
+     * @param f file positioned at the end of the chunks
+     * @return the chunks
+     */
+    List<Chunk> toChunks(ByteBuffer chunksByteBuffer, SeekableInputStream f) {
+      List<Chunk> result = new ArrayList<Chunk>(chunks.size());
       int currentChunkOffset = 0;
       for (int i = 0; i < chunks.size(); i++) {
         ChunkDescriptor descriptor = chunks.get(i);
@@ -26,6 +26,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
@@ -33,10 +34,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FSDataInputStream;
-import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 
@@ -48,18 +50,27 @@ import org.apache.parquet.bytes.BytesUtils;
 import org.apache.parquet.column.ColumnDescriptor;
 import org.apache.parquet.column.Encoding;
 import org.apache.parquet.column.EncodingStats;
+import org.apache.parquet.column.ParquetProperties;
+import org.apache.parquet.column.columnindex.ColumnIndex;
+import org.apache.parquet.column.columnindex.OffsetIndex;
 import org.apache.parquet.column.page.DictionaryPage;
 import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.column.values.bloomfilter.BlockSplitBloomFilter;
 import org.apache.parquet.hadoop.ParquetOutputFormat.JobSummaryLevel;
 import org.apache.parquet.hadoop.metadata.ColumnPath;
+import org.apache.parquet.format.Util;
 import org.apache.parquet.format.converter.ParquetMetadataConverter;
 import org.apache.parquet.hadoop.metadata.BlockMetaData;
 import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
 import org.apache.parquet.hadoop.metadata.CompressionCodecName;
 import org.apache.parquet.hadoop.metadata.FileMetaData;
 import org.apache.parquet.hadoop.metadata.GlobalMetaData;
+import org.apache.parquet.hadoop.metadata.IndexReference;
 import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.hadoop.util.HadoopOutputFile;
 import org.apache.parquet.hadoop.util.HadoopStreams;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.PositionOutputStream;
 import org.apache.parquet.io.SeekableInputStream;
 import org.apache.parquet.io.ParquetEncodingException;
 import org.apache.parquet.schema.MessageType;
@@ -84,22 +95,19 @@ public class ParquetFileWriter {
   public static final byte[] MAGIC = MAGIC_STR.getBytes(Charset.forName("ASCII"));
   public static final String PARQUET_COMMON_METADATA_FILE = "_common_metadata";
   public static final int CURRENT_VERSION = 1;
+  // footer key of the sorting columns, as dot paths separated by commas, when
+  // the row groups are also sorted across the file
+  public static final String SORTED_FILE_METADATA_KEY = "parquet.sorted.by";
+
+  // footers merged by each thread when merging the footers in parallel
+  static final int MIN_FOOTERS_PER_MERGE = 1000;
 
   // need to supply a buffer size when setting block size. this is the default
   // for hadoop 1 to present. copying it avoids loading DFSConfigKeys.
   private static final int DFS_BUFFER_SIZE_DEFAULT = 4096;
 
   // visible for testing
-  static final Set<String> BLOCK_FS_SCHEMES = new HashSet<String>();
-  static {
-    BLOCK_FS_SCHEMES.add("hdfs");
-    BLOCK_FS_SCHEMES.add("webhdfs");
-    BLOCK_FS_SCHEMES.add("viewfs");
-  }
-
-  private static boolean supportsBlockSize(FileSystem fs) {
-    return BLOCK_FS_SCHEMES.contains(fs.getUri().getScheme());
-  }
+  static final Set<String> BLOCK_FS_SCHEMES = HadoopOutputFile.getBlockFileSystems();
 
   // File creation modes
   public static enum Mode {
@@ -108,14 +116,28 @@ public class ParquetFileWriter {
   }
 
   private final MessageType schema;
-  private final FSDataOutputStream out;
+  private final PositionOutputStream out;
   private final AlignmentStrategy alignment;
+  // converts the footer, with the statistics truncate length of this writer
+  private final ParquetMetadataConverter footerConverter;
 
   // file data
   private List<BlockMetaData> blocks = new ArrayList<BlockMetaData>();
 
+  // page indexes of the column chunks, in the same order as blocks and their columns
+  private final List<List<ColumnIndex>> columnIndexes = new ArrayList<List<ColumnIndex>>();
+  private final List<List<OffsetIndex>> offsetIndexes = new ArrayList<List<OffsetIndex>>();
+  private final List<List<BlockSplitBloomFilter>> bloomFilters = new ArrayList<List<BlockSplitBloomFilter>>();
+
+  // page indexes of the current row group
+  private List<ColumnIndex> currentColumnIndexes;
+  private List<OffsetIndex> currentOffsetIndexes;
+  private List<BlockSplitBloomFilter> currentBloomFilters;
+
   // row group data
   private BlockMetaData currentBlock; // appended to by endColumn
+  private List<ColumnPath> sortingColumns = Collections.emptyList();
+  private boolean sortedFile = false;
 
   // row group data set at the start of a row group
   private long currentRecordCount; // set in startBlock
@@ -134,6 +156,9 @@ public class ParquetFileWriter {
   private long currentChunkValueCount;            // set in startColumn
   private long currentChunkFirstDataPage;         // set in startColumn (out.pos())
   private long currentChunkDictionaryPageOffset;  // set in writeDictionaryPage
+  private ColumnIndex currentColumnIndex;         // set in writeDataPages
+  private OffsetIndex currentOffsetIndex;         // set in writeDataPages
+  private BlockSplitBloomFilter currentBloomFilter; // set in writeBloomFilter
 
   /**
    * Captures the order in which methods should be called
@@ -225,23 +250,60 @@ public class ParquetFileWriter {
                            Path file, Mode mode, long rowGroupSize,
                            int maxPaddingSize)
       throws IOException {
+    this(HadoopOutputFile.fromPath(file, configuration),
+        schema, mode, rowGroupSize, maxPaddingSize);
+  }
+
+  /**
+   * @param file the file to write to
+   * @param schema the schema of the data
+   * @param mode file creation mode
+   * @param rowGroupSize the row group size
+   * @param maxPaddingSize the maximum padding
+   * @throws IOException if the file can not be created
+   */
+  public ParquetFileWriter(OutputFile file, MessageType schema, Mode mode,
+                           long rowGroupSize, int maxPaddingSize)
+      throws IOException {
+    this(file, schema, mode, rowGroupSize, maxPaddingSize,
+        ParquetProperties.DEFAULT_STATISTICS_TRUNCATE_LENGTH);
+  }
+
+  /**
+   * @param file the file to write to
+   * @param schema the schema of the data
+   * @param mode file creation mode
+   * @param rowGroupSize the row group size
+   * @param maxPaddingSize the maximum padding
+   * @param statisticsTruncateLength the length of the bounds written in the
+   *                                 footer instead of binary statistics that
+   *                                 are too large, 0 to drop them
+   * @throws IOException if the file can not be created
+   */
+  public ParquetFileWriter(OutputFile file, MessageType schema, Mode mode,
+                           long rowGroupSize, int maxPaddingSize,
+                           int statisticsTruncateLength)
+      throws IOException {
     TypeUtil.checkValidWriteSchema(schema);
     this.schema = schema;
-    FileSystem fs = file.getFileSystem(configuration);
+    this.footerConverter = new ParquetMetadataConverter(statisticsTruncateLength);
     boolean overwriteFlag = (mode == Mode.OVERWRITE);
 
-    if (supportsBlockSize(fs)) {
+    if (file.supportsBlockSize()) {
       // use the default block size, unless row group size is larger
-      long dfsBlockSize = Math.max(fs.getDefaultBlockSize(file), rowGroupSize);
+      long dfsBlockSize = Math.max(file.defaultBlockSize(), rowGroupSize);
 
       this.alignment = PaddingAlignment.get(
           dfsBlockSize, rowGroupSize, maxPaddingSize);
-      this.out = fs.create(file, overwriteFlag, DFS_BUFFER_SIZE_DEFAULT,
-          fs.getDefaultReplication(file), dfsBlockSize);
+      this.out = overwriteFlag
+          ? file.createOrOverwrite(dfsBlockSize)
+          : file.create(dfsBlockSize);
 
     } else {
       this.alignment = NoAlignment.get(rowGroupSize);
-      this.out = fs.create(file, overwriteFlag);
+      this.out = overwriteFlag
+          ? file.createOrOverwrite(rowGroupSize)
+          : file.create(rowGroupSize);
     }
 
     this.encodingStatsBuilder = new EncodingStats.Builder();
@@ -263,8 +325,9 @@ public class ParquetFileWriter {
     this.schema = schema;
     this.alignment = PaddingAlignment.get(
         rowAndBlockSize, rowAndBlockSize, maxPaddingSize);
-    this.out = fs.create(file, true, DFS_BUFFER_SIZE_DEFAULT,
-        fs.getDefaultReplication(file), rowAndBlockSize);
+    this.footerConverter = metadataConverter;
+    this.out = HadoopStreams.wrap(fs.create(file, true, DFS_BUFFER_SIZE_DEFAULT,
+        fs.getDefaultReplication(file), rowAndBlockSize));
     this.encodingStatsBuilder = new EncodingStats.Builder();
   }
 
@@ -291,7 +354,47 @@ public class ParquetFileWriter {
     alignment.alignForRowGroup(out);
 
     currentBlock = new BlockMetaData();
+    currentBlock.setSortingColumns(sortingColumns);
     currentRecordCount = recordCount;
+    currentColumnIndexes = new ArrayList<ColumnIndex>();
+    currentOffsetIndexes = new ArrayList<OffsetIndex>();
+    currentBloomFilters = new ArrayList<BlockSplitBloomFilter>();
+  }
+
+  /**
+   * declares the columns the rows inside each of the following blocks are
+   * sorted by. The blocks are not known to be sorted against each other.
+   * @param sortingColumns the sorting columns, in ascending order with nulls first
+   */
+  public void setSortingColumns(List<ColumnPath> sortingColumns) {
+    setSortingColumns(sortingColumns, false);
+  }
+
+  /**
+   * declares the columns the rows of the following blocks are sorted by
+   * @param sortingColumns the sorting columns, in ascending order with nulls first
+   * @param sortedFile whether the rows are also sorted across the blocks. The
+   *                   footer then records it if every block of the file
+   *                   declares these sorting columns.
+   */
+  void setSortingColumns(List<ColumnPath> sortingColumns, boolean sortedFile) {
+    this.sortingColumns = new ArrayList<ColumnPath>(sortingColumns);
+    this.sortedFile = sortedFile && !sortingColumns.isEmpty();
+  }
+
+  /**
+   * drops the sorting columns from the blocks already written, the current
+   * block and the following blocks, once the rows turn out not to be sorted
+   */
+  void clearSortingColumns() {
+    this.sortingColumns = Collections.emptyList();
+    this.sortedFile = false;
+    for (BlockMetaData block : blocks) {
+      block.setSortingColumns(sortingColumns);
+    }
+    if (currentBlock != null) {
+      currentBlock.setSortingColumns(sortingColumns);
+    }
   }
 
   /**
@@ -314,6 +417,9 @@ public class ParquetFileWriter {
     currentChunkFirstDataPage = out.getPos();
     compressedLength = 0;
     uncompressedLength = 0;
+    currentColumnIndex = null;
+    currentOffsetIndex = null;
+    currentBloomFilter = null;
     // need to know what type of stats to initialize to
     // better way to do this?
     currentStatistics = Statistics.getStatsBasedOnType(currentChunkType);
@@ -402,6 +508,9 @@ public class ParquetFileWriter {
     state = state.write();
     long beforeHeader = out.getPos();
     LOG.debug("{}: write data page: {} values", beforeHeader, valueCount);
+    // the row count of the page is not known so the chunk can not be indexed
+    currentColumnIndex = null;
+    currentOffsetIndex = null;
     int compressedPageSize = (int)bytes.size();
     metadataConverter.writeDataPageHeader(
         uncompressedPageSize, compressedPageSize,
@@ -437,8 +546,39 @@ public class ParquetFileWriter {
                       Set<Encoding> rlEncodings,
                       Set<Encoding> dlEncodings,
                       List<Encoding> dataEncodings) throws IOException {
+    writeDataPages(bytes, uncompressedTotalPageSize, compressedTotalPageSize, totalStats,
+        rlEncodings, dlEncodings, dataEncodings, null, null);
+  }
+
+  /**
+   * writes a number of pages at once along with their page indexes
+   * @param bytes bytes to be written including page headers
+   * @param uncompressedTotalPageSize total uncompressed size (without page headers)
+   * @param compressedTotalPageSize total compressed size (without page headers)
+   * @param columnIndexBuilder the column index of the pages, may be null
+   * @param offsetIndexBuilder the offset index of the pages relative to the first page, may be null
+   * @throws IOException
+   */
+  void writeDataPages(BytesInput bytes,
+                      long uncompressedTotalPageSize,
+                      long compressedTotalPageSize,
+                      Statistics totalStats,
+                      Set<Encoding> rlEncodings,
+                      Set<Encoding> dlEncodings,
+                      List<Encoding> dataEncodings,
+                      ColumnIndex.Builder columnIndexBuilder,
+                      OffsetIndex.Builder offsetIndexBuilder) throws IOException {
     state = state.write();
     LOG.debug("{}: write data pages", out.getPos());
+    if (offsetIndexBuilder != null) {
+      currentOffsetIndex = offsetIndexBuilder.build(out.getPos());
+      // a column index is useless without the page locations
+      currentColumnIndex = (currentOffsetIndex != null && columnIndexBuilder != null) ?
+          columnIndexBuilder.build() : null;
+    } else {
+      currentOffsetIndex = null;
+      currentColumnIndex = null;
+    }
     long headersSize = bytes.size() - compressedTotalPageSize;
     this.uncompressedLength += uncompressedTotalPageSize + headersSize;
     this.compressedLength += compressedTotalPageSize + headersSize;
@@ -454,6 +594,15 @@ public class ParquetFileWriter {
     currentStatistics = totalStats;
   }
 
+  /**
+   * adds the bloom filter of the current column chunk; it is written after
+   * the page indexes once all blocks are complete
+   * @param bloomFilter the bloom filter built for the current column
+   */
+  public void writeBloomFilter(BlockSplitBloomFilter bloomFilter) {
+    currentBloomFilter = bloomFilter;
+  }
+
   /**
    * end a column (once all rep, def and data have been written)
    * @throws IOException
@@ -473,6 +622,9 @@ public class ParquetFileWriter {
         currentChunkValueCount,
         compressedLength,
         uncompressedLength));
+    currentColumnIndexes.add(currentColumnIndex);
+    currentOffsetIndexes.add(currentOffsetIndex);
+    currentBloomFilters.add(currentBloomFilter);
     this.currentBlock.setTotalByteSize(currentBlock.getTotalByteSize() + uncompressedLength);
     this.uncompressedLength = 0;
     this.compressedLength = 0;
@@ -487,7 +639,13 @@ public class ParquetFileWriter {
     LOG.debug("{}: end block", out.getPos());
     currentBlock.setRowCount(currentRecordCount);
     blocks.add(currentBlock);
+    columnIndexes.add(currentColumnIndexes);
+    offsetIndexes.add(currentOffsetIndexes);
+    bloomFilters.add(currentBloomFilters);
     currentBlock = null;
+    currentColumnIndexes = null;
+    currentOffsetIndexes = null;
+    currentBloomFilters = null;
   }
 
   public void appendFile(Configuration conf, Path file) throws IOException {
@@ -516,6 +674,8 @@ public class ParquetFileWriter {
   public void appendRowGroup(SeekableInputStream from, BlockMetaData rowGroup,
     boolean dropColumns) throws IOException {
     startBlock(rowGroup.getRowCount());
+    // the copied rows are not known to be in order with the other blocks
+    currentBlock.setSortingColumns(Collections.<ColumnPath>emptyList());
 
     Map<String, ColumnChunkMetaData> columnsToCopy =
         new HashMap<String, ColumnChunkMetaData>();
@@ -570,7 +730,7 @@ public class ParquetFileWriter {
         length = 0;
       }
 
-      currentBlock.addColumn(ColumnChunkMetaData.get(
+      ColumnChunkMetaData copied = ColumnChunkMetaData.get(
           chunk.getPath(),
           chunk.getType(),
           chunk.getCodec(),
@@ -581,7 +741,13 @@ public class ParquetFileWriter {
           newChunkStart,
           chunk.getValueCount(),
           chunk.getTotalSize(),
-          chunk.getTotalUncompressedSize()));
+          chunk.getTotalUncompressedSize());
+      copied.setBinaryBounds(chunk.getBinaryLowerBound(), chunk.getBinaryUpperBound());
+      currentBlock.addColumn(copied);
+      // page indexes and bloom filters are not copied
+      currentColumnIndexes.add(null);
+      currentOffsetIndexes.add(null);
+      currentBloomFilters.add(null);
 
       blockCompressedSize += chunk.getTotalSize();
     }
@@ -609,7 +775,7 @@ public class ParquetFileWriter {
    * @param length the number of bytes to copy
    * @throws IOException
    */
-  private static void copy(SeekableInputStream from, FSDataOutputStream to,
+  private static void copy(SeekableInputStream from, PositionOutputStream to,
                            long start, long length) throws IOException{
     LOG.debug("Copying {} bytes at {} to {}" ,length , start , to.getPos());
     from.seek(start);
@@ -636,15 +802,108 @@ public class ParquetFileWriter {
    */
   public void end(Map<String, String> extraMetaData) throws IOException {
     state = state.end();
+    serializeColumnIndexes(columnIndexes, blocks, out);
+    serializeOffsetIndexes(offsetIndexes, blocks, out);
+    serializeBloomFilters(bloomFilters, blocks, out);
     LOG.debug("{}: end", out.getPos());
+    if (isSortedFile()) {
+      extraMetaData = new HashMap<String, String>(extraMetaData);
+      extraMetaData.put(SORTED_FILE_METADATA_KEY, toSortedFileValue(sortingColumns));
+    }
     ParquetMetadata footer = new ParquetMetadata(new FileMetaData(schema, extraMetaData, Version.FULL_VERSION), blocks);
-    serializeFooter(footer, out);
+    serializeFooter(footer, out, footerConverter);
     out.close();
   }
 
-  private static void serializeFooter(ParquetMetadata footer, FSDataOutputStream out) throws IOException {
+  private boolean isSortedFile() {
+    if (!sortedFile) {
+      return false;
+    }
+    // appended row groups are not known to be in order with the other blocks
+    for (BlockMetaData block : blocks) {
+      if (!sortingColumns.equals(block.getSortingColumns())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @param sortingColumns the sorting columns of a file
+   * @return the value of {@link #SORTED_FILE_METADATA_KEY} for these columns
+   */
+  public static String toSortedFileValue(List<ColumnPath> sortingColumns) {
+    List<String> paths = new ArrayList<String>(sortingColumns.size());
+    for (ColumnPath path : sortingColumns) {
+      paths.add(path.toDotString());
+    }
+    return Strings.join(paths, ",");
+  }
+
+  private static void serializeColumnIndexes(
+      List<List<ColumnIndex>> columnIndexes,
+      List<BlockMetaData> blocks,
+      PositionOutputStream out) throws IOException {
+    LOG.debug("{}: column indexes", out.getPos());
+    for (int bIndex = 0, bSize = blocks.size(); bIndex < bSize; ++bIndex) {
+      List<ColumnChunkMetaData> columns = blocks.get(bIndex).getColumns();
+      List<ColumnIndex> blockColumnIndexes = columnIndexes.get(bIndex);
+      for (int cIndex = 0, cSize = columns.size(); cIndex < cSize; ++cIndex) {
+        ColumnIndex columnIndex = blockColumnIndexes.get(cIndex);
+        if (columnIndex == null) {
+          continue;
+        }
+        long offset = out.getPos();
+        Util.writeColumnIndex(ParquetMetadataConverter.toParquetColumnIndex(columnIndex), out);
+        columns.get(cIndex).setColumnIndexReference(new IndexReference(offset, (int) (out.getPos() - offset)));
+      }
+    }
+  }
+
+  private static void serializeOffsetIndexes(
+      List<List<OffsetIndex>> offsetIndexes,
+      List<BlockMetaData> blocks,
+      PositionOutputStream out) throws IOException {
+    LOG.debug("{}: offset indexes", out.getPos());
+    for (int bIndex = 0, bSize = blocks.size(); bIndex < bSize; ++bIndex) {
+      List<ColumnChunkMetaData> columns = blocks.get(bIndex).getColumns();
+      List<OffsetIndex> blockOffsetIndexes = offsetIndexes.get(bIndex);
+      for (int cIndex = 0, cSize = columns.size(); cIndex < cSize; ++cIndex) {
+        OffsetIndex offsetIndex = blockOffsetIndexes.get(cIndex);
+        if (offsetIndex == null) {
+          continue;
+        }
+        long offset = out.getPos();
+        Util.writeOffsetIndex(ParquetMetadataConverter.toParquetOffsetIndex(offsetIndex), out);
+        columns.get(cIndex).setOffsetIndexReference(new IndexReference(offset, (int) (out.getPos() - offset)));
+      }
+    }
+  }
+
+  private static void serializeBloomFilters(
+      List<List<BlockSplitBloomFilter>> bloomFilters,
+      List<BlockMetaData> blocks,
+      PositionOutputStream out) throws IOException {
+    LOG.debug("{}: bloom filters", out.getPos());
+    for (int bIndex = 0, bSize = blocks.size(); bIndex < bSize; ++bIndex) {
+      List<ColumnChunkMetaData> columns = blocks.get(bIndex).getColumns();
+      List<BlockSplitBloomFilter> blockBloomFilters = bloomFilters.get(bIndex);
+      for (int cIndex = 0, cSize = columns.size(); cIndex < cSize; ++cIndex) {
+        BlockSplitBloomFilter bloomFilter = blockBloomFilters.get(cIndex);
+        if (bloomFilter == null) {
+          continue;
+        }
+        long offset = out.getPos();
+        bloomFilter.writeTo(out);
+        columns.get(cIndex).setBloomFilterReference(new IndexReference(offset, (int) (out.getPos() - offset)));
+      }
+    }
+  }
+
+  private static void serializeFooter(ParquetMetadata footer, PositionOutputStream out,
+                                      ParquetMetadataConverter converter) throws IOException {
     long footerIndex = out.getPos();
-    org.apache.parquet.format.FileMetaData parquetMetadata = metadataConverter.toParquetMetadata(CURRENT_VERSION, footer);
+    org.apache.parquet.format.FileMetaData parquetMetadata = converter.toParquetMetadata(CURRENT_VERSION, footer);
     writeFileMetaData(parquetMetadata, out);
     LOG.debug("{}: footer length = {}" , out.getPos(), (out.getPos() - footerIndex));
     BytesUtils.writeIntLittleEndian(out, (int) (out.getPos() - footerIndex));
@@ -705,7 +964,8 @@ public class ParquetFileWriter {
 
     FileSystem fs = outputPath.getFileSystem(configuration);
     outputPath = outputPath.makeQualified(fs);
-    ParquetMetadata metadataFooter = mergeFooters(outputPath, footers);
+    ParquetMetadata metadataFooter = mergeFooters(outputPath, footers,
+        configuration.getInt(ParquetFileReader.PARQUET_READ_PARALLELISM, 5));
 
     if (level == JobSummaryLevel.ALL) {
       writeMetadataFile(outputPath, metadataFooter, fs, PARQUET_METADATA_FILE);
@@ -721,18 +981,76 @@ public class ParquetFileWriter {
     writeMetadataFile(metaDataPath, metadataFooter, fs);
   }
 
-  private static void writeMetadataFile(Path outputPath, ParquetMetadata metadataFooter, FileSystem fs)
+  static void writeMetadataFile(Path outputPath, ParquetMetadata metadataFooter, FileSystem fs)
       throws IOException {
-    FSDataOutputStream metadata = fs.create(outputPath);
+    PositionOutputStream metadata = HadoopStreams.wrap(fs.create(outputPath));
     metadata.write(MAGIC);
-    serializeFooter(metadataFooter, metadata);
+    serializeFooter(metadataFooter, metadata, metadataConverter);
     metadata.close();
   }
 
   static ParquetMetadata mergeFooters(Path root, List<Footer> footers) {
-    String rootPath = root.toUri().getPath();
+    List<BlockMetaData> blocks = new ArrayList<BlockMetaData>();
+    GlobalMetaData fileMetaData = mergeFooters(root, footers, blocks);
+    return new ParquetMetadata(fileMetaData.merge(), blocks);
+  }
+
+  /**
+   * Merges the footers like {@link #mergeFooters(Path, List)}, splitting
+   * large lists of footers in ranges that are merged in parallel.
+   * @param root the directory the paths of the blocks are relative to
+   * @param footers the footers to merge
+   * @param parallelism the maximum number of ranges merged in parallel
+   * @return the merged metadata
+   * @throws IOException if a range could not be merged
+   */
+  static ParquetMetadata mergeFooters(final Path root, List<Footer> footers, int parallelism)
+      throws IOException {
+    int ranges = Math.min(parallelism, footers.size() / MIN_FOOTERS_PER_MERGE);
+    if (ranges <= 1) {
+      return mergeFooters(root, footers);
+    }
+
+    List<Callable<GlobalMetaData>> merges = new ArrayList<Callable<GlobalMetaData>>();
+    final List<List<BlockMetaData>> blocksOfRanges = new ArrayList<List<BlockMetaData>>();
+    for (int i = 0; i < ranges; i += 1) {
+      final List<Footer> range = footers.subList(
+          (int) ((long) footers.size() * i / ranges),
+          (int) ((long) footers.size() * (i + 1) / ranges));
+      final List<BlockMetaData> blocks = new ArrayList<BlockMetaData>();
+      blocksOfRanges.add(blocks);
+      merges.add(new Callable<GlobalMetaData>() {
+        @Override
+        public GlobalMetaData call() {
+          return mergeFooters(root, range, blocks);
+        }
+      });
+    }
+
+    List<GlobalMetaData> merged;
+    try {
+      merged = ParquetFileReader.runAllInParallel(ranges, merges);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IOException("Could not merge footers under " + root, e.getCause());
+    }
+
+    // the ranges are merged in order so the blocks keep the order of the footers
     GlobalMetaData fileMetaData = null;
     List<BlockMetaData> blocks = new ArrayList<BlockMetaData>();
+    for (int i = 0; i < ranges; i += 1) {
+      fileMetaData = mergeInto(merged.get(i), fileMetaData);
+      blocks.addAll(blocksOfRanges.get(i));
+    }
+    return new ParquetMetadata(fileMetaData.merge(), blocks);
+  }
+
+  private static GlobalMetaData mergeFooters(Path root, List<Footer> footers, List<BlockMetaData> blocks) {
+    String rootPath = root.toUri().getPath();
+    GlobalMetaData fileMetaData = null;
+    FileMetaData lastMerged = null;
     for (Footer footer : footers) {
         String footerPath = footer.getFile().toUri().getPath();
       if (!footerPath.startsWith(rootPath)) {
@@ -742,13 +1060,18 @@ public class ParquetFileWriter {
       while (footerPath.startsWith("/")) {
         footerPath = footerPath.substring(1);
       }
-      fileMetaData = mergeInto(footer.getParquetMetadata().getFileMetaData(), fileMetaData);
+      FileMetaData toMerge = footer.getParquetMetadata().getFileMetaData();
+      if (toMerge != lastMerged) {
+        // footers split from the same summary share their file metadata
+        fileMetaData = mergeInto(toMerge, fileMetaData);
+        lastMerged = toMerge;
+      }
       for (BlockMetaData block : footer.getParquetMetadata().getBlocks()) {
         block.setPath(footerPath);
         blocks.add(block);
       }
     }
-    return new ParquetMetadata(fileMetaData.merge(), blocks);
+    return fileMetaData;
   }
 
   /**
@@ -810,6 +1133,10 @@ public class ParquetFileWriter {
       schema = mergeInto(toMerge.getSchema(), schema, strict);
     }
     for (Entry<String, String> entry : toMerge.getKeyValueMetaData().entrySet()) {
+      if (SORTED_FILE_METADATA_KEY.equals(entry.getKey())) {
+        // the row groups of several files are not sorted against each other
+        continue;
+      }
       Set<String> values = newKeyValues.get(entry.getKey());
       if (values == null) {
         values = new LinkedHashSet<String>();
@@ -824,6 +1151,39 @@ public class ParquetFileWriter {
         createdBy);
   }
 
+  /**
+   * Will return the result of merging toMerge into mergedMetadata
+   * @param toMerge the merged metadata of other files
+   * @param mergedMetadata the reference metadata to merge into
+   * @return the result of the merge
+   */
+  static GlobalMetaData mergeInto(
+      GlobalMetaData toMerge,
+      GlobalMetaData mergedMetadata) {
+    if (mergedMetadata == null) {
+      return toMerge;
+    }
+    MessageType schema = mergedMetadata.getSchema();
+    if (!schema.equals(toMerge.getSchema())) {
+      schema = mergeInto(toMerge.getSchema(), schema, true);
+    }
+    Map<String, Set<String>> newKeyValues = new HashMap<String, Set<String>>();
+    for (Entry<String, Set<String>> entry : mergedMetadata.getKeyValueMetaData().entrySet()) {
+      newKeyValues.put(entry.getKey(), new LinkedHashSet<String>(entry.getValue()));
+    }
+    for (Entry<String, Set<String>> entry : toMerge.getKeyValueMetaData().entrySet()) {
+      Set<String> values = newKeyValues.get(entry.getKey());
+      if (values == null) {
+        values = new LinkedHashSet<String>();
+        newKeyValues.put(entry.getKey(), values);
+      }
+      values.addAll(entry.getValue());
+    }
+    Set<String> createdBy = new HashSet<String>(mergedMetadata.getCreatedBy());
+    createdBy.addAll(toMerge.getCreatedBy());
+    return new GlobalMetaData(schema, newKeyValues, createdBy);
+  }
+
   /**
    * will return the result of merging toMerge into mergedSchema
    * @param toMerge the schema to merge into mergedSchema
@@ -850,9 +1210,9 @@ public class ParquetFileWriter {
   }
 
   private interface AlignmentStrategy {
-    void alignForRowGroup(FSDataOutputStream out) throws IOException;
+    void alignForRowGroup(PositionOutputStream out) throws IOException;
 
-    long nextRowGroupSize(FSDataOutputStream out) throws IOException;
+    long nextRowGroupSize(PositionOutputStream out) throws IOException;
   }
 
   private static class NoAlignment implements AlignmentStrategy {
@@ -867,11 +1227,11 @@ public class ParquetFileWriter {
     }
 
     @Override
-    public void alignForRowGroup(FSDataOutputStream out) {
+    public void alignForRowGroup(PositionOutputStream out) {
     }
 
     @Override
-    public long nextRowGroupSize(FSDataOutputStream out) {
+    public long nextRowGroupSize(PositionOutputStream out) {
       return rowGroupSize;
     }
   }
@@ -900,7 +1260,7 @@ public class ParquetFileWriter {
     }
 
     @Override
-    public void alignForRowGroup(FSDataOutputStream out) throws IOException {
+    public void alignForRowGroup(PositionOutputStream out) throws IOException {
       long remaining = dfsBlockSize - (out.getPos() % dfsBlockSize);
 
       if (isPaddingNeeded(remaining)) {
@@ -912,7 +1272,7 @@ public class ParquetFileWriter {
     }
 
     @Override
-    public long nextRowGroupSize(FSDataOutputStream out) throws IOException {
+    public long nextRowGroupSize(PositionOutputStream out) throws IOException {
       if (maxPaddingSize <= 0) {
         return rowGroupSize;
       }
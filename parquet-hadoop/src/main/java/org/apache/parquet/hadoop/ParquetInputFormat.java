@@ -57,6 +57,8 @@ import org.apache.parquet.filter2.compat.FilterCompat;
 import org.apache.parquet.filter2.compat.FilterCompat.Filter;
 import org.apache.parquet.filter2.compat.RowGroupFilter;
 import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.format.converter.ParquetMetadataConverter.MetadataFilter;
 import org.apache.parquet.hadoop.api.InitContext;
 import org.apache.parquet.hadoop.api.ReadSupport;
 import org.apache.parquet.hadoop.api.ReadSupport.ReadContext;
@@ -134,6 +136,108 @@ public class ParquetInputFormat<T> extends FileInputFormat<Void, T> {
   public static final String DICTIONARY_FILTERING_ENABLED = "parquet.filter.dictionary.enabled";
   static final boolean DICTIONARY_FILTERING_ENABLED_DEFAULT = false;
 
+  /**
+   * key to configure whether the column indexes are used to skip pages that
+   * can not match the filter
+   */
+  public static final String COLUMN_INDEX_FILTERING_ENABLED = "parquet.filter.columnindex.enabled";
+  static final boolean COLUMN_INDEX_FILTERING_ENABLED_DEFAULT = true;
+
+  /**
+   * key to configure whether row group bloom filtering is enabled
+   */
+  public static final String BLOOM_FILTERING_ENABLED = "parquet.filter.bloom.enabled";
+  static final boolean BLOOM_FILTERING_ENABLED_DEFAULT = true;
+
+  /**
+   * key to configure whether the column chunks of the next row group are read
+   * in the background while the current row group is consumed
+   */
+  public static final String PREFETCH_ENABLED = "parquet.read.prefetch.enabled";
+  static final boolean PREFETCH_ENABLED_DEFAULT = false;
+
+  /**
+   * key to configure the number of threads reading column chunks in the
+   * background, each reads a run of consecutive column chunks
+   */
+  public static final String PREFETCH_THREADS = "parquet.read.prefetch.threads";
+  static final int PREFETCH_THREADS_DEFAULT = 4;
+
+  /**
+   * key to configure the maximum number of bytes held by the current and the
+   * prefetched row group, the next row group is not prefetched above it
+   */
+  public static final String PREFETCH_MAX_BYTES = "parquet.read.prefetch.max.bytes";
+  static final long PREFETCH_MAX_BYTES_DEFAULT = 128 * 1024 * 1024;
+
+  /**
+   * key to configure the number of threads a {@link ParquetReader} uses to
+   * read, decompress and assemble the row groups of a file, 1 reads them one
+   * at a time on the calling thread. With more threads, records are held
+   * until they are returned, so the materializer must return a new object
+   * for each record.
+   */
+  public static final String READ_PARALLELISM = "parquet.read.parallelism";
+  static final int READ_PARALLELISM_DEFAULT = 1;
+
+  /**
+   * key to configure whether a parallel {@link ParquetReader} returns records
+   * in file order, otherwise row groups are returned as soon as they are read
+   */
+  public static final String PARALLEL_READ_ORDERED = "parquet.read.parallel.ordered";
+  static final boolean PARALLEL_READ_ORDERED_DEFAULT = true;
+
+  /**
+   * key to configure the maximum uncompressed size of the row groups that a
+   * parallel {@link ParquetReader} holds at once, including the row group that
+   * is being returned. At least one row group is always read.
+   * <p>
+   * The limit counts the uncompressed bytes of the row groups in the file.
+   * The records are handed over in small chunks and a row group is not
+   * assembled further until its chunks are returned, so the records that are
+   * held at once are bounded by the number of threads, not by this limit.
+   */
+  public static final String PARALLEL_READ_MAX_BYTES = "parquet.read.parallel.max.bytes";
+  static final long PARALLEL_READ_MAX_BYTES_DEFAULT = 256 * 1024 * 1024;
+
+  /**
+   * key to configure whether file readers share decompressed and decoded
+   * dictionaries through the process-wide {@link DictionaryCache}
+   */
+  public static final String DICTIONARY_CACHE_ENABLED = "parquet.read.dictionary.cache.enabled";
+  static final boolean DICTIONARY_CACHE_ENABLED_DEFAULT = false;
+
+  /**
+   * key to configure the estimated heap size, in bytes, of the dictionaries
+   * held by the process-wide {@link DictionaryCache}. Readers that set
+   * different sizes use different caches.
+   */
+  public static final String DICTIONARY_CACHE_MAX_BYTES = "parquet.read.dictionary.cache.max.bytes";
+  static final long DICTIONARY_CACHE_MAX_BYTES_DEFAULT = 64 * 1024 * 1024;
+
+  /**
+   * key to configure whether file readers share parsed footers through the
+   * process-wide {@link FooterCache}
+   */
+  public static final String FOOTER_CACHE_ENABLED = "parquet.read.footer.cache.enabled";
+  static final boolean FOOTER_CACHE_ENABLED_DEFAULT = false;
+
+  /**
+   * key to configure the estimated heap size, in bytes, of the footers held by
+   * the process-wide {@link FooterCache}. Readers that set different sizes
+   * use different caches.
+   */
+  public static final String FOOTER_CACHE_MAX_BYTES = "parquet.read.footer.cache.max.bytes";
+  static final long FOOTER_CACHE_MAX_BYTES_DEFAULT = 64 * 1024 * 1024;
+
+  /**
+   * key to configure whether record readers only convert the footer metadata
+   * of the columns in {@link ReadSupport#PARQUET_READ_SCHEMA} and the columns
+   * used by the filter predicate. Read supports must not request other columns.
+   */
+  public static final String FOOTER_PROJECTION_ENABLED = "parquet.read.footer.projection.enabled";
+  static final boolean FOOTER_PROJECTION_ENABLED_DEFAULT = false;
+
   /**
    * key to turn on or off task side metadata loading (default true)
    * if true then metadata is read on the task side and some tasks may finish immediately.
@@ -231,6 +335,30 @@ public class ParquetInputFormat<T> extends FileInputFormat<Void, T> {
     return FilterCompat.get(getFilterPredicate(conf), getUnboundRecordFilterInstance(conf));
   }
 
+  /**
+   * Returns the metadata filter that record readers use to read footers. When
+   * {@link #FOOTER_PROJECTION_ENABLED} is set, the returned filter drops the
+   * metadata of columns that are neither read nor used by the filter.
+   *
+   * @param conf a configuration
+   * @param rowGroups a filter that selects row groups
+   * @param filter the record filter of the reader
+   * @return a metadata filter for footers
+   */
+  static MetadataFilter getFooterFilter(Configuration conf, MetadataFilter rowGroups, Filter filter) {
+    String readSchema = conf.get(ReadSupport.PARQUET_READ_SCHEMA);
+    if (readSchema == null ||
+        !conf.getBoolean(FOOTER_PROJECTION_ENABLED, FOOTER_PROJECTION_ENABLED_DEFAULT) ||
+        filter instanceof FilterCompat.UnboundRecordFilterCompat) {
+      // the columns of unbound record filters are not known
+      return rowGroups;
+    }
+    FilterPredicate predicate = filter instanceof FilterCompat.FilterPredicateCompat ?
+        ((FilterCompat.FilterPredicateCompat) filter).getFilterPredicate() : null;
+    return ParquetMetadataConverter.columns(
+        rowGroups, MessageTypeParser.parseMessageType(readSchema), predicate);
+  }
+
   private LruCache<FileStatusWrapper, FootersCacheValue> footersCache;
 
   private final Class<? extends ReadSupport<T>> readSupportClass;
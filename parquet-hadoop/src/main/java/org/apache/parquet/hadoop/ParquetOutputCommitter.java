@@ -19,17 +19,26 @@
 package org.apache.parquet.hadoop;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.PathFilter;
 import org.apache.hadoop.mapreduce.JobContext;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
 import org.apache.hadoop.mapreduce.lib.output.FileOutputCommitter;
 
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
 import org.apache.parquet.hadoop.ParquetOutputFormat.JobSummaryLevel;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
 import org.apache.parquet.hadoop.util.ContextUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,6 +46,16 @@ import org.slf4j.LoggerFactory;
 public class ParquetOutputCommitter extends FileOutputCommitter {
   private static final Logger LOG = LoggerFactory.getLogger(ParquetOutputCommitter.class);
 
+  // prefix of the files the tasks write the merged footers of their output to
+  static final String TASK_FOOTERS_PREFIX = "_task_footers_";
+
+  private static final PathFilter TASK_FOOTERS_FILTER = new PathFilter() {
+    @Override
+    public boolean accept(Path path) {
+      return path.getName().startsWith(TASK_FOOTERS_PREFIX);
+    }
+  };
+
   private final Path outputPath;
 
   public ParquetOutputCommitter(Path outputPath, TaskAttemptContext context) throws IOException {
@@ -44,6 +63,13 @@ public class ParquetOutputCommitter extends FileOutputCommitter {
     this.outputPath = outputPath;
   }
 
+  @Override
+  public void commitTask(TaskAttemptContext context) throws IOException {
+    Configuration configuration = ContextUtil.getConfiguration(context);
+    writeTaskFootersFile(configuration, getWorkPath());
+    super.commitTask(context);
+  }
+
   public void commitJob(JobContext jobContext) throws IOException {
     super.commitJob(jobContext);
     Configuration configuration = ContextUtil.getConfiguration(jobContext);
@@ -61,17 +87,33 @@ public class ParquetOutputCommitter extends FileOutputCommitter {
     try {
       final FileSystem fileSystem = outputPath.getFileSystem(configuration);
       FileStatus outputStatus = fileSystem.getFileStatus(outputPath);
+      FileStatus[] taskFooters = fileSystem.listStatus(outputPath, TASK_FOOTERS_FILTER);
       List<Footer> footers;
 
-      switch (level) {
-        case ALL:
-          footers = ParquetFileReader.readAllFootersInParallel(configuration, outputStatus, false); // don't skip row groups
-          break;
-        case COMMON_ONLY:
-          footers = ParquetFileReader.readAllFootersInParallel(configuration, outputStatus, true); // skip row groups
-          break;
-        default:
-          throw new IllegalArgumentException("Unrecognized job summary level: " + level);
+      if (taskFooters.length > 0) {
+        try {
+          footers = readFootersUsingTaskFooters(configuration, outputStatus, taskFooters,
+              level == JobSummaryLevel.COMMON_ONLY);
+        } finally {
+          for (FileStatus taskFooter : taskFooters) {
+            try {
+              fileSystem.delete(taskFooter.getPath(), false);
+            } catch (Exception e) {
+              LOG.warn("could not delete task footers file " + taskFooter.getPath(), e);
+            }
+          }
+        }
+      } else {
+        switch (level) {
+          case ALL:
+            footers = ParquetFileReader.readAllFootersInParallel(configuration, outputStatus, false); // don't skip row groups
+            break;
+          case COMMON_ONLY:
+            footers = ParquetFileReader.readAllFootersInParallel(configuration, outputStatus, true); // skip row groups
+            break;
+          default:
+            throw new IllegalArgumentException("Unrecognized job summary level: " + level);
+        }
       }
 
       // If there are no footers, _metadata file cannot be written since there is no way to determine schema!
@@ -109,4 +151,101 @@ public class ParquetOutputCommitter extends FileOutputCommitter {
       LOG.warn("could not write summary file for " + outputPath, e);
     }
   }
+
+  /**
+   * Merges the footers of the files written by a task into a file of its
+   * work directory, which is committed with the data files. The job commit
+   * reads this file instead of the footer of each file of the task.
+   * @param configuration the configuration of the task
+   * @param workPath the work directory of the task
+   */
+  static void writeTaskFootersFile(Configuration configuration, Path workPath) {
+    if (ParquetOutputFormat.getJobSummaryLevel(configuration) == JobSummaryLevel.NONE
+        || !ParquetOutputFormat.getTaskSideFooters(configuration)) {
+      return;
+    }
+
+    try {
+      FileSystem fileSystem = workPath.getFileSystem(configuration);
+      if (!fileSystem.exists(workPath)) {
+        return;
+      }
+      List<Footer> footers = ParquetFileReader.readAllFootersInParallel(
+          configuration, fileSystem.getFileStatus(workPath), false);
+      if (footers.isEmpty()) {
+        return;
+      }
+      // the paths of the blocks are relative to the work directory, which
+      // is the same as relative to the output directory once committed
+      ParquetMetadata merged = ParquetFileWriter.mergeFooters(workPath, footers);
+      ParquetFileWriter.writeMetadataFile(
+          new Path(workPath, TASK_FOOTERS_PREFIX + workPath.getName()), merged, fileSystem);
+    } catch (Exception e) {
+      // the job commit reads the footers of the files instead
+      LOG.warn("could not write task footers file for " + workPath, e);
+    }
+  }
+
+  /**
+   * Reads the footers of the files of the output directory from the task
+   * footers files, and from the files themselves when they are not in any
+   * task footers file.
+   */
+  private static List<Footer> readFootersUsingTaskFooters(
+      final Configuration configuration, FileStatus outputStatus, FileStatus[] taskFooters,
+      boolean skipRowGroups) throws IOException {
+    final Path root = outputStatus.getPath();
+    List<Callable<List<Footer>>> reads = new ArrayList<Callable<List<Footer>>>();
+    for (final FileStatus taskFooter : taskFooters) {
+      reads.add(new Callable<List<Footer>>() {
+        @Override
+        public List<Footer> call() {
+          try {
+            ParquetMetadata merged = ParquetFileReader.readFooter(
+                configuration, taskFooter, ParquetMetadataConverter.NO_FILTER);
+            return ParquetFileReader.footersFromSummaryFile(root, merged);
+          } catch (IOException e) {
+            LOG.warn("could not read task footers file " + taskFooter.getPath(), e);
+            return Collections.emptyList();
+          }
+        }
+      });
+    }
+
+    Map<Path, Footer> footersByPath = new HashMap<Path, Footer>();
+    try {
+      int parallelism = configuration.getInt(ParquetFileReader.PARQUET_READ_PARALLELISM, 5);
+      for (List<Footer> footers : ParquetFileReader.runAllInParallel(parallelism, reads)) {
+        for (Footer footer : footers) {
+          footersByPath.put(footer.getFile(), footer);
+        }
+      }
+    } catch (ExecutionException e) {
+      throw new IOException("Could not read task footers files in " + root, e.getCause());
+    }
+
+    // files without row groups, or of tasks that could not write their footers
+    List<FileStatus> files = ParquetFileReader.listFiles(configuration, outputStatus);
+    List<FileStatus> toRead = new ArrayList<FileStatus>();
+    for (FileStatus file : files) {
+      if (!footersByPath.containsKey(file.getPath())) {
+        toRead.add(file);
+      }
+    }
+    if (!toRead.isEmpty()) {
+      LOG.info("reading {} footers not found in task footers files", toRead.size());
+      for (Footer footer : ParquetFileReader.readAllFootersInParallel(configuration, toRead, skipRowGroups)) {
+        footersByPath.put(footer.getFile(), footer);
+      }
+    }
+
+    List<Footer> result = new ArrayList<Footer>(files.size());
+    for (FileStatus file : files) {
+      Footer footer = footersByPath.get(file.getPath());
+      if (footer != null) {
+        result.add(footer);
+      }
+    }
+    return result;
+  }
 }
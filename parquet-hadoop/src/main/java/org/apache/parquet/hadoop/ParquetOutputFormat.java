@@ -23,6 +23,10 @@ import static org.apache.parquet.hadoop.ParquetWriter.DEFAULT_BLOCK_SIZE;
 import static org.apache.parquet.hadoop.util.ContextUtil.getConfiguration;
 
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
@@ -34,6 +38,7 @@ import org.apache.hadoop.mapreduce.RecordWriter;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
 import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
 
+import org.apache.parquet.bytes.DirectByteBufferAllocator;
 import org.apache.parquet.column.ParquetProperties;
 import org.apache.parquet.column.ParquetProperties.WriterVersion;
 import org.apache.parquet.hadoop.ParquetFileWriter.Mode;
@@ -42,6 +47,7 @@ import org.apache.parquet.hadoop.api.WriteSupport.WriteContext;
 import org.apache.parquet.hadoop.codec.CodecConfig;
 import org.apache.parquet.hadoop.metadata.CompressionCodecName;
 import org.apache.parquet.hadoop.util.ConfigurationUtil;
+import org.apache.parquet.hadoop.util.HadoopOutputFile;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -87,6 +93,18 @@ import org.slf4j.LoggerFactory;
  * parquet.writer.max-padding=2097152 # 2 MB
  * </pre>
  *
+ * The page size, dictionary, writer version and compression settings can be
+ * overridden for a column by appending # and the dot-separated path of the
+ * column to the property. The writer version of a column only selects the
+ * encodings of its values.
+ * <pre>
+ * parquet.enable.dictionary#user.id=false
+ * parquet.dictionary.page.size#user.country=65536
+ * parquet.writer.version#event.time=v2
+ * parquet.compression#payload=none # none is the same as UNCOMPRESSED
+ * parquet.page.size#payload=4194304
+ * </pre>
+ *
  * If parquet.compression is not set, the following properties are checked (FileOutputFormat behavior).
  * Note that we explicitely disallow custom Codecs
  * <pre>
@@ -130,6 +148,12 @@ public class ParquetOutputFormat<T> extends FileOutputFormat<Void, T> {
    * Must be one of the values in {@link JobSummaryLevel} (case insensitive)
    */
   public static final String JOB_SUMMARY_LEVEL = "parquet.summary.metadata.level";
+
+  /**
+   * Whether tasks merge the footers of their files at task commit so that
+   * the job commit does not read the footer of every file
+   */
+  public static final String TASK_SIDE_FOOTERS = "parquet.summary.task-side-footers";
   public static final String BLOCK_SIZE           = "parquet.block.size";
   public static final String PAGE_SIZE            = "parquet.page.size";
   public static final String COMPRESSION          = "parquet.compression";
@@ -140,10 +164,32 @@ public class ParquetOutputFormat<T> extends FileOutputFormat<Void, T> {
   public static final String WRITER_VERSION       = "parquet.writer.version";
   public static final String MEMORY_POOL_RATIO    = "parquet.memory.pool.ratio";
   public static final String MIN_MEMORY_ALLOCATION = "parquet.memory.min.chunk.size";
+  // absolute sizes of the memory pools, the heap pool uses MEMORY_POOL_RATIO if not set
+  public static final String MEMORY_POOL_MAX_BYTES = "parquet.memory.pool.max.bytes";
+  public static final String DIRECT_MEMORY_POOL_MAX_BYTES = "parquet.memory.pool.direct.max.bytes";
   public static final String MAX_PADDING_BYTES    = "parquet.writer.max-padding";
   public static final String MIN_ROW_COUNT_FOR_PAGE_SIZE_CHECK = "parquet.page.size.row.check.min";
   public static final String MAX_ROW_COUNT_FOR_PAGE_SIZE_CHECK = "parquet.page.size.row.check.max";
   public static final String ESTIMATE_PAGE_SIZE_CHECK = "parquet.page.size.check.estimate";
+  public static final String BLOOM_FILTER_COLUMNS = "parquet.bloom.filter.columns";
+  public static final String BLOOM_FILTER_MAX_BYTES = "parquet.bloom.filter.max.bytes";
+  // length of the bounds written instead of binary min/max statistics that are too large
+  public static final String STATISTICS_TRUNCATE_LENGTH = "parquet.statistics.truncate.length";
+  // maximum number of rows in a page
+  public static final String PAGE_ROW_COUNT_LIMIT = "parquet.page.row.count.limit";
+  // minimum number of rows in a page
+  public static final String PAGE_ROW_COUNT_MINIMUM = "parquet.page.row.count.min";
+  // whether the page sizes are sizes of the compressed pages
+  public static final String COMPRESSED_PAGE_SIZE = "parquet.page.size.compressed";
+  // separates a property from the dot-separated path of the column it is set for, as in parquet.page.size#a.b
+  public static final String COLUMN_PATH_SEPARATOR = "#";
+  // dot-separated paths of the columns the records are sorted by
+  public static final String SORTING_COLUMNS = "parquet.sorting.columns";
+  public static final String PAGE_COMPRESSION_THREADS = "parquet.page.compression.threads";
+  public static final String DIRECT_PAGE_BUFFERS = "parquet.writer.direct.buffers";
+  // compression levels, from 0 to 9 for GZIP and 1 to 22 for ZSTD, set in the configuration of the codecs
+  public static final String GZIP_COMPRESSION_LEVEL = "parquet.compression.codec.gzip.level";
+  public static final String ZSTD_COMPRESSION_LEVEL = "parquet.compression.codec.zstd.level";
 
   public static JobSummaryLevel getJobSummaryLevel(Configuration conf) {
     String level = conf.get(JOB_SUMMARY_LEVEL);
@@ -168,6 +214,10 @@ public class ParquetOutputFormat<T> extends FileOutputFormat<Void, T> {
     return JobSummaryLevel.ALL;
   }
 
+  public static boolean getTaskSideFooters(Configuration conf) {
+    return conf.getBoolean(TASK_SIDE_FOOTERS, true);
+  }
+
   public static void setWriteSupportClass(Job job,  Class<?> writeSupportClass) {
     getConfiguration(job).set(WRITE_SUPPORT_CLASS, writeSupportClass.getName());
   }
@@ -257,6 +307,60 @@ public class ParquetOutputFormat<T> extends FileOutputFormat<Void, T> {
         ParquetProperties.DEFAULT_ESTIMATE_ROW_COUNT_FOR_PAGE_SIZE_CHECK);
   }
 
+  /**
+   * @param configuration a configuration
+   * @return the dot-separated paths of the columns to write Bloom filters for
+   */
+  public static Set<String> getBloomFilterColumns(Configuration configuration) {
+    Set<String> columns = new LinkedHashSet<String>();
+    for (String column : configuration.getTrimmedStringCollection(BLOOM_FILTER_COLUMNS)) {
+      columns.add(column);
+    }
+    return columns;
+  }
+
+  public static int getBloomFilterMaxBytes(Configuration configuration) {
+    return configuration.getInt(BLOOM_FILTER_MAX_BYTES,
+        ParquetProperties.DEFAULT_MAX_BLOOM_FILTER_BYTES);
+  }
+
+  /**
+   * @param configuration a configuration
+   * @return the dot-separated paths of the columns the records are sorted
+   *         by, starting with the leading sort key
+   */
+  public static String[] getSortingColumns(Configuration configuration) {
+    return configuration.getTrimmedStrings(SORTING_COLUMNS);
+  }
+
+  /**
+   * @param configuration a configuration
+   * @return the length of the bounds written instead of binary min and max
+   *         statistics that are too large, 0 if the statistics are dropped
+   */
+  public static int getStatisticsTruncateLength(Configuration configuration) {
+    return configuration.getInt(STATISTICS_TRUNCATE_LENGTH,
+        ParquetProperties.DEFAULT_STATISTICS_TRUNCATE_LENGTH);
+  }
+
+  /**
+   * @param configuration a configuration
+   * @return the number of threads compressing the pages of each writer, pages
+   *         are compressed by the writing thread if 0
+   */
+  public static int getPageCompressionThreads(Configuration configuration) {
+    return configuration.getInt(PAGE_COMPRESSION_THREADS, 0);
+  }
+
+  /**
+   * @param configuration a configuration
+   * @return whether writers buffer their pages in direct memory until a row
+   *         group is written
+   */
+  public static boolean getDirectPageBuffers(Configuration configuration) {
+    return configuration.getBoolean(DIRECT_PAGE_BUFFERS, false);
+  }
+
   @Deprecated
   public static int getBlockSize(Configuration configuration) {
     return configuration.getInt(BLOCK_SIZE, DEFAULT_BLOCK_SIZE);
@@ -270,6 +374,107 @@ public class ParquetOutputFormat<T> extends FileOutputFormat<Void, T> {
     return configuration.getInt(PAGE_SIZE, ParquetProperties.DEFAULT_PAGE_SIZE);
   }
 
+  /**
+   * @param configuration a configuration
+   * @return the page sizes set for columns with parquet.page.size#column.path,
+   *         by dot-separated column path
+   */
+  public static Map<String, Integer> getColumnPageSizes(Configuration configuration) {
+    Map<String, Integer> pageSizes = new LinkedHashMap<String, Integer>();
+    for (String column : getColumnProperties(configuration, PAGE_SIZE).keySet()) {
+      pageSizes.put(column, configuration.getInt(PAGE_SIZE + COLUMN_PATH_SEPARATOR + column,
+          ParquetProperties.DEFAULT_PAGE_SIZE));
+    }
+    return pageSizes;
+  }
+
+  /**
+   * @param configuration a configuration
+   * @return whether dictionary encoding is enabled for columns set with
+   *         parquet.enable.dictionary#column.path, by dot-separated column path
+   */
+  public static Map<String, Boolean> getColumnEnableDictionary(Configuration configuration) {
+    Map<String, Boolean> enableDictionary = new LinkedHashMap<String, Boolean>();
+    for (String column : getColumnProperties(configuration, ENABLE_DICTIONARY).keySet()) {
+      enableDictionary.put(column, configuration.getBoolean(ENABLE_DICTIONARY + COLUMN_PATH_SEPARATOR + column,
+          ParquetProperties.DEFAULT_IS_DICTIONARY_ENABLED));
+    }
+    return enableDictionary;
+  }
+
+  /**
+   * @param configuration a configuration
+   * @return the dictionary page sizes set for columns with
+   *         parquet.dictionary.page.size#column.path, by dot-separated column path
+   */
+  public static Map<String, Integer> getColumnDictionaryPageSizes(Configuration configuration) {
+    Map<String, Integer> dictionaryPageSizes = new LinkedHashMap<String, Integer>();
+    for (String column : getColumnProperties(configuration, DICTIONARY_PAGE_SIZE).keySet()) {
+      dictionaryPageSizes.put(column, configuration.getInt(DICTIONARY_PAGE_SIZE + COLUMN_PATH_SEPARATOR + column,
+          ParquetProperties.DEFAULT_DICTIONARY_PAGE_SIZE));
+    }
+    return dictionaryPageSizes;
+  }
+
+  /**
+   * @param configuration a configuration
+   * @return the writer versions of the value encodings set for columns with
+   *         parquet.writer.version#column.path, by dot-separated column path
+   */
+  public static Map<String, WriterVersion> getColumnWriterVersions(Configuration configuration) {
+    Map<String, WriterVersion> writerVersions = new LinkedHashMap<String, WriterVersion>();
+    for (Map.Entry<String, String> version : getColumnProperties(configuration, WRITER_VERSION).entrySet()) {
+      writerVersions.put(version.getKey(), WriterVersion.fromString(version.getValue()));
+    }
+    return writerVersions;
+  }
+
+  /**
+   * @param configuration a configuration
+   * @return the codecs set for columns with parquet.compression#column.path,
+   *         by dot-separated column path
+   */
+  public static Map<String, CompressionCodecName> getColumnCompressionCodecs(Configuration configuration) {
+    Map<String, CompressionCodecName> codecs = new LinkedHashMap<String, CompressionCodecName>();
+    for (Map.Entry<String, String> codec : getColumnProperties(configuration, COMPRESSION).entrySet()) {
+      String name = codec.getValue();
+      codecs.put(codec.getKey(), "none".equalsIgnoreCase(name)
+          ? CompressionCodecName.UNCOMPRESSED
+          : CompressionCodecName.fromConf(name));
+    }
+    return codecs;
+  }
+
+  public static int getPageRowCountLimit(Configuration configuration) {
+    return configuration.getInt(PAGE_ROW_COUNT_LIMIT, ParquetProperties.DEFAULT_PAGE_ROW_COUNT_LIMIT);
+  }
+
+  public static int getPageRowCountMinimum(Configuration configuration) {
+    return configuration.getInt(PAGE_ROW_COUNT_MINIMUM, ParquetProperties.DEFAULT_PAGE_ROW_COUNT_MINIMUM);
+  }
+
+  public static boolean getCompressedPageSize(Configuration configuration) {
+    return configuration.getBoolean(COMPRESSED_PAGE_SIZE, ParquetProperties.DEFAULT_IS_COMPRESSED_PAGE_SIZE);
+  }
+
+  /**
+   * @param configuration a configuration
+   * @param key a property that can be set for columns
+   * @return the values of the property set for columns, by dot-separated
+   *         column path
+   */
+  private static Map<String, String> getColumnProperties(Configuration configuration, String key) {
+    String prefix = key + COLUMN_PATH_SEPARATOR;
+    Map<String, String> values = new LinkedHashMap<String, String>();
+    for (Map.Entry<String, String> entry : configuration) {
+      String name = entry.getKey();
+      if (name.startsWith(prefix) && name.length() > prefix.length()) {
+        values.put(name.substring(prefix.length()), configuration.getTrimmed(name));
+      }
+    }
+    return values;
+  }
+
   public static int getDictionaryPageSize(Configuration configuration) {
     return configuration.getInt(
         DICTIONARY_PAGE_SIZE, ParquetProperties.DEFAULT_DICTIONARY_PAGE_SIZE);
@@ -355,7 +560,7 @@ public class ParquetOutputFormat<T> extends FileOutputFormat<Void, T> {
         throws IOException, InterruptedException {
     final WriteSupport<T> writeSupport = getWriteSupport(conf);
 
-    ParquetProperties props = ParquetProperties.builder()
+    ParquetProperties.Builder propsBuilder = ParquetProperties.builder()
         .withPageSize(getPageSize(conf))
         .withDictionaryPageSize(getDictionaryPageSize(conf))
         .withDictionaryEncoding(getEnableDictionary(conf))
@@ -363,7 +568,31 @@ public class ParquetOutputFormat<T> extends FileOutputFormat<Void, T> {
         .estimateRowCountForPageSizeCheck(getEstimatePageSizeCheck(conf))
         .withMinRowCountForPageSizeCheck(getMinRowCountForPageSizeCheck(conf))
         .withMaxRowCountForPageSizeCheck(getMaxRowCountForPageSizeCheck(conf))
-        .build();
+        .withMaxBloomFilterBytes(getBloomFilterMaxBytes(conf))
+        .withStatisticsTruncateLength(getStatisticsTruncateLength(conf))
+        .withSortingColumns(getSortingColumns(conf))
+        .withPageRowCountLimit(getPageRowCountLimit(conf))
+        .withPageRowCountMinimum(getPageRowCountMinimum(conf))
+        .withCompressedPageSize(getCompressedPageSize(conf));
+    for (Map.Entry<String, Integer> pageSize : getColumnPageSizes(conf).entrySet()) {
+      propsBuilder.withPageSize(pageSize.getKey(), pageSize.getValue());
+    }
+    for (Map.Entry<String, Boolean> enableDictionary : getColumnEnableDictionary(conf).entrySet()) {
+      propsBuilder.withDictionaryEncoding(enableDictionary.getKey(), enableDictionary.getValue());
+    }
+    for (Map.Entry<String, Integer> dictionaryPageSize : getColumnDictionaryPageSizes(conf).entrySet()) {
+      propsBuilder.withDictionaryPageSize(dictionaryPageSize.getKey(), dictionaryPageSize.getValue());
+    }
+    for (Map.Entry<String, WriterVersion> writerVersion : getColumnWriterVersions(conf).entrySet()) {
+      propsBuilder.withValuesWriterVersion(writerVersion.getKey(), writerVersion.getValue());
+    }
+    if (getDirectPageBuffers(conf)) {
+      propsBuilder.withAllocator(new DirectByteBufferAllocator());
+    }
+    for (String column : getBloomFilterColumns(conf)) {
+      propsBuilder.withBloomFilterEnabled(column, true);
+    }
+    ParquetProperties props = propsBuilder.build();
 
     long blockSize = getLongBlockSize(conf);
     int maxPaddingSize = getMaxPaddingSize(conf);
@@ -372,19 +601,41 @@ public class ParquetOutputFormat<T> extends FileOutputFormat<Void, T> {
     if (LOG.isInfoEnabled()) {
       LOG.info("Parquet block size to {}", blockSize);
       LOG.info("Parquet page size to {}", props.getPageSizeThreshold());
+      if (!props.getColumnPageSizes().isEmpty()) {
+        LOG.info("Parquet page size of columns to {}", props.getColumnPageSizes());
+      }
+      LOG.info("Parquet page size is {}", (props.isCompressedPageSize() ? "compressed" : "uncompressed"));
+      LOG.info("Parquet page row count limit to {}", props.getPageRowCountLimit());
+      LOG.info("Parquet page row count minimum to {}", props.getPageRowCountMinimum());
       LOG.info("Parquet dictionary page size to {}", props.getDictionaryPageSizeThreshold());
       LOG.info("Dictionary is {}", (props.isEnableDictionary() ? "on" : "off"));
+      if (!props.getColumnDictionaryEnabled().isEmpty()) {
+        LOG.info("Dictionary of columns is {}", props.getColumnDictionaryEnabled());
+      }
+      if (!props.getColumnDictionaryPageSizes().isEmpty()) {
+        LOG.info("Parquet dictionary page size of columns to {}", props.getColumnDictionaryPageSizes());
+      }
       LOG.info("Validation is {}", (validating ? "on" : "off"));
       LOG.info("Writer version is: {}", props.getWriterVersion());
+      if (!props.getColumnValuesWriterVersions().isEmpty()) {
+        LOG.info("Writer version of column values is: {}", props.getColumnValuesWriterVersions());
+      }
+      Map<String, CompressionCodecName> columnCodecs = getColumnCompressionCodecs(conf);
+      if (!columnCodecs.isEmpty()) {
+        LOG.info("Compression codec of columns is: {}", columnCodecs);
+      }
       LOG.info("Maximum row group padding size is {} bytes", maxPaddingSize);
       LOG.info("Page size checking is: {}", (props.estimateNextSizeCheck() ? "estimated" : "constant"));
       LOG.info("Min row count for page size check is: {}", props.getMinRowCountForPageSizeCheck());
       LOG.info("Max row count for page size check is: {}", props.getMaxRowCountForPageSizeCheck());
+      LOG.info("Bloom filters are written for columns: {}", props.getBloomFilterColumns().keySet());
+      LOG.info("Records are sorted by columns: {}", props.getSortingColumns());
     }
 
     WriteContext init = writeSupport.init(conf);
     ParquetFileWriter w = new ParquetFileWriter(
-        conf, init.getSchema(), file, Mode.CREATE, blockSize, maxPaddingSize);
+        HadoopOutputFile.fromPath(file, conf), init.getSchema(), Mode.CREATE, blockSize, maxPaddingSize,
+        props.getStatisticsTruncateLength());
     w.start();
 
     float maxLoad = conf.getFloat(ParquetOutputFormat.MEMORY_POOL_RATIO,
@@ -393,7 +644,8 @@ public class ParquetOutputFormat<T> extends FileOutputFormat<Void, T> {
         MemoryManager.DEFAULT_MIN_MEMORY_ALLOCATION);
     synchronized (ParquetOutputFormat.class) {
       if (memoryManager == null) {
-        memoryManager = new MemoryManager(maxLoad, minAllocation);
+        memoryManager = new MemoryManager(maxLoad, minAllocation,
+            conf.getLong(MEMORY_POOL_MAX_BYTES, 0), conf.getLong(DIRECT_MEMORY_POOL_MAX_BYTES, 0));
       }
     }
     if (memoryManager.getMemoryPoolRatio() != maxLoad) {
@@ -19,12 +19,19 @@
 package org.apache.parquet.hadoop;
 
 import static org.apache.parquet.Preconditions.checkNotNull;
+import static org.apache.parquet.format.converter.ParquetMetadataConverter.NO_FILTER;
+import static org.apache.parquet.hadoop.ParquetInputFormat.PARALLEL_READ_ORDERED;
+import static org.apache.parquet.hadoop.ParquetInputFormat.PARALLEL_READ_ORDERED_DEFAULT;
+import static org.apache.parquet.hadoop.ParquetInputFormat.READ_PARALLELISM;
+import static org.apache.parquet.hadoop.ParquetInputFormat.READ_PARALLELISM_DEFAULT;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileStatus;
@@ -35,7 +42,9 @@ import org.apache.parquet.Preconditions;
 import org.apache.parquet.filter.UnboundRecordFilter;
 import org.apache.parquet.filter2.compat.FilterCompat;
 import org.apache.parquet.filter2.compat.FilterCompat.Filter;
+import org.apache.parquet.format.converter.ParquetMetadataConverter.MetadataFilter;
 import org.apache.parquet.hadoop.api.ReadSupport;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
 import org.apache.parquet.hadoop.util.HiddenFileFilter;
 
 /**
@@ -48,6 +57,8 @@ public class ParquetReader<T> implements Closeable {
   private final Configuration conf;
   private final Iterator<Footer> footersIterator;
   private final Filter filter;
+  private final ForkJoinPool pool; // null unless row groups are read in parallel
+  private final boolean orderedRecords;
 
   private InternalParquetRecordReader<T> reader;
 
@@ -103,13 +114,48 @@ public class ParquetReader<T> implements Closeable {
                        Path file,
                        ReadSupport<T> readSupport,
                        Filter filter) throws IOException {
+    this(conf, file, readSupport, filter, null,
+        conf.getInt(READ_PARALLELISM, READ_PARALLELISM_DEFAULT),
+        conf.getBoolean(PARALLEL_READ_ORDERED, PARALLEL_READ_ORDERED_DEFAULT));
+  }
+
+  private ParquetReader(Configuration conf,
+                       Path file,
+                       ReadSupport<T> readSupport,
+                       Filter filter,
+                       FooterCache footerCache,
+                       int parallelism,
+                       boolean orderedRecords) throws IOException {
+    Preconditions.checkArgument(parallelism > 0, "Invalid parallelism: %s", parallelism);
     this.readSupport = readSupport;
     this.filter = checkNotNull(filter, "filter");
     this.conf = conf;
+    this.pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+    this.orderedRecords = orderedRecords;
 
     FileSystem fs = file.getFileSystem(conf);
     List<FileStatus> statuses = Arrays.asList(fs.listStatus(file, HiddenFileFilter.INSTANCE));
-    List<Footer> footers = ParquetFileReader.readAllFootersInParallelUsingSummaryFiles(conf, statuses, false);
+    if (footerCache == null) {
+      footerCache = FooterCache.getSharedCache(conf);
+    }
+    MetadataFilter footerFilter = ParquetInputFormat.getFooterFilter(conf, NO_FILTER, filter);
+    List<Footer> footers;
+    if (footerCache != null) {
+      footers = new ArrayList<Footer>(statuses.size());
+      for (FileStatus status : statuses) {
+        footers.add(new Footer(status.getPath(),
+            footerCache.getFooter(HadoopInputFile.fromStatus(status, conf), footerFilter)));
+      }
+    } else if (footerFilter != NO_FILTER) {
+      // summary files hold every column, so each footer is read with the projection
+      footers = new ArrayList<Footer>(statuses.size());
+      for (FileStatus status : statuses) {
+        footers.add(new Footer(status.getPath(),
+            ParquetFileReader.readFooter(conf, status, footerFilter)));
+      }
+    } else {
+      footers = ParquetFileReader.readAllFootersInParallelUsingSummaryFiles(conf, statuses, false);
+    }
     this.footersIterator = footers.iterator();
   }
 
@@ -144,7 +190,11 @@ public class ParquetReader<T> implements Closeable {
       // apply data filters
       fileReader.filterRowGroups(filter);
 
-      reader = new InternalParquetRecordReader<T>(readSupport, filter);
+      if (pool != null) {
+        reader = new ParallelParquetRecordReader<T>(readSupport, filter, pool, orderedRecords);
+      } else {
+        reader = new InternalParquetRecordReader<T>(readSupport, filter);
+      }
 
       reader.initialize(fileReader, conf);
     }
@@ -152,8 +202,14 @@ public class ParquetReader<T> implements Closeable {
 
   @Override
   public void close() throws IOException {
-    if (reader != null) {
-      reader.close();
+    try {
+      if (reader != null) {
+        reader.close();
+      }
+    } finally {
+      if (pool != null) {
+        pool.shutdown();
+      }
     }
   }
 
@@ -165,6 +221,9 @@ public class ParquetReader<T> implements Closeable {
     private final ReadSupport<T> readSupport;
     private final Path file;
     private Filter filter;
+    private FooterCache footerCache = null;
+    private int parallelism = 0;
+    private Boolean orderedRecords = null;
     protected Configuration conf;
 
     private Builder(ReadSupport<T> readSupport, Path path) {
@@ -191,6 +250,49 @@ public class ParquetReader<T> implements Closeable {
       return this;
     }
 
+    /**
+     * Set the {@link FooterCache} used to look up file footers before they
+     * are read. {@link FooterCache#getSharedCache()} returns the cache of the
+     * default size that is shared by the process.
+     *
+     * @param footerCache a footer cache
+     * @return this builder for method chaining
+     */
+    public Builder<T> withFooterCache(FooterCache footerCache) {
+      this.footerCache = checkNotNull(footerCache, "footerCache");
+      return this;
+    }
+
+    /**
+     * Set the number of threads used to read, decompress and assemble the row
+     * groups of each file. When greater than 1, each row group is assembled
+     * with its own {@link org.apache.parquet.io.api.RecordMaterializer} and
+     * records are held until they are returned, so the materializer must
+     * return a new object for each record and not reuse them. Defaults to
+     * {@link ParquetInputFormat#READ_PARALLELISM}.
+     *
+     * @param parallelism the number of threads
+     * @return this builder for method chaining
+     */
+    public Builder<T> withParallelism(int parallelism) {
+      Preconditions.checkArgument(parallelism > 0, "Invalid parallelism: %s", parallelism);
+      this.parallelism = parallelism;
+      return this;
+    }
+
+    /**
+     * Set whether a parallel reader returns records in file order. Otherwise,
+     * the records of each row group are returned as soon as it has been read.
+     * Defaults to {@link ParquetInputFormat#PARALLEL_READ_ORDERED}.
+     *
+     * @param orderedRecords whether records are returned in file order
+     * @return this builder for method chaining
+     */
+    public Builder<T> withOrderedRecords(boolean orderedRecords) {
+      this.orderedRecords = orderedRecords;
+      return this;
+    }
+
     protected ReadSupport<T> getReadSupport() {
       // if readSupport is null, the protected constructor must have been used
       Preconditions.checkArgument(readSupport != null,
@@ -199,7 +301,10 @@ public class ParquetReader<T> implements Closeable {
     }
 
     public ParquetReader<T> build() throws IOException {
-      return new ParquetReader<T>(conf, file, getReadSupport(), filter);
+      return new ParquetReader<T>(conf, file, getReadSupport(), filter, footerCache,
+          parallelism > 0 ? parallelism : conf.getInt(READ_PARALLELISM, READ_PARALLELISM_DEFAULT),
+          orderedRecords != null ? orderedRecords :
+              conf.getBoolean(PARALLEL_READ_ORDERED, PARALLEL_READ_ORDERED_DEFAULT));
     }
   }
 }
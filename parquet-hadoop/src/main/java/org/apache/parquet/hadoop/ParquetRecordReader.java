@@ -158,9 +158,9 @@ public class ParquetRecordReader<T> extends RecordReader<Void, T> {
     long[] rowGroupOffsets = split.getRowGroupOffsets();
 
     // if task.side.metadata is set, rowGroupOffsets is null
-    MetadataFilter metadataFilter = (rowGroupOffsets != null ?
-        offsets(rowGroupOffsets) :
-        range(split.getStart(), split.getEnd()));
+    MetadataFilter metadataFilter = ParquetInputFormat.getFooterFilter(configuration,
+        rowGroupOffsets != null ? offsets(rowGroupOffsets) : range(split.getStart(), split.getEnd()),
+        getFilter(configuration));
 
     // open a reader with the metadata filter
     ParquetFileReader reader = ParquetFileReader.open(
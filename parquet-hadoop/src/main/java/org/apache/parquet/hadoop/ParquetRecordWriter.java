@@ -48,6 +48,7 @@ public class ParquetRecordWriter<T> extends RecordWriter<Void, T> {
   private final InternalParquetRecordWriter<T> internalWriter;
   private final MemoryManager memoryManager;
   private final CodecFactory codecFactory;
+  private final PageCompressionPipeline pipeline;
 
   /**
    *
@@ -83,6 +84,7 @@ public class ParquetRecordWriter<T> extends RecordWriter<Void, T> {
         extraMetaData, blockSize, compressor, validating, props);
     this.memoryManager = null;
     this.codecFactory = null;
+    this.pipeline = null;
   }
 
   /**
@@ -121,6 +123,7 @@ public class ParquetRecordWriter<T> extends RecordWriter<Void, T> {
     this.memoryManager = checkNotNull(memoryManager, "memoryManager");
     memoryManager.addWriter(internalWriter, blockSize);
     this.codecFactory = null;
+    this.pipeline = null;
   }
 
   /**
@@ -145,10 +148,16 @@ public class ParquetRecordWriter<T> extends RecordWriter<Void, T> {
       ParquetProperties props,
       MemoryManager memoryManager,
       Configuration conf) {
-    this.codecFactory = new CodecFactory(conf, props.getPageSizeThreshold());
+    this.codecFactory = CodecFactory.createWriterCodecFactory(
+        conf, props.getAllocator(), props.getPageSizeThreshold());
+    int compressionThreads = ParquetOutputFormat.getPageCompressionThreads(conf);
+    this.pipeline = compressionThreads > 0
+        ? new PageCompressionPipeline(codecFactory, codec, compressionThreads)
+        : null;
     internalWriter = new InternalParquetRecordWriter<T>(w, writeSupport, schema,
-        extraMetaData, blockSize, codecFactory.getCompressor(codec), validating,
-        props);
+        extraMetaData, blockSize, codecFactory.getCompressor(codec),
+        codecFactory.getCompressors(ParquetOutputFormat.getColumnCompressionCodecs(conf)), validating,
+        props, pipeline);
     this.memoryManager = checkNotNull(memoryManager, "memoryManager");
     memoryManager.addWriter(internalWriter, blockSize);
   }
@@ -162,6 +171,9 @@ public class ParquetRecordWriter<T> extends RecordWriter<Void, T> {
       internalWriter.close();
       // release after the writer closes in case it is used for a last flush
     } finally {
+      if (pipeline != null) {
+        pipeline.close();
+      }
       if (codecFactory != null) {
         codecFactory.release();
       }
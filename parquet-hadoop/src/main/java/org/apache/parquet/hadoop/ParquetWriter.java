@@ -20,14 +20,21 @@ package org.apache.parquet.hadoop;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 
+import org.apache.parquet.Preconditions;
+import org.apache.parquet.bytes.ByteBufferAllocator;
 import org.apache.parquet.column.ParquetProperties;
 import org.apache.parquet.column.ParquetProperties.WriterVersion;
 import org.apache.parquet.hadoop.api.WriteSupport;
 import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.hadoop.util.HadoopOutputFile;
+import org.apache.parquet.io.OutputFile;
 import org.apache.parquet.schema.MessageType;
 
 /**
@@ -53,6 +60,7 @@ public class ParquetWriter<T> implements Closeable {
 
   private final InternalParquetRecordWriter<T> writer;
   private final CodecFactory codecFactory;
+  private final PageCompressionPipeline pipeline;
 
   /**
    * Create a new ParquetWriter.
@@ -266,16 +274,53 @@ public class ParquetWriter<T> implements Closeable {
       Configuration conf,
       int maxPaddingSize,
       ParquetProperties encodingProps) throws IOException {
+    this(file, mode, writeSupport, compressionCodecName, blockSize, validating,
+        conf, maxPaddingSize, encodingProps, 0, Collections.<String, CompressionCodecName>emptyMap());
+  }
+
+  ParquetWriter(
+      Path file,
+      ParquetFileWriter.Mode mode,
+      WriteSupport<T> writeSupport,
+      CompressionCodecName compressionCodecName,
+      int blockSize,
+      boolean validating,
+      Configuration conf,
+      int maxPaddingSize,
+      ParquetProperties encodingProps,
+      int compressionThreads,
+      Map<String, CompressionCodecName> columnCodecs) throws IOException {
+    this(HadoopOutputFile.fromPath(file, conf), mode, writeSupport,
+        compressionCodecName, blockSize, validating, conf, maxPaddingSize,
+        encodingProps, compressionThreads, columnCodecs);
+  }
+
+  ParquetWriter(
+      OutputFile file,
+      ParquetFileWriter.Mode mode,
+      WriteSupport<T> writeSupport,
+      CompressionCodecName compressionCodecName,
+      int blockSize,
+      boolean validating,
+      Configuration conf,
+      int maxPaddingSize,
+      ParquetProperties encodingProps,
+      int compressionThreads,
+      Map<String, CompressionCodecName> columnCodecs) throws IOException {
 
     WriteSupport.WriteContext writeContext = writeSupport.init(conf);
     MessageType schema = writeContext.getSchema();
 
     ParquetFileWriter fileWriter = new ParquetFileWriter(
-        conf, schema, file, mode, blockSize, maxPaddingSize);
+        file, schema, mode, blockSize, maxPaddingSize, encodingProps.getStatisticsTruncateLength());
     fileWriter.start();
 
-    this.codecFactory = new CodecFactory(conf, encodingProps.getPageSizeThreshold());
+    this.codecFactory = CodecFactory.createWriterCodecFactory(
+        conf, encodingProps.getAllocator(), encodingProps.getPageSizeThreshold());
     CodecFactory.BytesCompressor compressor =	codecFactory.getCompressor(compressionCodecName);
+    this.pipeline = compressionThreads > 0
+        ? new PageCompressionPipeline(codecFactory, compressionCodecName, compressionThreads)
+        : null;
     this.writer = new InternalParquetRecordWriter<T>(
         fileWriter,
         writeSupport,
@@ -283,8 +328,10 @@ public class ParquetWriter<T> implements Closeable {
         writeContext.getExtraMetaData(),
         blockSize,
         compressor,
+        codecFactory.getCompressors(columnCodecs),
         validating,
-        encodingProps);
+        encodingProps,
+        pipeline);
   }
 
   public void write(T object) throws IOException {
@@ -302,6 +349,9 @@ public class ParquetWriter<T> implements Closeable {
     } catch (InterruptedException e) {
       throw new IOException(e);
     } finally {
+      if (pipeline != null) {
+        pipeline.close();
+      }
       // release after the writer closes in case it is used for a last flush
       codecFactory.release();
     }
@@ -324,17 +374,24 @@ public class ParquetWriter<T> implements Closeable {
    * @param <SELF> The type of this builder that is returned by builder methods
    */
   public abstract static class Builder<T, SELF extends Builder<T, SELF>> {
-    private final Path file;
+    private OutputFile file = null;
+    private Path path = null;
     private Configuration conf = new Configuration();
     private ParquetFileWriter.Mode mode;
     private CompressionCodecName codecName = DEFAULT_COMPRESSION_CODEC_NAME;
     private int rowGroupSize = DEFAULT_BLOCK_SIZE;
     private int maxPaddingSize = MAX_PADDING_SIZE_DEFAULT;
     private boolean enableValidation = DEFAULT_IS_VALIDATING_ENABLED;
+    private int compressionThreads = 0;
+    private Map<String, CompressionCodecName> columnCodecs = new HashMap<String, CompressionCodecName>();
     private ParquetProperties.Builder encodingPropsBuilder =
         ParquetProperties.builder();
 
-    protected Builder(Path file) {
+    protected Builder(Path path) {
+      this.path = path;
+    }
+
+    protected Builder(OutputFile file) {
       this.file = file;
     }
 
@@ -383,6 +440,21 @@ public class ParquetWriter<T> implements Closeable {
       return self();
     }
 
+    /**
+     * Set the {@link CompressionCodecName compression codec} of a column,
+     * overriding the codec of the other columns. Columns of values that are
+     * already compressed can be left {@link CompressionCodecName#UNCOMPRESSED}.
+     *
+     * @param columnPath the dot-separated path of the column
+     * @param codecName a {@code CompressionCodecName}
+     * @return this builder for method chaining.
+     */
+    public SELF withCompressionCodec(String columnPath, CompressionCodecName codecName) {
+      Preconditions.checkNotNull(codecName, "codecName");
+      columnCodecs.put(columnPath, codecName);
+      return self();
+    }
+
     /**
      * Set the Parquet format row group size used by the constructed writer.
      *
@@ -405,6 +477,53 @@ public class ParquetWriter<T> implements Closeable {
       return self();
     }
 
+    /**
+     * Set the page size of a column for the constructed writer, overriding
+     * the page size of the other columns.
+     *
+     * @param columnPath the dot-separated path of the column
+     * @param pageSize an integer size in bytes
+     * @return this builder for method chaining.
+     */
+    public SELF withPageSize(String columnPath, int pageSize) {
+      encodingPropsBuilder.withPageSize(columnPath, pageSize);
+      return self();
+    }
+
+    /**
+     * Set the maximum number of rows in a page for the constructed writer.
+     *
+     * @param rowCount the maximum number of rows in a page
+     * @return this builder for method chaining.
+     */
+    public SELF withPageRowCountLimit(int rowCount) {
+      encodingPropsBuilder.withPageRowCountLimit(rowCount);
+      return self();
+    }
+
+    /**
+     * Set the minimum number of rows in a page for the constructed writer.
+     *
+     * @param rowCount the minimum number of rows in a page
+     * @return this builder for method chaining.
+     */
+    public SELF withPageRowCountMinimum(int rowCount) {
+      encodingPropsBuilder.withPageRowCountMinimum(rowCount);
+      return self();
+    }
+
+    /**
+     * Enable or disable compressed page sizes for the constructed writer.
+     * When enabled, the page sizes are the sizes of the compressed pages.
+     *
+     * @param compressedPageSize whether the page sizes are compressed sizes
+     * @return this builder for method chaining.
+     */
+    public SELF withCompressedPageSize(boolean compressedPageSize) {
+      encodingPropsBuilder.withCompressedPageSize(compressedPageSize);
+      return self();
+    }
+
     /**
      * Set the Parquet format dictionary page size used by the constructed
      * writer.
@@ -417,6 +536,19 @@ public class ParquetWriter<T> implements Closeable {
       return self();
     }
 
+    /**
+     * Set the dictionary page size of a column for the constructed writer,
+     * overriding the dictionary page size of the other columns.
+     *
+     * @param columnPath the dot-separated path of the column
+     * @param dictionaryPageSize an integer size in bytes
+     * @return this builder for method chaining.
+     */
+    public SELF withDictionaryPageSize(String columnPath, int dictionaryPageSize) {
+      encodingPropsBuilder.withDictionaryPageSize(columnPath, dictionaryPageSize);
+      return self();
+    }
+
     /**
      * Set the maximum amount of padding, in bytes, that will be used to align
      * row groups with blocks in the underlying filesystem. If the underlying
@@ -451,6 +583,19 @@ public class ParquetWriter<T> implements Closeable {
       return self();
     }
 
+    /**
+     * Enable or disable dictionary encoding of a column for the constructed
+     * writer, overriding the setting of the other columns.
+     *
+     * @param columnPath the dot-separated path of the column
+     * @param enableDictionary whether dictionary encoding should be enabled
+     * @return this builder for method chaining.
+     */
+    public SELF withDictionaryEncoding(String columnPath, boolean enableDictionary) {
+      encodingPropsBuilder.withDictionaryEncoding(columnPath, enableDictionary);
+      return self();
+    }
+
     /**
      * Enables validation for the constructed writer.
      *
@@ -484,6 +629,101 @@ public class ParquetWriter<T> implements Closeable {
       return self();
     }
 
+    /**
+     * Set the {@link WriterVersion format version} of the value encodings of
+     * a column for the constructed writer. The pages of the column are still
+     * written in the format of the writer version.
+     *
+     * @param columnPath the dot-separated path of the column
+     * @param version a {@code WriterVersion}
+     * @return this builder for method chaining.
+     */
+    public SELF withValuesWriterVersion(String columnPath, WriterVersion version) {
+      encodingPropsBuilder.withValuesWriterVersion(columnPath, version);
+      return self();
+    }
+
+    /**
+     * Enable or disable the Bloom filter of a column for the constructed
+     * writer.
+     *
+     * @param columnPath the dot-separated path of the column
+     * @param enabled whether a Bloom filter should be written for the column
+     * @return this builder for method chaining.
+     */
+    public SELF withBloomFilterEnabled(String columnPath, boolean enabled) {
+      encodingPropsBuilder.withBloomFilterEnabled(columnPath, enabled);
+      return self();
+    }
+
+    /**
+     * Enable the Bloom filter of a column and size it for the expected number
+     * of distinct values in a row group.
+     *
+     * @param columnPath the dot-separated path of the column
+     * @param ndv the expected number of distinct values
+     * @return this builder for method chaining.
+     */
+    public SELF withBloomFilterNDV(String columnPath, long ndv) {
+      encodingPropsBuilder.withBloomFilterNDV(columnPath, ndv);
+      return self();
+    }
+
+    /**
+     * Set the length of the lower and upper bounds written in the footer
+     * when the min and max statistics of a binary column are too large.
+     * The statistics are dropped when it is 0.
+     *
+     * @param statisticsTruncateLength a length in bytes
+     * @return this builder for method chaining.
+     */
+    public SELF withStatisticsTruncateLength(int statisticsTruncateLength) {
+      encodingPropsBuilder.withStatisticsTruncateLength(statisticsTruncateLength);
+      return self();
+    }
+
+    /**
+     * Declare the columns the records are sorted by for the constructed
+     * writer. Records must be written in ascending order of these columns,
+     * with nulls first, or the writer fails. Readers use the declared order
+     * to skip row groups.
+     *
+     * @param columnPaths the dot-separated paths of the sorting columns,
+     *                    starting with the leading sort key
+     * @return this builder for method chaining.
+     */
+    public SELF withSortingColumns(String... columnPaths) {
+      encodingPropsBuilder.withSortingColumns(columnPaths);
+      return self();
+    }
+
+    /**
+     * Set the number of threads compressing pages for the constructed writer.
+     * Pages are compressed by the thread writing records when it is 0.
+     *
+     * @param compressionThreads the number of threads compressing pages
+     * @return this builder for method chaining.
+     */
+    public SELF withPageCompressionThreads(int compressionThreads) {
+      Preconditions.checkArgument(compressionThreads >= 0,
+          "Invalid number of compression threads: " + compressionThreads);
+      this.compressionThreads = compressionThreads;
+      return self();
+    }
+
+    /**
+     * Set the allocator of the buffers that hold encoded and compressed pages
+     * until a row group is written. A direct allocator keeps the buffered
+     * pages of the constructed writer off heap.
+     *
+     * @param allocator a {@link ByteBufferAllocator}
+     * @return this builder for method chaining.
+     */
+    public SELF withAllocator(ByteBufferAllocator allocator) {
+      encodingPropsBuilder.withAllocator(allocator);
+      return self();
+    }
+
     /**
      * Build a {@link ParquetWriter} with the accumulated configuration.
      *
@@ -491,9 +731,15 @@ public class ParquetWriter<T> implements Closeable {
      * @throws IOException
      */
     public ParquetWriter<T> build() throws IOException {
-      return new ParquetWriter<T>(file, mode, getWriteSupport(conf), codecName,
-          rowGroupSize, enableValidation, conf, maxPaddingSize,
-          encodingPropsBuilder.build());
+      if (file != null) {
+        return new ParquetWriter<T>(file, mode, getWriteSupport(conf), codecName,
+            rowGroupSize, enableValidation, conf, maxPaddingSize,
+            encodingPropsBuilder.build(), compressionThreads, columnCodecs);
+      } else {
+        return new ParquetWriter<T>(path, mode, getWriteSupport(conf), codecName,
+            rowGroupSize, enableValidation, conf, maxPaddingSize,
+            encodingPropsBuilder.build(), compressionThreads, columnCodecs);
+      }
     }
   }
 }
@@ -0,0 +1,296 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+import org.apache.parquet.io.InvalidRecordException;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
+import org.apache.parquet.schema.Type.Repetition;
+
+import static org.apache.parquet.Preconditions.checkArgument;
+
+/**
+ * Wraps a record consumer and checks that the records are written in
+ * ascending order of the sorting columns, with nulls first. Binary values are
+ * compared as unsigned bytes, the order of UTF8 strings.
+ *
+ * The order is checked across row groups: the same instance wraps the record
+ * consumer of each row group of a file.
+ *
+ * A record is only known to be out of order once it is complete and already
+ * passed down to the column writers. The sorting columns are then dropped from
+ * the file, so that readers do not rely on them, and the records that follow
+ * are no longer checked. The writer reports the violation with
+ * {@link #checkOrder()} once it has accounted for the record.
+ */
+class SortOrderValidatingRecordConsumer extends RecordConsumer {
+
+  private final List<ColumnPath> sortingColumns;
+  // the field indexes of each sorting column
+  private final int[][] sortingPaths;
+  private final ParquetFileWriter fileWriter;
+  // the field indexes of the value being written
+  private final int[] fieldPath;
+  private int depth = 0;
+
+  private RecordConsumer delegate;
+  private Comparable[] currentKey;
+  private Comparable[] previousKey = null;
+  private long recordCount = 0;
+  private boolean sorted = true;
+  private String outOfOrder = null;
+
+  /**
+   * @param schema the schema of the records
+   * @param sortingColumns the sorting columns, starting with the leading sort
+   *                       key. They must be primitive columns that are not
+   *                       repeated.
+   * @param fileWriter the writer to drop the sorting columns from when the
+   *                   records are out of order
+   */
+  SortOrderValidatingRecordConsumer(MessageType schema, List<ColumnPath> sortingColumns,
+                                    ParquetFileWriter fileWriter) {
+    this.sortingColumns = sortingColumns;
+    this.fileWriter = fileWriter;
+    this.sortingPaths = new int[sortingColumns.size()][];
+    int maxDepth = 0;
+    for (int i = 0; i < sortingPaths.length; i += 1) {
+      String[] path = sortingColumns.get(i).toArray();
+      checkArgument(schema.containsPath(path),
+          "Sorting column %s is not in the schema", sortingColumns.get(i));
+      int[] indexes = new int[path.length];
+      Type type = schema;
+      for (int j = 0; j < path.length; j += 1) {
+        GroupType group = type.asGroupType();
+        indexes[j] = group.getFieldIndex(path[j]);
+        type = group.getType(indexes[j]);
+        checkArgument(!type.isRepetition(Repetition.REPEATED),
+            "Sorting column %s is repeated", sortingColumns.get(i));
+      }
+      checkArgument(type.isPrimitive(),
+          "Sorting column %s is not a primitive column", sortingColumns.get(i));
+      sortingPaths[i] = indexes;
+      maxDepth = Math.max(maxDepth, indexes.length);
+    }
+    this.fieldPath = new int[maxDepth];
+    this.currentKey = new Comparable[sortingPaths.length];
+  }
+
+  /**
+   * @param delegate the consumer to pass down the events to
+   */
+  void setDelegate(RecordConsumer delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public void startMessage() {
+    depth = 0;
+    Arrays.fill(currentKey, null);
+    delegate.startMessage();
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void endMessage() {
+    delegate.endMessage();
+    recordCount += 1;
+    if (!sorted) {
+      return;
+    }
+    if (previousKey != null) {
+      for (int i = 0; i < currentKey.length; i += 1) {
+        Comparable current = currentKey[i];
+        Comparable previous = previousKey[i];
+        int cmp;
+        if (current == null) {
+          cmp = (previous == null) ? 0 : -1;
+        } else {
+          cmp = (previous == null) ? 1 : compare(current, previous);
+        }
+        if (cmp < 0) {
+          sorted = false;
+          fileWriter.clearSortingColumns();
+          outOfOrder = String.format(
+              "Record %d is not sorted by %s: %s comes after %s",
+              recordCount, sortingColumns,
+              toString(currentKey), toString(previousKey));
+          return;
+        } else if (cmp > 0) {
+          break;
+        }
+      }
+    } else {
+      previousKey = new Comparable[currentKey.length];
+    }
+    // reuse the previous key for the next record
+    Comparable[] key = previousKey;
+    previousKey = currentKey;
+    currentKey = key;
+  }
+
+  /**
+   * Reports a record out of order once it is completely written, so that it
+   * is accounted for in the row group.
+   *
+   * @throws InvalidRecordException if the last record is out of order
+   */
+  void checkOrder() {
+    if (outOfOrder != null) {
+      String message = outOfOrder;
+      outOfOrder = null;
+      throw new InvalidRecordException(message);
+    }
+  }
+
+  @Override
+  public void startField(String field, int index) {
+    if (depth < fieldPath.length) {
+      fieldPath[depth] = index;
+    }
+    depth += 1;
+    delegate.startField(field, index);
+  }
+
+  @Override
+  public void endField(String field, int index) {
+    depth -= 1;
+    delegate.endField(field, index);
+  }
+
+  @Override
+  public void startGroup() {
+    delegate.startGroup();
+  }
+
+  @Override
+  public void endGroup() {
+    delegate.endGroup();
+  }
+
+  @Override
+  public void addInteger(int value) {
+    int column = getSortingColumn();
+    if (column >= 0) {
+      currentKey[column] = value;
+    }
+    delegate.addInteger(value);
+  }
+
+  @Override
+  public void addLong(long value) {
+    int column = getSortingColumn();
+    if (column >= 0) {
+      currentKey[column] = value;
+    }
+    delegate.addLong(value);
+  }
+
+  @Override
+  public void addBoolean(boolean value) {
+    int column = getSortingColumn();
+    if (column >= 0) {
+      currentKey[column] = value;
+    }
+    delegate.addBoolean(value);
+  }
+
+  @Override
+  public void addBinary(Binary value) {
+    int column = getSortingColumn();
+    if (column >= 0) {
+      // the bytes may be reused once the value is written
+      currentKey[column] = value.copy();
+    }
+    delegate.addBinary(value);
+  }
+
+  @Override
+  public void addFloat(float value) {
+    int column = getSortingColumn();
+    if (column >= 0) {
+      currentKey[column] = value;
+    }
+    delegate.addFloat(value);
+  }
+
+  @Override
+  public void addDouble(double value) {
+    int column = getSortingColumn();
+    if (column >= 0) {
+      currentKey[column] = value;
+    }
+    delegate.addDouble(value);
+  }
+
+  @Override
+  public void flush() {
+    delegate.flush();
+  }
+
+  private int getSortingColumn() {
+    if (depth > fieldPath.length) {
+      return -1;
+    }
+    for (int i = 0; i < sortingPaths.length; i += 1) {
+      int[] path = sortingPaths[i];
+      if (path.length == depth && matchesFieldPath(path)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Compares binary values lexicographically as unsigned bytes, the order of
+   * the min and max statistics, and other values in their natural order
+   */
+  @SuppressWarnings("unchecked")
+  private static int compare(Comparable current, Comparable previous) {
+    if (current instanceof Binary) {
+      return Binary.compareUnsigned((Binary) current, (Binary) previous);
+    }
+    return current.compareTo(previous);
+  }
+
+  private static String toString(Comparable[] key) {
+    String[] values = new String[key.length];
+    for (int i = 0; i < key.length; i += 1) {
+      values[i] = key[i] instanceof Binary ?
+          ((Binary) key[i]).toStringUsingUTF8() : String.valueOf(key[i]);
+    }
+    return Arrays.toString(values);
+  }
+
+  private boolean matchesFieldPath(int[] path) {
+    for (int j = 0; j < path.length; j += 1) {
+      if (path[j] != fieldPath[j]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop.codec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A pure Java implementation of the LZ4 block format.
+ *
+ * Both heap and direct buffers are supported. Blocks do not store their
+ * uncompressed size, the destination of {@link #decompress(ByteBuffer, ByteBuffer)}
+ * must be large enough to hold the whole block.
+ */
+public final class Lz4 {
+
+  private static final int MIN_MATCH = 4;
+  // the last 5 bytes are always literals
+  private static final int LAST_LITERALS = 5;
+  // the last match starts at least 12 bytes before the end of the block
+  private static final int MF_LIMIT = 12;
+  private static final int MAX_DISTANCE = (1 << 16) - 1;
+  private static final int HASH_LOG = 12;
+  // skip faster through data that does not compress
+  private static final int SKIP_TRIGGER = 6;
+  private static final int RUN_MASK = 0x0F;
+
+  private Lz4() {
+  }
+
+  /**
+   * @param length a number of uncompressed bytes
+   * @return the maximum size of the compressed bytes
+   */
+  public static int maxCompressedLength(int length) {
+    return length + length / 255 + 16;
+  }
+
+  /**
+   * Compresses the remaining bytes of src as a single block into dst.
+   *
+   * @param src the bytes to compress, its position is moved to its limit
+   * @param dst the buffer to write to, it must have at least
+   *            {@link #maxCompressedLength(int)} bytes remaining
+   * @return the size of the compressed block
+   */
+  public static int compress(ByteBuffer src, ByteBuffer dst) {
+    ByteBuffer in = src.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    int start = src.position();
+    int end = src.limit();
+    int d = dst.position();
+    int anchor = start;
+
+    if (end - start > MF_LIMIT) {
+      // positions + 1 of the last sequences with a hash, 0 if none
+      int[] table = new int[1 << HASH_LOG];
+      int matchLimit = end - LAST_LITERALS;
+      int mfLimit = end - MF_LIMIT;
+      int i = start;
+      int misses = 0;
+      while (i <= mfLimit) {
+        int sequence = in.getInt(i);
+        int hash = hash(sequence);
+        int ref = table[hash] - 1 + start;
+        table[hash] = i - start + 1;
+        if (ref < start || i - ref > MAX_DISTANCE || in.getInt(ref) != sequence) {
+          i += 1 + (misses++ >>> SKIP_TRIGGER);
+          continue;
+        }
+        misses = 0;
+
+        // extend the match backward and forward
+        while (i > anchor && ref > start && in.get(i - 1) == in.get(ref - 1)) {
+          i -= 1;
+          ref -= 1;
+        }
+        int matchLength = MIN_MATCH;
+        while (i + matchLength < matchLimit && in.get(i + matchLength) == in.get(ref + matchLength)) {
+          matchLength += 1;
+        }
+
+        d = writeLiterals(in, anchor, i - anchor, matchLength - MIN_MATCH, dst, d);
+        int offset = i - ref;
+        dst.put(d++, (byte) offset);
+        dst.put(d++, (byte) (offset >>> 8));
+        if (matchLength - MIN_MATCH >= RUN_MASK) {
+          d = writeLength(matchLength - MIN_MATCH - RUN_MASK, dst, d);
+        }
+
+        i += matchLength;
+        anchor = i;
+      }
+    }
+
+    // the last sequence has no match
+    d = writeLiterals(in, anchor, end - anchor, 0, dst, d);
+    int size = d - dst.position();
+    src.position(end);
+    dst.position(d);
+    return size;
+  }
+
+  private static int hash(int sequence) {
+    return (sequence * -1640531535) >>> (32 - HASH_LOG);
+  }
+
+  private static int writeLiterals(ByteBuffer in, int start, int length, int matchLength,
+                                   ByteBuffer dst, int d) {
+    int token = (Math.min(length, RUN_MASK) << 4) | Math.min(matchLength, RUN_MASK);
+    dst.put(d++, (byte) token);
+    if (length >= RUN_MASK) {
+      d = writeLength(length - RUN_MASK, dst, d);
+    }
+    copy(in, start, dst, d, length);
+    return d + length;
+  }
+
+  private static int writeLength(int length, ByteBuffer dst, int d) {
+    while (length >= 255) {
+      dst.put(d++, (byte) 255);
+      length -= 255;
+    }
+    dst.put(d++, (byte) length);
+    return d;
+  }
+
+  /**
+   * Decompresses the remaining bytes of src, a single block, into dst.
+   *
+   * @param src the block to decompress, its position is moved to its limit
+   * @param dst the buffer to write to, its position is moved after the
+   *            decompressed bytes
+   * @return the size of the decompressed bytes
+   * @throws IOException if the block is malformed or does not fit in dst
+   */
+  public static int decompress(ByteBuffer src, ByteBuffer dst) throws IOException {
+    int s = src.position();
+    int end = src.limit();
+    int start = dst.position();
+    int d = start;
+    int dstEnd = dst.limit();
+    try {
+      while (s < end) {
+        int token = src.get(s++) & 0xFF;
+
+        int literalLength = token >>> 4;
+        if (literalLength == RUN_MASK) {
+          int b;
+          do {
+            b = src.get(s++) & 0xFF;
+            literalLength += b;
+          } while (b == 255);
+        }
+        if (s + literalLength > end || d + literalLength > dstEnd) {
+          throw new IOException("Malformed LZ4 block: literals out of bounds");
+        }
+        copy(src, s, dst, d, literalLength);
+        s += literalLength;
+        d += literalLength;
+        if (s == end) {
+          // the last sequence has no match
+          break;
+        }
+
+        int offset = (src.get(s) & 0xFF) | ((src.get(s + 1) & 0xFF) << 8);
+        s += 2;
+        int matchLength = token & RUN_MASK;
+        if (matchLength == RUN_MASK) {
+          int b;
+          do {
+            b = src.get(s++) & 0xFF;
+            matchLength += b;
+          } while (b == 255);
+        }
+        matchLength += MIN_MATCH;
+        if (offset == 0 || d - offset < start || d + matchLength > dstEnd) {
+          throw new IOException("Malformed LZ4 block: match out of bounds");
+        }
+        // the match may overlap the bytes it produces
+        int ref = d - offset;
+        if (offset >= matchLength) {
+          copy(dst, ref, dst, d, matchLength);
+        } else {
+          for (int i = 0; i < matchLength; i += 1) {
+            dst.put(d + i, dst.get(ref + i));
+          }
+        }
+        d += matchLength;
+      }
+    } catch (IndexOutOfBoundsException e) {
+      throw new IOException("Malformed LZ4 block: truncated input", e);
+    }
+    src.position(end);
+    dst.position(d);
+    return d - start;
+  }
+
+  private static void copy(ByteBuffer src, int srcPos, ByteBuffer dst, int dstPos, int length) {
+    if (length == 0) {
+      return;
+    }
+    if (src.hasArray() && dst.hasArray()) {
+      System.arraycopy(src.array(), src.arrayOffset() + srcPos,
+          dst.array(), dst.arrayOffset() + dstPos, length);
+    } else {
+      ByteBuffer from = src.duplicate();
+      from.limit(srcPos + length);
+      from.position(srcPos);
+      ByteBuffer to = dst.duplicate();
+      to.position(dstPos);
+      to.put(from);
+    }
+  }
+}
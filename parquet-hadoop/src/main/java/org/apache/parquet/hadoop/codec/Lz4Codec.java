@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.hadoop.conf.Configurable;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.compress.BlockCompressorStream;
+import org.apache.hadoop.io.compress.BlockDecompressorStream;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.CompressionInputStream;
+import org.apache.hadoop.io.compress.CompressionOutputStream;
+import org.apache.hadoop.io.compress.Compressor;
+import org.apache.hadoop.io.compress.Decompressor;
+
+/**
+ * LZ4 compression codec for Parquet that does not need the Hadoop native
+ * library. It writes the same blocking structure as Hadoop's Lz4Codec so that
+ * the pages can be read by either codec.
+ */
+public class Lz4Codec implements Configurable, CompressionCodec {
+  // Same config and default as Hadoop's Lz4Codec for the size of the blocks
+  public static final String BUFFER_SIZE_CONFIG = "io.compression.codec.lz4.buffersize";
+  public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+
+  private Configuration conf;
+
+  /**
+   * @param bufferSize the size of the uncompressed blocks
+   * @return the number of bytes compression may add to a block
+   */
+  public static int getCompressionOverhead(int bufferSize) {
+    return bufferSize / 255 + 16;
+  }
+
+  @Override
+  public void setConf(Configuration conf) {
+    this.conf = conf;
+  }
+
+  @Override
+  public Configuration getConf() {
+    return conf;
+  }
+
+  private int getBufferSize() {
+    return conf == null ? DEFAULT_BUFFER_SIZE : conf.getInt(BUFFER_SIZE_CONFIG, DEFAULT_BUFFER_SIZE);
+  }
+
+  @Override
+  public Compressor createCompressor() {
+    return new Lz4Compressor();
+  }
+
+  @Override
+  public Decompressor createDecompressor() {
+    return new Lz4Decompressor(getBufferSize());
+  }
+
+  @Override
+  public CompressionInputStream createInputStream(InputStream stream)
+      throws IOException {
+    return createInputStream(stream, createDecompressor());
+  }
+
+  @Override
+  public CompressionInputStream createInputStream(InputStream stream,
+      Decompressor decompressor) throws IOException {
+    return new BlockDecompressorStream(stream, decompressor, getBufferSize());
+  }
+
+  @Override
+  public CompressionOutputStream createOutputStream(OutputStream stream)
+      throws IOException {
+    return createOutputStream(stream, createCompressor());
+  }
+
+  @Override
+  public CompressionOutputStream createOutputStream(OutputStream stream,
+      Compressor compressor) throws IOException {
+    int bufferSize = getBufferSize();
+    return new BlockCompressorStream(stream, compressor, bufferSize,
+        getCompressionOverhead(bufferSize));
+  }
+
+  @Override
+  public Class<? extends Compressor> getCompressorType() {
+    return Lz4Compressor.class;
+  }
+
+  @Override
+  public Class<? extends Decompressor> getDecompressorType() {
+    return Lz4Decompressor.class;
+  }
+
+  @Override
+  public String getDefaultExtension() {
+    return ".lz4";
+  }
+}
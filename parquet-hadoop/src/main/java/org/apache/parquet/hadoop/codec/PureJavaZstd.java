@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop.codec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import io.airlift.compress.MalformedInputException;
+import io.airlift.compress.zstd.ZstdCompressor;
+import io.airlift.compress.zstd.ZstdDecompressor;
+
+/**
+ * The pure Java ZSTD implementation of aircompressor, used by {@link Zstd}
+ * when the zstd-jni native library can not be loaded.
+ *
+ * aircompressor is an optional dependency that needs Java 8, so this class
+ * is only loaded once {@link Zstd} has checked that it is available.
+ */
+final class PureJavaZstd {
+
+  // frames that don't store their size are decompressed into growing buffers
+  private static final int MIN_OUTPUT_SIZE = 64 * 1024;
+  private static final int MAX_OUTPUT_SIZE = Integer.MAX_VALUE - 8;
+  private static final String OUTPUT_TOO_SMALL = "Output buffer too small";
+
+  private PureJavaZstd() {
+  }
+
+  /**
+   * Compresses and decompresses a few bytes, which fails when aircompressor
+   * is missing or does not support this JVM.
+   */
+  static void selfTest() throws IOException {
+    byte[] input = new byte[] { 'p', 'a', 'r', 'q', 'u', 'e', 't' };
+    ByteBuffer compressed = ByteBuffer.allocate(maxCompressedLength(input.length));
+    compress(ByteBuffer.wrap(input), compressed);
+    compressed.flip();
+    ByteBuffer output = ByteBuffer.allocate(input.length);
+    decompress(compressed, output);
+    if (output.position() != input.length) {
+      throw new IOException("Could not decompress ZSTD frame");
+    }
+  }
+
+  static int maxCompressedLength(int length) {
+    return new ZstdCompressor().maxCompressedLength(length);
+  }
+
+  static int compress(ByteBuffer src, ByteBuffer dst) throws IOException {
+    int start = dst.position();
+    try {
+      new ZstdCompressor().compress(src.duplicate(), dst);
+    } catch (RuntimeException e) {
+      throw new IOException("Could not compress ZSTD frame", e);
+    }
+    src.position(src.limit());
+    return dst.position() - start;
+  }
+
+  static int decompress(ByteBuffer src, ByteBuffer dst) throws IOException {
+    int start = dst.position();
+    try {
+      new ZstdDecompressor().decompress(src.duplicate(), dst);
+    } catch (RuntimeException e) {
+      throw new IOException("Could not decompress ZSTD frames", e);
+    }
+    src.position(src.limit());
+    return dst.position() - start;
+  }
+
+  static ByteBuffer decompress(byte[] input) throws IOException {
+    // the size of the first frame, if stored, is a good first guess
+    long outputSize = ZstdDecompressor.getDecompressedSize(input, 0, input.length);
+    if (outputSize < 0 || outputSize > MAX_OUTPUT_SIZE) {
+      outputSize = Math.min(MAX_OUTPUT_SIZE, Math.max(MIN_OUTPUT_SIZE, input.length * 4L));
+    }
+    while (true) {
+      byte[] output = new byte[(int) outputSize];
+      try {
+        int size = new ZstdDecompressor().decompress(input, 0, input.length, output, 0, output.length);
+        return ByteBuffer.wrap(output, 0, size);
+      } catch (MalformedInputException e) {
+        // only grow the buffer when it is too small, not when the input is corrupt
+        if (outputSize == MAX_OUTPUT_SIZE || !e.getMessage().startsWith(OUTPUT_TOO_SMALL)) {
+          throw new IOException("Could not decompress ZSTD frames", e);
+        }
+        outputSize = Math.min(MAX_OUTPUT_SIZE, outputSize * 2);
+      }
+    }
+  }
+}
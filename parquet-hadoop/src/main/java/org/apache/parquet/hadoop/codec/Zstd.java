@@ -0,0 +1,246 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.util.Native;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compresses and decompresses ZSTD frames.
+ *
+ * The frames are compressed with zstd-jni when its native library can be
+ * loaded and with the pure Java implementation of aircompressor otherwise.
+ * Both use the standard ZSTD frame format so the pages written by either can
+ * be read by the other, or by any ZSTD implementation. The pure Java
+ * compressor does not support compression levels.
+ *
+ * aircompressor is an optional dependency that needs Java 8. It is only
+ * loaded when zstd-jni is not, and must then be added to the classpath.
+ *
+ * Both heap and direct buffers are supported.
+ */
+public final class Zstd {
+  private static final Logger LOG = LoggerFactory.getLogger(Zstd.class);
+
+  // same default level as the zstd command line and Hadoop's ZStandardCodec
+  public static final int DEFAULT_LEVEL = 3;
+
+  private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
+  private static final boolean NATIVE_LOADED = loadNative();
+
+  private Zstd() {
+  }
+
+  private static boolean loadNative() {
+    try {
+      Native.load();
+      return true;
+    } catch (Throwable e) {
+      // UnsatisfiedLinkError when there is no library for the platform
+      LOG.warn("Could not load the zstd-jni native library, using the pure Java ZSTD codec" +
+          " which does not support compression levels", e);
+      return false;
+    }
+  }
+
+  /**
+   * Checks that aircompressor can be used before {@link PureJavaZstd}, which
+   * links against it, is used.
+   */
+  private static void checkPureJava() throws IOException {
+    if (PureJavaCheck.ERROR != null) {
+      throw new IOException("ZSTD needs either the zstd-jni native library or" +
+          " the pure Java codec of aircompressor on Java 8 or later", PureJavaCheck.ERROR);
+    }
+  }
+
+  // initialized on first use of the pure Java codec
+  private static final class PureJavaCheck {
+    // null when aircompressor can be used
+    private static final Throwable ERROR = check();
+
+    private static Throwable check() {
+      try {
+        PureJavaZstd.selfTest();
+        return null;
+      } catch (LinkageError e) {
+        // NoClassDefFoundError without aircompressor, UnsupportedClassVersionError
+        // before Java 8 and ExceptionInInitializerError on JVMs it does not support
+        return e;
+      } catch (IOException e) {
+        return e;
+      } catch (RuntimeException e) {
+        return e;
+      }
+    }
+  }
+
+  /**
+   * @return whether the pure Java codec can be used when zstd-jni is not loaded
+   */
+  public static boolean isPureJavaAvailable() {
+    return PureJavaCheck.ERROR == null;
+  }
+
+  /**
+   * @return whether the frames are compressed and decompressed by zstd-jni,
+   *         which supports compression levels
+   */
+  public static boolean isNativeLoaded() {
+    return NATIVE_LOADED;
+  }
+
+  /**
+   * @param length a number of uncompressed bytes
+   * @return the maximum size of the compressed frame
+   * @throws IOException if neither zstd-jni nor aircompressor can be loaded
+   */
+  public static int maxCompressedLength(int length) throws IOException {
+    if (NATIVE_LOADED) {
+      return toIntWithCheck(com.github.luben.zstd.Zstd.compressBound(length));
+    }
+    checkPureJava();
+    return PureJavaZstd.maxCompressedLength(length);
+  }
+
+  /**
+   * Compresses the remaining bytes of src as a single frame into dst.
+   *
+   * @param src the bytes to compress, its position is moved to its limit
+   * @param dst the buffer to write to, it must have at least
+   *            {@link #maxCompressedLength(int)} bytes remaining, its
+   *            position is moved after the frame
+   * @param level the compression level, ignored by the pure Java compressor
+   * @return the size of the compressed frame
+   * @throws IOException if the bytes can not be compressed
+   */
+  public static int compress(ByteBuffer src, ByteBuffer dst, int level) throws IOException {
+    if (!NATIVE_LOADED) {
+      checkPureJava();
+      return PureJavaZstd.compress(src, dst);
+    }
+    long size;
+    if (src.isDirect() && dst.isDirect()) {
+      size = com.github.luben.zstd.Zstd.compressDirectByteBuffer(
+          dst, dst.position(), dst.remaining(), src, src.position(), src.remaining(), level);
+    } else if (src.hasArray() && dst.hasArray()) {
+      size = com.github.luben.zstd.Zstd.compressByteArray(
+          dst.array(), dst.arrayOffset() + dst.position(), dst.remaining(),
+          src.array(), src.arrayOffset() + src.position(), src.remaining(), level);
+    } else {
+      // zstd-jni needs buffers of the same kind
+      return compress(copy(src, dst.isDirect()), dst, level);
+    }
+    checkError(size, "compress");
+    src.position(src.limit());
+    dst.position(dst.position() + (int) size);
+    return (int) size;
+  }
+
+  /**
+   * Decompresses the remaining bytes of src, one or more frames, into dst.
+   *
+   * @param src the frames to decompress, its position is moved to its limit
+   * @param dst the buffer to write to, its position is moved after the
+   *            decompressed bytes
+   * @return the size of the decompressed bytes
+   * @throws IOException if the frames are malformed or do not fit in dst
+   */
+  public static int decompress(ByteBuffer src, ByteBuffer dst) throws IOException {
+    if (!NATIVE_LOADED) {
+      checkPureJava();
+      return PureJavaZstd.decompress(src, dst);
+    }
+    long size;
+    if (src.isDirect() && dst.isDirect()) {
+      size = com.github.luben.zstd.Zstd.decompressDirectByteBuffer(
+          dst, dst.position(), dst.remaining(), src, src.position(), src.remaining());
+    } else if (src.hasArray() && dst.hasArray()) {
+      size = com.github.luben.zstd.Zstd.decompressByteArray(
+          dst.array(), dst.arrayOffset() + dst.position(), dst.remaining(),
+          src.array(), src.arrayOffset() + src.position(), src.remaining());
+    } else {
+      return decompress(copy(src, dst.isDirect()), dst);
+    }
+    checkError(size, "decompress");
+    src.position(src.limit());
+    dst.position(dst.position() + (int) size);
+    return (int) size;
+  }
+
+  /**
+   * Decompresses the remaining bytes of src when their decompressed size is
+   * not known. Streaming compressors write frames that don't store their
+   * size.
+   *
+   * @param src the frames to decompress, its position is moved to its limit
+   * @return a heap buffer of the decompressed bytes
+   * @throws IOException if the frames are malformed
+   */
+  public static ByteBuffer decompress(ByteBuffer src) throws IOException {
+    byte[] input = new byte[src.remaining()];
+    src.get(input);
+    if (NATIVE_LOADED) {
+      InputStream in = new ZstdInputStream(new ByteArrayInputStream(input));
+      try {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(STREAM_BUFFER_SIZE, input.length * 4));
+        byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) >= 0) {
+          out.write(buffer, 0, read);
+        }
+        return ByteBuffer.wrap(out.toByteArray());
+      } finally {
+        in.close();
+      }
+    }
+    checkPureJava();
+    return PureJavaZstd.decompress(input);
+  }
+
+  private static ByteBuffer copy(ByteBuffer src, boolean direct) {
+    ByteBuffer copy = direct ? ByteBuffer.allocateDirect(src.remaining()) : ByteBuffer.allocate(src.remaining());
+    copy.put(src);
+    copy.flip();
+    return copy;
+  }
+
+  private static void checkError(long result, String operation) throws IOException {
+    if (com.github.luben.zstd.Zstd.isError(result)) {
+      throw new IOException("Could not " + operation + " ZSTD frames: " +
+          com.github.luben.zstd.Zstd.getErrorName(result));
+    }
+  }
+
+  private static int toIntWithCheck(long size) {
+    if (size > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("ZSTD frame larger than " + Integer.MAX_VALUE + " bytes: " + size);
+    }
+    return (int) size;
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.hadoop.conf.Configurable;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.CompressionInputStream;
+import org.apache.hadoop.io.compress.CompressionOutputStream;
+import org.apache.hadoop.io.compress.Compressor;
+import org.apache.hadoop.io.compress.Decompressor;
+
+/**
+ * ZSTD compression codec for Parquet that does not need the Hadoop native
+ * library. Each page is compressed as one ZSTD frame with {@link Zstd}.
+ */
+public class ZstdCodec implements Configurable, CompressionCodec {
+  // Same config and default as Hadoop's ZStandardCodec for the compression level
+  public static final String LEVEL_CONFIG = "io.compression.codec.zstd.level";
+  // Hadoop config for how big to make intermediate buffers.
+  private static final String BUFFER_SIZE_CONFIG = "io.file.buffer.size";
+
+  private Configuration conf;
+
+  /**
+   * @param conf a configuration, may be null
+   * @return the compression level set in the configuration
+   */
+  public static int getLevel(Configuration conf) {
+    return conf == null ? Zstd.DEFAULT_LEVEL : conf.getInt(LEVEL_CONFIG, Zstd.DEFAULT_LEVEL);
+  }
+
+  @Override
+  public void setConf(Configuration conf) {
+    this.conf = conf;
+  }
+
+  @Override
+  public Configuration getConf() {
+    return conf;
+  }
+
+  private int getBufferSize() {
+    return conf == null ? 4 * 1024 : conf.getInt(BUFFER_SIZE_CONFIG, 4 * 1024);
+  }
+
+  @Override
+  public Compressor createCompressor() {
+    return new ZstdCompressor(getLevel(conf));
+  }
+
+  @Override
+  public Decompressor createDecompressor() {
+    return new ZstdDecompressor();
+  }
+
+  @Override
+  public CompressionInputStream createInputStream(InputStream stream)
+      throws IOException {
+    return createInputStream(stream, createDecompressor());
+  }
+
+  @Override
+  public CompressionInputStream createInputStream(InputStream stream,
+      Decompressor decompressor) throws IOException {
+    return new NonBlockedDecompressorStream(stream, decompressor, getBufferSize());
+  }
+
+  @Override
+  public CompressionOutputStream createOutputStream(OutputStream stream)
+      throws IOException {
+    return createOutputStream(stream, createCompressor());
+  }
+
+  @Override
+  public CompressionOutputStream createOutputStream(OutputStream stream,
+      Compressor compressor) throws IOException {
+    return new NonBlockedCompressorStream(stream, compressor, getBufferSize());
+  }
+
+  @Override
+  public Class<? extends Compressor> getCompressorType() {
+    return ZstdCompressor.class;
+  }
+
+  @Override
+  public Class<? extends Decompressor> getDecompressorType() {
+    return ZstdDecompressor.class;
+  }
+
+  @Override
+  public String getDefaultExtension() {
+    return ".zst";
+  }
+}
@@ -35,6 +35,7 @@ public class BlockMetaData {
   private long rowCount;
   private long totalByteSize;
   private String path;
+  private List<ColumnPath> sortingColumns = Collections.emptyList();
 
   public BlockMetaData() {
   }
@@ -98,6 +99,23 @@ public class BlockMetaData {
     return Collections.unmodifiableList(columns);
   }
 
+  /**
+   * @param sortingColumns the columns the rows are sorted by, in ascending
+   *                       order with nulls first, starting with the leading
+   *                       sort key
+   */
+  public void setSortingColumns(List<ColumnPath> sortingColumns) {
+    this.sortingColumns = Collections.unmodifiableList(new ArrayList<ColumnPath>(sortingColumns));
+  }
+
+  /**
+   * @return the columns the rows are sorted by, in ascending order with nulls
+   *         first, or an empty list if the rows are not known to be sorted
+   */
+  public List<ColumnPath> getSortingColumns() {
+    return sortingColumns;
+  }
+
   /**
    *
    * @return the starting pos of first column
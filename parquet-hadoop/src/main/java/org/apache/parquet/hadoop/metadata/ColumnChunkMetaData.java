@@ -24,6 +24,7 @@ import org.apache.parquet.column.Encoding;
 import org.apache.parquet.column.EncodingStats;
 import org.apache.parquet.column.statistics.BooleanStatistics;
 import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.io.api.Binary;
 import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
 
 /**
@@ -130,6 +131,15 @@ abstract public class ColumnChunkMetaData {
 
   private final EncodingStats encodingStats;
 
+  // set when the column chunk has page indexes, may be null
+  private IndexReference columnIndexReference;
+  private IndexReference offsetIndexReference;
+  // set when the column chunk has a Bloom filter, may be null
+  private IndexReference bloomFilterReference;
+  // set when the binary values are bounded in unsigned byte order, may be null
+  private Binary binaryLowerBound;
+  private Binary binaryUpperBound;
+
   // we save 3 references by storing together the column properties that have few distinct values
   private final ColumnChunkProperties properties;
 
@@ -202,6 +212,68 @@ abstract public class ColumnChunkMetaData {
     return encodingStats;
   }
 
+  /**
+   * @return the location of the column index of this chunk or null if it has none
+   */
+  public IndexReference getColumnIndexReference() {
+    return columnIndexReference;
+  }
+
+  public void setColumnIndexReference(IndexReference columnIndexReference) {
+    this.columnIndexReference = columnIndexReference;
+  }
+
+  /**
+   * @return the location of the offset index of this chunk or null if it has none
+   */
+  public IndexReference getOffsetIndexReference() {
+    return offsetIndexReference;
+  }
+
+  public void setOffsetIndexReference(IndexReference offsetIndexReference) {
+    this.offsetIndexReference = offsetIndexReference;
+  }
+
+  /**
+   * @return the location of the Bloom filter of this chunk or null if it has none
+   */
+  public IndexReference getBloomFilterReference() {
+    return bloomFilterReference;
+  }
+
+  public void setBloomFilterReference(IndexReference bloomFilterReference) {
+    this.bloomFilterReference = bloomFilterReference;
+  }
+
+  /**
+   * The bounds of binary values are compared in unsigned byte order, the
+   * order of UTF8 strings. They are not the min and max of the values in
+   * {@link #getStatistics()}: they may be truncated, so they are only used
+   * to filter the column chunk.
+   *
+   * @return a lower bound of the values of this chunk or null if it has none
+   */
+  public Binary getBinaryLowerBound() {
+    return binaryLowerBound;
+  }
+
+  /**
+   * @return an upper bound of the values of this chunk or null if it has none
+   * @see #getBinaryLowerBound()
+   */
+  public Binary getBinaryUpperBound() {
+    return binaryUpperBound;
+  }
+
+  /**
+   * @param lowerBound a lower bound of the binary values in unsigned byte order
+   * @param upperBound an upper bound of the binary values in unsigned byte order
+   */
+  public void setBinaryBounds(Binary lowerBound, Binary upperBound) {
+    this.binaryLowerBound = lowerBound;
+    this.binaryUpperBound = upperBound;
+  }
+
   @Override
   public String toString() {
     return "ColumnMetaData{" + properties.toString() + ", " + getFirstDataPageOffset() + "}";
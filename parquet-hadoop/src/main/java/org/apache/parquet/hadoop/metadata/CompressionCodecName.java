@@ -27,7 +27,12 @@ public enum CompressionCodecName {
   UNCOMPRESSED(null, CompressionCodec.UNCOMPRESSED, ""),
   SNAPPY("org.apache.parquet.hadoop.codec.SnappyCodec", CompressionCodec.SNAPPY, ".snappy"),
   GZIP("org.apache.hadoop.io.compress.GzipCodec", CompressionCodec.GZIP, ".gz"),
-  LZO("com.hadoop.compression.lzo.LzoCodec", CompressionCodec.LZO, ".lzo");
+  LZO("com.hadoop.compression.lzo.LzoCodec", CompressionCodec.LZO, ".lzo"),
+  LZ4("org.apache.parquet.hadoop.codec.Lz4Codec", CompressionCodec.LZ4, ".lz4"),
+  ZSTD("org.apache.parquet.hadoop.codec.ZstdCodec", CompressionCodec.ZSTD, ".zst");
+
+  private static final String HADOOP_LZ4_CODEC_CLASS = "org.apache.hadoop.io.compress.Lz4Codec";
+  private static final String HADOOP_ZSTD_CODEC_CLASS = "org.apache.hadoop.io.compress.ZStandardCodec";
 
   public static CompressionCodecName fromConf(String name) {
      if (name == null) {
@@ -41,6 +46,14 @@ public enum CompressionCodecName {
       return UNCOMPRESSED;
     }
     String name = clazz.getName();
+    if (name.equals(HADOOP_LZ4_CODEC_CLASS)) {
+      // Hadoop's native codec writes the same blocks
+      return LZ4;
+    }
+    if (name.equals(HADOOP_ZSTD_CODEC_CLASS)) {
+      // Hadoop's native codec writes standard ZSTD frames
+      return ZSTD;
+    }
     for (CompressionCodecName codec : CompressionCodecName.values()) {
       if (name.equals(codec.getHadoopCompressionCodecClassName())) {
         return codec;
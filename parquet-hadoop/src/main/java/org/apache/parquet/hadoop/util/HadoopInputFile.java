@@ -55,6 +55,14 @@ public class HadoopInputFile implements InputFile {
     return conf;
   }
 
+  public Path getPath() {
+    return stat.getPath();
+  }
+
+  public long getModificationTime() {
+    return stat.getModificationTime();
+  }
+
   @Override
   public long getLength() {
     return stat.getLen();
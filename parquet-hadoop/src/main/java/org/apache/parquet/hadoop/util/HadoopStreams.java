@@ -20,7 +20,9 @@
 package org.apache.parquet.hadoop.util;
 
 import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.parquet.io.ParquetDecodingException;
+import org.apache.parquet.io.PositionOutputStream;
 import org.apache.parquet.io.SeekableInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -65,6 +67,17 @@ public class HadoopStreams {
     }
   }
 
+  /**
+   * Wraps a {@link FSDataOutputStream} in a {@link PositionOutputStream}
+   * implementation for Parquet writers.
+   *
+   * @param stream a Hadoop FSDataOutputStream
+   * @return a PositionOutputStream
+   */
+  public static PositionOutputStream wrap(FSDataOutputStream stream) {
+    return new HadoopPositionOutputStream(stream);
+  }
+
   private static Class<?> getReadableClass() {
     try {
       return Class.forName("org.apache.hadoop.fs.ByteBufferReadable");
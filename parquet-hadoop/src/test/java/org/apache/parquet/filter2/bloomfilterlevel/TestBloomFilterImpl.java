@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.filter2.bloomfilterlevel;
+
+import static org.apache.parquet.filter2.bloomfilterlevel.BloomFilterImpl.canDrop;
+import static org.apache.parquet.filter2.predicate.FilterApi.and;
+import static org.apache.parquet.filter2.predicate.FilterApi.binaryColumn;
+import static org.apache.parquet.filter2.predicate.FilterApi.doubleColumn;
+import static org.apache.parquet.filter2.predicate.FilterApi.eq;
+import static org.apache.parquet.filter2.predicate.FilterApi.gt;
+import static org.apache.parquet.filter2.predicate.FilterApi.intColumn;
+import static org.apache.parquet.filter2.predicate.FilterApi.longColumn;
+import static org.apache.parquet.filter2.predicate.FilterApi.or;
+import static org.apache.parquet.schema.MessageTypeParser.parseMessageType;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.column.ParquetProperties.WriterVersion;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.compat.RowGroupFilter;
+import org.apache.parquet.filter2.compat.RowGroupFilter.FilterLevel;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.predicate.Operators.BinaryColumn;
+import org.apache.parquet.hadoop.BloomFilterReader;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.example.GroupWriteSupport;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+@RunWith(Parameterized.class)
+public class TestBloomFilterImpl {
+
+  private static final int ROW_COUNT = 10000;
+  private static final MessageType SCHEMA = parseMessageType(
+      "message test { "
+          + "required binary id (UTF8); "
+          + "required int32 int_field; "
+          + "required int64 long_field; "
+          + "required double double_field; "
+          + "} ");
+
+  @Parameterized.Parameters(name = "{0}")
+  public static Collection<Object[]> params() {
+    return Arrays.asList(new Object[][] {
+        { WriterVersion.PARQUET_1_0 },
+        { WriterVersion.PARQUET_2_0 } });
+  }
+
+  private final WriterVersion writerVersion;
+  private final Configuration conf = new Configuration();
+  private final Path file;
+  private ParquetFileReader reader;
+  private List<BlockMetaData> blocks;
+
+  public TestBloomFilterImpl(WriterVersion writerVersion) {
+    this.writerVersion = writerVersion;
+    this.file = new Path("target/test/TestBloomFilterImpl/" + writerVersion + ".parquet");
+  }
+
+  private static String id(int i) {
+    // ids that are unordered across row groups so that statistics can not be used
+    return String.format("%08x-id", (i * 0x9E3779B1) & 0x7FFFFFFF);
+  }
+
+  @Before
+  public void writeFile() throws IOException {
+    FileSystem fs = file.getFileSystem(conf);
+    fs.delete(file, false);
+
+    GroupWriteSupport.setSchema(SCHEMA, conf);
+    SimpleGroupFactory f = new SimpleGroupFactory(SCHEMA);
+    ParquetWriter<Group> writer = ExampleParquetWriter.builder(file)
+        .withWriterVersion(writerVersion)
+        .withRowGroupSize(32 * 1024)
+        .withPageSize(1024)
+        .withDictionaryEncoding(false)
+        .withBloomFilterNDV("id", ROW_COUNT)
+        .withBloomFilterNDV("int_field", ROW_COUNT)
+        .withBloomFilterEnabled("double_field", true)
+        .withBloomFilterNDV("double_field", ROW_COUNT)
+        .withConf(conf)
+        .build();
+    for (int i = 0; i < ROW_COUNT; ++i) {
+      writer.write(f.newGroup()
+          .append("id", id(i))
+          .append("int_field", i * 2)
+          .append("long_field", (long) i)
+          .append("double_field", i * 0.5));
+    }
+    writer.close();
+
+    reader = ParquetFileReader.open(conf, file);
+    blocks = reader.getFooter().getBlocks();
+    assertTrue("Test requires several row groups", blocks.size() > 1);
+  }
+
+  @After
+  public void closeReader() throws IOException {
+    reader.close();
+  }
+
+  private boolean canDropAll(FilterPredicate pred) {
+    for (BlockMetaData block : blocks) {
+      if (!canDrop(pred, block.getColumns(), reader.getBloomFilterReader(block))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private int countNotDropped(FilterPredicate pred) {
+    int count = 0;
+    for (BlockMetaData block : blocks) {
+      if (!canDrop(pred, block.getColumns(), reader.getBloomFilterReader(block))) {
+        ++count;
+      }
+    }
+    return count;
+  }
+
+  @Test
+  public void testBloomFiltersWritten() throws IOException {
+    for (BlockMetaData block : blocks) {
+      BloomFilterReader bloomFilters = reader.getBloomFilterReader(block);
+      for (ColumnChunkMetaData column : block.getColumns()) {
+        if ("long_field".equals(column.getPath().toDotString())) {
+          assertNull(column.getBloomFilterReference());
+          assertNull(bloomFilters.readBloomFilter(column.getPath()));
+        } else {
+          assertNotNull(column.getBloomFilterReference());
+          assertNotNull(bloomFilters.readBloomFilter(column.getPath()));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testEq() {
+    BinaryColumn id = binaryColumn("id");
+    for (int i = 0; i < ROW_COUNT; i += 97) {
+      FilterPredicate pred = eq(id, Binary.fromString(id(i)));
+      // no false negatives; the row group holding the value is never dropped
+      assertTrue(countNotDropped(pred) >= 1);
+      assertTrue("Bloom filters should drop most row groups",
+          countNotDropped(pred) < blocks.size());
+    }
+
+    assertTrue(canDropAll(eq(id, Binary.fromString("missing-id"))));
+    assertTrue(canDropAll(eq(intColumn("int_field"), 1)));
+    assertFalse(canDropAll(eq(intColumn("int_field"), 2)));
+    assertTrue(canDropAll(eq(doubleColumn("double_field"), 0.25)));
+    assertFalse(canDropAll(eq(doubleColumn("double_field"), 0.5)));
+
+    // columns without a bloom filter and null values are never dropped
+    assertFalse(canDropAll(eq(longColumn("long_field"), -1L)));
+    assertFalse(canDropAll(eq(id, null)));
+    assertFalse(canDropAll(gt(intColumn("int_field"), ROW_COUNT * 2)));
+  }
+
+  @Test
+  public void testAndOr() {
+    BinaryColumn id = binaryColumn("id");
+    FilterPredicate missing = eq(id, Binary.fromString("missing-id"));
+    FilterPredicate present = eq(id, Binary.fromString(id(123)));
+
+    assertTrue(canDropAll(and(missing, present)));
+    assertFalse(canDropAll(or(missing, present)));
+    assertTrue(canDropAll(or(missing, eq(intColumn("int_field"), 3))));
+  }
+
+  @Test
+  public void testRowGroupFilter() {
+    FilterPredicate pred = eq(binaryColumn("id"), Binary.fromString(id(4321)));
+    List<BlockMetaData> filtered = RowGroupFilter.filterRowGroups(
+        Arrays.asList(FilterLevel.BLOOMFILTER), FilterCompat.get(pred), blocks, reader);
+    assertEquals(countNotDropped(pred), filtered.size());
+    assertTrue(filtered.size() < blocks.size());
+  }
+}
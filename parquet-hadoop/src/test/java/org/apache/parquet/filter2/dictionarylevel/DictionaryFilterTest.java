@@ -226,6 +226,40 @@ public class DictionaryFilterTest {
         canDrop(notEq(b, null), ccmd, dictionaries));
   }
 
+  @Test
+  public void testInInt() throws Exception {
+    IntColumn i32 = intColumn("int32_field");
+
+    assertTrue("Should drop block when no value is in the dictionary",
+        canDrop(in(i32, ImmutableSet.of(1, 2, 3, 303, 7654320)), ccmd, dictionaries));
+
+    assertFalse("Should not drop block when a value is in the dictionary",
+        canDrop(in(i32, ImmutableSet.of(1, 2, 3, 302)), ccmd, dictionaries));
+
+    assertTrue("Should drop block for a missing column",
+        canDrop(in(intColumn("missing_column"), ImmutableSet.of(1, 2)), ccmd, dictionaries));
+  }
+
+  @Test
+  public void testNotInBinary() throws Exception {
+    BinaryColumn sharp = binaryColumn("single_value_field");
+    BinaryColumn b = binaryColumn("binary_field");
+
+    assertTrue("Should drop block with only excluded values",
+        canDrop(notIn(sharp, ImmutableSet.of(Binary.fromString("sharp"), Binary.fromString("flat"))),
+            ccmd, dictionaries));
+
+    assertFalse("Should not drop block with any other value",
+        canDrop(notIn(sharp, ImmutableSet.of(Binary.fromString("flat"))), ccmd, dictionaries));
+
+    assertFalse("Should not drop block with values that are not excluded",
+        canDrop(notIn(b, ImmutableSet.of(Binary.fromString("a"), Binary.fromString("b"))), ccmd, dictionaries));
+
+    assertFalse("Should not drop block for a missing column",
+        canDrop(notIn(binaryColumn("missing_column"), ImmutableSet.of(Binary.fromString("a"))),
+            ccmd, dictionaries));
+  }
+
   @Test
   public void testLtInt() throws Exception {
     IntColumn i32 = intColumn("int32_field");
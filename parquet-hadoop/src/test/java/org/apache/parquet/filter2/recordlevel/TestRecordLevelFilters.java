@@ -50,8 +50,10 @@ import static org.apache.parquet.filter2.predicate.FilterApi.doubleColumn;
 import static org.apache.parquet.filter2.predicate.FilterApi.longColumn;
 import static org.apache.parquet.filter2.predicate.FilterApi.eq;
 import static org.apache.parquet.filter2.predicate.FilterApi.gt;
+import static org.apache.parquet.filter2.predicate.FilterApi.in;
 import static org.apache.parquet.filter2.predicate.FilterApi.not;
 import static org.apache.parquet.filter2.predicate.FilterApi.notEq;
+import static org.apache.parquet.filter2.predicate.FilterApi.notIn;
 import static org.apache.parquet.filter2.predicate.FilterApi.or;
 import static org.apache.parquet.filter2.predicate.FilterApi.userDefined;
 
@@ -162,6 +164,39 @@ public class TestRecordLevelFilters {
     });
   }
 
+  @Test
+  public void testIdIn() throws Exception {
+    LongColumn id = longColumn("id");
+
+    FilterPredicate pred = in(id, new HashSet<Long>(Arrays.asList(11L, 17L, 300L)));
+
+    List<Group> found = PhoneBookWriter.readFile(phonebookFile, FilterCompat.get(pred));
+
+    assertFilter(found, new UserFilter() {
+      @Override
+      public boolean keep(User u) {
+        return u.getId() == 11L || u.getId() == 17L || u.getId() == 300L;
+      }
+    });
+  }
+
+  @Test
+  public void testNameNotIn() throws Exception {
+    BinaryColumn name = binaryColumn("name");
+
+    FilterPredicate pred = notIn(name, new HashSet<Binary>(
+        Arrays.asList(Binary.fromString("thing1"), Binary.fromString("thing2"))));
+
+    List<Group> found = PhoneBookWriter.readFile(phonebookFile, FilterCompat.get(pred));
+
+    assertFilter(found, new UserFilter() {
+      @Override
+      public boolean keep(User u) {
+        return !"thing1".equals(u.getName()) && !"thing2".equals(u.getName());
+      }
+    });
+  }
+
   public static class StartWithP extends UserDefinedPredicate<Binary> {
 
     @Override
@@ -26,6 +26,7 @@ import org.apache.parquet.io.api.Binary;
 import org.junit.Test;
 
 import org.apache.parquet.column.Encoding;
+import org.apache.parquet.column.statistics.BinaryStatistics;
 import org.apache.parquet.column.statistics.DoubleStatistics;
 import org.apache.parquet.column.statistics.IntStatistics;
 import org.apache.parquet.hadoop.metadata.ColumnPath;
@@ -51,11 +52,13 @@ import static org.apache.parquet.filter2.predicate.FilterApi.doubleColumn;
 import static org.apache.parquet.filter2.predicate.FilterApi.eq;
 import static org.apache.parquet.filter2.predicate.FilterApi.gt;
 import static org.apache.parquet.filter2.predicate.FilterApi.gtEq;
+import static org.apache.parquet.filter2.predicate.FilterApi.in;
 import static org.apache.parquet.filter2.predicate.FilterApi.intColumn;
 import static org.apache.parquet.filter2.predicate.FilterApi.lt;
 import static org.apache.parquet.filter2.predicate.FilterApi.ltEq;
 import static org.apache.parquet.filter2.predicate.FilterApi.not;
 import static org.apache.parquet.filter2.predicate.FilterApi.notEq;
+import static org.apache.parquet.filter2.predicate.FilterApi.notIn;
 import static org.apache.parquet.filter2.predicate.FilterApi.or;
 import static org.apache.parquet.filter2.predicate.FilterApi.userDefined;
 import static org.apache.parquet.filter2.statisticslevel.StatisticsFilter.canDrop;
@@ -118,6 +121,43 @@ public class TestStatisticsFilter {
     assertTrue(canDrop(eq(missingColumn, fromString("any")), columnMetas));
   }
 
+  @Test
+  public void testBinaryBounds() {
+    // no min and max, only bounds in unsigned byte order
+    ColumnChunkMetaData meta = ColumnChunkMetaData.get(ColumnPath.get("url"),
+        PrimitiveTypeName.BINARY,
+        CompressionCodecName.GZIP,
+        new HashSet<Encoding>(Arrays.asList(Encoding.PLAIN)),
+        new BinaryStatistics(),
+        0L, 0L, 177L, 0L, 0L);
+    meta.setBinaryBounds(fromString("b"), fromString("\u00e9"));
+    List<ColumnChunkMetaData> metas = Arrays.asList(meta);
+    BinaryColumn url = binaryColumn("url");
+
+    assertTrue(canDrop(eq(url, fromString("a")), metas));
+    assertFalse(canDrop(eq(url, fromString("b")), metas));
+    assertFalse(canDrop(eq(url, fromString("z")), metas));
+    assertFalse(canDrop(eq(url, fromString("\u00e9")), metas));
+    assertTrue(canDrop(eq(url, fromString("\u00e9t\u00e9")), metas));
+    // the bounds are not known to include nulls
+    assertFalse(canDrop(eq(url, null), metas));
+
+    assertTrue(canDrop(lt(url, fromString("b")), metas));
+    assertFalse(canDrop(lt(url, fromString("c")), metas));
+    assertTrue(canDrop(ltEq(url, fromString("a")), metas));
+    assertFalse(canDrop(ltEq(url, fromString("b")), metas));
+    assertTrue(canDrop(gt(url, fromString("\u00e9")), metas));
+    assertFalse(canDrop(gt(url, fromString("z")), metas));
+    assertTrue(canDrop(gtEq(url, fromString("\u00ff")), metas));
+    assertFalse(canDrop(gtEq(url, fromString("\u00e9")), metas));
+
+    assertTrue(canDrop(in(url, new HashSet<Binary>(Arrays.asList(
+        fromString("a"), fromString("\u00ff")))), metas));
+    assertFalse(canDrop(in(url, new HashSet<Binary>(Arrays.asList(
+        fromString("a"), fromString("\u00c0")))), metas));
+    assertFalse(canDrop(notEq(url, fromString("a")), metas));
+  }
+
   @Test
   public void testEqNull() {
     IntStatistics statsNoNulls = new IntStatistics();
@@ -246,6 +286,44 @@ public class TestStatisticsFilter {
     assertTrue(canDrop(gtEq(missingColumn, fromString("any")), columnMetas));
   }
 
+  @Test
+  public void testIn() {
+    assertTrue(canDrop(in(intColumn, set(1, 9, 101, 5000)), columnMetas));
+    assertFalse(canDrop(in(intColumn, set(1, 10, 5000)), columnMetas));
+    assertFalse(canDrop(in(intColumn, set(1, 50, 5000)), columnMetas));
+    assertFalse(canDrop(in(intColumn, set(100)), columnMetas));
+
+    // drop columns of all nulls or missing columns, null is never in the set
+    assertTrue(canDrop(in(intColumn, set(0, 50)), nullColumnMetas));
+    assertTrue(canDrop(in(missingColumn2, set(0, 50)), columnMetas));
+  }
+
+  @Test
+  public void testNotIn() {
+    assertFalse(canDrop(notIn(intColumn, set(9, 10, 50, 100)), columnMetas));
+
+    IntStatistics allSevens = new IntStatistics();
+    allSevens.setMinMax(7, 7);
+    assertTrue(canDrop(notIn(intColumn, set(3, 7)), Arrays.asList(
+        getIntColumnMeta(allSevens, 177L),
+        getDoubleColumnMeta(doubleStats, 177L))));
+    assertFalse(canDrop(notIn(intColumn, set(3, 8)), Arrays.asList(
+        getIntColumnMeta(allSevens, 177L),
+        getDoubleColumnMeta(doubleStats, 177L))));
+
+    // nulls are never in the set
+    allSevens.setNumNulls(100L);
+    assertFalse(canDrop(notIn(intColumn, set(3, 7)), Arrays.asList(
+        getIntColumnMeta(allSevens, 177L),
+        getDoubleColumnMeta(doubleStats, 177L))));
+    assertFalse(canDrop(notIn(intColumn, set(0)), nullColumnMetas));
+    assertFalse(canDrop(notIn(missingColumn2, set(0)), columnMetas));
+  }
+
+  private static HashSet<Integer> set(Integer... values) {
+    return new HashSet<Integer>(Arrays.asList(values));
+  }
+
   @Test
   public void testAnd() {
     FilterPredicate yes = eq(intColumn, 9);
@@ -20,6 +20,11 @@ package org.apache.parquet.format.converter;
 
 import static java.util.Collections.emptyList;
 import static org.apache.parquet.format.converter.ParquetMetadataConverter.filterFileMetaDataByStart;
+import static org.apache.parquet.filter2.predicate.FilterApi.eq;
+import static org.apache.parquet.filter2.predicate.FilterApi.intColumn;
+import static org.apache.parquet.filter2.predicate.FilterApi.lt;
+import static org.apache.parquet.filter2.predicate.FilterApi.not;
+import static org.apache.parquet.filter2.predicate.FilterApi.or;
 import static org.apache.parquet.schema.MessageTypeParser.parseMessageType;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
@@ -48,6 +53,7 @@ import com.google.common.collect.Sets;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.parquet.Version;
 import org.apache.parquet.bytes.BytesUtils;
+import org.apache.parquet.column.ColumnDescriptor;
 import org.apache.parquet.column.statistics.BinaryStatistics;
 import org.apache.parquet.column.statistics.BooleanStatistics;
 import org.apache.parquet.column.statistics.DoubleStatistics;
@@ -241,6 +247,119 @@ public class TestParquetMetadataConverter {
     return size;
   }
 
+  private ParquetMetadata wideMetadata(MessageType schema, int rowGroups, long chunkSize) {
+    List<BlockMetaData> blocks = new ArrayList<BlockMetaData>();
+    long offset = 4;
+    for (int i = 0; i < rowGroups; i++) {
+      BlockMetaData block = new BlockMetaData();
+      block.setRowCount(100);
+      for (String[] path : schema.getPaths()) {
+        block.addColumn(ColumnChunkMetaData.get(ColumnPath.get(path),
+            PrimitiveTypeName.INT32, CompressionCodecName.UNCOMPRESSED, null,
+            new HashSet<org.apache.parquet.column.Encoding>(
+                Arrays.asList(org.apache.parquet.column.Encoding.PLAIN)),
+            new IntStatistics(), offset, 0, 100, chunkSize, chunkSize));
+        offset += chunkSize;
+      }
+      block.setTotalByteSize(chunkSize * schema.getPaths().size());
+      blocks.add(block);
+    }
+    return new ParquetMetadata(new org.apache.parquet.hadoop.metadata.FileMetaData(
+        schema, new HashMap<String, String>(), "test"), blocks);
+  }
+
+  private static String describe(ParquetMetadata metadata) {
+    StringBuilder sb = new StringBuilder();
+    for (BlockMetaData block : metadata.getBlocks()) {
+      sb.append(block.getRowCount()).append(':');
+      for (ColumnChunkMetaData column : block.getColumns()) {
+        sb.append(column.getPath().toDotString()).append('@').append(column.getStartingPos()).append(' ');
+      }
+      sb.append('\n');
+    }
+    return sb.toString();
+  }
+
+  @Test
+  public void testColumnsFilter() throws IOException {
+    MessageType schema = parseMessageType("message test { "
+        + "required int32 a; required int32 b; required int32 c; required int32 d; }");
+    MessageType projection = parseMessageType("message test { required int32 b; required int32 d; }");
+    ParquetMetadataConverter converter = new ParquetMetadataConverter();
+    ParquetMetadata metadata = wideMetadata(schema, 3, 100);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    org.apache.parquet.format.Util.writeFileMetaData(converter.toParquetMetadata(1, metadata), out);
+    byte[] footer = out.toByteArray();
+
+    ParquetMetadata projected = converter.readParquetMetadata(new ByteArrayInputStream(footer),
+        ParquetMetadataConverter.columns(ParquetMetadataConverter.NO_FILTER, projection));
+    assertEquals(schema, projected.getFileMetaData().getSchema());
+    assertEquals(3, projected.getBlocks().size());
+    assertEquals("100:b@104 d@304 \n100:b@504 d@704 \n100:b@904 d@1104 \n", describe(projected));
+    assertEquals(describe(projected), describe(ParquetMetadataConverter.filterRowGroups(metadata,
+        ParquetMetadataConverter.columns(ParquetMetadataConverter.NO_FILTER, projection))));
+
+    // row groups are selected using all of their columns: [404, 804) has its midpoint at 604
+    for (ParquetMetadataConverter.MetadataFilter filter : Arrays.asList(
+        ParquetMetadataConverter.range(404, 804), ParquetMetadataConverter.range(605, 1500),
+        ParquetMetadataConverter.offsets(4, 804), ParquetMetadataConverter.SKIP_ROW_GROUPS)) {
+      ParquetMetadata expected = converter.readParquetMetadata(new ByteArrayInputStream(footer), filter);
+      ParquetMetadata actual = converter.readParquetMetadata(new ByteArrayInputStream(footer),
+          ParquetMetadataConverter.columns(filter, projection));
+      ParquetMetadata cached = ParquetMetadataConverter.filterRowGroups(metadata,
+          ParquetMetadataConverter.columns(filter, projection));
+      assertEquals(filter.toString(), expected.getBlocks().size(), actual.getBlocks().size());
+      for (int i = 0; i < expected.getBlocks().size(); i++) {
+        assertEquals(expected.getBlocks().get(i).getStartingPos() + 100,
+            actual.getBlocks().get(i).getStartingPos());
+        assertEquals(2, actual.getBlocks().get(i).getColumns().size());
+      }
+      assertEquals(filter.toString(), describe(actual), describe(cached));
+    }
+  }
+
+  @Test
+  public void testColumnsFilterKeepsPredicateColumns() throws IOException {
+    MessageType schema = parseMessageType("message test { "
+        + "required int32 a; required int32 b; required int32 c; required int32 d; }");
+    MessageType projection = parseMessageType("message test { required int32 b; }");
+    ParquetMetadataConverter converter = new ParquetMetadataConverter();
+    ParquetMetadata metadata = wideMetadata(schema, 2, 100);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    org.apache.parquet.format.Util.writeFileMetaData(converter.toParquetMetadata(1, metadata), out);
+
+    ParquetMetadataConverter.MetadataFilter filter = ParquetMetadataConverter.columns(
+        ParquetMetadataConverter.NO_FILTER, projection,
+        or(eq(intColumn("d"), 3), not(lt(intColumn("a"), 7))));
+    ParquetMetadata projected = converter.readParquetMetadata(
+        new ByteArrayInputStream(out.toByteArray()), filter);
+    assertEquals("100:a@4 b@104 d@304 \n100:a@404 b@504 d@704 \n", describe(projected));
+    assertEquals(describe(projected),
+        describe(ParquetMetadataConverter.filterRowGroups(metadata, filter)));
+  }
+
+  @Test
+  public void testColumnsFilterDoesNotChangeRowGroups() {
+    MessageType schema = parseMessageType("message test { "
+        + "required int32 a; required int32 b; required int32 c; }");
+    MessageType projection = parseMessageType("message test { required int32 c; }");
+    FileMetaData fileMetaData = new ParquetMetadataConverter()
+        .toParquetMetadata(1, wideMetadata(schema, 1, 100));
+    RowGroup rowGroup = fileMetaData.getRow_groups().get(0);
+    rowGroup.setSorting_columns(Arrays.asList(
+        new org.apache.parquet.format.SortingColumn(2, false, false)));
+    RowGroup copy = new RowGroup(rowGroup);
+
+    RowGroup projected = ParquetMetadataConverter.filterColumns(rowGroup,
+        (ParquetMetadataConverter.ColumnsMetadataFilter) ParquetMetadataConverter.columns(
+            ParquetMetadataConverter.NO_FILTER, projection));
+    assertEquals(copy, rowGroup);
+    assertEquals(1, projected.getColumns().size());
+    assertSame(rowGroup.getColumns().get(2), projected.getColumns().get(0));
+    assertEquals(0, projected.getSorting_columns().get(0).getColumn_idx());
+    assertEquals(100, projected.getNum_rows());
+  }
+
   @Test
   public void testFilterMetaData() {
     verifyMD(filter(metadata(50, 50, 50), 0, 50), 0);
@@ -409,6 +528,125 @@ public class TestParquetMetadataConverter {
     Assert.assertTrue(roundTripStats.isEmpty());
   }
 
+  @Test
+  public void testTruncatedBinaryStats() {
+    BinaryStatistics stats = new BinaryStatistics();
+    stats.incrementNumNulls(3);
+    byte[] min = new byte[3000];
+    byte[] max = new byte[3000];
+    byte[] signedMin = new byte[3000];
+    Arrays.fill(min, (byte) 'a');
+    Arrays.fill(max, (byte) 'z');
+    max[3] = (byte) 0xFF;
+    // the smallest value in signed byte order is in the middle
+    Arrays.fill(signedMin, (byte) 'b');
+    signedMin[0] = (byte) 0xC3;
+    stats.updateStats(Binary.fromConstantByteArray(min));
+    stats.updateStats(Binary.fromConstantByteArray(max));
+    stats.updateStats(Binary.fromConstantByteArray(signedMin));
+
+    org.apache.parquet.format.Statistics formatStats =
+        ParquetMetadataConverter.toParquetStatistics(stats, 4);
+
+    // the exact values are not written
+    Assert.assertFalse("Min should not be set", formatStats.isSetMin());
+    Assert.assertFalse("Max should not be set", formatStats.isSetMax());
+    Assert.assertArrayEquals("Min should be a prefix of the unsigned min",
+        "aaaa".getBytes(), formatStats.getMin_value());
+    Assert.assertArrayEquals("Max should be an incremented prefix of the unsigned max",
+        new byte[] { (byte) 0xC3, 'b', 'b', 'c' }, formatStats.getMax_value());
+    Assert.assertEquals("Num nulls should match", 3, formatStats.getNull_count());
+
+    // the bounds are not read as min and max
+    org.apache.parquet.column.statistics.Statistics roundTripStats =
+        ParquetMetadataConverter.fromParquetStatisticsInternal(
+            Version.FULL_VERSION, formatStats, PrimitiveTypeName.BINARY,
+            ParquetMetadataConverter.SortOrder.SIGNED);
+    Assert.assertFalse("Bounds should not be min and max", roundTripStats.hasNonNullValue());
+    Assert.assertEquals(3, roundTripStats.getNumNulls());
+
+    // the upper bound drops trailing 0xFF bytes
+    Assert.assertArrayEquals("zz{".getBytes(), ParquetMetadataConverter.truncateUpperBound(
+        new byte[] { 'z', 'z', 'z', (byte) 0xFF, 'a' }, 4));
+
+    // values that fit are not truncated
+    Assert.assertArrayEquals(min, ParquetMetadataConverter.truncateLowerBound(min, min.length));
+    Assert.assertArrayEquals(max, ParquetMetadataConverter.truncateUpperBound(max, max.length + 1));
+
+    // there is no upper bound if the prefix can't be incremented
+    byte[] largest = new byte[3000];
+    Arrays.fill(largest, (byte) 0xFF);
+    stats.updateStats(Binary.fromConstantByteArray(largest));
+    formatStats = ParquetMetadataConverter.toParquetStatistics(stats, 4);
+    Assert.assertFalse("Min value should not be set", formatStats.isSetMin_value());
+    Assert.assertFalse("Max value should not be set", formatStats.isSetMax_value());
+
+    // there are no bounds when the unsigned min and max are not known
+    BinaryStatistics readStats = new BinaryStatistics();
+    readStats.setMinMaxFromBytes(min, max);
+    formatStats = ParquetMetadataConverter.toParquetStatistics(readStats, 4);
+    Assert.assertFalse("Max value should not be set", formatStats.isSetMax_value());
+  }
+
+  @Test
+  public void testBinaryBoundsOnlyForUnsignedTypes() throws IOException {
+    MessageType schema = Types.buildMessage()
+        .required(PrimitiveTypeName.BINARY).as(OriginalType.UTF8).named("url")
+        .required(PrimitiveTypeName.BINARY).as(OriginalType.DECIMAL).precision(10).scale(2).named("amount")
+        .named("test");
+    byte[] longValue = new byte[3000];
+    Arrays.fill(longValue, (byte) 'a');
+    List<ColumnChunkMetaData> columns = new ArrayList<ColumnChunkMetaData>();
+    for (ColumnDescriptor column : schema.getColumns()) {
+      BinaryStatistics stats = new BinaryStatistics();
+      stats.updateStats(Binary.fromConstantByteArray(longValue));
+      columns.add(ColumnChunkMetaData.get(ColumnPath.get(column.getPath()),
+          column.getType(), CompressionCodecName.UNCOMPRESSED,
+          new HashSet<org.apache.parquet.column.Encoding>(), stats, 4, 0, 1, 3000, 3000));
+    }
+    BlockMetaData block = new BlockMetaData();
+    block.setRowCount(1);
+    block.addColumn(columns.get(0));
+    block.addColumn(columns.get(1));
+    ParquetMetadata footer = new ParquetMetadata(
+        new org.apache.parquet.hadoop.metadata.FileMetaData(schema, new HashMap<String, String>(), null),
+        Collections.singletonList(block));
+
+    ParquetMetadataConverter converter = new ParquetMetadataConverter(64);
+    FileMetaData fileMetaData = converter.toParquetMetadata(1, footer);
+    Assert.assertEquals(2, fileMetaData.getColumn_orders().size());
+    List<ColumnChunk> chunks = fileMetaData.getRow_groups().get(0).getColumns();
+    Assert.assertTrue("UTF8 should have bounds",
+        chunks.get(0).getMeta_data().getStatistics().isSetMax_value());
+    Assert.assertFalse("Decimal is not ordered as unsigned bytes",
+        chunks.get(1).getMeta_data().getStatistics().isSetMax_value());
+
+    ColumnChunkMetaData url = converter.fromParquetMetadata(fileMetaData)
+        .getBlocks().get(0).getColumns().get(0);
+    Assert.assertTrue(url.getStatistics().isEmpty());
+    Assert.assertEquals(Binary.fromConstantByteArray(Arrays.copyOf(longValue, 64)),
+        url.getBinaryLowerBound());
+    Assert.assertNotNull(url.getBinaryUpperBound());
+
+    // projected footers keep the column orders and the bounds
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    org.apache.parquet.format.Util.writeFileMetaData(fileMetaData, out);
+    MessageType projection = Types.buildMessage()
+        .required(PrimitiveTypeName.BINARY).as(OriginalType.UTF8).named("url")
+        .named("test");
+    ParquetMetadata projected = converter.readParquetMetadata(new ByteArrayInputStream(out.toByteArray()),
+        ParquetMetadataConverter.columns(ParquetMetadataConverter.NO_FILTER, projection));
+    List<ColumnChunkMetaData> projectedColumns = projected.getBlocks().get(0).getColumns();
+    Assert.assertEquals(1, projectedColumns.size());
+    Assert.assertEquals(url.getBinaryLowerBound(), projectedColumns.get(0).getBinaryLowerBound());
+    Assert.assertEquals(url.getBinaryUpperBound(), projectedColumns.get(0).getBinaryUpperBound());
+
+    // the bounds are not trusted without the column order of the type
+    fileMetaData.unsetColumn_orders();
+    url = converter.fromParquetMetadata(fileMetaData).getBlocks().get(0).getColumns().get(0);
+    Assert.assertNull(url.getBinaryLowerBound());
+  }
+
   @Test
   public void testIntegerStats() {
     // make fake stats and verify the size check
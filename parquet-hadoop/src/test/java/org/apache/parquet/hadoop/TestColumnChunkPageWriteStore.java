@@ -18,7 +18,11 @@
  */
 package org.apache.parquet.hadoop;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.inOrder;
 import static org.apache.parquet.column.Encoding.PLAIN;
@@ -36,7 +40,9 @@ import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT64;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
+import java.util.concurrent.ThreadPoolExecutor;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
@@ -47,14 +53,17 @@ import org.mockito.InOrder;
 import org.mockito.Mockito;
 
 import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.bytes.DirectByteBufferAllocator;
 import org.apache.parquet.bytes.LittleEndianDataInputStream;
 import org.apache.parquet.column.ColumnDescriptor;
 import org.apache.parquet.column.Encoding;
+import org.apache.parquet.column.page.DataPageV1;
 import org.apache.parquet.column.page.DataPageV2;
 import org.apache.parquet.column.page.PageReadStore;
 import org.apache.parquet.column.page.PageReader;
 import org.apache.parquet.column.page.PageWriter;
 import org.apache.parquet.column.statistics.BinaryStatistics;
+import org.apache.parquet.column.statistics.IntStatistics;
 import org.apache.parquet.column.statistics.Statistics;
 import org.apache.parquet.hadoop.metadata.CompressionCodecName;
 import org.apache.parquet.hadoop.metadata.ParquetMetadata;
@@ -134,6 +143,170 @@ public class TestColumnChunkPageWriteStore {
     }
   }
 
+  @Test
+  public void testParallelCompression() throws Exception {
+    Path file = new Path("target/test/TestColumnChunkPageWriteStore/parallel.parquet");
+    FileSystem fs = file.getFileSystem(conf);
+    fs.delete(file, false);
+    MessageType schema = Types.buildMessage()
+        .required(INT32).named("a")
+        .required(INT32).named("b")
+        .named("parallel_test");
+    int pageCount = 50;
+
+    CodecFactory codecFactory = new CodecFactory(conf, pageSize);
+    PageCompressionPipeline pipeline = new PageCompressionPipeline(codecFactory, GZIP, 4);
+    // a small budget blocks the writer until older pages are compressed
+    pipeline.setMaxPendingBytes(3 * 4 * 1024);
+    try {
+      ParquetFileWriter writer = new ParquetFileWriter(conf, schema, file);
+      writer.start();
+      writer.startBlock(pageCount);
+      ColumnChunkPageWriteStore store = new ColumnChunkPageWriteStore(
+          codecFactory.getCompressor(GZIP), schema, new HeapByteBufferAllocator(), pipeline);
+      for (int i = 0; i < pageCount; i += 1) {
+        for (ColumnDescriptor col : schema.getColumns()) {
+          store.getPageWriter(col).writePage(pageBytes(i), 1024, 1,
+              new IntStatistics(), RLE, RLE, PLAIN);
+        }
+      }
+      assertTrue(pipeline.getPendingBytes() <= 3 * 4 * 1024);
+      store.flushToFileWriter(writer);
+      assertEquals(0, pipeline.getPendingBytes());
+      writer.endBlock();
+      writer.end(new HashMap<String, String>());
+    } finally {
+      pipeline.close();
+      codecFactory.release();
+    }
+
+    ParquetMetadata footer = ParquetFileReader.readFooter(conf, file, NO_FILTER);
+    ParquetFileReader reader = new ParquetFileReader(
+        conf, footer.getFileMetaData(), file, footer.getBlocks(), schema.getColumns());
+    try {
+      PageReadStore rowGroup = reader.readNextRowGroup();
+      for (ColumnDescriptor col : schema.getColumns()) {
+        PageReader pageReader = rowGroup.getPageReader(col);
+        for (int i = 0; i < pageCount; i += 1) {
+          DataPageV1 page = (DataPageV1) pageReader.readPage();
+          assertArrayEquals(pageBytes(i).toByteArray(), page.getBytes().toByteArray());
+        }
+        assertNull(pageReader.readPage());
+      }
+    } finally {
+      reader.close();
+    }
+  }
+
+  @Test
+  public void testSharedCompressionThreads() throws Exception {
+    CodecFactory codecFactory = new CodecFactory(conf, pageSize);
+    PageCompressionPipeline first = new PageCompressionPipeline(codecFactory, GZIP, 2);
+    ThreadPoolExecutor executor = PageCompressionPipeline.getSharedExecutor();
+    PageCompressionPipeline second = new PageCompressionPipeline(codecFactory, GZIP, 3);
+    try {
+      // writers do not start their own threads
+      assertSame(executor, PageCompressionPipeline.getSharedExecutor());
+      assertEquals(3, executor.getMaximumPoolSize());
+      // the pool shrinks back when the writer that asked for more threads is closed
+      second.close();
+      assertEquals(2, executor.getMaximumPoolSize());
+    } finally {
+      first.close();
+      second.close();
+      codecFactory.release();
+    }
+  }
+
+  @Test
+  public void testDirectPageBuffers() throws Exception {
+    Path file = new Path("target/test/TestColumnChunkPageWriteStore/direct.parquet");
+    FileSystem fs = file.getFileSystem(conf);
+    fs.delete(file, false);
+    MessageType schema = Types.buildMessage()
+        .required(INT32).named("a")
+        .required(INT32).named("b")
+        .named("direct_test");
+    int pageCount = 20;
+
+    CountingAllocator allocator = new CountingAllocator();
+    ParquetFileWriter writer = new ParquetFileWriter(conf, schema, file);
+    writer.start();
+    writer.startBlock(pageCount);
+    ColumnChunkPageWriteStore store = new ColumnChunkPageWriteStore(
+        compressor(UNCOMPRESSED), schema, allocator);
+    for (int i = 0; i < pageCount; i += 1) {
+      for (ColumnDescriptor col : schema.getColumns()) {
+        store.getPageWriter(col).writePage(pageBytes(i), 1024, 1,
+            new IntStatistics(), RLE, RLE, PLAIN);
+      }
+    }
+    assertTrue("Pages should be buffered by the allocator",
+        allocator.allocated >= 2 * pageCount * 4 * 1024);
+    assertEquals(allocator.allocated, store.getAllocatedSize());
+    store.flushToFileWriter(writer);
+    assertEquals("Buffers should be released once written", 0, allocator.allocated);
+    writer.endBlock();
+    writer.end(new HashMap<String, String>());
+
+    ParquetMetadata footer = ParquetFileReader.readFooter(conf, file, NO_FILTER);
+    ParquetFileReader reader = new ParquetFileReader(
+        conf, footer.getFileMetaData(), file, footer.getBlocks(), schema.getColumns());
+    try {
+      PageReadStore rowGroup = reader.readNextRowGroup();
+      for (ColumnDescriptor col : schema.getColumns()) {
+        PageReader pageReader = rowGroup.getPageReader(col);
+        for (int i = 0; i < pageCount; i += 1) {
+          DataPageV1 page = (DataPageV1) pageReader.readPage();
+          assertArrayEquals(pageBytes(i).toByteArray(), page.getBytes().toByteArray());
+        }
+        assertNull(pageReader.readPage());
+      }
+    } finally {
+      reader.close();
+    }
+  }
+
+  @Test
+  public void testCompressionRatio() throws Exception {
+    MessageType schema = Types.buildMessage()
+        .required(INT32).named("a")
+        .named("ratio_test");
+    ColumnDescriptor col = schema.getColumns().get(0);
+    ColumnChunkPageWriteStore store = new ColumnChunkPageWriteStore(
+        compressor(GZIP), schema, new HeapByteBufferAllocator());
+    PageWriter pageWriter = store.getPageWriter(col);
+    assertEquals(1.0, pageWriter.getCompressionRatio(), 0.0);
+    pageWriter.writePage(pageBytes(0), 1024, 1024, new IntStatistics(), RLE, RLE, PLAIN);
+    pageWriter.writePage(pageBytes(1), 1024, 1024, new IntStatistics(), RLE, RLE, PLAIN);
+    double ratio = pageWriter.getCompressionRatio();
+    assertTrue("Pages should be compressed: " + ratio, ratio > 0 && ratio < 0.5);
+  }
+
+  private static class CountingAllocator extends DirectByteBufferAllocator {
+    private long allocated = 0;
+
+    @Override
+    public ByteBuffer allocate(int size) {
+      allocated += size;
+      return super.allocate(size);
+    }
+
+    @Override
+    public void release(ByteBuffer b) {
+      allocated -= b.capacity();
+      super.release(b);
+    }
+  }
+
+  private static BytesInput pageBytes(int page) {
+    byte[] bytes = new byte[4 * 1024];
+    for (int i = 0; i < bytes.length; i += 1) {
+      bytes[i] = (byte) ((page * 31 + i / 16) & 0xFF);
+    }
+    return BytesInput.from(bytes);
+  }
+
   private int intValue(BytesInput in) throws IOException {
     ByteArrayOutputStream baos = new ByteArrayOutputStream();
     in.writeAllTo(baos);
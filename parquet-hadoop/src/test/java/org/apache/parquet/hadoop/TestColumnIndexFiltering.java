@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop;
+
+import static org.apache.parquet.filter2.predicate.FilterApi.and;
+import static org.apache.parquet.filter2.predicate.FilterApi.binaryColumn;
+import static org.apache.parquet.filter2.predicate.FilterApi.eq;
+import static org.apache.parquet.filter2.predicate.FilterApi.gtEq;
+import static org.apache.parquet.filter2.predicate.FilterApi.intColumn;
+import static org.apache.parquet.filter2.predicate.FilterApi.longColumn;
+import static org.apache.parquet.filter2.predicate.FilterApi.lt;
+import static org.apache.parquet.filter2.predicate.FilterApi.notEq;
+import static org.apache.parquet.filter2.predicate.FilterApi.or;
+import static org.apache.parquet.schema.MessageTypeParser.parseMessageType;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.column.ParquetProperties.WriterVersion;
+import org.apache.parquet.column.columnindex.ColumnIndex;
+import org.apache.parquet.column.columnindex.OffsetIndex;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.example.GroupReadSupport;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+@RunWith(Parameterized.class)
+public class TestColumnIndexFiltering {
+
+  private static final int ROW_COUNT = 20000;
+  private static final MessageType SCHEMA = parseMessageType(
+      "message test { "
+          + "required int64 id; "
+          + "optional binary name (UTF8); "
+          + "required int32 bucket; "
+          + "} ");
+
+  @Parameterized.Parameters
+  public static Collection<Object[]> data() {
+    return Arrays.asList(new Object[][] {
+        { WriterVersion.PARQUET_1_0 },
+        { WriterVersion.PARQUET_2_0 } });
+  }
+
+  @Rule
+  public final TemporaryFolder temp = new TemporaryFolder();
+
+  private final WriterVersion version;
+  private final Configuration conf = new Configuration();
+  private Path file;
+
+  public TestColumnIndexFiltering(WriterVersion version) {
+    this.version = version;
+    // the names are ASCII so their min and max can be used
+    conf.setBoolean("parquet.strings.signed-min-max.enabled", true);
+  }
+
+  // rows with an id in [5000, 6000) have a null name
+  private static String name(long id) {
+    return (id >= 5000 && id < 6000) ? null : "name-" + (id / 100);
+  }
+
+  @Before
+  public void writeFile() throws IOException {
+    File f = temp.newFile();
+    f.delete();
+    file = new Path(f.toString());
+    SimpleGroupFactory factory = new SimpleGroupFactory(SCHEMA);
+    ParquetWriter<Group> writer = ExampleParquetWriter.builder(file)
+        .withType(SCHEMA)
+        .withWriterVersion(version)
+        .withPageSize(1024)
+        .withDictionaryEncoding(false)
+        .withConf(conf)
+        .build();
+    try {
+      for (long id = 0; id < ROW_COUNT; id += 1) {
+        Group group = factory.newGroup().append("id", id).append("bucket", (int) (id % 7));
+        String name = name(id);
+        if (name != null) {
+          group.append("name", name);
+        }
+        writer.write(group);
+      }
+    } finally {
+      writer.close();
+    }
+  }
+
+  @Test
+  public void testIndexesAreWritten() throws IOException {
+    ParquetFileReader reader = ParquetFileReader.open(conf, file);
+    try {
+      for (BlockMetaData block : reader.getRowGroups()) {
+        for (ColumnChunkMetaData column : block.getColumns()) {
+          ColumnIndex columnIndex = reader.readColumnIndex(column);
+          OffsetIndex offsetIndex = reader.readOffsetIndex(column);
+          assertNotNull(column.getPath() + " has a column index", columnIndex);
+          assertNotNull(column.getPath() + " has an offset index", offsetIndex);
+          assertEquals(columnIndex.getPageCount(), offsetIndex.getPageCount());
+          assertEquals(column.getFirstDataPageOffset(), offsetIndex.getOffset(0));
+          assertEquals(0, offsetIndex.getFirstRowIndex(0));
+        }
+      }
+    } finally {
+      reader.close();
+    }
+  }
+
+  @Test
+  public void testPagesAreSkipped() throws IOException {
+    ParquetFileReader reader = ParquetFileReader.open(conf, file);
+    try {
+      reader.filterRowGroups(FilterCompat.get(eq(binaryColumn("name"), Binary.fromString("name-123"))));
+      long filteredCount = reader.getFilteredRecordCount();
+      assertTrue("should skip pages: " + filteredCount, filteredCount < ROW_COUNT / 2);
+      long rowsRead = 0;
+      PageReadStore pages;
+      while ((pages = reader.readNextFilteredRowGroup()) != null) {
+        rowsRead += pages.getRowCount();
+      }
+      assertEquals(filteredCount, rowsRead);
+    } finally {
+      reader.close();
+    }
+  }
+
+  // the expected result of a filter, computed from the written ids
+  private interface RowMatcher {
+    boolean matches(long id);
+  }
+
+  @Test
+  public void testFilteredRead() throws IOException {
+    assertFiltered(eq(longColumn("id"), 1234L), new RowMatcher() {
+      public boolean matches(long id) {
+        return id == 1234;
+      }
+    });
+    assertFiltered(eq(longColumn("id"), -1L), new RowMatcher() {
+      public boolean matches(long id) {
+        return false;
+      }
+    });
+    assertFiltered(or(lt(longColumn("id"), 100L), gtEq(longColumn("id"), 19950L)), new RowMatcher() {
+      public boolean matches(long id) {
+        return id < 100 || id >= 19950;
+      }
+    });
+    assertFiltered(and(gtEq(longColumn("id"), 4000L), eq(binaryColumn("name"), null)), new RowMatcher() {
+      public boolean matches(long id) {
+        return id >= 4000 && name(id) == null;
+      }
+    });
+    assertFiltered(notEq(binaryColumn("name"), null), new RowMatcher() {
+      public boolean matches(long id) {
+        return name(id) != null;
+      }
+    });
+    assertFiltered(eq(binaryColumn("name"), Binary.fromString("name-123")), new RowMatcher() {
+      public boolean matches(long id) {
+        return "name-123".equals(name(id));
+      }
+    });
+    assertFiltered(eq(intColumn("bucket"), 3), new RowMatcher() {
+      public boolean matches(long id) {
+        return id % 7 == 3;
+      }
+    });
+  }
+
+  private void assertFiltered(FilterPredicate predicate, RowMatcher matcher) throws IOException {
+    List<Long> expected = new ArrayList<Long>();
+    for (long id = 0; id < ROW_COUNT; id += 1) {
+      if (matcher.matches(id)) {
+        expected.add(id);
+      }
+    }
+    assertEquals(predicate.toString(), expected, readIds(predicate, true));
+    assertEquals(predicate.toString(), expected, readIds(predicate, false));
+  }
+
+  private List<Long> readIds(FilterPredicate predicate, boolean useColumnIndex) throws IOException {
+    Configuration readConf = new Configuration(conf);
+    readConf.setBoolean(ParquetInputFormat.COLUMN_INDEX_FILTERING_ENABLED, useColumnIndex);
+    ParquetReader<Group> reader = ParquetReader.builder(new GroupReadSupport(), file)
+        .withConf(readConf)
+        .withFilter(FilterCompat.get(predicate))
+        .build();
+    List<Long> ids = new ArrayList<Long>();
+    try {
+      Group group;
+      while ((group = reader.read()) != null) {
+        ids.add(group.getLong("id", 0));
+      }
+    } finally {
+      reader.close();
+    }
+    return ids;
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop;
+
+import static org.apache.parquet.filter2.predicate.FilterApi.binaryColumn;
+import static org.apache.parquet.filter2.predicate.FilterApi.eq;
+import static org.apache.parquet.hadoop.ParquetInputFormat.DICTIONARY_CACHE_ENABLED;
+import static org.apache.parquet.hadoop.ParquetInputFormat.DICTIONARY_CACHE_MAX_BYTES;
+import static org.apache.parquet.schema.MessageTypeParser.parseMessageType;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.column.page.DictionaryPage;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.example.GroupReadSupport;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestDictionaryCache {
+
+  private static final MessageType SCHEMA = parseMessageType(
+      "message test { "
+          + "required int64 id; "
+          + "required binary name (UTF8); "
+          + "} ");
+
+  @Rule
+  public final TemporaryFolder temp = new TemporaryFolder();
+
+  private final Configuration conf = new Configuration();
+  private Path path;
+
+  @Before
+  public void writeFile() throws IOException {
+    File file = temp.newFile();
+    file.delete();
+    this.path = new Path(file.toString());
+    SimpleGroupFactory factory = new SimpleGroupFactory(SCHEMA);
+    ParquetWriter<Group> writer = ExampleParquetWriter.builder(path)
+        .withType(SCHEMA)
+        .withRowGroupSize(16 * 1024)
+        .withDictionaryPageSize(64 * 1024)
+        .withDictionaryEncoding(true)
+        .build();
+    try {
+      for (long id = 0; id < 20000; id += 1) {
+        writer.write(factory.newGroup().append("id", id).append("name", "name-" + (id % 100)));
+      }
+    } finally {
+      writer.close();
+    }
+    conf.setBoolean(DICTIONARY_CACHE_ENABLED, true);
+  }
+
+  @Test
+  public void testDisabledByDefault() {
+    assertNull(DictionaryCache.getSharedCache(new Configuration()));
+    assertNotNull(DictionaryCache.getSharedCache(conf));
+  }
+
+  @Test
+  public void testSharedCacheSizes() {
+    DictionaryCache defaultCache = DictionaryCache.getSharedCache();
+    assertSame(defaultCache, DictionaryCache.getSharedCache(conf));
+
+    // a reader that sets another size gets a cache of that size
+    Configuration smallConf = new Configuration(conf);
+    smallConf.setLong(DICTIONARY_CACHE_MAX_BYTES, 1024 * 1024);
+    DictionaryCache small = DictionaryCache.getSharedCache(smallConf);
+    assertNotSame(defaultCache, small);
+    assertEquals(1024 * 1024, small.getMaxBytes());
+    assertSame(small, DictionaryCache.getSharedCache(smallConf));
+    assertSame(defaultCache, DictionaryCache.getSharedCache());
+  }
+
+  @Test
+  public void testReusableDictionary() throws IOException {
+    DictionaryCache cache = DictionaryCache.getSharedCache(conf);
+    cache.invalidateAll();
+    long misses = cache.getMissCount();
+    long hits = cache.getHitCount();
+
+    ParquetFileReader first = ParquetFileReader.open(HadoopInputFile.fromPath(path, conf));
+    ParquetFileReader second = ParquetFileReader.open(HadoopInputFile.fromPath(path, conf));
+    try {
+      ColumnChunkMetaData name = first.getRowGroups().get(0).getColumns().get(1);
+      DictionaryPage dict = first.readReusableDictionary(name);
+      assertNotNull(dict);
+      assertSame(dict, second.readReusableDictionary(name));
+      assertEquals(misses + 1, cache.getMissCount());
+      assertEquals(hits + 1, cache.getHitCount());
+      assertEquals(1, cache.getDictionaryCount());
+      assertTrue(cache.getEstimatedSize() > 0);
+      // the cached page can be decoded more than once
+      assertEquals(100, dict.decode(SCHEMA.getColumns().get(1)).getMaxId() + 1);
+      assertEquals(100, dict.decode(SCHEMA.getColumns().get(1)).getMaxId() + 1);
+    } finally {
+      first.close();
+      second.close();
+    }
+  }
+
+  @Test
+  public void testFilteredReads() throws IOException {
+    DictionaryCache cache = DictionaryCache.getSharedCache(conf);
+    cache.invalidateAll();
+    long hits = cache.getHitCount();
+
+    for (int i = 0; i < 2; i += 1) {
+      ParquetReader<Group> reader = ParquetReader.builder(new GroupReadSupport(), path)
+          .withConf(conf)
+          .withFilter(FilterCompat.get(eq(binaryColumn("name"), Binary.fromString("name-7"))))
+          .build();
+      try {
+        long count = 0;
+        Group group;
+        while ((group = reader.read()) != null) {
+          assertEquals("name-7", group.getString("name", 0));
+          assertEquals(7, group.getLong("id", 0) % 100);
+          count += 1;
+        }
+        assertEquals(200, count);
+      } finally {
+        reader.close();
+      }
+    }
+    assertTrue("Second read should use cached dictionaries", cache.getHitCount() > hits);
+  }
+}
@@ -0,0 +1,287 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop;
+
+import static org.apache.parquet.format.converter.ParquetMetadataConverter.NO_FILTER;
+import static org.apache.parquet.format.converter.ParquetMetadataConverter.SKIP_ROW_GROUPS;
+import static org.apache.parquet.format.converter.ParquetMetadataConverter.range;
+import static org.apache.parquet.filter2.predicate.FilterApi.eq;
+import static org.apache.parquet.filter2.predicate.FilterApi.longColumn;
+import static org.apache.parquet.hadoop.ParquetInputFormat.FOOTER_CACHE_ENABLED;
+import static org.apache.parquet.hadoop.ParquetInputFormat.FOOTER_CACHE_MAX_BYTES;
+import static org.apache.parquet.hadoop.ParquetInputFormat.FOOTER_PROJECTION_ENABLED;
+import static org.apache.parquet.schema.MessageTypeParser.parseMessageType;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.format.converter.ParquetMetadataConverter.MetadataFilter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.api.ReadSupport;
+import org.apache.parquet.hadoop.example.GroupReadSupport;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.io.LocalInputFile;
+import org.apache.parquet.schema.MessageType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestFooterCache {
+
+  private static final MessageType SCHEMA = parseMessageType(
+      "message test { "
+          + "required int64 id; "
+          + "optional binary name (UTF8); "
+          + "} ");
+
+  @Rule
+  public final TemporaryFolder temp = new TemporaryFolder();
+
+  private final Configuration conf = new Configuration();
+
+  private File writeFile(int rows) throws IOException {
+    File file = temp.newFile();
+    file.delete();
+    writeFile(file, rows);
+    return file;
+  }
+
+  private void writeFile(File file, int rows) throws IOException {
+    SimpleGroupFactory factory = new SimpleGroupFactory(SCHEMA);
+    ParquetWriter<Group> writer = ExampleParquetWriter.builder(new Path(file.toString()))
+        .withType(SCHEMA)
+        .withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+        .withRowGroupSize(16 * 1024)
+        .withPageSize(1024)
+        .build();
+    try {
+      for (long id = 0; id < rows; id += 1) {
+        writer.write(factory.newGroup().append("id", id).append("name", "name-" + (id % 100)));
+      }
+    } finally {
+      writer.close();
+    }
+  }
+
+  @Test
+  public void testHitsAndMisses() throws IOException {
+    File file = writeFile(20000);
+    FooterCache cache = new FooterCache(64 * 1024 * 1024);
+
+    ParquetMetadata first = cache.getFooter(new LocalInputFile(file), NO_FILTER);
+    ParquetMetadata second = cache.getFooter(new LocalInputFile(file), NO_FILTER);
+    assertEquals(1, cache.getMissCount());
+    assertEquals(1, cache.getHitCount());
+    assertEquals(1, cache.getFooterCount());
+    assertTrue(cache.getEstimatedSize() > 0);
+    assertSame(first.getFileMetaData(), second.getFileMetaData());
+    assertEquals(first.getBlocks(), second.getBlocks());
+
+    // the same file through Hadoop is a different key
+    cache.getFooter(HadoopInputFile.fromPath(new Path(file.toString()), conf), NO_FILTER);
+    assertEquals(2, cache.getMissCount());
+    assertEquals(2, cache.getFooterCount());
+
+    cache.invalidateAll();
+    assertEquals(0, cache.getFooterCount());
+    assertEquals(0, cache.getEstimatedSize());
+  }
+
+  @Test
+  public void testRewrittenFile() throws IOException {
+    File file = writeFile(20000);
+    FooterCache cache = new FooterCache(64 * 1024 * 1024);
+    ParquetMetadata before = cache.getFooter(new LocalInputFile(file), NO_FILTER);
+
+    writeFile(file, 30000);
+    // make sure the modification time changes even on coarse file systems
+    assertTrue(file.setLastModified(file.lastModified() + 10000));
+    ParquetMetadata after = cache.getFooter(new LocalInputFile(file), NO_FILTER);
+
+    assertEquals(2, cache.getMissCount());
+    assertEquals(20000, rowCount(before));
+    assertEquals(30000, rowCount(after));
+  }
+
+  @Test
+  public void testFilters() throws IOException {
+    File file = writeFile(40000);
+    LocalInputFile input = new LocalInputFile(file);
+    FooterCache cache = new FooterCache(64 * 1024 * 1024);
+    cache.getFooter(input, NO_FILTER);
+
+    ParquetMetadata footer = ParquetFileReader.readFooter(input, NO_FILTER);
+    assertTrue("Test requires several row groups", footer.getBlocks().size() > 2);
+    long middle = footer.getBlocks().get(1).getStartingPos();
+    MetadataFilter[] filters = new MetadataFilter[] {
+        SKIP_ROW_GROUPS, range(0, middle), range(middle, file.length()) };
+    for (MetadataFilter filter : filters) {
+      ParquetMetadata expected = ParquetFileReader.readFooter(input, filter);
+      ParquetMetadata actual = cache.getFooter(input, filter);
+      assertEquals(filter.toString(), startingPositions(expected), startingPositions(actual));
+    }
+    assertEquals(1, cache.getMissCount());
+    assertEquals(filters.length, cache.getHitCount());
+  }
+
+  @Test
+  public void testEviction() throws IOException {
+    File[] files = new File[] { writeFile(10000), writeFile(10000), writeFile(10000) };
+    long footerSize = FooterCache.estimateSize(
+        ParquetFileReader.readFooter(new LocalInputFile(files[0]), NO_FILTER));
+    FooterCache cache = new FooterCache(footerSize * 2 + footerSize / 2);
+
+    for (File file : files) {
+      cache.getFooter(new LocalInputFile(file), NO_FILTER);
+    }
+    assertEquals(2, cache.getFooterCount());
+    assertEquals(1, cache.getEvictionCount());
+    assertTrue(cache.getEstimatedSize() <= cache.getMaxBytes());
+
+    // the first file was the least recently used
+    cache.getFooter(new LocalInputFile(files[2]), NO_FILTER);
+    assertEquals(1, cache.getHitCount());
+    cache.getFooter(new LocalInputFile(files[0]), NO_FILTER);
+    assertEquals(4, cache.getMissCount());
+  }
+
+  @Test
+  public void testReaders() throws IOException {
+    File file = writeFile(20000);
+    Path path = new Path(file.toString());
+    FooterCache cache = new FooterCache(64 * 1024 * 1024);
+    for (int i = 0; i < 2; i += 1) {
+      ParquetReader<Group> reader = ParquetReader.builder(new GroupReadSupport(), path)
+          .withConf(conf)
+          .withFooterCache(cache)
+          .build();
+      try {
+        long id = 0;
+        Group group;
+        while ((group = reader.read()) != null) {
+          assertEquals(id, group.getLong("id", 0));
+          id += 1;
+        }
+        assertEquals(20000, id);
+      } finally {
+        reader.close();
+      }
+    }
+    assertEquals(1, cache.getMissCount());
+    assertEquals(1, cache.getHitCount());
+
+    ParquetFileReader fileReader = ParquetFileReader.open(
+        conf, HadoopInputFile.fromPath(path, conf), NO_FILTER, cache);
+    try {
+      assertEquals(2, cache.getHitCount());
+      assertNotNull(fileReader.readNextRowGroup());
+    } finally {
+      fileReader.close();
+    }
+
+    Configuration sharedConf = new Configuration(conf);
+    sharedConf.setBoolean(FOOTER_CACHE_ENABLED, true);
+    FooterCache shared = FooterCache.getSharedCache();
+    long hits = shared.getHitCount();
+    for (int i = 0; i < 2; i += 1) {
+      ParquetFileReader.open(sharedConf, path).close();
+    }
+    assertEquals(hits + 1, shared.getHitCount());
+  }
+
+  @Test
+  public void testSharedCacheSizes() {
+    Configuration sharedConf = new Configuration();
+    sharedConf.setBoolean(FOOTER_CACHE_ENABLED, true);
+    FooterCache defaultCache = FooterCache.getSharedCache();
+    assertSame(defaultCache, FooterCache.getSharedCache(sharedConf));
+
+    // a reader that sets another size gets a cache of that size
+    sharedConf.setLong(FOOTER_CACHE_MAX_BYTES, 1024 * 1024);
+    FooterCache small = FooterCache.getSharedCache(sharedConf);
+    assertNotSame(defaultCache, small);
+    assertEquals(1024 * 1024, small.getMaxBytes());
+    assertSame(small, FooterCache.getSharedCache(sharedConf));
+    assertSame(defaultCache, FooterCache.getSharedCache());
+  }
+
+  @Test
+  public void testProjectedReaders() throws IOException {
+    File file = writeFile(20000);
+    Path path = new Path(file.toString());
+    Configuration projectedConf = new Configuration(conf);
+    projectedConf.setBoolean(FOOTER_PROJECTION_ENABLED, true);
+    projectedConf.set(ReadSupport.PARQUET_READ_SCHEMA, "message test { optional binary name (UTF8); }");
+    // records can not be filtered by a column that is not read
+    projectedConf.setBoolean(ParquetInputFormat.RECORD_FILTERING_ENABLED, false);
+    FooterCache cache = new FooterCache(64 * 1024 * 1024);
+    for (boolean cached : new boolean[] { true, false }) {
+      // the filter column is not projected, but row groups are still filtered by it
+      ParquetReader.Builder<Group> builder = ParquetReader.builder(new GroupReadSupport(), path)
+          .withConf(projectedConf)
+          .withFilter(FilterCompat.get(eq(longColumn("id"), 12345L)));
+      ParquetReader<Group> reader = (cached ? builder.withFooterCache(cache) : builder).build();
+      try {
+        long rows = 0;
+        Group group;
+        while ((group = reader.read()) != null) {
+          assertEquals(1, group.getType().getFieldCount());
+          rows += 1;
+        }
+        assertTrue("Should skip row groups: " + rows, rows > 0 && rows < 20000);
+      } finally {
+        reader.close();
+      }
+    }
+
+    // projected footers are copies of the cached footer
+    ParquetMetadata footer = cache.getFooter(new LocalInputFile(file), NO_FILTER);
+    for (BlockMetaData block : footer.getBlocks()) {
+      assertEquals(2, block.getColumns().size());
+    }
+  }
+
+  private static long rowCount(ParquetMetadata footer) {
+    long rows = 0;
+    for (BlockMetaData block : footer.getBlocks()) {
+      rows += block.getRowCount();
+    }
+    return rows;
+  }
+
+  private static String startingPositions(ParquetMetadata footer) {
+    StringBuilder sb = new StringBuilder();
+    for (BlockMetaData block : footer.getBlocks()) {
+      sb.append(block.getStartingPos()).append(',');
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop;
+
+import static org.apache.parquet.schema.MessageTypeParser.parseMessageType;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.column.ColumnBatch;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.LocalInputFile;
+import org.apache.parquet.io.SeekableInputStream;
+import org.apache.parquet.schema.MessageType;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestLocalInputFile {
+
+  private static final int ROW_COUNT = 40000;
+  private static final MessageType SCHEMA = parseMessageType(
+      "message test { "
+          + "required int64 id; "
+          + "optional binary name (UTF8); "
+          + "required double score; "
+          + "} ");
+  private static final MessageType PROJECTION = parseMessageType(
+      "message test { "
+          + "required int64 id; "
+          + "required double score; "
+          + "} ");
+
+  @ClassRule
+  public static final TemporaryFolder temp = new TemporaryFolder();
+
+  private static File file;
+
+  @BeforeClass
+  public static void writeFile() throws IOException {
+    file = temp.newFile();
+    file.delete();
+    SimpleGroupFactory factory = new SimpleGroupFactory(SCHEMA);
+    ParquetWriter<Group> writer = ExampleParquetWriter.builder(new Path(file.toString()))
+        .withType(SCHEMA)
+        .withCompressionCodec(CompressionCodecName.GZIP)
+        .withRowGroupSize(32 * 1024)
+        .withPageSize(4 * 1024)
+        .build();
+    try {
+      for (long id = 0; id < ROW_COUNT; id += 1) {
+        writer.write(factory.newGroup()
+            .append("id", id)
+            .append("name", "name-" + (id % 100))
+            .append("score", id * 0.5));
+      }
+    } finally {
+      writer.close();
+    }
+  }
+
+  @Test
+  public void testStream() throws IOException {
+    byte[] expected = Files.readAllBytes(file.toPath());
+    LocalInputFile input = new LocalInputFile(file);
+    assertEquals(expected.length, input.getLength());
+
+    SeekableInputStream in = input.newStream();
+    try {
+      assertEquals(expected[0] & 0xFF, in.read());
+      assertEquals(1, in.getPos());
+
+      byte[] bytes = new byte[100];
+      in.seek(expected.length - 200);
+      in.readFully(bytes);
+      assertArrayEquals(copy(expected, expected.length - 200, 100), bytes);
+
+      ByteBuffer buffer = ByteBuffer.allocateDirect(100);
+      in.readFully(buffer);
+      buffer.flip();
+      assertEquals(ByteBuffer.wrap(expected, expected.length - 100, 100), buffer);
+      assertEquals(expected.length, in.getPos());
+      assertEquals(-1, in.read());
+
+      in.seek(expected.length - 10);
+      try {
+        in.readFully(bytes);
+        fail("Should not read past the end of the file");
+      } catch (EOFException expectedException) {
+        // expected
+      }
+    } finally {
+      in.close();
+    }
+  }
+
+  @Test
+  public void testMap() throws IOException {
+    byte[] expected = Files.readAllBytes(file.toPath());
+    LocalInputFile input = new LocalInputFile(file);
+
+    ByteBuffer mapped = input.map(4, 1000);
+    assertTrue(mapped.isReadOnly());
+    assertEquals(0, mapped.position());
+    assertEquals(1000, mapped.limit());
+    assertEquals(ByteBuffer.wrap(expected, 4, 1000), mapped);
+
+    try {
+      input.map(expected.length - 10, 11);
+      fail("Should not map past the end of the file");
+    } catch (EOFException expectedException) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testReadWithoutConfiguration() throws IOException {
+    ParquetFileReader fileReader = ParquetFileReader.open(new LocalInputFile(file));
+    assertEquals(file.toString(), fileReader.getPath().toString());
+    assertTrue("Test requires several row groups", fileReader.getRowGroups().size() > 2);
+    ParquetBatchReader reader = new ParquetBatchReader(fileReader, PROJECTION, 1000);
+    try {
+      ColumnBatch[] batches = reader.getBatches();
+      long id = 0;
+      int rows;
+      while ((rows = reader.nextBatch()) > 0) {
+        for (int i = 0; i < rows; ++i, ++id) {
+          assertEquals(id, batches[0].getLongValues()[i]);
+          assertEquals(id * 0.5, batches[1].getDoubleValues()[i], 0.0);
+        }
+      }
+      assertEquals(ROW_COUNT, id);
+      assertFalse(reader.nextBatch() > 0);
+    } finally {
+      reader.close();
+    }
+  }
+
+  private static byte[] copy(byte[] bytes, int offset, int length) {
+    byte[] result = new byte[length];
+    System.arraycopy(bytes, offset, result, 0, length);
+    return result;
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.apache.hadoop.conf.Configurable;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.compress.CompressionInputStream;
+import org.apache.hadoop.io.compress.CompressionOutputStream;
+import org.apache.hadoop.io.compress.zlib.ZlibCompressor;
+import org.apache.hadoop.io.compress.zlib.ZlibFactory;
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.hadoop.codec.Lz4;
+import org.apache.parquet.hadoop.codec.Lz4Codec;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.junit.Test;
+
+public class TestLz4Codec {
+
+  private static byte[] text(int length) {
+    byte[] bytes = new byte[length];
+    Random random = new Random(42);
+    for (int i = 0; i < length; i += 1) {
+      // few distinct words compress well
+      bytes[i] = (byte) ('a' + (i % 7 == 0 ? random.nextInt(26) : (i / 7) % 5));
+    }
+    return bytes;
+  }
+
+  private static byte[] random(int length) {
+    byte[] bytes = new byte[length];
+    new Random(42).nextBytes(bytes);
+    return bytes;
+  }
+
+  private static void assertBlockRoundTrip(byte[] input, boolean direct) throws IOException {
+    ByteBuffer src = direct ? ByteBuffer.allocateDirect(input.length) : ByteBuffer.allocate(input.length);
+    src.put(input);
+    src.flip();
+    int maxLength = Lz4.maxCompressedLength(input.length);
+    ByteBuffer compressed = direct ? ByteBuffer.allocateDirect(maxLength) : ByteBuffer.allocate(maxLength);
+    int size = Lz4.compress(src, compressed);
+    assertEquals(size, compressed.position());
+    assertTrue(size <= maxLength);
+    compressed.flip();
+
+    ByteBuffer dst = direct ? ByteBuffer.allocateDirect(input.length) : ByteBuffer.allocate(input.length);
+    assertEquals(input.length, Lz4.decompress(compressed, dst));
+    byte[] output = new byte[input.length];
+    dst.flip();
+    dst.get(output);
+    assertArrayEquals(input, output);
+  }
+
+  @Test
+  public void testBlocks() throws IOException {
+    for (boolean direct : new boolean[] { false, true }) {
+      for (int length : new int[] { 0, 1, 12, 13, 100, 64 * 1024, 1024 * 1024 }) {
+        assertBlockRoundTrip(text(length), direct);
+        assertBlockRoundTrip(random(length), direct);
+        assertBlockRoundTrip(new byte[length], direct);
+      }
+    }
+  }
+
+  @Test
+  public void testCompression() throws IOException {
+    byte[] input = text(1024 * 1024);
+    ByteBuffer compressed = ByteBuffer.allocate(Lz4.maxCompressedLength(input.length));
+    int size = Lz4.compress(ByteBuffer.wrap(input), compressed);
+    assertTrue("Should compress repeated text: " + size, size < input.length / 2);
+  }
+
+  @Test(expected = IOException.class)
+  public void testMalformedBlock() throws IOException {
+    byte[] input = text(1024);
+    ByteBuffer compressed = ByteBuffer.allocate(Lz4.maxCompressedLength(input.length));
+    Lz4.compress(ByteBuffer.wrap(input), compressed);
+    compressed.flip();
+    // the block decompresses to more bytes than available
+    Lz4.decompress(compressed, ByteBuffer.allocate(input.length / 2));
+  }
+
+  @Test
+  public void testStream() throws IOException {
+    Configuration conf = new Configuration();
+    // several blocks per stream
+    conf.setInt(Lz4Codec.BUFFER_SIZE_CONFIG, 16 * 1024);
+    Lz4Codec codec = new Lz4Codec();
+    codec.setConf(conf);
+
+    for (byte[] input : new byte[][] { new byte[0], text(100 * 1024), random(100 * 1024) }) {
+      ByteArrayOutputStream compressedStream = new ByteArrayOutputStream();
+      CompressionOutputStream out = codec.createOutputStream(compressedStream);
+      for (int off = 0; off < input.length; off += 1000) {
+        out.write(input, off, Math.min(1000, input.length - off));
+      }
+      out.finish();
+      out.close();
+
+      CompressionInputStream in = codec.createInputStream(
+          new ByteArrayInputStream(compressedStream.toByteArray()));
+      byte[] output = BytesInput.from(in, input.length).toByteArray();
+      assertArrayEquals(input, output);
+      assertEquals(-1, in.read());
+      in.close();
+    }
+  }
+
+  @Test
+  public void testCodecFactory() throws IOException {
+    byte[] input = text(1024 * 1024);
+    CodecFactory codecFactory = new CodecFactory(new Configuration(), 64 * 1024);
+    try {
+      CodecFactory.BytesCompressor compressor = codecFactory.getCompressor(CompressionCodecName.LZ4);
+      BytesInput compressed = BytesInput.copy(compressor.compress(BytesInput.from(input)));
+      assertTrue(compressed.size() < input.length);
+      CodecFactory.BytesDecompressor decompressor = codecFactory.getDecompressor(CompressionCodecName.LZ4);
+      assertArrayEquals(input, decompressor.decompress(compressed, input.length).toByteArray());
+    } finally {
+      codecFactory.release();
+    }
+  }
+
+  @Test
+  public void testCompressionLevel() {
+    Configuration conf = new Configuration();
+    conf.setInt(ParquetOutputFormat.GZIP_COMPRESSION_LEVEL, 9);
+    CodecFactory codecFactory = new CodecFactory(conf, 1024);
+    Configurable codec = (Configurable) codecFactory.getCodec(CompressionCodecName.GZIP);
+    assertEquals(ZlibCompressor.CompressionLevel.BEST_COMPRESSION,
+        ZlibFactory.getCompressionLevel(codec.getConf()));
+
+    Configurable defaultCodec = (Configurable) new CodecFactory(new Configuration(), 1024)
+        .getCodec(CompressionCodecName.GZIP);
+    assertEquals(ZlibCompressor.CompressionLevel.DEFAULT_COMPRESSION,
+        ZlibFactory.getCompressionLevel(defaultCodec.getConf()));
+  }
+}
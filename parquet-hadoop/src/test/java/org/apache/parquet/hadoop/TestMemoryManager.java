@@ -26,14 +26,25 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
+import org.apache.parquet.column.ParquetProperties;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
 import org.apache.parquet.hadoop.example.GroupWriteSupport;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
 import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.schema.MessageType;
 import org.apache.parquet.schema.MessageTypeParser;
 
 import java.io.File;
 import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Set;
 
+import static org.apache.parquet.format.converter.ParquetMetadataConverter.NO_FILTER;
+
 /**
  * Verify MemoryManager could adjust its writers' allocated memory size.
  */
@@ -167,6 +178,56 @@ public class TestMemoryManager {
         1, ParquetOutputFormat.getMemoryManager().getScaleCallBacks().size());
   }
 
+  @Test
+  public void testFlushLargestWriters() throws Exception {
+    long poolSize = 256 * 1024;
+    MemoryManager manager = new MemoryManager(
+        MemoryManager.DEFAULT_MEMORY_POOL_RATIO, 1024, poolSize, 0);
+    MessageType schema = MessageTypeParser.parseMessageType(writeSchema);
+    SimpleGroupFactory factory = new SimpleGroupFactory(schema);
+    ParquetProperties props = ParquetProperties.builder().withDictionaryEncoding(false).build();
+
+    Path[] files = new Path[3];
+    List<ParquetRecordWriter<Group>> writers = new ArrayList<ParquetRecordWriter<Group>>();
+    for (int i = 0; i < files.length; i += 1) {
+      File file = temp.newFile("flush-" + i + ".parquet");
+      file.delete();
+      files[i] = new Path(file.toString());
+      ParquetFileWriter fileWriter = new ParquetFileWriter(conf, schema, files[i]);
+      fileWriter.start();
+      GroupWriteSupport writeSupport = new GroupWriteSupport();
+      writeSupport.init(conf);
+      // row groups are much larger than the pool and are never full
+      writers.add(new ParquetRecordWriter<Group>(fileWriter, writeSupport, schema,
+          new HashMap<String, String>(), 128 * 1024 * 1024, CompressionCodecName.UNCOMPRESSED,
+          false, props, manager, conf));
+    }
+
+    for (int line = 0; line < 20000; line += 1) {
+      for (ParquetRecordWriter<Group> writer : writers) {
+        writer.write(null, factory.newGroup()
+            .append("line", line)
+            .append("content", "line " + line + " of some content"));
+      }
+    }
+    Assert.assertTrue("Buffered bytes should be bounded by the pool",
+        manager.getAllocatedSize(false) <= 2 * poolSize);
+    for (ParquetRecordWriter<Group> writer : writers) {
+      writer.close(null);
+    }
+
+    for (Path file : files) {
+      ParquetMetadata footer = ParquetFileReader.readFooter(conf, file, NO_FILTER);
+      Assert.assertTrue("Writers should flush row groups early",
+          footer.getBlocks().size() > 1);
+      long rows = 0;
+      for (BlockMetaData block : footer.getBlocks()) {
+        rows += block.getRowCount();
+      }
+      Assert.assertEquals(20000, rows);
+    }
+  }
+
   @Rule
   public TemporaryFolder temp = new TemporaryFolder();
 
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop;
+
+import static org.apache.parquet.filter2.predicate.FilterApi.gtEq;
+import static org.apache.parquet.filter2.predicate.FilterApi.longColumn;
+import static org.apache.parquet.hadoop.ParquetInputFormat.PARALLEL_READ_MAX_BYTES;
+import static org.apache.parquet.schema.MessageTypeParser.parseMessageType;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.example.GroupReadSupport;
+import org.apache.parquet.schema.MessageType;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestParallelParquetReader {
+
+  private static final int ROW_COUNT = 40000;
+  private static final MessageType SCHEMA = parseMessageType(
+      "message test { "
+          + "required int64 id; "
+          + "optional binary name (UTF8); "
+          + "} ");
+
+  @ClassRule
+  public static final TemporaryFolder temp = new TemporaryFolder();
+
+  private static Path file;
+
+  @BeforeClass
+  public static void writeFile() throws IOException {
+    File f = temp.newFile();
+    f.delete();
+    file = new Path(f.toString());
+    SimpleGroupFactory factory = new SimpleGroupFactory(SCHEMA);
+    ParquetWriter<Group> writer = ExampleParquetWriter.builder(file)
+        .withType(SCHEMA)
+        .withRowGroupSize(32 * 1024)
+        .withPageSize(4 * 1024)
+        .build();
+    try {
+      for (long id = 0; id < ROW_COUNT; id += 1) {
+        writer.write(factory.newGroup()
+            .append("id", id)
+            .append("name", "name-" + (id % 100)));
+      }
+    } finally {
+      writer.close();
+    }
+    ParquetFileReader reader = ParquetFileReader.open(new Configuration(), file);
+    try {
+      assertTrue("Test requires several row groups", reader.getRowGroups().size() > 4);
+    } finally {
+      reader.close();
+    }
+  }
+
+  private static List<Long> readIds(ParquetReader<Group> reader) throws IOException {
+    List<Long> ids = new ArrayList<Long>();
+    try {
+      Group group;
+      while ((group = reader.read()) != null) {
+        long id = group.getLong("id", 0);
+        assertEquals("name-" + (id % 100), group.getString("name", 0));
+        ids.add(id);
+      }
+    } finally {
+      reader.close();
+    }
+    return ids;
+  }
+
+  @Test
+  public void testOrderedRecords() throws IOException {
+    // a budget of one byte reads a single row group at a time
+    for (long maxBytes : new long[] { 1, 64 * 1024 * 1024 }) {
+      Configuration conf = new Configuration();
+      conf.setLong(PARALLEL_READ_MAX_BYTES, maxBytes);
+      List<Long> ids = readIds(ParquetReader.builder(new GroupReadSupport(), file)
+          .withConf(conf)
+          .withParallelism(4)
+          .build());
+      assertEquals(ROW_COUNT, ids.size());
+      for (int i = 0; i < ROW_COUNT; i += 1) {
+        assertEquals(i, ids.get(i).longValue());
+      }
+    }
+  }
+
+  @Test
+  public void testUnorderedRecords() throws IOException {
+    List<Long> ids = readIds(ParquetReader.builder(new GroupReadSupport(), file)
+        .withParallelism(4)
+        .withOrderedRecords(false)
+        .build());
+    assertEquals(ROW_COUNT, ids.size());
+    Collections.sort(ids);
+    for (int i = 0; i < ROW_COUNT; i += 1) {
+      assertEquals(i, ids.get(i).longValue());
+    }
+  }
+
+  @Test(timeout = 60000)
+  public void testCloseWhileTasksWait() throws IOException {
+    // all row groups are submitted and wait for their chunks to be taken
+    for (boolean ordered : new boolean[] { true, false }) {
+      Configuration conf = new Configuration();
+      conf.setLong(PARALLEL_READ_MAX_BYTES, 64 * 1024 * 1024);
+      ParquetReader<Group> reader = ParquetReader.builder(new GroupReadSupport(), file)
+          .withConf(conf)
+          .withParallelism(2)
+          .withOrderedRecords(ordered)
+          .build();
+      try {
+        for (int i = 0; i < 10; i += 1) {
+          Group group = reader.read();
+          assertEquals("name-" + (group.getLong("id", 0) % 100), group.getString("name", 0));
+        }
+      } finally {
+        reader.close();
+      }
+    }
+  }
+
+  @Test
+  public void testFilteredRecords() throws IOException {
+    List<Long> ids = readIds(ParquetReader.builder(new GroupReadSupport(), file)
+        .withParallelism(4)
+        .withFilter(FilterCompat.get(gtEq(longColumn("id"), 25000L)))
+        .build());
+    assertEquals(ROW_COUNT - 25000, ids.size());
+    for (int i = 0; i < ids.size(); i += 1) {
+      assertEquals(25000 + i, ids.get(i).longValue());
+    }
+  }
+}
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop;
+
+import static org.apache.parquet.filter2.predicate.FilterApi.and;
+import static org.apache.parquet.filter2.predicate.FilterApi.gtEq;
+import static org.apache.parquet.filter2.predicate.FilterApi.longColumn;
+import static org.apache.parquet.filter2.predicate.FilterApi.lt;
+import static org.apache.parquet.schema.MessageTypeParser.parseMessageType;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.column.ColumnBatch;
+import org.apache.parquet.column.ParquetProperties.WriterVersion;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.schema.MessageType;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+@RunWith(Parameterized.class)
+public class TestParquetBatchReader {
+
+  private static final int ROW_COUNT = 50000;
+  private static final MessageType SCHEMA = parseMessageType(
+      "message test { "
+          + "required int64 id; "
+          + "optional binary name (UTF8); "
+          + "optional double score; "
+          + "} ");
+
+  @Parameterized.Parameters
+  public static Collection<Object[]> data() {
+    return Arrays.asList(new Object[][] {
+        { WriterVersion.PARQUET_1_0 },
+        { WriterVersion.PARQUET_2_0 } });
+  }
+
+  @Rule
+  public final TemporaryFolder temp = new TemporaryFolder();
+
+  private final WriterVersion version;
+  private final Configuration conf = new Configuration();
+  private Path file;
+
+  public TestParquetBatchReader(WriterVersion version) {
+    this.version = version;
+  }
+
+  private static String name(long id) {
+    return id % 5 == 0 ? null : "name-" + (id % 1000);
+  }
+
+  @Before
+  public void writeFile() throws IOException {
+    File f = temp.newFile();
+    f.delete();
+    file = new Path(f.toString());
+    SimpleGroupFactory factory = new SimpleGroupFactory(SCHEMA);
+    ParquetWriter<Group> writer = ExampleParquetWriter.builder(file)
+        .withType(SCHEMA)
+        .withWriterVersion(version)
+        .withRowGroupSize(128 * 1024)
+        .withPageSize(4 * 1024)
+        .withConf(conf)
+        .build();
+    try {
+      for (long id = 0; id < ROW_COUNT; id += 1) {
+        Group group = factory.newGroup().append("id", id).append("score", id * 0.25);
+        String name = name(id);
+        if (name != null) {
+          group.append("name", name);
+        }
+        writer.write(group);
+      }
+    } finally {
+      writer.close();
+    }
+  }
+
+  @Test
+  public void testReadAllRows() throws IOException {
+    ParquetFileReader fileReader = ParquetFileReader.open(conf, file);
+    assertTrue("Test requires several row groups", fileReader.getRowGroups().size() > 1);
+    ParquetBatchReader reader = new ParquetBatchReader(fileReader, SCHEMA, 1024);
+    try {
+      ColumnBatch[] batches = reader.getBatches();
+      assertEquals(3, batches.length);
+      long id = 0;
+      int rows;
+      while ((rows = reader.nextBatch()) > 0) {
+        assertTrue(rows <= 1024);
+        for (int i = 0; i < rows; ++i, ++id) {
+          assertEquals(id, batches[0].getLongValues()[i]);
+          String name = name(id);
+          assertEquals(name == null, batches[1].isNull(i));
+          if (name != null) {
+            assertEquals(name, batches[1].getBinaryValues()[i].toStringUsingUTF8());
+          }
+          assertFalse(batches[2].isNull(i));
+          assertEquals(id * 0.25, batches[2].getDoubleValues()[i], 0.0);
+        }
+      }
+      assertEquals(ROW_COUNT, id);
+    } finally {
+      reader.close();
+    }
+  }
+
+  @Test
+  public void testProjectionAndFilter() throws IOException {
+    MessageType projection = parseMessageType("message test { required int64 id; }");
+    ParquetFileReader fileReader = ParquetFileReader.open(conf, file);
+    fileReader.filterRowGroups(FilterCompat.get(
+        and(gtEq(longColumn("id"), 20000L), lt(longColumn("id"), 20100L))));
+    ParquetBatchReader reader = new ParquetBatchReader(fileReader, projection, 4096);
+    try {
+      ColumnBatch ids = reader.getBatches()[0];
+      long count = 0;
+      boolean found = false;
+      int rows;
+      while ((rows = reader.nextBatch()) > 0) {
+        for (int i = 0; i < rows; ++i) {
+          long id = ids.getLongValues()[i];
+          if (id == 20000L) {
+            found = true;
+          }
+        }
+        count += rows;
+      }
+      assertTrue(found);
+      // only the pages that might match are read
+      assertTrue("Should skip most rows: " + count, count < ROW_COUNT / 2);
+    } finally {
+      reader.close();
+    }
+  }
+
+  @Test
+  public void testRepeatedColumns() throws IOException {
+    assertTrue(ParquetBatchReader.isSupported(SCHEMA));
+    MessageType repeated = parseMessageType("message test { required int64 id; repeated int32 values; }");
+    assertFalse(ParquetBatchReader.isSupported(repeated));
+    ParquetFileReader fileReader = ParquetFileReader.open(conf, file);
+    try {
+      new ParquetBatchReader(fileReader, repeated, 100);
+      fail("Should reject repeated columns");
+    } catch (IllegalArgumentException e) {
+      // expected
+    } finally {
+      fileReader.close();
+    }
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop;
+
+import static org.apache.parquet.hadoop.ParquetInputFormat.PREFETCH_ENABLED;
+import static org.apache.parquet.hadoop.ParquetInputFormat.PREFETCH_MAX_BYTES;
+import static org.apache.parquet.hadoop.ParquetInputFormat.PREFETCH_THREADS;
+import static org.apache.parquet.schema.MessageTypeParser.parseMessageType;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.column.ColumnBatch;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.example.GroupReadSupport;
+import org.apache.parquet.schema.MessageType;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestParquetFileReaderPrefetch {
+
+  private static final int ROW_COUNT = 40000;
+  private static final MessageType SCHEMA = parseMessageType(
+      "message test { "
+          + "required int64 id; "
+          + "optional binary name (UTF8); "
+          + "required double score; "
+          + "} ");
+  // skips the middle column so each row group is read as two runs of chunks
+  private static final MessageType PROJECTION = parseMessageType(
+      "message test { "
+          + "required int64 id; "
+          + "required double score; "
+          + "} ");
+
+  @ClassRule
+  public static final TemporaryFolder temp = new TemporaryFolder();
+
+  private static Path file;
+
+  @BeforeClass
+  public static void writeFile() throws IOException {
+    File f = temp.newFile();
+    f.delete();
+    file = new Path(f.toString());
+    SimpleGroupFactory factory = new SimpleGroupFactory(SCHEMA);
+    ParquetWriter<Group> writer = ExampleParquetWriter.builder(file)
+        .withType(SCHEMA)
+        .withRowGroupSize(64 * 1024)
+        .withPageSize(4 * 1024)
+        .build();
+    try {
+      for (long id = 0; id < ROW_COUNT; id += 1) {
+        writer.write(factory.newGroup()
+            .append("id", id)
+            .append("name", "name-" + (id % 100))
+            .append("score", id * 0.5));
+      }
+    } finally {
+      writer.close();
+    }
+  }
+
+  private static Configuration prefetchConf(long maxBytes) {
+    Configuration conf = new Configuration();
+    conf.setBoolean(PREFETCH_ENABLED, true);
+    conf.setInt(PREFETCH_THREADS, 2);
+    conf.setLong(PREFETCH_MAX_BYTES, maxBytes);
+    return conf;
+  }
+
+  @Test
+  public void testReadRecords() throws IOException {
+    Configuration conf = prefetchConf(64 * 1024 * 1024);
+    ParquetReader<Group> reader = ParquetReader.builder(new GroupReadSupport(), file).withConf(conf).build();
+    try {
+      long id = 0;
+      Group group;
+      while ((group = reader.read()) != null) {
+        assertEquals(id, group.getLong("id", 0));
+        assertEquals("name-" + (id % 100), group.getString("name", 0));
+        assertEquals(id * 0.5, group.getDouble("score", 0), 0.0);
+        id += 1;
+      }
+      assertEquals(ROW_COUNT, id);
+    } finally {
+      reader.close();
+    }
+  }
+
+  @Test
+  public void testProjectedBatches() throws IOException {
+    // a budget of one byte never prefetches but still reads in parallel
+    for (long maxBytes : new long[] { 1, 64 * 1024 * 1024 }) {
+      ParquetFileReader fileReader = ParquetFileReader.open(prefetchConf(maxBytes), file);
+      assertTrue("Test requires several row groups", fileReader.getRowGroups().size() > 2);
+      ParquetBatchReader reader = new ParquetBatchReader(fileReader, PROJECTION, 1000);
+      try {
+        ColumnBatch[] batches = reader.getBatches();
+        long id = 0;
+        int rows;
+        while ((rows = reader.nextBatch()) > 0) {
+          for (int i = 0; i < rows; ++i, ++id) {
+            assertEquals(id, batches[0].getLongValues()[i]);
+            assertEquals(id * 0.5, batches[1].getDoubleValues()[i], 0.0);
+          }
+        }
+        assertEquals(ROW_COUNT, id);
+      } finally {
+        reader.close();
+      }
+    }
+  }
+
+  @Test
+  public void testSkipRowGroups() throws IOException {
+    ParquetFileReader reader = ParquetFileReader.open(prefetchConf(64 * 1024 * 1024), file);
+    try {
+      int blocks = reader.getRowGroups().size();
+      long expectedRows = 0;
+      long rows = 0;
+      for (int i = 0; i < blocks; i += 1) {
+        // skip every other row group after it has been prefetched
+        if (i % 2 == 1) {
+          assertTrue(reader.skipNextRowGroup());
+        } else {
+          expectedRows += reader.getRowGroups().get(i).getRowCount();
+          PageReadStore pages = reader.readNextRowGroup();
+          rows += pages.getRowCount();
+        }
+      }
+      assertNull(reader.readNextRowGroup());
+      assertEquals(expectedRows, rows);
+    } finally {
+      reader.close();
+    }
+  }
+}
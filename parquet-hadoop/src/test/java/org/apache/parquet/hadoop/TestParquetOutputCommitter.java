@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop;
+
+import static org.apache.parquet.schema.MessageTypeParser.parseMessageType;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.FileMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.schema.MessageType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestParquetOutputCommitter {
+
+  private static final MessageType SCHEMA = parseMessageType(
+      "message test { "
+          + "required int64 id; "
+          + "} ");
+
+  @Rule
+  public final TemporaryFolder temp = new TemporaryFolder();
+
+  private final Configuration conf = new Configuration();
+
+  private void writeFile(Path path, long count) throws IOException {
+    SimpleGroupFactory factory = new SimpleGroupFactory(SCHEMA);
+    ParquetWriter<Group> writer = ExampleParquetWriter.builder(path)
+        .withType(SCHEMA)
+        .build();
+    try {
+      for (long id = 0; id < count; id += 1) {
+        writer.write(factory.newGroup().append("id", id));
+      }
+    } finally {
+      writer.close();
+    }
+  }
+
+  @Test
+  public void testSummaryFromTaskFooters() throws IOException {
+    Path output = new Path(temp.newFolder("output").toString());
+    Path work = new Path(temp.newFolder("work").toString());
+    FileSystem fs = output.getFileSystem(conf);
+
+    writeFile(new Path(work, "part-0.parquet"), 10);
+    writeFile(new Path(work, "p=1/part-1.parquet"), 20);
+    ParquetOutputCommitter.writeTaskFootersFile(conf, work);
+    Path taskFooters = new Path(work, ParquetOutputCommitter.TASK_FOOTERS_PREFIX + work.getName());
+    assertTrue("Should write the task footers", fs.exists(taskFooters));
+
+    // commit the task output, then add a file that is in no task footers file
+    for (FileStatus status : fs.listStatus(work)) {
+      assertTrue(fs.rename(status.getPath(), new Path(output, status.getPath().getName())));
+    }
+    writeFile(new Path(output, "part-2.parquet"), 30);
+
+    ParquetOutputCommitter.writeMetaDataFile(conf, output);
+
+    assertFalse("Should delete the task footers",
+        fs.exists(new Path(output, taskFooters.getName())));
+    ParquetMetadata summary = ParquetFileReader.readFooter(
+        conf, new Path(output, ParquetFileWriter.PARQUET_METADATA_FILE));
+    Set<String> paths = new HashSet<String>();
+    long rowCount = 0;
+    for (BlockMetaData block : summary.getBlocks()) {
+      paths.add(block.getPath());
+      rowCount += block.getRowCount();
+    }
+    assertEquals(new HashSet<String>(Arrays.asList(
+        "part-0.parquet", "p=1/part-1.parquet", "part-2.parquet")), paths);
+    assertEquals(60, rowCount);
+    assertEquals(SCHEMA, summary.getFileMetaData().getSchema());
+    assertTrue(fs.exists(new Path(output, ParquetFileWriter.PARQUET_COMMON_METADATA_FILE)));
+  }
+
+  @Test
+  public void testNoTaskFootersWhenDisabled() throws IOException {
+    Path work = new Path(temp.newFolder("work").toString());
+    FileSystem fs = work.getFileSystem(conf);
+    writeFile(new Path(work, "part-0.parquet"), 10);
+
+    Configuration disabled = new Configuration(conf);
+    disabled.setBoolean(ParquetOutputFormat.TASK_SIDE_FOOTERS, false);
+    ParquetOutputCommitter.writeTaskFootersFile(disabled, work);
+    Configuration noSummary = new Configuration(conf);
+    noSummary.set(ParquetOutputFormat.JOB_SUMMARY_LEVEL, "none");
+    ParquetOutputCommitter.writeTaskFootersFile(noSummary, work);
+
+    assertEquals(1, fs.listStatus(work).length);
+  }
+
+  @Test
+  public void testParallelMergeKeepsOrder() throws IOException {
+    Path root = new Path("/output");
+    int count = ParquetFileWriter.MIN_FOOTERS_PER_MERGE * 4 + 7;
+    ParquetMetadata sequential = ParquetFileWriter.mergeFooters(root, newFooters(root, count));
+    ParquetMetadata parallel = ParquetFileWriter.mergeFooters(root, newFooters(root, count), 4);
+
+    assertEquals(count, parallel.getBlocks().size());
+    for (int i = 0; i < count; i += 1) {
+      assertEquals(i, parallel.getBlocks().get(i).getRowCount());
+      assertEquals(sequential.getBlocks().get(i).getPath(), parallel.getBlocks().get(i).getPath());
+    }
+    assertEquals(sequential.getFileMetaData().getSchema(), parallel.getFileMetaData().getSchema());
+    assertEquals(sequential.getFileMetaData().getKeyValueMetaData(),
+        parallel.getFileMetaData().getKeyValueMetaData());
+    assertEquals(sequential.getFileMetaData().getCreatedBy(), parallel.getFileMetaData().getCreatedBy());
+  }
+
+  private static List<Footer> newFooters(Path root, int count) {
+    FileMetaData fileMetaData = new FileMetaData(
+        SCHEMA, Collections.singletonMap("key", "value"), "test");
+    List<Footer> footers = new ArrayList<Footer>();
+    for (int i = 0; i < count; i += 1) {
+      BlockMetaData block = new BlockMetaData();
+      block.setRowCount(i);
+      List<BlockMetaData> blocks = new ArrayList<BlockMetaData>();
+      blocks.add(block);
+      footers.add(new Footer(new Path(root, "part-" + i), new ParquetMetadata(fileMetaData, blocks)));
+    }
+    return footers;
+  }
+}
@@ -20,6 +20,7 @@ package org.apache.parquet.hadoop;
 
 import static java.util.Arrays.asList;
 import static org.apache.parquet.schema.Type.Repetition.REQUIRED;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.apache.parquet.column.Encoding.DELTA_BYTE_ARRAY;
@@ -31,11 +32,14 @@ import static org.apache.parquet.column.ParquetProperties.WriterVersion.PARQUET_
 import static org.apache.parquet.format.converter.ParquetMetadataConverter.NO_FILTER;
 import static org.apache.parquet.hadoop.ParquetFileReader.readFooter;
 import static org.apache.parquet.hadoop.TestUtils.enforceEmptyDir;
+import static org.apache.parquet.hadoop.metadata.CompressionCodecName.GZIP;
 import static org.apache.parquet.hadoop.metadata.CompressionCodecName.UNCOMPRESSED;
 import static org.apache.parquet.schema.MessageTypeParser.parseMessageType;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.Callable;
@@ -55,11 +59,15 @@ import org.apache.parquet.column.Encoding;
 import org.apache.parquet.column.ParquetProperties.WriterVersion;
 import org.apache.parquet.example.data.Group;
 import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.filter2.statisticslevel.StatisticsFilter;
 import org.apache.parquet.hadoop.example.GroupReadSupport;
 import org.apache.parquet.hadoop.example.GroupWriteSupport;
 import org.apache.parquet.hadoop.metadata.BlockMetaData;
 import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
 import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.io.LocalOutputFile;
 import org.apache.parquet.io.api.Binary;
 import org.apache.parquet.schema.MessageType;
 import org.junit.rules.TemporaryFolder;
@@ -166,4 +174,212 @@ public class TestParquetWriter {
     Assert.assertFalse("Should not create a file when schema is rejected",
         file.exists());
   }
+
+  @Test
+  public void testParallelPageCompression() throws IOException {
+    MessageType schema = parseMessageType(
+        "message test { "
+        + "required int64 id; "
+        + "optional binary name (UTF8); "
+        + "} ");
+    SimpleGroupFactory f = new SimpleGroupFactory(schema);
+    for (WriterVersion version : WriterVersion.values()) {
+      File[] files = new File[2];
+      for (int threads = 0; threads < files.length; threads += 1) {
+        files[threads] = temp.newFile();
+        files[threads].delete();
+        ParquetWriter<Group> writer = ExampleParquetWriter.builder(new Path(files[threads].toString()))
+            .withType(schema)
+            .withCompressionCodec(GZIP)
+            .withWriterVersion(version)
+            .withPageSize(1024)
+            .withPageCompressionThreads(threads * 4)
+            .build();
+        for (long i = 0; i < 20000; i++) {
+          Group group = f.newGroup().append("id", i);
+          if (i % 3 != 0) {
+            group.append("name", "name-" + (i * 7 % 1000));
+          }
+          writer.write(group);
+        }
+        writer.close();
+      }
+      // pages are compressed in parallel but written in the same order
+      assertArrayEquals(version.name(),
+          Files.readAllBytes(files[0].toPath()), Files.readAllBytes(files[1].toPath()));
+    }
+  }
+
+  @Test
+  public void testColumnSettings() throws IOException {
+    MessageType schema = parseMessageType(
+        "message test { "
+        + "required int64 id; "
+        + "required int64 time; "
+        + "required binary name (UTF8); "
+        + "required binary country (UTF8); "
+        + "required binary payload; "
+        + "} ");
+    SimpleGroupFactory f = new SimpleGroupFactory(schema);
+    File file = temp.newFile();
+    file.delete();
+    Path path = new Path(file.toString());
+    ParquetWriter<Group> writer = ExampleParquetWriter.builder(path)
+        .withType(schema)
+        .withCompressionCodec(GZIP)
+        .withPageCompressionThreads(2)
+        .withDictionaryEncoding("id", false)
+        .withDictionaryEncoding("time", false)
+        .withValuesWriterVersion("time", PARQUET_2_0)
+        .withDictionaryPageSize("country", 1024)
+        .withCompressionCodec("payload", UNCOMPRESSED)
+        .build();
+    for (long i = 0; i < 10000; i++) {
+      writer.write(f.newGroup()
+          .append("id", i)
+          .append("time", 1500000000000L + i)
+          .append("name", "name-" + (i % 500))
+          .append("country", "country-" + (i % 500))
+          .append("payload", "payload-" + i));
+    }
+    writer.close();
+
+    ParquetMetadata footer = readFooter(new Configuration(), path, NO_FILTER);
+    for (BlockMetaData block : footer.getBlocks()) {
+      for (ColumnChunkMetaData column : block.getColumns()) {
+        String name = column.getPath().toDotString();
+        if (name.equals("id")) {
+          assertEquals(GZIP, column.getCodec());
+          assertTrue(column.getEncodings().contains(PLAIN));
+          Assert.assertFalse(column.getEncodings().contains(PLAIN_DICTIONARY));
+        } else if (name.equals("time")) {
+          assertTrue(column.getEncodings().contains(Encoding.DELTA_BINARY_PACKED));
+        } else if (name.equals("name")) {
+          assertTrue(column.getEncodings().contains(PLAIN_DICTIONARY));
+          Assert.assertFalse(column.getEncodings().contains(PLAIN));
+        } else if (name.equals("country")) {
+          // the dictionary of the column is too small for its values
+          assertEquals(GZIP, column.getCodec());
+          assertTrue(column.getEncodings().contains(PLAIN));
+        } else if (name.equals("payload")) {
+          assertEquals(UNCOMPRESSED, column.getCodec());
+        }
+      }
+    }
+
+    ParquetReader<Group> reader = ParquetReader.builder(new GroupReadSupport(), path).build();
+    for (long i = 0; i < 10000; i++) {
+      Group group = reader.read();
+      assertEquals(i, group.getLong("id", 0));
+      assertEquals(1500000000000L + i, group.getLong("time", 0));
+      assertEquals("name-" + (i % 500), group.getString("name", 0));
+      assertEquals("country-" + (i % 500), group.getString("country", 0));
+      assertEquals("payload-" + i, group.getBinary("payload", 0).toStringUsingUTF8());
+    }
+    reader.close();
+  }
+
+  @Test
+  public void testLongStringStatistics() throws IOException {
+    MessageType schema = parseMessageType(
+        "message test { "
+        + "required int64 id; "
+        + "required binary url (UTF8); "
+        + "} ");
+    SimpleGroupFactory f = new SimpleGroupFactory(schema);
+    File file = temp.newFile();
+    file.delete();
+    Path path = new Path(file.toString());
+    StringBuilder suffix = new StringBuilder();
+    for (int i = 0; i < 2100; i++) {
+      suffix.append('x');
+    }
+    ParquetWriter<Group> writer = ExampleParquetWriter.builder(path)
+        .withType(schema)
+        .withRowGroupSize(64 * 1024)
+        .withPageSize(16 * 1024)
+        .withDictionaryEncoding(false)
+        .build();
+    // sorted in unsigned byte order, the order of UTF8 strings
+    for (long i = 0; i < 1000; i++) {
+      writer.write(f.newGroup().append("id", i).append("url", url(i, suffix)));
+    }
+    writer.close();
+
+    Configuration signed = new Configuration();
+    signed.setBoolean("parquet.strings.signed-min-max.enabled", true);
+    for (Configuration conf : asList(new Configuration(), signed)) {
+      ParquetMetadata footer = readFooter(conf, path, NO_FILTER);
+      assertTrue("Should write several row groups", footer.getBlocks().size() > 4);
+      int kept = 0;
+      long firstRow = 0;
+      for (BlockMetaData block : footer.getBlocks()) {
+        ColumnChunkMetaData column = block.getColumns().get(1);
+        Assert.assertFalse("The bounds should not be read as min and max",
+            column.getStatistics().hasNonNullValue());
+        Assert.assertNotNull(column.getBinaryLowerBound());
+        boolean hasRow = firstRow <= 750 && 750 < firstRow + block.getRowCount();
+        boolean canDrop = StatisticsFilter.canDrop(
+            FilterApi.eq(FilterApi.binaryColumn("url"), Binary.fromString(url(750, suffix))),
+            block.getColumns());
+        Assert.assertFalse("Should keep the row group of the value", hasRow && canDrop);
+        kept += canDrop ? 0 : 1;
+        firstRow += block.getRowCount();
+      }
+      assertEquals("Should drop the other row groups", 1, kept);
+    }
+
+    ParquetReader<Group> reader = ParquetReader.builder(new GroupReadSupport(), path)
+        .withFilter(FilterCompat.get(
+            FilterApi.eq(FilterApi.binaryColumn("url"), Binary.fromString(url(750, suffix)))))
+        .build();
+    Group group = reader.read();
+    assertEquals(750, group.getLong("id", 0));
+    Assert.assertNull(reader.read());
+    reader.close();
+  }
+
+  private static String url(long i, CharSequence suffix) {
+    // the prefix of the second half is not ASCII
+    return (i < 500 ? "a" : "\u00e9") + String.format("%06d", i) + suffix;
+  }
+
+  @Test
+  public void testLocalOutputFile() throws IOException {
+    MessageType schema = parseMessageType(
+        "message test { "
+        + "required int64 id; "
+        + "optional binary name (UTF8); "
+        + "} ");
+    SimpleGroupFactory f = new SimpleGroupFactory(schema);
+    File hadoopFile = temp.newFile();
+    hadoopFile.delete();
+    final File localFile = temp.newFile();
+    for (int i = 0; i < 2; i += 1) {
+      // the second write replaces the file written by the first
+      ParquetWriter<Group> writer = (i == 0
+          ? ExampleParquetWriter.builder(new Path(hadoopFile.toString()))
+          : ExampleParquetWriter.builder(new LocalOutputFile(localFile))
+              .withWriteMode(ParquetFileWriter.Mode.OVERWRITE))
+          .withType(schema)
+          .withPageSize(1024)
+          .build();
+      for (long id = 0; id < 10000; id++) {
+        writer.write(f.newGroup().append("id", id).append("name", "name-" + (id % 100)));
+      }
+      writer.close();
+    }
+    assertArrayEquals(Files.readAllBytes(hadoopFile.toPath()), Files.readAllBytes(localFile.toPath()));
+
+    TestUtils.assertThrows("Should not overwrite an existing file",
+        FileAlreadyExistsException.class, new Callable<Void>() {
+          @Override
+          public Void call() throws IOException {
+            ExampleParquetWriter.builder(new LocalOutputFile(localFile))
+                .withType(parseMessageType("message test { required int64 id; }"))
+                .build();
+            return null;
+          }
+        });
+  }
 }
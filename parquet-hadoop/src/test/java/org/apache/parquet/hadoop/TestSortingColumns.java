@@ -0,0 +1,405 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop;
+
+import static org.apache.parquet.filter2.predicate.FilterApi.and;
+import static org.apache.parquet.filter2.predicate.FilterApi.binaryColumn;
+import static org.apache.parquet.filter2.predicate.FilterApi.eq;
+import static org.apache.parquet.filter2.predicate.FilterApi.gtEq;
+import static org.apache.parquet.filter2.predicate.FilterApi.longColumn;
+import static org.apache.parquet.filter2.predicate.FilterApi.lt;
+import static org.apache.parquet.filter2.predicate.FilterApi.or;
+import static org.apache.parquet.schema.MessageTypeParser.parseMessageType;
+import static org.apache.parquet.column.Encoding.BIT_PACKED;
+import static org.apache.parquet.column.Encoding.PLAIN;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.statistics.LongStatistics;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.compat.RowGroupFilter;
+import org.apache.parquet.filter2.compat.RowGroupFilter.FilterLevel;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.statisticslevel.StatisticsFilter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.io.InvalidRecordException;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestSortingColumns {
+
+  private static final MessageType SCHEMA = parseMessageType(
+      "message test { "
+          + "optional int64 id; "
+          + "required binary name (UTF8); "
+          + "} ");
+
+  @Rule
+  public final TemporaryFolder temp = new TemporaryFolder();
+
+  private final Configuration conf = new Configuration();
+
+  private Path newPath() throws IOException {
+    File file = temp.newFile();
+    file.delete();
+    return new Path(file.toString());
+  }
+
+  private ParquetWriter<Group> newWriter(Path path) throws IOException {
+    return ExampleParquetWriter.builder(path)
+        .withType(SCHEMA)
+        .withRowGroupSize(4 * 1024)
+        .withPageSize(1024)
+        .withDictionaryEncoding(false)
+        .withSortingColumns("id", "name")
+        .build();
+  }
+
+  @Test
+  public void testSortedRowGroupFilter() throws IOException {
+    Path path = newPath();
+    SimpleGroupFactory factory = new SimpleGroupFactory(SCHEMA);
+    ParquetWriter<Group> writer = newWriter(path);
+    try {
+      // nulls are first
+      for (int i = 0; i < 1000; i += 1) {
+        writer.write(factory.newGroup().append("name", "null-" + (1000 + i)));
+      }
+      for (long id = 0; id < 20000; id += 1) {
+        writer.write(factory.newGroup().append("id", id).append("name", "name-" + id));
+      }
+    } finally {
+      writer.close();
+    }
+
+    ParquetFileReader reader = ParquetFileReader.open(HadoopInputFile.fromPath(path, conf));
+    try {
+      List<BlockMetaData> blocks = reader.getRowGroups();
+      assertTrue("Should write several row groups", blocks.size() > 10);
+      for (BlockMetaData block : blocks) {
+        assertEquals(Arrays.asList(ColumnPath.get("id"), ColumnPath.get("name")),
+            block.getSortingColumns());
+      }
+      assertEquals("Should record that the file is sorted", "id,name",
+          reader.getFileMetaData().getKeyValueMetaData()
+              .get(ParquetFileWriter.SORTED_FILE_METADATA_KEY));
+
+      List<FilterLevel> levels = Collections.singletonList(FilterLevel.STATISTICS);
+      FilterPredicate[] predicates = new FilterPredicate[] {
+          and(gtEq(longColumn("id"), 5000L), lt(longColumn("id"), 5100L)),
+          eq(longColumn("id"), 12345L),
+          lt(longColumn("id"), 10L),
+          gtEq(longColumn("id"), 19990L),
+          or(eq(longColumn("id"), 1L), eq(longColumn("id"), 19999L)),
+          gtEq(longColumn("id"), 30000L)
+      };
+      for (FilterPredicate predicate : predicates) {
+        List<BlockMetaData> expected = new ArrayList<BlockMetaData>();
+        for (BlockMetaData block : blocks) {
+          if (!StatisticsFilter.canDrop(predicate, block.getColumns())) {
+            expected.add(block);
+          }
+        }
+        assertEquals("Should match the statistics filter for " + predicate, expected,
+            RowGroupFilter.filterRowGroups(levels, FilterCompat.get(predicate), blocks, reader));
+      }
+    } finally {
+      reader.close();
+    }
+  }
+
+  private List<BlockMetaData> readRowGroups(Path path) throws IOException {
+    ParquetFileReader reader = ParquetFileReader.open(HadoopInputFile.fromPath(path, conf));
+    try {
+      return reader.getRowGroups();
+    } finally {
+      reader.close();
+    }
+  }
+
+  @Test
+  public void testRecordsOutOfOrder() throws IOException {
+    Path path = newPath();
+    SimpleGroupFactory factory = new SimpleGroupFactory(SCHEMA);
+    ParquetWriter<Group> writer = newWriter(path);
+    try {
+      writer.write(factory.newGroup().append("id", 1L).append("name", "b"));
+      writer.write(factory.newGroup().append("id", 1L).append("name", "b"));
+      writer.write(factory.newGroup().append("id", 2L).append("name", "a"));
+      try {
+        writer.write(factory.newGroup().append("id", 2L).append("name", "1"));
+        fail("Should reject a record out of order on the second sorting column");
+      } catch (InvalidRecordException expected) {
+      }
+      // the file is no longer sorted: the following records are not checked
+      writer.write(factory.newGroup().append("id", 0L).append("name", "z"));
+    } finally {
+      writer.close();
+    }
+
+    List<BlockMetaData> blocks = readRowGroups(path);
+    assertEquals(1, blocks.size());
+    assertTrue("Should not declare sorting columns",
+        blocks.get(0).getSortingColumns().isEmpty());
+    assertEquals(5, blocks.get(0).getRowCount());
+  }
+
+  @Test
+  public void testNullAfterNonNull() throws IOException {
+    Path path = newPath();
+    SimpleGroupFactory factory = new SimpleGroupFactory(SCHEMA);
+    ParquetWriter<Group> writer = newWriter(path);
+    try {
+      writer.write(factory.newGroup().append("id", 1L).append("name", "a"));
+      try {
+        writer.write(factory.newGroup().append("name", "z"));
+        fail("Should reject a null after non-null values");
+      } catch (InvalidRecordException expected) {
+      }
+    } finally {
+      writer.close();
+    }
+
+    for (BlockMetaData block : readRowGroups(path)) {
+      assertTrue(block.getSortingColumns().isEmpty());
+    }
+  }
+
+  @Test
+  public void testRecordsOutOfOrderAfterRowGroups() throws IOException {
+    Path path = newPath();
+    SimpleGroupFactory factory = new SimpleGroupFactory(SCHEMA);
+    ParquetWriter<Group> writer = newWriter(path);
+    try {
+      for (long id = 0; id < 5000; id += 1) {
+        writer.write(factory.newGroup().append("id", id).append("name", "name-" + id));
+      }
+      try {
+        writer.write(factory.newGroup().append("id", 100L).append("name", "name-100"));
+        fail("Should reject a record out of order");
+      } catch (InvalidRecordException expected) {
+      }
+      for (long id = 5000; id < 10000; id += 1) {
+        writer.write(factory.newGroup().append("id", id).append("name", "name-" + id));
+      }
+    } finally {
+      writer.close();
+    }
+
+    ParquetFileReader reader = ParquetFileReader.open(HadoopInputFile.fromPath(path, conf));
+    try {
+      List<BlockMetaData> blocks = reader.getRowGroups();
+      assertTrue("Should write several row groups", blocks.size() > 2);
+      for (BlockMetaData block : blocks) {
+        assertTrue("Should drop the sorting columns of every row group",
+            block.getSortingColumns().isEmpty());
+      }
+      assertNull("Should not record that the file is sorted",
+          reader.getFileMetaData().getKeyValueMetaData()
+              .get(ParquetFileWriter.SORTED_FILE_METADATA_KEY));
+
+      // the row groups are not pruned by the sort key, so the record is found
+      FilterPredicate predicate = eq(longColumn("id"), 100L);
+      List<BlockMetaData> expected = new ArrayList<BlockMetaData>();
+      for (BlockMetaData block : blocks) {
+        if (!StatisticsFilter.canDrop(predicate, block.getColumns())) {
+          expected.add(block);
+        }
+      }
+      assertTrue(expected.size() > 1);
+      assertEquals(expected, RowGroupFilter.filterRowGroups(
+          Collections.singletonList(FilterLevel.STATISTICS),
+          FilterCompat.get(predicate), blocks, reader));
+    } finally {
+      reader.close();
+    }
+  }
+
+  @Test
+  public void testUnsignedStringOrder() throws IOException {
+    Path path = newPath();
+    SimpleGroupFactory factory = new SimpleGroupFactory(SCHEMA);
+    ParquetWriter<Group> writer = newWriter(path);
+    try {
+      // sorted by unsigned bytes: 'z' (0x7A) comes before 'é' (0xC3 0xA9)
+      writer.write(factory.newGroup().append("id", 1L).append("name", "a"));
+      writer.write(factory.newGroup().append("id", 1L).append("name", "z"));
+      writer.write(factory.newGroup().append("id", 1L).append("name", "\u00e9"));
+      writer.write(factory.newGroup().append("id", 1L).append("name", "\u00e9t\u00e9"));
+      writer.write(factory.newGroup().append("id", 1L).append("name", "\u4e2d"));
+    } finally {
+      writer.close();
+    }
+
+    for (BlockMetaData block : readRowGroups(path)) {
+      assertEquals(Arrays.asList(ColumnPath.get("id"), ColumnPath.get("name")),
+          block.getSortingColumns());
+    }
+  }
+
+  @Test
+  public void testBinarySortKeyKeepsAllRowGroups() throws IOException {
+    Path path = newPath();
+    SimpleGroupFactory factory = new SimpleGroupFactory(SCHEMA);
+    ParquetWriter<Group> writer = ExampleParquetWriter.builder(path)
+        .withType(SCHEMA)
+        .withRowGroupSize(4 * 1024)
+        .withPageSize(1024)
+        .withDictionaryEncoding(false)
+        .withSortingColumns("name")
+        .build();
+    try {
+      // sorted as unsigned bytes, the non-ASCII names are signed minimums
+      for (int i = 0; i < 1000; i += 1) {
+        writer.write(factory.newGroup().append("name", "a-" + (1000 + i)));
+      }
+      for (int i = 0; i < 1000; i += 1) {
+        writer.write(factory.newGroup().append("name", "\u00e9-" + (1000 + i)));
+      }
+    } finally {
+      writer.close();
+    }
+
+    Configuration signedConf = new Configuration(conf);
+    signedConf.setBoolean("parquet.strings.signed-min-max.enabled", true);
+    ParquetFileReader reader = ParquetFileReader.open(HadoopInputFile.fromPath(path, signedConf));
+    try {
+      List<BlockMetaData> blocks = reader.getRowGroups();
+      assertTrue("Should write several row groups", blocks.size() > 2);
+      FilterPredicate predicate = eq(binaryColumn("name"), Binary.fromString("a-1500"));
+      List<BlockMetaData> expected = new ArrayList<BlockMetaData>();
+      for (BlockMetaData block : blocks) {
+        if (!StatisticsFilter.canDrop(predicate, block.getColumns())) {
+          expected.add(block);
+        }
+      }
+      assertEquals(expected, RowGroupFilter.filterRowGroups(
+          Collections.singletonList(FilterLevel.STATISTICS),
+          FilterCompat.get(predicate), blocks, reader));
+    } finally {
+      reader.close();
+    }
+  }
+
+  @Test
+  public void testUnsortedFilesKeepAllRowGroups() throws IOException {
+    Path path = newPath();
+    SimpleGroupFactory factory = new SimpleGroupFactory(SCHEMA);
+    ParquetWriter<Group> writer = ExampleParquetWriter.builder(path)
+        .withType(SCHEMA)
+        .withRowGroupSize(4 * 1024)
+        .build();
+    try {
+      for (long id = 0; id < 5000; id += 1) {
+        writer.write(factory.newGroup().append("id", id % 7).append("name", "name-" + id));
+      }
+    } finally {
+      writer.close();
+    }
+
+    ParquetFileReader reader = ParquetFileReader.open(HadoopInputFile.fromPath(path, conf));
+    try {
+      List<BlockMetaData> blocks = reader.getRowGroups();
+      for (BlockMetaData block : blocks) {
+        assertTrue(block.getSortingColumns().isEmpty());
+      }
+      assertEquals(blocks, RowGroupFilter.filterRowGroups(
+          Collections.singletonList(FilterLevel.STATISTICS),
+          FilterCompat.get(eq(longColumn("id"), 3L)), blocks, reader));
+    } finally {
+      reader.close();
+    }
+  }
+
+  @Test
+  public void testRowGroupsSortedSeparately() throws IOException {
+    // another writer may declare the sorting columns of each row group
+    // without ordering the row groups against each other
+    MessageType schema = parseMessageType("message test { required int64 id; }");
+    ColumnDescriptor id = schema.getColumnDescription(new String[] {"id"});
+    Path path = newPath();
+    ParquetFileWriter writer = new ParquetFileWriter(conf, schema, path);
+    writer.setSortingColumns(Collections.singletonList(ColumnPath.get("id")));
+    writer.start();
+    for (long first : new long[] {20, 0, 10}) {
+      LongStatistics stats = new LongStatistics();
+      stats.setMinMax(first, first + 9);
+      writer.startBlock(10);
+      writer.startColumn(id, 10, CompressionCodecName.UNCOMPRESSED);
+      writer.writeDataPage(10, 80, BytesInput.from(new byte[80]), stats, BIT_PACKED, BIT_PACKED, PLAIN);
+      writer.endColumn();
+      writer.endBlock();
+    }
+    writer.end(new HashMap<String, String>());
+
+    ParquetFileReader reader = ParquetFileReader.open(HadoopInputFile.fromPath(path, conf));
+    try {
+      List<BlockMetaData> blocks = reader.getRowGroups();
+      assertEquals(3, blocks.size());
+      for (BlockMetaData block : blocks) {
+        assertEquals(Collections.singletonList(ColumnPath.get("id")), block.getSortingColumns());
+      }
+      assertNull("Should not record that the file is sorted",
+          reader.getFileMetaData().getKeyValueMetaData()
+              .get(ParquetFileWriter.SORTED_FILE_METADATA_KEY));
+
+      List<FilterLevel> levels = Collections.singletonList(FilterLevel.STATISTICS);
+      assertEquals("Should keep the first row group",
+          Collections.singletonList(blocks.get(0)),
+          RowGroupFilter.filterRowGroups(levels,
+              FilterCompat.get(eq(longColumn("id"), 25L)), blocks, reader));
+      for (long value = -1; value <= 30; value += 1) {
+        FilterPredicate predicate = gtEq(longColumn("id"), value);
+        List<BlockMetaData> expected = new ArrayList<BlockMetaData>();
+        for (BlockMetaData block : blocks) {
+          if (!StatisticsFilter.canDrop(predicate, block.getColumns())) {
+            expected.add(block);
+          }
+        }
+        assertEquals("Should not lose row groups for " + predicate, expected,
+            RowGroupFilter.filterRowGroups(levels, FilterCompat.get(predicate), blocks, reader));
+      }
+    } finally {
+      reader.close();
+    }
+  }
+}
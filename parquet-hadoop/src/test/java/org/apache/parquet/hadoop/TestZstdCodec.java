@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import org.apache.hadoop.conf.Configurable;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.compress.CompressionInputStream;
+import org.apache.hadoop.io.compress.CompressionOutputStream;
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.hadoop.codec.Zstd;
+import org.apache.parquet.hadoop.codec.ZstdCodec;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class TestZstdCodec {
+
+  private static byte[] text(int length) {
+    byte[] bytes = new byte[length];
+    Random random = new Random(42);
+    for (int i = 0; i < length; i += 1) {
+      // few distinct words compress well
+      bytes[i] = (byte) ('a' + (i % 7 == 0 ? random.nextInt(26) : (i / 7) % 5));
+    }
+    return bytes;
+  }
+
+  private static byte[] words(int length) {
+    String[] words = { "parquet ", "column ", "page ", "row ", "group ", "value " };
+    StringBuilder text = new StringBuilder();
+    Random random = new Random(42);
+    while (text.length() < length) {
+      text.append(words[random.nextInt(words.length)]);
+    }
+    return text.substring(0, length).getBytes();
+  }
+
+  private static byte[] random(int length) {
+    byte[] bytes = new byte[length];
+    new Random(42).nextBytes(bytes);
+    return bytes;
+  }
+
+  private static ByteBuffer allocate(int size, boolean direct) {
+    return direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+  }
+
+  private static void assertFrameRoundTrip(byte[] input, boolean directIn, boolean directOut) throws IOException {
+    ByteBuffer src = allocate(input.length, directIn);
+    src.put(input);
+    src.flip();
+    int maxLength = Zstd.maxCompressedLength(input.length);
+    ByteBuffer compressed = allocate(maxLength, directOut);
+    int size = Zstd.compress(src, compressed, Zstd.DEFAULT_LEVEL);
+    assertEquals(size, compressed.position());
+    assertEquals(src.limit(), src.position());
+    assertTrue(size <= maxLength);
+    compressed.flip();
+
+    ByteBuffer dst = allocate(input.length, directIn);
+    assertEquals(input.length, Zstd.decompress(compressed.duplicate(), dst));
+    byte[] output = new byte[input.length];
+    dst.flip();
+    dst.get(output);
+    assertArrayEquals(input, output);
+
+    // the frames store their size
+    ByteBuffer unsized = Zstd.decompress(compressed);
+    assertEquals(input.length, unsized.remaining());
+    unsized.get(output);
+    assertArrayEquals(input, output);
+  }
+
+  @Test
+  public void testFrames() throws IOException {
+    for (boolean directIn : new boolean[] { false, true }) {
+      for (boolean directOut : new boolean[] { false, true }) {
+        for (int length : new int[] { 0, 1, 100, 64 * 1024, 1024 * 1024 }) {
+          assertFrameRoundTrip(text(length), directIn, directOut);
+          assertFrameRoundTrip(random(length), directIn, directOut);
+          assertFrameRoundTrip(new byte[length], directIn, directOut);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testCompressionLevel() throws IOException {
+    Assume.assumeTrue(Zstd.isNativeLoaded());
+    byte[] input = words(1024 * 1024);
+    ByteBuffer fast = ByteBuffer.allocate(Zstd.maxCompressedLength(input.length));
+    ByteBuffer best = ByteBuffer.allocate(Zstd.maxCompressedLength(input.length));
+    int fastSize = Zstd.compress(ByteBuffer.wrap(input), fast, 1);
+    int bestSize = Zstd.compress(ByteBuffer.wrap(input), best, 19);
+    assertTrue("Should compress repeated text: " + fastSize, fastSize < input.length / 2);
+    assertTrue("Higher levels should compress better: " + bestSize + " > " + fastSize, bestSize < fastSize);
+  }
+
+  @Test(expected = IOException.class)
+  public void testMalformedFrame() throws IOException {
+    byte[] input = text(1024);
+    ByteBuffer compressed = ByteBuffer.allocate(Zstd.maxCompressedLength(input.length));
+    Zstd.compress(ByteBuffer.wrap(input), compressed, Zstd.DEFAULT_LEVEL);
+    compressed.flip();
+    // the frame decompresses to more bytes than available
+    Zstd.decompress(compressed, ByteBuffer.allocate(input.length / 2));
+  }
+
+  @Test
+  public void testStreamedFrames() throws IOException {
+    Assume.assumeTrue(Zstd.isNativeLoaded());
+    // streaming compressors do not store the size of the frames
+    byte[] input = text(1024 * 1024);
+    ByteArrayOutputStream compressedStream = new ByteArrayOutputStream();
+    ZstdOutputStream out = new ZstdOutputStream(compressedStream);
+    for (int off = 0; off < input.length; off += 1000) {
+      out.write(input, off, Math.min(1000, input.length - off));
+    }
+    out.close();
+
+    ByteBuffer output = Zstd.decompress(ByteBuffer.wrap(compressedStream.toByteArray()));
+    byte[] bytes = new byte[output.remaining()];
+    output.get(bytes);
+    assertArrayEquals(input, bytes);
+  }
+
+  @Test
+  public void testPureJavaFrames() throws IOException {
+    // frames written without zstd-jni are read the same way
+    Assume.assumeTrue("aircompressor does not support this JVM", Zstd.isPureJavaAvailable());
+    io.airlift.compress.zstd.ZstdCompressor compressor = new io.airlift.compress.zstd.ZstdCompressor();
+    byte[] input = text(256 * 1024);
+    byte[] compressed = new byte[compressor.maxCompressedLength(input.length)];
+    int size = compressor.compress(input, 0, input.length, compressed, 0, compressed.length);
+
+    ByteBuffer dst = ByteBuffer.allocateDirect(input.length);
+    assertEquals(input.length, Zstd.decompress(ByteBuffer.wrap(compressed, 0, size), dst));
+    byte[] output = new byte[input.length];
+    dst.flip();
+    dst.get(output);
+    assertArrayEquals(input, output);
+  }
+
+  @Test
+  public void testStream() throws IOException {
+    ZstdCodec codec = new ZstdCodec();
+    codec.setConf(new Configuration());
+
+    for (byte[] input : new byte[][] { new byte[0], text(100 * 1024), random(100 * 1024) }) {
+      ByteArrayOutputStream compressedStream = new ByteArrayOutputStream();
+      CompressionOutputStream out = codec.createOutputStream(compressedStream);
+      for (int off = 0; off < input.length; off += 1000) {
+        out.write(input, off, Math.min(1000, input.length - off));
+      }
+      out.finish();
+      out.close();
+
+      CompressionInputStream in = codec.createInputStream(
+          new ByteArrayInputStream(compressedStream.toByteArray()));
+      byte[] output = BytesInput.from(in, input.length).toByteArray();
+      assertArrayEquals(input, output);
+      in.close();
+    }
+  }
+
+  @Test
+  public void testCodecFactory() throws IOException {
+    byte[] input = text(1024 * 1024);
+    Configuration conf = new Configuration();
+    conf.setInt(ParquetOutputFormat.ZSTD_COMPRESSION_LEVEL, 9);
+    CodecFactory codecFactory = new CodecFactory(conf, 64 * 1024);
+    try {
+      Configurable codec = (Configurable) codecFactory.getCodec(CompressionCodecName.ZSTD);
+      assertEquals(9, ZstdCodec.getLevel(codec.getConf()));
+      CodecFactory.BytesCompressor compressor = codecFactory.getCompressor(CompressionCodecName.ZSTD);
+      BytesInput compressed = BytesInput.copy(compressor.compress(BytesInput.from(input)));
+      assertTrue(compressed.size() < input.length);
+      CodecFactory.BytesDecompressor decompressor = codecFactory.getDecompressor(CompressionCodecName.ZSTD);
+      assertArrayEquals(input, decompressor.decompress(compressed, input.length).toByteArray());
+    } finally {
+      codecFactory.release();
+    }
+  }
+}
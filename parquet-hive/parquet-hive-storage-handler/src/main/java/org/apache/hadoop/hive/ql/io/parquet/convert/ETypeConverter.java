@@ -111,6 +111,8 @@ public enum ETypeConverter {
     @Override
     Converter getConverter(final Class<?> type, final int index, final HiveGroupConverter parent) {
       return new PrimitiveConverter() {
+        // strings are decoded the first time their dictionary id is used
+        private Dictionary dictionary;
         private Binary[] dictBinary;
         private String[] dict;
 
@@ -121,18 +123,19 @@ public enum ETypeConverter {
 
         @Override
         public void setDictionary(Dictionary dictionary) {
+          this.dictionary = dictionary;
           dictBinary = new Binary[dictionary.getMaxId() + 1];
           dict = new String[dictionary.getMaxId() + 1];
-          for (int i = 0; i <= dictionary.getMaxId(); i++) {
-            Binary binary = dictionary.decodeToBinary(i);
-            dictBinary[i] = binary;
-            dict[i] = binary.toStringUsingUTF8();
-          }
         }
 
         @Override
         public void addValueFromDictionary(int dictionaryId) {
-          parent.set(index, new DicBinaryWritable(dictBinary[dictionaryId],  dict[dictionaryId]));
+          if (dictBinary[dictionaryId] == null) {
+            Binary binary = dictionary.decodeToBinary(dictionaryId);
+            dict[dictionaryId] = binary.toStringUsingUTF8();
+            dictBinary[dictionaryId] = binary;
+          }
+          parent.set(index, new DicBinaryWritable(dictBinary[dictionaryId], dict[dictionaryId]));
         }
 
         @Override
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hadoop.hive.ql.io.parquet.convert;
+
+import junit.framework.TestCase;
+
+import org.apache.hadoop.hive.ql.io.parquet.writable.BinaryWritable;
+import org.apache.hadoop.io.Writable;
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.column.Encoding;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.Converter;
+import org.apache.parquet.io.api.PrimitiveConverter;
+import org.junit.Test;
+
+public class TestETypeConverter extends TestCase {
+
+  private static class CountingDictionary extends Dictionary {
+    private final String[] values;
+    private int decodeCount = 0;
+
+    CountingDictionary(String... values) {
+      super(Encoding.PLAIN_DICTIONARY);
+      this.values = values;
+    }
+
+    @Override
+    public Binary decodeToBinary(int id) {
+      decodeCount += 1;
+      return Binary.fromString(values[id]);
+    }
+
+    @Override
+    public int getMaxId() {
+      return values.length - 1;
+    }
+  }
+
+  private static class LastValueConverter extends HiveGroupConverter {
+    private Writable value;
+
+    @Override
+    protected void set(int index, Writable value) {
+      this.value = value;
+    }
+
+    @Override
+    protected void add(int index, Writable value) {
+      this.value = value;
+    }
+
+    @Override
+    public Converter getConverter(int fieldIndex) {
+      return null;
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public void end() {
+    }
+  }
+
+  @Test
+  public void testDictionaryStrings() {
+    LastValueConverter parent = new LastValueConverter();
+    PrimitiveConverter converter = ETypeConverter.getNewConverter(Binary.class, 0, parent)
+        .asPrimitiveConverter();
+    assertTrue(converter.hasDictionarySupport());
+
+    CountingDictionary dictionary = new CountingDictionary("a", "b", "c");
+    converter.setDictionary(dictionary);
+    assertEquals("Entries should be decoded when used", 0, dictionary.decodeCount);
+
+    converter.addValueFromDictionary(2);
+    assertEquals("c", ((BinaryWritable) parent.value).getString());
+    converter.addValueFromDictionary(0);
+    assertEquals("a", ((BinaryWritable) parent.value).getString());
+    converter.addValueFromDictionary(2);
+    assertEquals("c", ((BinaryWritable) parent.value).getString());
+    assertEquals(Binary.fromString("c"), ((BinaryWritable) parent.value).getBinary());
+    assertEquals("Entries should be decoded once", 2, dictionary.decodeCount);
+  }
+}